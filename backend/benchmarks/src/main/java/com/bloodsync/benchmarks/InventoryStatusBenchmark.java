@@ -0,0 +1,78 @@
+package com.bloodsync.benchmarks;
+
+import com.bloodsync.dto.BloodInventoryDto;
+import com.bloodsync.entity.BloodInventory;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.repository.BloodInventoryRepository;
+import com.bloodsync.repository.HospitalRepository;
+import com.bloodsync.service.BloodInventoryService;
+import com.bloodsync.service.DemandForecastService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+// Status recalculation on the inventory write paths, over quantities that
+// straddle the out-of-stock threshold and the default reorder point
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class InventoryStatusBenchmark {
+
+    private static final int UPDATES = 1024;
+
+    private BloodInventoryService bloodInventoryService;
+    private BloodInventory existing;
+    private BloodInventoryDto[] updates;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(42, 50);
+        List<BloodInventory> inventory = data.inventory();
+        existing = inventory.get(0);
+
+        updates = new BloodInventoryDto[UPDATES];
+        for (int i = 0; i < UPDATES; i++) {
+            BloodInventoryDto update = new BloodInventoryDto();
+            update.setHospitalId(existing.getHospital().getId());
+            update.setBloodGroup(existing.getBloodGroup().label());
+            update.setAvailableQuantity(data.quantity());
+            update.setTotalQuantity(update.getAvailableQuantity());
+            updates[i] = update;
+        }
+
+        ServiceFactory factory = new ServiceFactory();
+        BloodInventoryRepository bloodInventoryRepository = factory.mock(BloodInventoryRepository.class);
+        when(bloodInventoryRepository.findById(anyLong())).thenReturn(Optional.of(existing));
+        when(bloodInventoryRepository.save(any(BloodInventory.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        // Intake upserts in the database and reads the live row back
+        when(bloodInventoryRepository.findLiveStock(anyLong(), any())).thenReturn(Optional.of(existing));
+        when(factory.mock(HospitalRepository.class).findById(anyLong())).thenReturn(Optional.of(existing.getHospital()));
+        DemandForecastService demandForecastService = factory.create(DemandForecastService.class);
+        ServiceFactory.setField(demandForecastService, "defaultReorderPoint", 1000L);
+        bloodInventoryService = factory.create(BloodInventoryService.class);
+    }
+
+    @Benchmark
+    public BloodInventoryDto update() {
+        return bloodInventoryService.updateBloodInventory(existing.getId(), nextUpdate());
+    }
+
+    @Benchmark
+    public BloodInventoryDto create() {
+        return bloodInventoryService.createBloodInventory(nextUpdate());
+    }
+
+    private BloodInventoryDto nextUpdate() {
+        return updates[next++ & (UPDATES - 1)];
+    }
+}
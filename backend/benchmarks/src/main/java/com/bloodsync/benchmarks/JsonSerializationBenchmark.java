@@ -0,0 +1,144 @@
+package com.bloodsync.benchmarks;
+
+import com.bloodsync.dto.*;
+import com.bloodsync.entity.Donor;
+import com.bloodsync.entity.Hospital;
+import com.bloodsync.entity.Patient;
+import com.bloodsync.repository.*;
+import com.bloodsync.service.*;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+// Response bodies as the web layer writes them: a page of each DTO type
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"100", "1000"})
+    private int size;
+
+    // Same defaults Spring MVC applies: java.time support, ISO dates
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private List<DonorDto> donors;
+    private List<PatientDto> patients;
+    private List<BloodDonationDto> donations;
+    private List<BloodRequestDto> requests;
+    private List<BloodInventoryDto> inventory;
+    private List<AdminDto> admins;
+    private List<Hospital> hospitals;
+    private List<DonorMatchDto> donorMatches;
+    private DashboardDto dashboard;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(42, Math.max(10, size / 8));
+        List<Donor> donorList = data.donors(size);
+        List<Patient> patientList = data.patients(size);
+
+        ServiceFactory factory = new ServiceFactory();
+        when(factory.mock(DonorRepository.class).findAll()).thenReturn(donorList);
+        when(factory.mock(PatientRepository.class).findAll()).thenReturn(patientList);
+        when(factory.mock(BloodDonationRepository.class).findAll()).thenReturn(data.donations(donorList, size));
+        when(factory.mock(BloodRequestRepository.class).findAll()).thenReturn(data.requests(patientList, size));
+        when(factory.mock(BloodInventoryRepository.class).findAll()).thenReturn(data.inventory());
+        when(factory.mock(AdminRepository.class).findAll()).thenReturn(data.admins(size));
+
+        donors = factory.create(DonorService.class).getAllDonors();
+        patients = factory.create(PatientService.class).getAllPatients();
+        donations = factory.create(BloodDonationService.class).getAllBloodDonations();
+        requests = factory.create(BloodRequestService.class).getAllBloodRequests();
+        List<BloodInventoryDto> allInventory = factory.create(BloodInventoryService.class).getAllBloodInventory();
+        inventory = allInventory.subList(0, Math.min(size, allInventory.size()));
+        admins = factory.create(AdminService.class).getAllAdmins();
+        hospitals = data.hospitals();
+        donorMatches = donorMatches(donorList);
+        dashboard = dashboard(inventory);
+    }
+
+    @Benchmark
+    public byte[] donors() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(donors);
+    }
+
+    @Benchmark
+    public byte[] patients() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(patients);
+    }
+
+    @Benchmark
+    public byte[] donations() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(donations);
+    }
+
+    @Benchmark
+    public byte[] requests() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(requests);
+    }
+
+    @Benchmark
+    public byte[] inventory() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(inventory);
+    }
+
+    @Benchmark
+    public byte[] admins() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(admins);
+    }
+
+    // Hospital endpoints return the entity itself
+    @Benchmark
+    public byte[] hospitals() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(hospitals);
+    }
+
+    @Benchmark
+    public byte[] donorMatches() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(donorMatches);
+    }
+
+    @Benchmark
+    public byte[] dashboard() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dashboard);
+    }
+
+    private static List<DonorMatchDto> donorMatches(List<Donor> donors) {
+        List<DonorMatchDto> matches = new ArrayList<>();
+        for (Donor donor : donors.subList(0, Math.min(100, donors.size()))) {
+            matches.add(new DonorMatchDto(donor.getId(), donor.getFirstName(), donor.getLastName(),
+                    donor.getPhoneNumber(), donor.getBloodGroup().label(), donor.getCity(), donor.getState(),
+                    donor.getLastDonationDate(), true, false, true, null));
+        }
+        return matches;
+    }
+
+    private static DashboardDto dashboard(List<BloodInventoryDto> inventory) {
+        Map<Long, DashboardDto.HospitalInventory> byHospital = new LinkedHashMap<>();
+        for (BloodInventoryDto row : inventory) {
+            byHospital.computeIfAbsent(row.getHospitalId(), id ->
+                    new DashboardDto.HospitalInventory(id, row.getHospitalName(), new TreeMap<>()))
+                    .getAvailableByBloodGroup()
+                    .merge(row.getBloodGroup(), row.getAvailableQuantity().longValue(), Long::sum);
+        }
+        DashboardDto dashboard = new DashboardDto();
+        dashboard.setGeneratedAt(LocalDateTime.of(2024, 6, 1, 9, 0));
+        dashboard.setInventoryByHospital(new ArrayList<>(byHospital.values()));
+        dashboard.setOpenRequestsByPriority(Collections.singletonMap("EMERGENCY", 3L));
+        dashboard.setDonationsThisWeek(new DashboardDto.QuantitySummary(120, 54000));
+        dashboard.setExpiringUnits(new DashboardDto.QuantitySummary(14, 6300));
+        dashboard.setExpiringWithinDays(7);
+        return dashboard;
+    }
+}
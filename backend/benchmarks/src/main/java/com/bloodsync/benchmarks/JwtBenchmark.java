@@ -0,0 +1,80 @@
+package com.bloodsync.benchmarks;
+
+import com.bloodsync.entity.TokenEpoch;
+import com.bloodsync.enums.UserRole;
+import com.bloodsync.repository.RevokedTokenRepository;
+import com.bloodsync.repository.TokenEpochRepository;
+import com.bloodsync.security.JwtTokenUtil;
+import com.bloodsync.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+// Token signing and the parse paths hit by JwtAuthenticationFilter on every request
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private static final int REVOKED_TOKENS = 50_000;
+    private static final int REVOKED_USERS = 1_000;
+
+    private JwtTokenUtil jwtTokenUtil;
+    private TokenRevocationService tokenRevocationService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenUtil = new JwtTokenUtil();
+        ServiceFactory.setField(jwtTokenUtil, "secret", "bloodSyncSecretKeyForJWTTokenGenerationAndValidation2024");
+        ServiceFactory.setField(jwtTokenUtil, "jwtExpiration", 3600000L);
+        ServiceFactory.setField(jwtTokenUtil, "refreshExpiration", 86400000L);
+        token = jwtTokenUtil.generateToken(42L, "hospital.admin@example.com", UserRole.HOSPITAL);
+
+        // A revocation mirror holding other tokens and users, as after a busy hour
+        List<String> revoked = new ArrayList<>();
+        for (int i = 0; i < REVOKED_TOKENS; i++) {
+            revoked.add(UUID.randomUUID().toString());
+        }
+        List<TokenEpoch> epochs = new ArrayList<>();
+        for (long userId = 1000; userId < 1000 + REVOKED_USERS; userId++) {
+            epochs.add(new TokenEpoch(userId, LocalDateTime.now().minusMinutes(5)));
+        }
+        ServiceFactory factory = new ServiceFactory();
+        when(factory.mock(RevokedTokenRepository.class).findLiveIds(any())).thenReturn(revoked);
+        when(factory.mock(TokenEpochRepository.class).findByRevokedBeforeAfter(any())).thenReturn(epochs);
+        tokenRevocationService = factory.create(TokenRevocationService.class);
+        ServiceFactory.setField(tokenRevocationService, "jwtExpiration", 3600000L);
+        ServiceFactory.setField(tokenRevocationService, "expectedTokens", 100_000L);
+        ServiceFactory.setField(tokenRevocationService, "falsePositiveRate", 0.001);
+        tokenRevocationService.reload();
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtTokenUtil.generateToken(42L, "hospital.admin@example.com", UserRole.HOSPITAL);
+    }
+
+    @Benchmark
+    public String parse() {
+        return jwtTokenUtil.extractUsername(token);
+    }
+
+    // What the filter does per request: one parse, then the in-memory revocation check
+    @Benchmark
+    public boolean authenticate() {
+        Claims claims = jwtTokenUtil.extractAllClaims(token);
+        return tokenRevocationService.isRevoked(claims.getId(), JwtTokenUtil.userId(claims), JwtTokenUtil.issuedAtMillis(claims));
+    }
+}
@@ -0,0 +1,92 @@
+package com.bloodsync.benchmarks;
+
+import com.bloodsync.dto.*;
+import com.bloodsync.entity.Donor;
+import com.bloodsync.entity.Patient;
+import com.bloodsync.repository.*;
+import com.bloodsync.service.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+// Entity -> DTO mapping through each service's list endpoint, repositories stubbed
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    @Param({"1000", "10000"})
+    private int size;
+
+    private DonorService donorService;
+    private PatientService patientService;
+    private BloodDonationService bloodDonationService;
+    private BloodRequestService bloodRequestService;
+    private BloodInventoryService bloodInventoryService;
+    private AdminService adminService;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(42, Math.max(10, size / 100));
+        List<Donor> donors = data.donors(size);
+        List<Patient> patients = data.patients(size);
+
+        ServiceFactory factory = new ServiceFactory();
+        when(factory.mock(DonorRepository.class).findAll()).thenReturn(donors);
+        when(factory.mock(DonorRepository.class).findByIsActiveTrue()).thenReturn(donors);
+        when(factory.mock(PatientRepository.class).findAll()).thenReturn(patients);
+        when(factory.mock(BloodDonationRepository.class).findAll()).thenReturn(data.donations(donors, size));
+        when(factory.mock(BloodRequestRepository.class).findAll()).thenReturn(data.requests(patients, size));
+        when(factory.mock(BloodInventoryRepository.class).findAll()).thenReturn(data.inventory());
+        when(factory.mock(AdminRepository.class).findAll()).thenReturn(data.admins(size));
+
+        donorService = factory.create(DonorService.class);
+        patientService = factory.create(PatientService.class);
+        bloodDonationService = factory.create(BloodDonationService.class);
+        bloodRequestService = factory.create(BloodRequestService.class);
+        bloodInventoryService = factory.create(BloodInventoryService.class);
+        adminService = factory.create(AdminService.class);
+    }
+
+    @Benchmark
+    public List<DonorDto> donors() {
+        return donorService.getAllDonors();
+    }
+
+    @Benchmark
+    public List<DonorDto> publicDonors() {
+        return donorService.getPublicDonors();
+    }
+
+    @Benchmark
+    public List<PatientDto> patients() {
+        return patientService.getAllPatients();
+    }
+
+    @Benchmark
+    public List<BloodDonationDto> donations() {
+        return bloodDonationService.getAllBloodDonations();
+    }
+
+    @Benchmark
+    public List<BloodRequestDto> requests() {
+        return bloodRequestService.getAllBloodRequests();
+    }
+
+    // One row per hospital and blood group, so this scales with size / 100 * 8
+    @Benchmark
+    public List<BloodInventoryDto> inventory() {
+        return bloodInventoryService.getAllBloodInventory();
+    }
+
+    @Benchmark
+    public List<AdminDto> admins() {
+        return adminService.getAllAdmins();
+    }
+}
@@ -0,0 +1,58 @@
+package com.bloodsync.benchmarks;
+
+import com.bloodsync.controller.PublicController;
+import com.bloodsync.entity.Donor;
+import com.bloodsync.repository.BloodDonationRepository;
+import com.bloodsync.repository.BloodInventoryRepository;
+import com.bloodsync.repository.DonorRepository;
+import com.bloodsync.repository.HospitalRepository;
+import com.bloodsync.service.BloodDonationService;
+import com.bloodsync.service.BloodInventoryService;
+import com.bloodsync.service.DonorService;
+import com.bloodsync.service.HospitalService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+// GET /api/public/blood-stats end to end below the web layer: loads, maps and groups everything
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PublicStatsBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int donors;
+
+    private PublicController publicController;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(42, Math.max(10, donors / 100));
+        List<Donor> donorList = data.donors(donors);
+
+        ServiceFactory factory = new ServiceFactory();
+        when(factory.mock(DonorRepository.class).findByIsActiveTrue()).thenReturn(donorList);
+        when(factory.mock(HospitalRepository.class).countByIsActiveTrue()).thenReturn((long) data.hospitals().size());
+        when(factory.mock(BloodDonationRepository.class).findAll()).thenReturn(data.donations(donorList, donors * 2));
+        when(factory.mock(BloodInventoryRepository.class).findAll()).thenReturn(data.inventory());
+
+        factory.create(DonorService.class);
+        factory.create(HospitalService.class);
+        factory.create(BloodDonationService.class);
+        factory.create(BloodInventoryService.class);
+        publicController = factory.create(PublicController.class);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> bloodStats() {
+        return publicController.getBloodDonationStats();
+    }
+}
@@ -0,0 +1,96 @@
+package com.bloodsync.benchmarks;
+
+import com.bloodsync.ratelimit.RateLimitFilter;
+import com.bloodsync.ratelimit.RateLimitProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Overhead RateLimitFilter adds to a request that is let through: route match plus a bucket
+// CAS, for one busy client and for requests spread over many addresses
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimitBenchmark {
+
+    private static final int ADDRESSES = 10_000;
+
+    private RateLimitFilter filter;
+    private HttpServletRequest[] requests;
+    private HttpServletResponse response;
+    private final FilterChain chain = (request, response) -> { };
+
+    @Setup
+    public void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        // Refill fast enough that no request is refused, so only the allowed path is measured
+        properties.setRoutes(List.of(
+                route("/api/auth/login", RateLimitProperties.Key.IP),
+                route("/api/auth/register", RateLimitProperties.Key.IP),
+                route("/api/public/**", RateLimitProperties.Key.IP),
+                route("/api/**", RateLimitProperties.Key.USER)));
+        filter = new RateLimitFilter(properties, new ObjectMapper(), new SimpleMeterRegistry());
+
+        requests = new HttpServletRequest[ADDRESSES];
+        for (int i = 0; i < ADDRESSES; i++) {
+            requests[i] = request("/api/public/blood-stats", "10." + (i >> 16) + "." + ((i >> 8) & 255) + "." + (i & 255));
+        }
+        response = (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {HttpServletResponse.class}, (proxy, method, args) -> null);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public void oneClient() throws Exception {
+        filter.doFilter(requests[0], response, chain);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void oneClientContended() throws Exception {
+        filter.doFilter(requests[0], response, chain);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void manyClients(Cursor cursor) throws Exception {
+        cursor.next = (cursor.next + 1) % ADDRESSES;
+        filter.doFilter(requests[cursor.next], response, chain);
+    }
+
+    // A plain proxy rather than a Mockito mock: Mockito walks the stack on every call, which would
+    // cost far more than the filter being measured
+    private static HttpServletRequest request(String uri, String address) {
+        return (HttpServletRequest) Proxy.newProxyInstance(RateLimitBenchmark.class.getClassLoader(),
+                new Class<?>[] {HttpServletRequest.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getRequestURI" -> uri;
+                    case "getRemoteAddr" -> address;
+                    case "getDispatcherType" -> DispatcherType.REQUEST;
+                    default -> method.getReturnType() == boolean.class ? Boolean.FALSE : null;
+                });
+    }
+
+    private static RateLimitProperties.Route route(String pattern, RateLimitProperties.Key key) {
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setPattern(pattern);
+        route.setKey(key);
+        route.setCapacity(1_000_000_000);
+        route.setRefillPerSecond(1_000_000_000);
+        return route;
+    }
+}
@@ -0,0 +1,65 @@
+package com.bloodsync.benchmarks;
+
+import org.mockito.Mockito;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.mockito.Mockito.withSettings;
+
+// Wires services and controllers the way Spring would, substituting stub-only mocks for
+// any collaborator that has not been created or registered. Constructors are resolved
+// reflectively so benchmarks keep compiling as service dependencies change.
+public final class ServiceFactory {
+
+    private final Map<Class<?>, Object> collaborators = new LinkedHashMap<>();
+
+    public <T> T mock(Class<T> type) {
+        // Stub-only: no invocation recording, so long runs don't accumulate garbage
+        return type.cast(collaborators.computeIfAbsent(type, t -> Mockito.mock(t, withSettings().stubOnly())));
+    }
+
+    // Supplies a real collaborator, e.g. one that loads reference data
+    public <T> T register(T instance) {
+        collaborators.put(instance.getClass(), instance);
+        return instance;
+    }
+
+    public <T> T create(Class<T> type) {
+        Constructor<?> constructor = Arrays.stream(type.getConstructors())
+                .max(Comparator.comparingInt(Constructor::getParameterCount))
+                .orElseThrow(() -> new IllegalArgumentException("No public constructor on " + type.getName()));
+        Object[] arguments = Arrays.stream(constructor.getParameterTypes())
+                .map(this::resolve)
+                .toArray();
+        try {
+            T instance = type.cast(constructor.newInstance(arguments));
+            collaborators.put(type, instance);
+            return instance;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create " + type.getName(), e);
+        }
+    }
+
+    // Stands in for @Value injection
+    public static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not set " + name + " on " + target.getClass().getName(), e);
+        }
+    }
+
+    private Object resolve(Class<?> type) {
+        return collaborators.values().stream()
+                .filter(type::isInstance)
+                .findFirst()
+                .orElseGet(() -> mock(type));
+    }
+}
@@ -0,0 +1,86 @@
+package com.bloodsync.benchmarks;
+
+import com.bloodsync.metrics.ProfilingDataSource;
+import com.bloodsync.metrics.SqlProfileProperties;
+import com.bloodsync.metrics.SqlProfiler;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.concurrent.TimeUnit;
+
+// What ProfilingDataSource adds to one query: prepare, execute, read ROWS rows of COLUMNS columns
+// and close, through the profiling proxies and straight against the (fake) driver
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SqlProfilerBenchmark {
+
+    private static final String SQL = "select h1_0.id,h1_0.hospital_name,h1_0.city from hospitals h1_0 where h1_0.city=?";
+    private static final int ROWS = 20;
+    private static final int COLUMNS = 3;
+
+    private DataSource direct;
+    private DataSource profiled;
+
+    @Setup
+    public void setUp() {
+        direct = fake(DataSource.class, fake(Connection.class, fake(PreparedStatement.class, null)));
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("sqlProfiler", new SqlProfiler(new SqlProfileProperties()));
+        profiled = new ProfilingDataSource(direct, beans.getBeanProvider(SqlProfiler.class));
+    }
+
+    @State(Scope.Thread)
+    public static class Rows {
+        int remaining;
+    }
+
+    @Benchmark
+    public long direct(Rows rows) throws Exception {
+        return query(direct, rows);
+    }
+
+    @Benchmark
+    public long profiled(Rows rows) throws Exception {
+        return query(profiled, rows);
+    }
+
+    private static long query(DataSource dataSource, Rows rows) throws Exception {
+        long sum = 0;
+        rows.remaining = ROWS;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SQL)) {
+            statement.setString(1, "Kolhapur");
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next() && rows.remaining-- > 0) {
+                    for (int column = 1; column <= COLUMNS; column++) {
+                        sum += resultSet.getLong(column);
+                    }
+                }
+            }
+        }
+        return sum;
+    }
+
+    // Every call answers the next object down the chain; the result set always has another row and
+    // the query loop stops after ROWS, so no state is shared between threads
+    @SuppressWarnings("unchecked")
+    private static <T> T fake(Class<T> type, Object next) {
+        return (T) Proxy.newProxyInstance(SqlProfilerBenchmark.class.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getConnection", "prepareStatement" -> next;
+                    case "executeQuery" -> fake(ResultSet.class, null);
+                    case "next" -> true;
+                    case "getLong" -> 7L;
+                    default -> null;
+                });
+    }
+}
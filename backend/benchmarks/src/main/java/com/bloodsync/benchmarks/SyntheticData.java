@@ -0,0 +1,231 @@
+package com.bloodsync.benchmarks;
+
+import com.bloodsync.entity.*;
+import com.bloodsync.enums.BloodGroup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Deterministic datasets shaped like production data: blood groups follow the
+// usual population distribution and every donor, patient and request points at
+// one of a small set of hospitals spread over a handful of cities.
+public final class SyntheticData {
+
+    private static final BloodGroup[] BLOOD_GROUPS = {BloodGroup.O_POS, BloodGroup.A_POS, BloodGroup.B_POS, BloodGroup.AB_POS,
+            BloodGroup.O_NEG, BloodGroup.A_NEG, BloodGroup.B_NEG, BloodGroup.AB_NEG};
+    private static final int[] BLOOD_GROUP_WEIGHTS = {37, 27, 22, 5, 4, 3, 1, 1};
+
+    private static final String[][] CITIES = {
+            {"Mumbai", "Maharashtra"}, {"Pune", "Maharashtra"}, {"Nagpur", "Maharashtra"},
+            {"Delhi", "Delhi"}, {"Bengaluru", "Karnataka"}, {"Mysuru", "Karnataka"},
+            {"Chennai", "Tamil Nadu"}, {"Hyderabad", "Telangana"}, {"Kolkata", "West Bengal"},
+            {"Ahmedabad", "Gujarat"}, {"Jaipur", "Rajasthan"}, {"Lucknow", "Uttar Pradesh"}
+    };
+
+    private static final String[] FIRST_NAMES = {"Aarav", "Priya", "Rohan", "Ananya", "Vikram", "Sneha", "Arjun", "Kavya"};
+    private static final String[] LAST_NAMES = {"Sharma", "Patel", "Reddy", "Iyer", "Singh", "Gupta", "Nair", "Das"};
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 9, 0);
+
+    private final Random random;
+    private final List<Hospital> hospitals;
+
+    public SyntheticData(long seed, int hospitalCount) {
+        this.random = new Random(seed);
+        this.hospitals = new ArrayList<>(hospitalCount);
+        for (long id = 1; id <= hospitalCount; id++) {
+            hospitals.add(hospital(id));
+        }
+    }
+
+    public List<Hospital> hospitals() {
+        return hospitals;
+    }
+
+    public List<Donor> donors(int count) {
+        List<Donor> donors = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            String[] city = city();
+            Donor donor = new Donor();
+            donor.setId(id);
+            donor.setFirstName(pick(FIRST_NAMES));
+            donor.setLastName(pick(LAST_NAMES));
+            donor.setEmail("donor" + id + "@example.com");
+            donor.setPhoneNumber(phoneNumber());
+            donor.setDateOfBirth(LocalDate.of(1960 + random.nextInt(45), 1 + random.nextInt(12), 1 + random.nextInt(28)));
+            donor.setBloodGroup(bloodGroup());
+            donor.setAddress(id + " Main Road");
+            donor.setCity(city[0]);
+            donor.setState(city[1]);
+            donor.setEligible(random.nextInt(10) < 8);
+            donor.setLastDonationDate(random.nextBoolean() ? NOW.toLocalDate().minusDays(random.nextInt(365)) : null);
+            donor.setActive(random.nextInt(20) != 0);
+            donor.setCreatedAt(NOW.minusDays(random.nextInt(1000)));
+            donor.setUpdatedAt(NOW);
+            donors.add(donor);
+        }
+        return donors;
+    }
+
+    public List<Patient> patients(int count) {
+        List<Patient> patients = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            Hospital hospital = hospital();
+            Patient patient = new Patient();
+            patient.setId(id);
+            patient.setFirstName(pick(FIRST_NAMES));
+            patient.setLastName(pick(LAST_NAMES));
+            patient.setEmail("patient" + id + "@example.com");
+            patient.setPhoneNumber(phoneNumber());
+            patient.setDateOfBirth(LocalDate.of(1940 + random.nextInt(80), 1 + random.nextInt(12), 1 + random.nextInt(28)));
+            patient.setBloodGroup(bloodGroup());
+            patient.setAddress(id + " Hospital Road");
+            patient.setCity(hospital.getCity());
+            patient.setState(hospital.getState());
+            patient.setHospital(hospital);
+            patient.setMedicalHistory("Admitted for elective surgery");
+            patient.setCreatedAt(NOW.minusDays(random.nextInt(100)));
+            patient.setUpdatedAt(NOW);
+            patients.add(patient);
+        }
+        return patients;
+    }
+
+    public List<BloodDonation> donations(List<Donor> donors, int count) {
+        List<BloodDonation> donations = new ArrayList<>(count);
+        BloodDonation.DonationStatus[] statuses = BloodDonation.DonationStatus.values();
+        for (long id = 1; id <= count; id++) {
+            Donor donor = donors.get(random.nextInt(donors.size()));
+            BloodDonation donation = new BloodDonation();
+            donation.setId(id);
+            donation.setDonor(donor);
+            donation.setHospital(hospital());
+            donation.setDonationDate(NOW.minusDays(random.nextInt(365)));
+            donation.setBloodGroup(donor.getBloodGroup());
+            donation.setQuantity(350 + 50 * random.nextInt(3));
+            donation.setStatus(random.nextInt(10) < 8 ? BloodDonation.DonationStatus.COMPLETED : statuses[random.nextInt(statuses.length)]);
+            donation.setCreatedAt(donation.getDonationDate());
+            donation.setUpdatedAt(NOW);
+            donations.add(donation);
+        }
+        return donations;
+    }
+
+    public List<BloodRequest> requests(List<Patient> patients, int count) {
+        List<BloodRequest> requests = new ArrayList<>(count);
+        BloodRequest.RequestStatus[] statuses = BloodRequest.RequestStatus.values();
+        BloodRequest.PriorityLevel[] priorities = BloodRequest.PriorityLevel.values();
+        for (long id = 1; id <= count; id++) {
+            Patient patient = patients.get(random.nextInt(patients.size()));
+            BloodRequest request = new BloodRequest();
+            request.setId(id);
+            request.setPatient(patient);
+            request.setHospital(patient.getHospital());
+            request.setBloodGroup(patient.getBloodGroup());
+            request.setRequiredQuantity(450 * (1 + random.nextInt(4)));
+            request.setRequestDate(NOW.minusDays(random.nextInt(30)));
+            request.setRequiredDate(request.getRequestDate().plusDays(random.nextInt(7)));
+            request.setStatus(statuses[random.nextInt(statuses.length)]);
+            request.setPriority(priorities[random.nextInt(priorities.length)]);
+            request.setReason("Scheduled transfusion");
+            request.setCreatedAt(request.getRequestDate());
+            request.setUpdatedAt(NOW);
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    // One row per hospital and blood group, with quantities straddling the low-stock threshold
+    public List<BloodInventory> inventory() {
+        List<BloodInventory> inventory = new ArrayList<>(hospitals.size() * BLOOD_GROUPS.length);
+        long id = 1;
+        for (Hospital hospital : hospitals) {
+            for (BloodGroup bloodGroup : BLOOD_GROUPS) {
+                BloodInventory row = new BloodInventory();
+                row.setId(id++);
+                row.setHospital(hospital);
+                row.setBloodGroup(bloodGroup);
+                row.setAvailableQuantity(quantity());
+                row.setTotalQuantity(row.getAvailableQuantity() + random.nextInt(2000));
+                row.setExpiryDate(NOW.plusDays(random.nextInt(42)));
+                row.setStatus(BloodInventory.InventoryStatus.AVAILABLE);
+                row.setCreatedAt(NOW.minusDays(random.nextInt(30)));
+                row.setUpdatedAt(NOW);
+                inventory.add(row);
+            }
+        }
+        return inventory;
+    }
+
+    public List<Admin> admins(int count) {
+        List<Admin> admins = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            Admin admin = new Admin();
+            admin.setId(id);
+            admin.setUsername("admin" + id);
+            admin.setEmail("admin" + id + "@example.com");
+            admin.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z5a1x5k0gQh6Xn1d1q1Jv6Ue");
+            admin.setFullName(pick(FIRST_NAMES) + " " + pick(LAST_NAMES));
+            admin.setPhoneNumber(phoneNumber());
+            admin.setCreatedAt(NOW.minusDays(random.nextInt(1000)));
+            admin.setUpdatedAt(NOW);
+            admins.add(admin);
+        }
+        return admins;
+    }
+
+    // Available quantity in ml: roughly a third out of or low on stock
+    public int quantity() {
+        int bucket = random.nextInt(10);
+        if (bucket == 0) {
+            return 0;
+        }
+        return bucket < 4 ? random.nextInt(1000) : 1000 + random.nextInt(9000);
+    }
+
+    public BloodGroup bloodGroup() {
+        int roll = random.nextInt(100);
+        for (int i = 0; i < BLOOD_GROUPS.length; i++) {
+            roll -= BLOOD_GROUP_WEIGHTS[i];
+            if (roll < 0) {
+                return BLOOD_GROUPS[i];
+            }
+        }
+        return BLOOD_GROUPS[0];
+    }
+
+    private Hospital hospital(long id) {
+        String[] city = city();
+        Hospital hospital = new Hospital();
+        hospital.setId(id);
+        hospital.setHospitalName(city[0] + " General Hospital " + id);
+        hospital.setEmail("hospital" + id + "@example.com");
+        hospital.setPhoneNumber(phoneNumber());
+        hospital.setAddress(id + " Hospital Road");
+        hospital.setCity(city[0]);
+        hospital.setState(city[1]);
+        hospital.setLicenseNumber("LIC-" + (100000 + id));
+        hospital.setCreatedAt(NOW.minusDays(random.nextInt(1000)));
+        hospital.setUpdatedAt(NOW);
+        return hospital;
+    }
+
+    private Hospital hospital() {
+        return hospitals.get(random.nextInt(hospitals.size()));
+    }
+
+    private String[] city() {
+        return CITIES[random.nextInt(CITIES.length)];
+    }
+
+    private String phoneNumber() {
+        return "9" + (100000000 + random.nextInt(900000000));
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
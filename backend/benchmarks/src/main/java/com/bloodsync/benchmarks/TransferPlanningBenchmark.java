@@ -0,0 +1,140 @@
+package com.bloodsync.benchmarks;
+
+import com.bloodsync.dto.TransferPlanDto;
+import com.bloodsync.entity.Hospital;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.geo.CityGeocoder;
+import com.bloodsync.geo.GeoPoint;
+import com.bloodsync.repository.BloodInventoryRepository;
+import com.bloodsync.repository.BloodRequestRepository;
+import com.bloodsync.repository.HospitalRepository;
+import com.bloodsync.service.DemandForecastService;
+import com.bloodsync.service.TransferPlanningService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+// Full transfer plan over every hospital and all eight blood groups, with hospitals scattered
+// around the synthetic cities and stock, expiry and open demand drawn at random
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransferPlanningBenchmark {
+
+    private static final BloodGroup[] BLOOD_GROUPS = {BloodGroup.O_POS, BloodGroup.A_POS, BloodGroup.B_POS, BloodGroup.AB_POS,
+            BloodGroup.O_NEG, BloodGroup.A_NEG, BloodGroup.B_NEG, BloodGroup.AB_NEG};
+
+    @Param({"100", "500", "1000"})
+    private int hospitals;
+
+    private TransferPlanningService transferPlanningService;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(42, hospitals);
+        Random random = new Random(7);
+        CityGeocoder geocoder = new CityGeocoder();
+        for (Hospital hospital : data.hospitals()) {
+            GeoPoint city = geocoder.locate(hospital.getCity(), hospital.getState()).orElseThrow();
+            hospital.setLatitude(city.getLatitude() + (random.nextDouble() - 0.5));
+            hospital.setLongitude(city.getLongitude() + (random.nextDouble() - 0.5));
+        }
+
+        List<BloodInventoryRepository.AvailabilitySummary> stock = new ArrayList<>();
+        List<BloodRequestRepository.ReservedQuantity> demand = new ArrayList<>();
+        for (Hospital hospital : data.hospitals()) {
+            for (BloodGroup bloodGroup : BLOOD_GROUPS) {
+                long available = data.quantity();
+                long expiring = random.nextInt(3) == 0 ? (long) (available * random.nextDouble()) : 0L;
+                stock.add(new Stock(hospital.getId(), bloodGroup, available, expiring));
+                if (random.nextInt(4) == 0) {
+                    demand.add(new Demand(hospital.getId(), bloodGroup, 250L + random.nextInt(4000)));
+                }
+            }
+        }
+
+        ServiceFactory factory = new ServiceFactory();
+        factory.register(geocoder);
+        when(factory.mock(HospitalRepository.class).findByIsActiveTrue()).thenReturn(data.hospitals());
+        when(factory.mock(BloodInventoryRepository.class).summarizeAvailability(anyList(), any(), any(), any()))
+                .thenReturn(stock);
+        when(factory.mock(BloodRequestRepository.class).sumQuantityByHospitalAndBloodGroup(anyCollection()))
+                .thenReturn(demand);
+        when(factory.mock(DemandForecastService.class).getReorderPoint(anyLong(), any())).thenReturn(1000L);
+        transferPlanningService = factory.create(TransferPlanningService.class);
+        ServiceFactory.setField(transferPlanningService, "defaultHorizonDays", 3);
+        ServiceFactory.setField(transferPlanningService, "defaultMaxDistanceKm", 300.0);
+        ServiceFactory.setField(transferPlanningService, "candidatesPerHospital", 25);
+    }
+
+    @Benchmark
+    public TransferPlanDto plan() {
+        return transferPlanningService.plan(null, null);
+    }
+
+    private record Stock(Long hospitalId, BloodGroup bloodGroup, Long available, Long expiring)
+            implements BloodInventoryRepository.AvailabilitySummary {
+
+        @Override
+        public Long getHospitalId() {
+            return hospitalId;
+        }
+
+        @Override
+        public BloodGroup getBloodGroup() {
+            return bloodGroup;
+        }
+
+        @Override
+        public Long getAvailable() {
+            return available;
+        }
+
+        @Override
+        public Long getExpiring() {
+            return expiring;
+        }
+
+        @Override
+        public Long getExpired() {
+            return 0L;
+        }
+
+        @Override
+        public LocalDateTime getNextExpiry() {
+            return null;
+        }
+    }
+
+    private record Demand(Long hospitalId, BloodGroup bloodGroup, Long quantity)
+            implements BloodRequestRepository.ReservedQuantity {
+
+        @Override
+        public Long getHospitalId() {
+            return hospitalId;
+        }
+
+        @Override
+        public BloodGroup getBloodGroup() {
+            return bloodGroup;
+        }
+
+        @Override
+        public Long getQuantity() {
+            return quantity;
+        }
+    }
+}
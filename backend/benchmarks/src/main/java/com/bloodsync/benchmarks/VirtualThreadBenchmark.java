@@ -0,0 +1,88 @@
+package com.bloodsync.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Request concurrency on Tomcat's default 200 platform threads versus one virtual thread
+// per request, with database access gated by a bounded pool as HikariCP does. Each request
+// blocks outside the pool (remote calls, waiting on the client) and then holds a connection
+// for one query. Score is time per request, so lower means more throughput.
+//
+// When blockingMillis is 0 the connection pool is the bottleneck and both modes tie; once
+// requests block outside the pool, platform threads cap concurrency and virtual threads
+// keep the pool busy.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VirtualThreadBenchmark {
+
+    private static final int REQUESTS = 2000;
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"10", "50"})
+    private int connectionPoolSize;
+
+    @Param({"0", "20"})
+    private int blockingMillis;
+
+    @Param({"1"})
+    private int queryMillis;
+
+    private ExecutorService executor;
+    private Semaphore connectionPool;
+
+    @Setup
+    public void setUp() {
+        executor = "virtual".equals(threads)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        connectionPool = new Semaphore(connectionPoolSize, true);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void burst() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            executor.execute(() -> {
+                try {
+                    handleRequest();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+
+    private void handleRequest() throws InterruptedException {
+        if (blockingMillis > 0) {
+            Thread.sleep(blockingMillis);
+        }
+        connectionPool.acquire();
+        try {
+            Thread.sleep(queryMillis);
+        } finally {
+            connectionPool.release();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.bloodsync.audit;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Value;
+
+import java.time.Instant;
+
+// Captured on the request thread with no formatting; derived fields are computed
+// by the background writer when the event is serialized
+@Value
+@JsonIgnoreProperties({"timestampMillis", "latencyNanos"})
+public class AuditEvent {
+    long timestampMillis;
+    String user;
+    String method;
+    String route;
+    String entityId;
+    int status;
+    long latencyNanos;
+
+    public Instant getTimestamp() {
+        return Instant.ofEpochMilli(timestampMillis);
+    }
+
+    public String getAction() {
+        switch (method) {
+            case "GET":
+                return "READ";
+            case "POST":
+                return "CREATE";
+            case "PUT":
+            case "PATCH":
+                return "UPDATE";
+            case "DELETE":
+                return "DELETE";
+            default:
+                return method;
+        }
+    }
+
+    // "/api/blood-inventory/{id}" -> "blood-inventory"
+    public String getEntity() {
+        if (route == null || !route.startsWith("/api/")) {
+            return null;
+        }
+        int end = route.indexOf('/', 5);
+        return end < 0 ? route.substring(5) : route.substring(5, end);
+    }
+
+    public double getLatencyMillis() {
+        return latencyNanos / 1_000_000.0;
+    }
+}
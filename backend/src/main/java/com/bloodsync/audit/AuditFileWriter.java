@@ -0,0 +1,72 @@
+package com.bloodsync.audit;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+// JSON-lines files rolled daily and by size: audit-2024-06-01.log, audit-2024-06-01.1.log, ...
+class AuditFileWriter implements Closeable {
+
+    private final Path directory;
+    private final long maxFileBytes;
+
+    private BufferedWriter writer;
+    private LocalDate currentDate;
+    private int currentIndex;
+    private long currentBytes;
+
+    AuditFileWriter(Path directory, long maxFileBytes) {
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+    }
+
+    void write(String line) throws IOException {
+        LocalDate today = LocalDate.now();
+        if (writer == null || !today.equals(currentDate)) {
+            open(today, 0);
+        } else if (currentBytes >= maxFileBytes) {
+            open(today, currentIndex + 1);
+        }
+        writer.write(line);
+        writer.newLine();
+        currentBytes += line.length() + 1;
+    }
+
+    void flush() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private void open(LocalDate date, int index) throws IOException {
+        close();
+        Files.createDirectories(directory);
+        // Skip past files already filled by an earlier run today
+        Path file = file(date, index);
+        while (Files.exists(file) && Files.size(file) >= maxFileBytes) {
+            file = file(date, ++index);
+        }
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        currentDate = date;
+        currentIndex = index;
+        currentBytes = Files.size(file);
+    }
+
+    private Path file(LocalDate date, int index) {
+        return directory.resolve(index == 0 ? "audit-" + date + ".log" : "audit-" + date + "." + index + ".log");
+    }
+}
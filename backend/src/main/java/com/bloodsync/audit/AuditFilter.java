@@ -0,0 +1,108 @@
+package com.bloodsync.audit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Access audit for API calls. Ordered after the security filter chain, so the authenticated
+// user is still available; requests the chain rejects are recorded by AuditRejectionHandler.
+// Successful reads are sampled; writes and failures are always recorded.
+@Component
+@RequiredArgsConstructor
+public class AuditFilter extends OncePerRequestFilter {
+
+    private final AuditTrail auditTrail;
+
+    @Value("${audit.read-sample-rate:0.1}")
+    private double readSampleRate;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !auditTrail.isEnabled() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long startNanos = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            String user = currentUser();
+            if (request.isAsyncStarted()) {
+                // Reactive and deferred results finish on another thread; record the final status then
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(request, response.getStatus(), user, startNanos);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                record(request, response.getStatus(), user, startNanos);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, int status, String user, long startNanos) {
+        if (!"GET".equals(request.getMethod()) || status >= 400 || sampled()) {
+            auditTrail.record(new AuditEvent(
+                    System.currentTimeMillis(),
+                    user,
+                    request.getMethod(),
+                    route(request),
+                    entityId(request),
+                    status,
+                    System.nanoTime() - startNanos));
+        }
+    }
+
+    private boolean sampled() {
+        return readSampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < readSampleRate;
+    }
+
+    static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String entityId(HttpServletRequest request) {
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        return variables != null ? variables.get("id") : null;
+    }
+}
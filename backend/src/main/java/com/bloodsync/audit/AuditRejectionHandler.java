@@ -0,0 +1,48 @@
+package com.bloodsync.audit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.security.web.access.AccessDeniedHandler;
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+// Records requests the security filter chain turns away, which never reach AuditFilter. Both
+// cases answer 403 as the chain's defaults did. No handler has been matched yet, so the route
+// is the raw request path.
+@Component
+@RequiredArgsConstructor
+public class AuditRejectionHandler implements AuthenticationEntryPoint, AccessDeniedHandler {
+
+    private final AuditTrail auditTrail;
+
+    // No (valid) credentials
+    @Override
+    public void commence(HttpServletRequest request, HttpServletResponse response,
+                         AuthenticationException authException) throws IOException {
+        reject(request, response);
+    }
+
+    // Authenticated, but without the role the URL rule asks for
+    @Override
+    public void handle(HttpServletRequest request, HttpServletResponse response,
+                       AccessDeniedException accessDeniedException) throws IOException {
+        reject(request, response);
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        auditTrail.record(new AuditEvent(
+                System.currentTimeMillis(),
+                AuditFilter.currentUser(),
+                request.getMethod(),
+                request.getRequestURI(),
+                null,
+                HttpServletResponse.SC_FORBIDDEN,
+                0));
+        response.sendError(HttpServletResponse.SC_FORBIDDEN, "Access Denied");
+    }
+}
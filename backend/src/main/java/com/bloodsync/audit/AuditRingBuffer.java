@@ -0,0 +1,74 @@
+package com.bloodsync.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+// Bounded lock-free multi-producer, single-consumer queue. Producers claim a slot with
+// one CAS and publish with an ordered store; when the consumer falls behind, events are
+// dropped and counted rather than blocking the request thread.
+class AuditRingBuffer {
+
+    private final AtomicReferenceArray<AuditEvent> slots;
+    private final int mask;
+
+    // Next sequence to claim (producers) and next sequence to read (consumer)
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    private final LongAdder dropped = new LongAdder();
+
+    AuditRingBuffer(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    boolean offer(AuditEvent event) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head.get() >= slots.length()) {
+                dropped.increment();
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+        slots.lazySet((int) sequence & mask, event);
+        return true;
+    }
+
+    // Single consumer only
+    int drain(Consumer<AuditEvent> consumer, int limit) {
+        long sequence = head.get();
+        int drained = 0;
+        try {
+            while (drained < limit) {
+                int index = (int) sequence & mask;
+                AuditEvent event = slots.get(index);
+                if (event == null) {
+                    // Empty, or claimed but not yet published
+                    break;
+                }
+                slots.lazySet(index, null);
+                sequence++;
+                drained++;
+                consumer.accept(event);
+            }
+        } finally {
+            // Release consumed slots even if the consumer failed part way
+            head.lazySet(sequence);
+        }
+        return drained;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,119 @@
+package com.bloodsync.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Write-behind audit log. Request threads only enqueue; a single background thread
+// drains the ring buffer in batches and appends them to rotating files.
+@Component
+@Slf4j
+public class AuditTrail {
+
+    private static final int BATCH_SIZE = 1024;
+
+    private final AuditRingBuffer buffer;
+    private final AuditFileWriter fileWriter;
+    private final ObjectMapper objectMapper;
+    private final ScheduledExecutorService writerThread;
+
+    // Not synchronized: flushing does file I/O, which would pin a virtual carrier thread
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Value("${audit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${audit.flush-interval-ms:200}")
+    private long flushIntervalMillis;
+
+    public AuditTrail(@Value("${audit.buffer-size:65536}") int bufferSize,
+                      @Value("${audit.directory:logs/audit}") String directory,
+                      @Value("${audit.max-file-size-mb:50}") long maxFileSizeMb,
+                      ObjectMapper objectMapper,
+                      MeterRegistry meterRegistry,
+                      Environment environment) {
+        ThreadFactory threadFactory = Threading.VIRTUAL.isActive(environment)
+                ? Thread.ofVirtual().name("audit-writer").factory()
+                : Thread.ofPlatform().name("audit-writer").daemon().factory();
+        this.writerThread = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        this.buffer = new AuditRingBuffer(bufferSize);
+        this.fileWriter = new AuditFileWriter(Paths.get(directory), maxFileSizeMb * 1024 * 1024);
+        this.objectMapper = objectMapper;
+        Gauge.builder("bloodsync.audit.pending", buffer, AuditRingBuffer::size).register(meterRegistry);
+        FunctionCounter.builder("bloodsync.audit.dropped", buffer, AuditRingBuffer::dropped).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            writerThread.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void record(AuditEvent event) {
+        if (enabled) {
+            buffer.offer(event);
+        }
+    }
+
+    // Runs on the writer thread, and once more on shutdown
+    void flush() {
+        flushLock.lock();
+        try {
+            while (buffer.drain(this::write, BATCH_SIZE) > 0) {
+                // Keep draining until the buffer is empty
+            }
+            fileWriter.flush();
+        } catch (RuntimeException | IOException e) {
+            log.error("Failed to write audit events: {}", e.getMessage());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        writerThread.shutdown();
+        try {
+            writerThread.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        flushLock.lock();
+        try {
+            fileWriter.close();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void write(AuditEvent event) {
+        try {
+            fileWriter.write(objectMapper.writeValueAsString(event));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
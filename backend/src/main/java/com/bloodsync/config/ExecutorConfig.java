@@ -0,0 +1,60 @@
+package com.bloodsync.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+@Configuration
+public class ExecutorConfig {
+
+    @Value("${dashboard.executor.pool-size:8}")
+    private int dashboardPoolSize;
+
+    @Value("${dashboard.executor.queue-capacity:64}")
+    private int dashboardQueueCapacity;
+
+    @Value("${public.read.max-threads:16}")
+    private int publicReadMaxThreads;
+
+    @Value("${public.read.queue-capacity:10000}")
+    private int publicReadQueueCapacity;
+
+    @Bean
+    public AsyncTaskExecutor dashboardExecutor(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            // A virtual thread per section; database concurrency is bounded by the connection pool
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("dashboard-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+
+        // Bounded pool for dashboard fan-out; a full queue fails the section instead of blocking the request
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(dashboardPoolSize);
+        executor.setMaxPoolSize(dashboardPoolSize);
+        executor.setQueueCapacity(dashboardQueueCapacity);
+        executor.setThreadNamePrefix("dashboard-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler publicReadScheduler(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "public-read");
+        }
+
+        // Blocking JPA reads of the reactive tier run here, never on servlet threads
+        return Schedulers.newBoundedElastic(publicReadMaxThreads, publicReadQueueCapacity, "public-read");
+    }
+}
@@ -1,16 +1,27 @@
 package com.bloodsync.controller;
 
 import com.bloodsync.dto.AdminDto;
+import com.bloodsync.dto.DashboardDto;
+import com.bloodsync.dto.TransferPlanDto;
+import com.bloodsync.metrics.SqlProfiler;
+import com.bloodsync.service.ActivityRollupService;
 import com.bloodsync.service.AdminService;
+import com.bloodsync.service.ArchiveService;
+import com.bloodsync.service.DashboardService;
+import com.bloodsync.service.DemandForecastService;
+import com.bloodsync.service.InventoryCompactionService;
+import com.bloodsync.service.TransferPlanningService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
-import javax.validation.Valid;
+import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -20,19 +31,92 @@ import java.util.List;
 public class AdminController {
     
     private final AdminService adminService;
+    private final DashboardService dashboardService;
+    private final TransferPlanningService transferPlanningService;
+    private final DemandForecastService demandForecastService;
+    private final ActivityRollupService activityRollupService;
+    private final ArchiveService archiveService;
+    private final InventoryCompactionService inventoryCompactionService;
+    private final SqlProfiler sqlProfiler;
     
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<AdminDto>> getAllAdmins() {
-        log.info("GET /api/admin - Fetching all admins");
+        log.debug("GET /api/admin - Fetching all admins");
         List<AdminDto> admins = adminService.getAllAdmins();
         return ResponseEntity.ok(admins);
     }
     
+    @GetMapping("/dashboard")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ResponseEntity<DashboardDto>> getDashboard() {
+        log.debug("GET /api/admin/dashboard - Building admin dashboard");
+        return Mono.fromFuture(dashboardService.getAdminDashboard()).map(ResponseEntity::ok);
+    }
+    
+    @GetMapping("/transfers/plan")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TransferPlanDto> planTransfers(@RequestParam(required = false) Integer horizonDays,
+                                                         @RequestParam(required = false) Double maxDistanceKm) {
+        log.debug("GET /api/admin/transfers/plan - Planning inter-hospital transfers");
+        try {
+            return ResponseEntity.ok(transferPlanningService.plan(horizonDays, maxDistanceKm));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @PostMapping("/forecasts/recompute")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> recomputeForecasts(@RequestParam(defaultValue = "false") boolean full) {
+        log.debug("POST /api/admin/forecasts/recompute - Recomputing demand forecasts, full: {}", full);
+        long start = System.currentTimeMillis();
+        int series = demandForecastService.recompute(full);
+        return ResponseEntity.ok(Map.of("series", series, "elapsedMillis", System.currentTimeMillis() - start));
+    }
+    
+    @PostMapping("/rollups/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuildRollups() {
+        log.debug("POST /api/admin/rollups/rebuild - Rebuilding activity rollups");
+        long start = System.currentTimeMillis();
+        int rows = activityRollupService.rebuild();
+        return ResponseEntity.ok(Map.of("rows", rows, "elapsedMillis", System.currentTimeMillis() - start));
+    }
+    
+    @PostMapping("/archive/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ArchiveService.ArchiveRun> runArchive() {
+        log.debug("POST /api/admin/archive/run - Archiving closed donations and requests");
+        return ResponseEntity.ok(archiveService.archive());
+    }
+    
+    @PostMapping("/inventory/compact")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<InventoryCompactionService.CompactionRun> compactInventory() {
+        log.debug("POST /api/admin/inventory/compact - Merging duplicate stock rows");
+        return ResponseEntity.ok(inventoryCompactionService.compact());
+    }
+    
+    @GetMapping("/sql-profile")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SqlProfiler.Profile> getSqlProfile() {
+        log.debug("GET /api/admin/sql-profile - Reporting slow queries and statements per endpoint");
+        return ResponseEntity.ok(sqlProfiler.profile());
+    }
+    
+    @DeleteMapping("/sql-profile")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> resetSqlProfile() {
+        log.debug("DELETE /api/admin/sql-profile - Resetting the SQL profile");
+        sqlProfiler.reset();
+        return ResponseEntity.noContent().build();
+    }
+    
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<AdminDto> getAdminById(@PathVariable Long id) {
-        log.info("GET /api/admin/{} - Fetching admin by ID", id);
+        log.debug("GET /api/admin/{} - Fetching admin by ID", id);
         return adminService.getAdminById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -41,7 +125,7 @@ public class AdminController {
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<AdminDto> createAdmin(@Valid @RequestBody AdminDto adminDto) {
-        log.info("POST /api/admin - Creating new admin");
+        log.debug("POST /api/admin - Creating new admin");
         try {
             AdminDto createdAdmin = adminService.createAdmin(adminDto);
             return ResponseEntity.status(HttpStatus.CREATED).body(createdAdmin);
@@ -53,7 +137,7 @@ public class AdminController {
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<AdminDto> updateAdmin(@PathVariable Long id, @Valid @RequestBody AdminDto adminDto) {
-        log.info("PUT /api/admin/{} - Updating admin", id);
+        log.debug("PUT /api/admin/{} - Updating admin", id);
         try {
             AdminDto updatedAdmin = adminService.updateAdmin(id, adminDto);
             return ResponseEntity.ok(updatedAdmin);
@@ -65,7 +149,7 @@ public class AdminController {
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deleteAdmin(@PathVariable Long id) {
-        log.info("DELETE /api/admin/{} - Deleting admin", id);
+        log.debug("DELETE /api/admin/{} - Deleting admin", id);
         try {
             adminService.deleteAdmin(id);
             return ResponseEntity.noContent().build();
@@ -11,7 +11,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import javax.validation.Valid;
+import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -24,7 +24,7 @@ public class AuthenticationController {
 
     @PostMapping("/login")
     public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
-        log.info("Login attempt for user: {}", loginRequest.getUsername());
+        log.debug("Login attempt for user: {}", loginRequest.getUsername());
         AuthResponse response = authenticationService.login(loginRequest);
         
         if (response.getMessage() != null && !response.getMessage().contains("successfully")) {
@@ -36,7 +36,7 @@ public class AuthenticationController {
 
     @PostMapping("/register")
     public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest registerRequest) {
-        log.info("Registration attempt for user: {}", registerRequest.getUsername());
+        log.debug("Registration attempt for user: {}", registerRequest.getUsername());
         AuthResponse response = authenticationService.register(registerRequest);
         
         if (response.getMessage() != null && !response.getMessage().contains("successfully")) {
@@ -48,7 +48,7 @@ public class AuthenticationController {
 
     @PostMapping("/refresh")
     public ResponseEntity<AuthResponse> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
-        log.info("Token refresh attempt");
+        log.debug("Token refresh attempt");
         AuthResponse response = authenticationService.refreshToken(refreshTokenRequest);
         
         if (response.getMessage() != null && !response.getMessage().contains("successfully")) {
@@ -58,6 +58,15 @@ public class AuthenticationController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader("Authorization") String authorization,
+                                       @RequestBody(required = false) RefreshTokenRequest refreshTokenRequest) {
+        log.debug("Logout request");
+        authenticationService.logout(authorization.substring("Bearer ".length()),
+                refreshTokenRequest != null ? refreshTokenRequest.getRefreshToken() : null);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/health")
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("Authentication service is running");
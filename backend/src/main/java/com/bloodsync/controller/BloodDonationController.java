@@ -1,8 +1,15 @@
 package com.bloodsync.controller;
 
+import com.bloodsync.dto.ActivityBucketDto;
 import com.bloodsync.dto.BloodDonationDto;
+import com.bloodsync.dto.BulkStatusRequest;
+import com.bloodsync.dto.BulkStatusResultDto;
+import com.bloodsync.dto.CursorPageDto;
+import com.bloodsync.entity.ActivityRollup;
 import com.bloodsync.entity.BloodDonation;
+import com.bloodsync.search.SearchSchema;
 import com.bloodsync.service.BloodDonationService;
+import com.bloodsync.service.StatusTransitionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -10,9 +17,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import javax.validation.Valid;
+import jakarta.validation.Valid;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/blood-donations")
@@ -22,53 +30,68 @@ import java.util.List;
 public class BloodDonationController {
     
     private final BloodDonationService bloodDonationService;
+    private final StatusTransitionService statusTransitionService;
     
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'HOSPITAL', 'DONOR')")
     public ResponseEntity<List<BloodDonationDto>> getAllBloodDonations() {
-        log.info("GET /api/blood-donations - Fetching all blood donations");
+        log.debug("GET /api/blood-donations - Fetching all blood donations");
         List<BloodDonationDto> bloodDonations = bloodDonationService.getAllBloodDonations();
         return ResponseEntity.ok(bloodDonations);
     }
     
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HOSPITAL', 'DONOR')")
+    public ResponseEntity<CursorPageDto<?>> searchBloodDonations(@RequestParam Map<String, String> params) {
+        log.debug("GET /api/blood-donations/search - Searching blood donations with {}", params);
+        if (params.containsKey(SearchSchema.FIELDS_PARAM)) {
+            return ResponseEntity.ok(bloodDonationService.selectBloodDonations(params));
+        }
+        return ResponseEntity.ok(bloodDonationService.searchBloodDonations(params));
+    }
+    
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'HOSPITAL', 'DONOR')")
-    public ResponseEntity<BloodDonationDto> getBloodDonationById(@PathVariable Long id) {
-        log.info("GET /api/blood-donations/{} - Fetching blood donation by ID", id);
-        return bloodDonationService.getBloodDonationById(id)
+    public ResponseEntity<BloodDonationDto> getBloodDonationById(@PathVariable Long id,
+                                                                 @RequestParam(defaultValue = "false") boolean includeArchived) {
+        log.debug("GET /api/blood-donations/{} - Fetching blood donation by ID", id);
+        return bloodDonationService.getBloodDonationById(id, includeArchived)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/donor/{donorId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'HOSPITAL', 'DONOR')")
-    public ResponseEntity<List<BloodDonationDto>> getBloodDonationsByDonorId(@PathVariable Long donorId) {
-        log.info("GET /api/blood-donations/donor/{} - Fetching blood donations by donor ID", donorId);
-        List<BloodDonationDto> bloodDonations = bloodDonationService.getBloodDonationsByDonorId(donorId);
+    public ResponseEntity<List<BloodDonationDto>> getBloodDonationsByDonorId(@PathVariable Long donorId,
+                                                                             @RequestParam(defaultValue = "false") boolean includeArchived) {
+        log.debug("GET /api/blood-donations/donor/{} - Fetching blood donations by donor ID", donorId);
+        List<BloodDonationDto> bloodDonations = bloodDonationService.getBloodDonationsByDonorId(donorId, includeArchived);
         return ResponseEntity.ok(bloodDonations);
     }
     
     @GetMapping("/hospital/{hospitalId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'HOSPITAL')")
-    public ResponseEntity<List<BloodDonationDto>> getBloodDonationsByHospitalId(@PathVariable Long hospitalId) {
-        log.info("GET /api/blood-donations/hospital/{} - Fetching blood donations by hospital ID", hospitalId);
-        List<BloodDonationDto> bloodDonations = bloodDonationService.getBloodDonationsByHospitalId(hospitalId);
+    public ResponseEntity<List<BloodDonationDto>> getBloodDonationsByHospitalId(@PathVariable Long hospitalId,
+                                                                                @RequestParam(defaultValue = "false") boolean includeArchived) {
+        log.debug("GET /api/blood-donations/hospital/{} - Fetching blood donations by hospital ID", hospitalId);
+        List<BloodDonationDto> bloodDonations = bloodDonationService.getBloodDonationsByHospitalId(hospitalId, includeArchived);
         return ResponseEntity.ok(bloodDonations);
     }
     
     @GetMapping("/blood-group/{bloodGroup}")
     @PreAuthorize("hasAnyRole('ADMIN', 'HOSPITAL')")
     public ResponseEntity<List<BloodDonationDto>> getBloodDonationsByBloodGroup(@PathVariable String bloodGroup) {
-        log.info("GET /api/blood-donations/blood-group/{} - Fetching blood donations by blood group", bloodGroup);
+        log.debug("GET /api/blood-donations/blood-group/{} - Fetching blood donations by blood group", bloodGroup);
         List<BloodDonationDto> bloodDonations = bloodDonationService.getBloodDonationsByBloodGroup(bloodGroup);
         return ResponseEntity.ok(bloodDonations);
     }
     
     @GetMapping("/status/{status}")
     @PreAuthorize("hasAnyRole('ADMIN', 'HOSPITAL')")
-    public ResponseEntity<List<BloodDonationDto>> getBloodDonationsByStatus(@PathVariable BloodDonation.DonationStatus status) {
-        log.info("GET /api/blood-donations/status/{} - Fetching blood donations by status", status);
-        List<BloodDonationDto> bloodDonations = bloodDonationService.getBloodDonationsByStatus(status);
+    public ResponseEntity<List<BloodDonationDto>> getBloodDonationsByStatus(@PathVariable BloodDonation.DonationStatus status,
+                                                                            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        log.debug("GET /api/blood-donations/status/{} - Fetching blood donations by status", status);
+        List<BloodDonationDto> bloodDonations = bloodDonationService.getBloodDonationsByStatus(status, includeArchived);
         return ResponseEntity.ok(bloodDonations);
     }
     
@@ -76,16 +99,32 @@ public class BloodDonationController {
     @PreAuthorize("hasAnyRole('ADMIN', 'HOSPITAL')")
     public ResponseEntity<List<BloodDonationDto>> getBloodDonationsByDateRange(
             @RequestParam LocalDateTime startDate,
-            @RequestParam LocalDateTime endDate) {
-        log.info("GET /api/blood-donations/date-range - Fetching blood donations by date range");
-        List<BloodDonationDto> bloodDonations = bloodDonationService.getBloodDonationsByDateRange(startDate, endDate);
+            @RequestParam LocalDateTime endDate,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        log.debug("GET /api/blood-donations/date-range - Fetching blood donations by date range");
+        List<BloodDonationDto> bloodDonations = bloodDonationService.getBloodDonationsByDateRange(startDate, endDate, includeArchived);
         return ResponseEntity.ok(bloodDonations);
     }
     
+    // Aggregated mode, answered from the activity rollups instead of the donation rows
+    @GetMapping(value = "/date-range", params = "granularity")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HOSPITAL')")
+    public ResponseEntity<List<ActivityBucketDto>> getBloodDonationBucketsByDateRange(
+            @RequestParam LocalDateTime startDate,
+            @RequestParam LocalDateTime endDate,
+            @RequestParam ActivityRollup.Granularity granularity,
+            @RequestParam(required = false) Long hospitalId,
+            @RequestParam(required = false) String bloodGroup) {
+        log.debug("GET /api/blood-donations/date-range - Fetching {} blood donation buckets by date range", granularity);
+        List<ActivityBucketDto> buckets = bloodDonationService.getBloodDonationBuckets(startDate, endDate, granularity,
+                hospitalId, bloodGroup);
+        return ResponseEntity.ok(buckets);
+    }
+    
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'HOSPITAL')")
     public ResponseEntity<BloodDonationDto> createBloodDonation(@Valid @RequestBody BloodDonationDto bloodDonationDto) {
-        log.info("POST /api/blood-donations - Creating new blood donation");
+        log.debug("POST /api/blood-donations - Creating new blood donation");
         try {
             BloodDonationDto createdDonation = bloodDonationService.createBloodDonation(bloodDonationDto);
             return ResponseEntity.status(HttpStatus.CREATED).body(createdDonation);
@@ -100,7 +139,7 @@ public class BloodDonationController {
     public ResponseEntity<BloodDonationDto> updateBloodDonation(
             @PathVariable Long id,
             @Valid @RequestBody BloodDonationDto bloodDonationDto) {
-        log.info("PUT /api/blood-donations/{} - Updating blood donation", id);
+        log.debug("PUT /api/blood-donations/{} - Updating blood donation", id);
         try {
             BloodDonationDto updatedDonation = bloodDonationService.updateBloodDonation(id, bloodDonationDto);
             return ResponseEntity.ok(updatedDonation);
@@ -110,10 +149,17 @@ public class BloodDonationController {
         }
     }
     
+    @PutMapping("/bulk/status")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HOSPITAL')")
+    public ResponseEntity<BulkStatusResultDto> transitionBloodDonations(@Valid @RequestBody BulkStatusRequest request) {
+        log.debug("PUT /api/blood-donations/bulk/status - Moving blood donations to {}", request.getStatus());
+        return ResponseEntity.ok(statusTransitionService.transitionBloodDonations(request));
+    }
+    
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deleteBloodDonation(@PathVariable Long id) {
-        log.info("DELETE /api/blood-donations/{} - Deleting blood donation", id);
+        log.debug("DELETE /api/blood-donations/{} - Deleting blood donation", id);
         try {
             bloodDonationService.deleteBloodDonation(id);
             return ResponseEntity.noContent().build();
@@ -1,8 +1,15 @@
 package com.bloodsync.controller;
 
 import com.bloodsync.dto.BloodInventoryDto;
+import com.bloodsync.dto.BulkStatusRequest;
+import com.bloodsync.dto.BulkStatusResultDto;
+import com.bloodsync.dto.CursorPageDto;
+import com.bloodsync.dto.DemandForecastDto;
+import com.bloodsync.dto.InventoryAvailabilityDto;
 import com.bloodsync.entity.BloodInventory;
+import com.bloodsync.search.SearchSchema;
 import com.bloodsync.service.BloodInventoryService;
+import com.bloodsync.service.StatusTransitionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -10,8 +17,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import javax.validation.Valid;
+import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/blood-inventory")
@@ -21,19 +29,30 @@ import java.util.List;
 public class BloodInventoryController {
     
     private final BloodInventoryService bloodInventoryService;
+    private final StatusTransitionService statusTransitionService;
     
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'HOSPITAL')")
     public ResponseEntity<List<BloodInventoryDto>> getAllBloodInventory() {
-        log.info("GET /api/blood-inventory - Fetching all blood inventory");
+        log.debug("GET /api/blood-inventory - Fetching all blood inventory");
         List<BloodInventoryDto> bloodInventory = bloodInventoryService.getAllBloodInventory();
         return ResponseEntity.ok(bloodInventory);
     }
     
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HOSPITAL')")
+    public ResponseEntity<CursorPageDto<?>> searchBloodInventory(@RequestParam Map<String, String> params) {
+        log.debug("GET /api/blood-inventory/search - Searching blood inventory with {}", params);
+        if (params.containsKey(SearchSchema.FIELDS_PARAM)) {
+            return ResponseEntity.ok(bloodInventoryService.selectBloodInventory(params));
+        }
+        return ResponseEntity.ok(bloodInventoryService.searchBloodInventory(params));
+    }
+    
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'HOSPITAL')")
     public ResponseEntity<BloodInventoryDto> getBloodInventoryById(@PathVariable Long id) {
-        log.info("GET /api/blood-inventory/{} - Fetching blood inventory by ID", id);
+        log.debug("GET /api/blood-inventory/{} - Fetching blood inventory by ID", id);
         return bloodInventoryService.getBloodInventoryById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -42,7 +61,7 @@ public class BloodInventoryController {
     @GetMapping("/hospital/{hospitalId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'HOSPITAL')")
     public ResponseEntity<List<BloodInventoryDto>> getBloodInventoryByHospitalId(@PathVariable Long hospitalId) {
-        log.info("GET /api/blood-inventory/hospital/{} - Fetching blood inventory by hospital ID", hospitalId);
+        log.debug("GET /api/blood-inventory/hospital/{} - Fetching blood inventory by hospital ID", hospitalId);
         List<BloodInventoryDto> bloodInventory = bloodInventoryService.getBloodInventoryByHospitalId(hospitalId);
         return ResponseEntity.ok(bloodInventory);
     }
@@ -50,7 +69,7 @@ public class BloodInventoryController {
     @GetMapping("/blood-group/{bloodGroup}")
     @PreAuthorize("hasAnyRole('ADMIN', 'HOSPITAL')")
     public ResponseEntity<List<BloodInventoryDto>> getBloodInventoryByBloodGroup(@PathVariable String bloodGroup) {
-        log.info("GET /api/blood-inventory/blood-group/{} - Fetching blood inventory by blood group", bloodGroup);
+        log.debug("GET /api/blood-inventory/blood-group/{} - Fetching blood inventory by blood group", bloodGroup);
         List<BloodInventoryDto> bloodInventory = bloodInventoryService.getBloodInventoryByBloodGroup(bloodGroup);
         return ResponseEntity.ok(bloodInventory);
     }
@@ -58,7 +77,7 @@ public class BloodInventoryController {
     @GetMapping("/status/{status}")
     @PreAuthorize("hasAnyRole('ADMIN', 'HOSPITAL')")
     public ResponseEntity<List<BloodInventoryDto>> getBloodInventoryByStatus(@PathVariable BloodInventory.InventoryStatus status) {
-        log.info("GET /api/blood-inventory/status/{} - Fetching blood inventory by status", status);
+        log.debug("GET /api/blood-inventory/status/{} - Fetching blood inventory by status", status);
         List<BloodInventoryDto> bloodInventory = bloodInventoryService.getBloodInventoryByStatus(status);
         return ResponseEntity.ok(bloodInventory);
     }
@@ -68,7 +87,7 @@ public class BloodInventoryController {
     public ResponseEntity<List<BloodInventoryDto>> getBloodInventoryByHospitalAndBloodGroup(
             @PathVariable Long hospitalId,
             @PathVariable String bloodGroup) {
-        log.info("GET /api/blood-inventory/hospital/{}/blood-group/{} - Fetching blood inventory by hospital and blood group", hospitalId, bloodGroup);
+        log.debug("GET /api/blood-inventory/hospital/{}/blood-group/{} - Fetching blood inventory by hospital and blood group", hospitalId, bloodGroup);
         List<BloodInventoryDto> bloodInventory = bloodInventoryService.getBloodInventoryByHospitalAndBloodGroup(hospitalId, bloodGroup);
         return ResponseEntity.ok(bloodInventory);
     }
@@ -76,16 +95,39 @@ public class BloodInventoryController {
     @GetMapping("/expired")
     @PreAuthorize("hasAnyRole('ADMIN', 'HOSPITAL')")
     public ResponseEntity<List<BloodInventoryDto>> getExpiredBloodInventory() {
-        log.info("GET /api/blood-inventory/expired - Fetching expired blood inventory");
+        log.debug("GET /api/blood-inventory/expired - Fetching expired blood inventory");
         List<BloodInventoryDto> bloodInventory = bloodInventoryService.getExpiredBloodInventory();
         return ResponseEntity.ok(bloodInventory);
     }
     
+    @GetMapping("/availability")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HOSPITAL')")
+    public ResponseEntity<List<InventoryAvailabilityDto>> searchAvailability(
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String bloodGroup,
+            @RequestParam(required = false) Long hospitalId,
+            @RequestParam(required = false) Long minAvailable,
+            @RequestParam(required = false) Long maxAvailable) {
+        log.debug("GET /api/blood-inventory/availability - Searching availability city: {}, blood group: {}, hospital ID: {}",
+                city, bloodGroup, hospitalId);
+        return ResponseEntity.ok(bloodInventoryService.searchAvailability(city, bloodGroup, hospitalId, minAvailable, maxAvailable));
+    }
+    
+    @GetMapping("/forecasts")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HOSPITAL')")
+    public ResponseEntity<List<DemandForecastDto>> getDemandForecasts(
+            @RequestParam(required = false) Long hospitalId,
+            @RequestParam(required = false) String bloodGroup) {
+        log.debug("GET /api/blood-inventory/forecasts - Fetching demand forecasts for hospital ID: {}, blood group: {}",
+                hospitalId, bloodGroup);
+        return ResponseEntity.ok(bloodInventoryService.getDemandForecasts(hospitalId, bloodGroup));
+    }
+    
     @GetMapping("/low-stock")
     @PreAuthorize("hasAnyRole('ADMIN', 'HOSPITAL')")
     public ResponseEntity<List<BloodInventoryDto>> getLowStockBloodInventory(
-            @RequestParam(defaultValue = "1000") Integer threshold) {
-        log.info("GET /api/blood-inventory/low-stock - Fetching low stock blood inventory with threshold: {}", threshold);
+            @RequestParam(required = false) Integer threshold) {
+        log.debug("GET /api/blood-inventory/low-stock - Fetching low stock blood inventory with threshold: {}", threshold);
         List<BloodInventoryDto> bloodInventory = bloodInventoryService.getLowStockBloodInventory(threshold);
         return ResponseEntity.ok(bloodInventory);
     }
@@ -93,7 +135,7 @@ public class BloodInventoryController {
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'HOSPITAL')")
     public ResponseEntity<BloodInventoryDto> createBloodInventory(@Valid @RequestBody BloodInventoryDto bloodInventoryDto) {
-        log.info("POST /api/blood-inventory - Creating new blood inventory");
+        log.debug("POST /api/blood-inventory - Creating new blood inventory");
         try {
             BloodInventoryDto createdInventory = bloodInventoryService.createBloodInventory(bloodInventoryDto);
             return ResponseEntity.status(HttpStatus.CREATED).body(createdInventory);
@@ -108,7 +150,7 @@ public class BloodInventoryController {
     public ResponseEntity<BloodInventoryDto> updateBloodInventory(
             @PathVariable Long id,
             @Valid @RequestBody BloodInventoryDto bloodInventoryDto) {
-        log.info("PUT /api/blood-inventory/{} - Updating blood inventory", id);
+        log.debug("PUT /api/blood-inventory/{} - Updating blood inventory", id);
         try {
             BloodInventoryDto updatedInventory = bloodInventoryService.updateBloodInventory(id, bloodInventoryDto);
             return ResponseEntity.ok(updatedInventory);
@@ -118,10 +160,17 @@ public class BloodInventoryController {
         }
     }
     
+    @PutMapping("/bulk/status")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HOSPITAL')")
+    public ResponseEntity<BulkStatusResultDto> transitionBloodInventory(@Valid @RequestBody BulkStatusRequest request) {
+        log.debug("PUT /api/blood-inventory/bulk/status - Moving blood inventory to {}", request.getStatus());
+        return ResponseEntity.ok(statusTransitionService.transitionBloodInventory(request));
+    }
+    
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deleteBloodInventory(@PathVariable Long id) {
-        log.info("DELETE /api/blood-inventory/{} - Deleting blood inventory", id);
+        log.debug("DELETE /api/blood-inventory/{} - Deleting blood inventory", id);
         try {
             bloodInventoryService.deleteBloodInventory(id);
             return ResponseEntity.noContent().build();
@@ -1,7 +1,13 @@
 package com.bloodsync.controller;
 
+import com.bloodsync.dto.ActivityBucketDto;
 import com.bloodsync.dto.BloodRequestDto;
+import com.bloodsync.dto.BulkStatusRequest;
+import com.bloodsync.dto.BulkStatusResultDto;
+import com.bloodsync.dto.CursorPageDto;
+import com.bloodsync.entity.ActivityRollup;
 import com.bloodsync.service.BloodRequestService;
+import com.bloodsync.service.StatusTransitionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -9,8 +15,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import javax.validation.Valid;
+import jakarta.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/request")
@@ -20,60 +28,98 @@ import java.util.List;
 public class BloodRequestController {
     
     private final BloodRequestService bloodRequestService;
+    private final StatusTransitionService statusTransitionService;
     
     @GetMapping
     @PreAuthorize("hasAnyRole('RECIPIENT', 'PATIENT')")
     public ResponseEntity<List<BloodRequestDto>> getAllBloodRequests() {
-        log.info("GET /api/request - Fetching all blood requests");
+        log.debug("GET /api/request - Fetching all blood requests");
         List<BloodRequestDto> bloodRequests = bloodRequestService.getAllBloodRequests();
         return ResponseEntity.ok(bloodRequests);
     }
     
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('RECIPIENT', 'PATIENT')")
+    public ResponseEntity<CursorPageDto<BloodRequestDto>> searchBloodRequests(@RequestParam Map<String, String> params) {
+        log.debug("GET /api/request/search - Searching blood requests with {}", params);
+        return ResponseEntity.ok(bloodRequestService.searchBloodRequests(params));
+    }
+    
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('RECIPIENT', 'PATIENT')")
-    public ResponseEntity<BloodRequestDto> getBloodRequestById(@PathVariable Long id) {
-        log.info("GET /api/request/{} - Fetching blood request by ID", id);
-        return bloodRequestService.getBloodRequestById(id)
+    public ResponseEntity<BloodRequestDto> getBloodRequestById(@PathVariable Long id,
+                                                               @RequestParam(defaultValue = "false") boolean includeArchived) {
+        log.debug("GET /api/request/{} - Fetching blood request by ID", id);
+        return bloodRequestService.getBloodRequestById(id, includeArchived)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/hospital/{hospitalId}")
     @PreAuthorize("hasAnyRole('RECIPIENT', 'PATIENT')")
-    public ResponseEntity<List<BloodRequestDto>> getBloodRequestsByHospitalId(@PathVariable Long hospitalId) {
-        log.info("GET /api/request/hospital/{} - Fetching blood requests by hospital ID", hospitalId);
-        List<BloodRequestDto> bloodRequests = bloodRequestService.getBloodRequestsByHospitalId(hospitalId);
+    public ResponseEntity<List<BloodRequestDto>> getBloodRequestsByHospitalId(@PathVariable Long hospitalId,
+                                                                              @RequestParam(defaultValue = "false") boolean includeArchived) {
+        log.debug("GET /api/request/hospital/{} - Fetching blood requests by hospital ID", hospitalId);
+        List<BloodRequestDto> bloodRequests = bloodRequestService.getBloodRequestsByHospitalId(hospitalId, includeArchived);
         return ResponseEntity.ok(bloodRequests);
     }
     
     @GetMapping("/patient/{patientId}")
     @PreAuthorize("hasAnyRole('RECIPIENT', 'PATIENT')")
-    public ResponseEntity<List<BloodRequestDto>> getBloodRequestsByPatientId(@PathVariable Long patientId) {
-        log.info("GET /api/request/patient/{} - Fetching blood requests by patient ID", patientId);
-        List<BloodRequestDto> bloodRequests = bloodRequestService.getBloodRequestsByPatientId(patientId);
+    public ResponseEntity<List<BloodRequestDto>> getBloodRequestsByPatientId(@PathVariable Long patientId,
+                                                                             @RequestParam(defaultValue = "false") boolean includeArchived) {
+        log.debug("GET /api/request/patient/{} - Fetching blood requests by patient ID", patientId);
+        List<BloodRequestDto> bloodRequests = bloodRequestService.getBloodRequestsByPatientId(patientId, includeArchived);
         return ResponseEntity.ok(bloodRequests);
     }
     
     @GetMapping("/status/{status}")
     @PreAuthorize("hasAnyRole('RECIPIENT', 'PATIENT')")
-    public ResponseEntity<List<BloodRequestDto>> getBloodRequestsByStatus(@PathVariable String status) {
-        log.info("GET /api/request/status/{} - Fetching blood requests by status", status);
-        List<BloodRequestDto> bloodRequests = bloodRequestService.getBloodRequestsByStatus(status);
+    public ResponseEntity<List<BloodRequestDto>> getBloodRequestsByStatus(@PathVariable String status,
+                                                                          @RequestParam(defaultValue = "false") boolean includeArchived) {
+        log.debug("GET /api/request/status/{} - Fetching blood requests by status", status);
+        List<BloodRequestDto> bloodRequests = bloodRequestService.getBloodRequestsByStatus(status, includeArchived);
         return ResponseEntity.ok(bloodRequests);
     }
     
     @GetMapping("/blood-group/{bloodGroup}")
     @PreAuthorize("hasAnyRole('RECIPIENT', 'PATIENT')")
     public ResponseEntity<List<BloodRequestDto>> getBloodRequestsByBloodGroup(@PathVariable String bloodGroup) {
-        log.info("GET /api/request/blood-group/{} - Fetching blood requests by blood group", bloodGroup);
+        log.debug("GET /api/request/blood-group/{} - Fetching blood requests by blood group", bloodGroup);
         List<BloodRequestDto> bloodRequests = bloodRequestService.getBloodRequestsByBloodGroup(bloodGroup);
         return ResponseEntity.ok(bloodRequests);
     }
     
+    @GetMapping("/date-range")
+    @PreAuthorize("hasAnyRole('RECIPIENT', 'PATIENT')")
+    public ResponseEntity<List<BloodRequestDto>> getBloodRequestsByDateRange(
+            @RequestParam LocalDateTime startDate,
+            @RequestParam LocalDateTime endDate,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        log.debug("GET /api/request/date-range - Fetching blood requests by date range");
+        List<BloodRequestDto> bloodRequests = bloodRequestService.getBloodRequestsByDateRange(startDate, endDate, includeArchived);
+        return ResponseEntity.ok(bloodRequests);
+    }
+    
+    // Aggregated mode, answered from the activity rollups instead of the request rows
+    @GetMapping(value = "/date-range", params = "granularity")
+    @PreAuthorize("hasAnyRole('RECIPIENT', 'PATIENT')")
+    public ResponseEntity<List<ActivityBucketDto>> getBloodRequestBucketsByDateRange(
+            @RequestParam LocalDateTime startDate,
+            @RequestParam LocalDateTime endDate,
+            @RequestParam ActivityRollup.Granularity granularity,
+            @RequestParam(required = false) Long hospitalId,
+            @RequestParam(required = false) String bloodGroup) {
+        log.debug("GET /api/request/date-range - Fetching {} blood request buckets by date range", granularity);
+        List<ActivityBucketDto> buckets = bloodRequestService.getBloodRequestBuckets(startDate, endDate, granularity,
+                hospitalId, bloodGroup);
+        return ResponseEntity.ok(buckets);
+    }
+    
     @PostMapping
     @PreAuthorize("hasAnyRole('RECIPIENT', 'PATIENT')")
     public ResponseEntity<BloodRequestDto> createBloodRequest(@Valid @RequestBody BloodRequestDto bloodRequestDto) {
-        log.info("POST /api/request - Creating new blood request");
+        log.debug("POST /api/request - Creating new blood request");
         try {
             BloodRequestDto createdBloodRequest = bloodRequestService.createBloodRequest(bloodRequestDto);
             return ResponseEntity.status(HttpStatus.CREATED).body(createdBloodRequest);
@@ -85,7 +131,7 @@ public class BloodRequestController {
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('RECIPIENT', 'PATIENT')")
     public ResponseEntity<BloodRequestDto> updateBloodRequest(@PathVariable Long id, @Valid @RequestBody BloodRequestDto bloodRequestDto) {
-        log.info("PUT /api/request/{} - Updating blood request", id);
+        log.debug("PUT /api/request/{} - Updating blood request", id);
         try {
             BloodRequestDto updatedBloodRequest = bloodRequestService.updateBloodRequest(id, bloodRequestDto);
             return ResponseEntity.ok(updatedBloodRequest);
@@ -94,10 +140,17 @@ public class BloodRequestController {
         }
     }
     
+    @PutMapping("/bulk/status")
+    @PreAuthorize("hasAnyRole('RECIPIENT', 'PATIENT')")
+    public ResponseEntity<BulkStatusResultDto> transitionBloodRequests(@Valid @RequestBody BulkStatusRequest request) {
+        log.debug("PUT /api/request/bulk/status - Moving blood requests to {}", request.getStatus());
+        return ResponseEntity.ok(statusTransitionService.transitionBloodRequests(request));
+    }
+    
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAnyRole('RECIPIENT', 'PATIENT')")
     public ResponseEntity<Void> deleteBloodRequest(@PathVariable Long id) {
-        log.info("DELETE /api/request/{} - Deleting blood request", id);
+        log.debug("DELETE /api/request/{} - Deleting blood request", id);
         try {
             bloodRequestService.deleteBloodRequest(id);
             return ResponseEntity.noContent().build();
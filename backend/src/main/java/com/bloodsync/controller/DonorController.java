@@ -1,6 +1,8 @@
 package com.bloodsync.controller;
 
+import com.bloodsync.dto.CursorPageDto;
 import com.bloodsync.dto.DonorDto;
+import com.bloodsync.search.SearchSchema;
 import com.bloodsync.service.DonorService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,8 +11,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import javax.validation.Valid;
+import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/donor")
@@ -24,15 +27,25 @@ public class DonorController {
     @GetMapping
     @PreAuthorize("hasRole('DONOR')")
     public ResponseEntity<List<DonorDto>> getAllDonors() {
-        log.info("GET /api/donor - Fetching all donors");
+        log.debug("GET /api/donor - Fetching all donors");
         List<DonorDto> donors = donorService.getAllDonors();
         return ResponseEntity.ok(donors);
     }
     
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('DONOR')")
+    public ResponseEntity<CursorPageDto<?>> searchDonors(@RequestParam Map<String, String> params) {
+        log.debug("GET /api/donor/search - Searching donors with {}", params);
+        if (params.containsKey(SearchSchema.FIELDS_PARAM)) {
+            return ResponseEntity.ok(donorService.selectDonors(params));
+        }
+        return ResponseEntity.ok(donorService.searchDonors(params));
+    }
+    
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('DONOR')")
     public ResponseEntity<DonorDto> getDonorById(@PathVariable Long id) {
-        log.info("GET /api/donor/{} - Fetching donor by ID", id);
+        log.debug("GET /api/donor/{} - Fetching donor by ID", id);
         return donorService.getDonorById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -41,7 +54,7 @@ public class DonorController {
     @GetMapping("/blood-group/{bloodGroup}")
     @PreAuthorize("hasRole('DONOR')")
     public ResponseEntity<List<DonorDto>> getDonorsByBloodGroup(@PathVariable String bloodGroup) {
-        log.info("GET /api/donor/blood-group/{} - Fetching donors by blood group", bloodGroup);
+        log.debug("GET /api/donor/blood-group/{} - Fetching donors by blood group", bloodGroup);
         List<DonorDto> donors = donorService.getDonorsByBloodGroup(bloodGroup);
         return ResponseEntity.ok(donors);
     }
@@ -49,7 +62,7 @@ public class DonorController {
     @GetMapping("/eligible")
     @PreAuthorize("hasRole('DONOR')")
     public ResponseEntity<List<DonorDto>> getEligibleDonors() {
-        log.info("GET /api/donor/eligible - Fetching eligible donors");
+        log.debug("GET /api/donor/eligible - Fetching eligible donors");
         List<DonorDto> donors = donorService.getEligibleDonors();
         return ResponseEntity.ok(donors);
     }
@@ -57,7 +70,7 @@ public class DonorController {
     @PostMapping
     @PreAuthorize("hasRole('DONOR')")
     public ResponseEntity<DonorDto> createDonor(@Valid @RequestBody DonorDto donorDto) {
-        log.info("POST /api/donor - Creating new donor");
+        log.debug("POST /api/donor - Creating new donor");
         try {
             DonorDto createdDonor = donorService.createDonor(donorDto);
             return ResponseEntity.status(HttpStatus.CREATED).body(createdDonor);
@@ -69,7 +82,7 @@ public class DonorController {
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('DONOR')")
     public ResponseEntity<DonorDto> updateDonor(@PathVariable Long id, @Valid @RequestBody DonorDto donorDto) {
-        log.info("PUT /api/donor/{} - Updating donor", id);
+        log.debug("PUT /api/donor/{} - Updating donor", id);
         try {
             DonorDto updatedDonor = donorService.updateDonor(id, donorDto);
             return ResponseEntity.ok(updatedDonor);
@@ -81,7 +94,7 @@ public class DonorController {
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('DONOR')")
     public ResponseEntity<Void> deleteDonor(@PathVariable Long id) {
-        log.info("DELETE /api/donor/{} - Deleting donor", id);
+        log.debug("DELETE /api/donor/{} - Deleting donor", id);
         try {
             donorService.deleteDonor(id);
             return ResponseEntity.noContent().build();
@@ -1,6 +1,9 @@
 package com.bloodsync.controller;
 
+import com.bloodsync.dto.DonorMatchDto;
+import com.bloodsync.dto.HospitalDto;
 import com.bloodsync.entity.Hospital;
+import com.bloodsync.service.DonorMatchingService;
 import com.bloodsync.service.HospitalService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,7 +12,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import javax.validation.Valid;
+import jakarta.validation.Valid;
 import java.util.List;
 
 @RestController
@@ -20,19 +23,20 @@ import java.util.List;
 public class HospitalController {
     
     private final HospitalService hospitalService;
+    private final DonorMatchingService donorMatchingService;
     
     @GetMapping
     @PreAuthorize("hasRole('HOSPITAL')")
-    public ResponseEntity<List<Hospital>> getAllHospitals() {
-        log.info("GET /api/hospital - Fetching all hospitals");
-        List<Hospital> hospitals = hospitalService.getAllHospitals();
+    public ResponseEntity<List<HospitalDto>> getAllHospitals() {
+        log.debug("GET /api/hospital - Fetching all hospitals");
+        List<HospitalDto> hospitals = hospitalService.getAllHospitals();
         return ResponseEntity.ok(hospitals);
     }
     
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('HOSPITAL')")
-    public ResponseEntity<Hospital> getHospitalById(@PathVariable Long id) {
-        log.info("GET /api/hospital/{} - Fetching hospital by ID", id);
+    public ResponseEntity<HospitalDto> getHospitalById(@PathVariable Long id) {
+        log.debug("GET /api/hospital/{} - Fetching hospital by ID", id);
         return hospitalService.getHospitalById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -40,8 +44,8 @@ public class HospitalController {
     
     @GetMapping("/email/{email}")
     @PreAuthorize("hasRole('HOSPITAL')")
-    public ResponseEntity<Hospital> getHospitalByEmail(@PathVariable String email) {
-        log.info("GET /api/hospital/email/{} - Fetching hospital by email", email);
+    public ResponseEntity<HospitalDto> getHospitalByEmail(@PathVariable String email) {
+        log.debug("GET /api/hospital/email/{} - Fetching hospital by email", email);
         return hospitalService.getHospitalByEmail(email)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -49,33 +53,66 @@ public class HospitalController {
     
     @GetMapping("/license/{licenseNumber}")
     @PreAuthorize("hasRole('HOSPITAL')")
-    public ResponseEntity<Hospital> getHospitalByLicenseNumber(@PathVariable String licenseNumber) {
-        log.info("GET /api/hospital/license/{} - Fetching hospital by license number", licenseNumber);
+    public ResponseEntity<HospitalDto> getHospitalByLicenseNumber(@PathVariable String licenseNumber) {
+        log.debug("GET /api/hospital/license/{} - Fetching hospital by license number", licenseNumber);
         return hospitalService.getHospitalByLicenseNumber(licenseNumber)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    @GetMapping("/{id}/donor-matches")
+    @PreAuthorize("hasRole('HOSPITAL')")
+    public ResponseEntity<List<DonorMatchDto>> getDonorMatches(
+            @PathVariable Long id,
+            @RequestParam String bloodGroup,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.debug("GET /api/hospital/{}/donor-matches - Matching donors for blood group: {}", id, bloodGroup);
+        try {
+            List<DonorMatchDto> matches = donorMatchingService.findMatches(id, bloodGroup, limit);
+            return ResponseEntity.ok(matches);
+        } catch (RuntimeException e) {
+            log.error("Error matching donors: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/{id}/donors/nearby")
+    @PreAuthorize("hasRole('HOSPITAL')")
+    public ResponseEntity<List<DonorMatchDto>> getNearbyDonors(
+            @PathVariable Long id,
+            @RequestParam String bloodGroup,
+            @RequestParam(defaultValue = "50") double radiusKm,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.debug("GET /api/hospital/{}/donors/nearby - Finding donors for blood group: {} within {} km", id, bloodGroup, radiusKm);
+        try {
+            List<DonorMatchDto> donors = donorMatchingService.findNearby(id, bloodGroup, radiusKm, limit);
+            return ResponseEntity.ok(donors);
+        } catch (RuntimeException e) {
+            log.error("Error finding nearby donors: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @PostMapping
     @PreAuthorize("hasRole('HOSPITAL')")
-    public ResponseEntity<Hospital> createHospital(@Valid @RequestBody Hospital hospital) {
-        log.info("POST /api/hospital - Creating new hospital: {}", hospital.getHospitalName());
+    public ResponseEntity<HospitalDto> createHospital(@Valid @RequestBody Hospital hospital) {
+        log.debug("POST /api/hospital - Creating new hospital: {}", hospital.getHospitalName());
         Hospital createdHospital = hospitalService.createHospital(hospital);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdHospital);
+        return ResponseEntity.status(HttpStatus.CREATED).body(hospitalService.convertToDto(createdHospital));
     }
     
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('HOSPITAL')")
-    public ResponseEntity<Hospital> updateHospital(@PathVariable Long id, @Valid @RequestBody Hospital hospital) {
-        log.info("PUT /api/hospital/{} - Updating hospital", id);
+    public ResponseEntity<HospitalDto> updateHospital(@PathVariable Long id, @Valid @RequestBody Hospital hospital) {
+        log.debug("PUT /api/hospital/{} - Updating hospital", id);
         Hospital updatedHospital = hospitalService.updateHospital(id, hospital);
-        return ResponseEntity.ok(updatedHospital);
+        return ResponseEntity.ok(hospitalService.convertToDto(updatedHospital));
     }
     
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('HOSPITAL')")
     public ResponseEntity<Void> deleteHospital(@PathVariable Long id) {
-        log.info("DELETE /api/hospital/{} - Deleting hospital", id);
+        log.debug("DELETE /api/hospital/{} - Deleting hospital", id);
         hospitalService.deleteHospital(id);
         return ResponseEntity.noContent().build();
     }
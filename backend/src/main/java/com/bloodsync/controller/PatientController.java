@@ -1,5 +1,6 @@
 package com.bloodsync.controller;
 
+import com.bloodsync.dto.CursorPageDto;
 import com.bloodsync.dto.PatientDto;
 import com.bloodsync.service.PatientService;
 import lombok.RequiredArgsConstructor;
@@ -9,8 +10,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import javax.validation.Valid;
+import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/request/patient")
@@ -24,15 +26,22 @@ public class PatientController {
     @GetMapping
     @PreAuthorize("hasAnyRole('RECIPIENT', 'PATIENT')")
     public ResponseEntity<List<PatientDto>> getAllPatients() {
-        log.info("GET /api/request/patient - Fetching all patients");
+        log.debug("GET /api/request/patient - Fetching all patients");
         List<PatientDto> patients = patientService.getAllPatients();
         return ResponseEntity.ok(patients);
     }
     
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('RECIPIENT', 'PATIENT')")
+    public ResponseEntity<CursorPageDto<PatientDto>> searchPatients(@RequestParam Map<String, String> params) {
+        log.debug("GET /api/request/patient/search - Searching patients with {}", params);
+        return ResponseEntity.ok(patientService.searchPatients(params));
+    }
+    
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('RECIPIENT', 'PATIENT')")
     public ResponseEntity<PatientDto> getPatientById(@PathVariable Long id) {
-        log.info("GET /api/request/patient/{} - Fetching patient by ID", id);
+        log.debug("GET /api/request/patient/{} - Fetching patient by ID", id);
         return patientService.getPatientById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -41,7 +50,7 @@ public class PatientController {
     @GetMapping("/hospital/{hospitalId}")
     @PreAuthorize("hasAnyRole('RECIPIENT', 'PATIENT')")
     public ResponseEntity<List<PatientDto>> getPatientsByHospitalId(@PathVariable Long hospitalId) {
-        log.info("GET /api/request/patient/hospital/{} - Fetching patients by hospital ID", hospitalId);
+        log.debug("GET /api/request/patient/hospital/{} - Fetching patients by hospital ID", hospitalId);
         List<PatientDto> patients = patientService.getPatientsByHospitalId(hospitalId);
         return ResponseEntity.ok(patients);
     }
@@ -49,7 +58,7 @@ public class PatientController {
     @GetMapping("/blood-group/{bloodGroup}")
     @PreAuthorize("hasAnyRole('RECIPIENT', 'PATIENT')")
     public ResponseEntity<List<PatientDto>> getPatientsByBloodGroup(@PathVariable String bloodGroup) {
-        log.info("GET /api/request/patient/blood-group/{} - Fetching patients by blood group", bloodGroup);
+        log.debug("GET /api/request/patient/blood-group/{} - Fetching patients by blood group", bloodGroup);
         List<PatientDto> patients = patientService.getPatientsByBloodGroup(bloodGroup);
         return ResponseEntity.ok(patients);
     }
@@ -57,7 +66,7 @@ public class PatientController {
     @PostMapping
     @PreAuthorize("hasAnyRole('RECIPIENT', 'PATIENT')")
     public ResponseEntity<PatientDto> createPatient(@Valid @RequestBody PatientDto patientDto) {
-        log.info("POST /api/request/patient - Creating new patient");
+        log.debug("POST /api/request/patient - Creating new patient");
         try {
             PatientDto createdPatient = patientService.createPatient(patientDto);
             return ResponseEntity.status(HttpStatus.CREATED).body(createdPatient);
@@ -69,7 +78,7 @@ public class PatientController {
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('RECIPIENT', 'PATIENT')")
     public ResponseEntity<PatientDto> updatePatient(@PathVariable Long id, @Valid @RequestBody PatientDto patientDto) {
-        log.info("PUT /api/request/patient/{} - Updating patient", id);
+        log.debug("PUT /api/request/patient/{} - Updating patient", id);
         try {
             PatientDto updatedPatient = patientService.updatePatient(id, patientDto);
             return ResponseEntity.ok(updatedPatient);
@@ -81,7 +90,7 @@ public class PatientController {
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAnyRole('RECIPIENT', 'PATIENT')")
     public ResponseEntity<Void> deletePatient(@PathVariable Long id) {
-        log.info("DELETE /api/request/patient/{} - Deleting patient", id);
+        log.debug("DELETE /api/request/patient/{} - Deleting patient", id);
         try {
             patientService.deletePatient(id);
             return ResponseEntity.noContent().build();
@@ -1,10 +1,14 @@
 package com.bloodsync.controller;
 
 import com.bloodsync.dto.DonorDto;
-import com.bloodsync.entity.Hospital;
+import com.bloodsync.dto.NearbyHospitalDto;
+import com.bloodsync.dto.PublicHospitalDto;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.geo.GeoPoint;
 import com.bloodsync.service.BloodDonationService;
 import com.bloodsync.service.BloodInventoryService;
 import com.bloodsync.service.DonorService;
+import com.bloodsync.service.HospitalLocatorService;
 import com.bloodsync.service.HospitalService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,6 +18,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 @RestController
 @RequestMapping("/api/public")
@@ -26,45 +31,66 @@ public class PublicController {
     private final HospitalService hospitalService;
     private final BloodDonationService bloodDonationService;
     private final BloodInventoryService bloodInventoryService;
+    private final HospitalLocatorService hospitalLocatorService;
     
     @GetMapping("/donors")
     public ResponseEntity<List<DonorDto>> getPublicDonors() {
-        log.info("GET /api/public/donors - Fetching public donor information");
+        log.debug("GET /api/public/donors - Fetching public donor information");
         List<DonorDto> donors = donorService.getPublicDonors();
         return ResponseEntity.ok(donors);
     }
     
     @GetMapping("/donors/blood-group/{bloodGroup}")
     public ResponseEntity<List<DonorDto>> getPublicDonorsByBloodGroup(@PathVariable String bloodGroup) {
-        log.info("GET /api/public/donors/blood-group/{} - Fetching public donors by blood group", bloodGroup);
+        log.debug("GET /api/public/donors/blood-group/{} - Fetching public donors by blood group", bloodGroup);
         List<DonorDto> donors = donorService.getPublicDonorsByBloodGroup(bloodGroup);
         return ResponseEntity.ok(donors);
     }
     
     @GetMapping("/donors/location/{city}")
     public ResponseEntity<List<DonorDto>> getPublicDonorsByLocation(@PathVariable String city) {
-        log.info("GET /api/public/donors/location/{} - Fetching public donors by location", city);
+        log.debug("GET /api/public/donors/location/{} - Fetching public donors by location", city);
         List<DonorDto> donors = donorService.getPublicDonorsByLocation(city);
         return ResponseEntity.ok(donors);
     }
     
     @GetMapping("/hospitals")
-    public ResponseEntity<List<Hospital>> getPublicHospitals() {
-        log.info("GET /api/public/hospitals - Fetching public hospital information");
-        List<Hospital> hospitals = hospitalService.getPublicHospitals();
+    public ResponseEntity<List<PublicHospitalDto>> getPublicHospitals() {
+        log.debug("GET /api/public/hospitals - Fetching public hospital information");
+        List<PublicHospitalDto> hospitals = hospitalService.getPublicHospitals();
         return ResponseEntity.ok(hospitals);
     }
     
     @GetMapping("/hospitals/location/{city}")
-    public ResponseEntity<List<Hospital>> getPublicHospitalsByLocation(@PathVariable String city) {
-        log.info("GET /api/public/hospitals/location/{} - Fetching public hospitals by location", city);
-        List<Hospital> hospitals = hospitalService.getPublicHospitalsByLocation(city);
+    public ResponseEntity<List<PublicHospitalDto>> getPublicHospitalsByLocation(@PathVariable String city) {
+        log.debug("GET /api/public/hospitals/location/{} - Fetching public hospitals by location", city);
+        List<PublicHospitalDto> hospitals = hospitalService.getPublicHospitalsByLocation(city);
         return ResponseEntity.ok(hospitals);
     }
     
+    @GetMapping("/hospitals/nearby")
+    public ResponseEntity<List<NearbyHospitalDto>> getNearbyHospitals(
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String state,
+            @RequestParam(defaultValue = "25") double radiusKm,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String bloodGroup,
+            @RequestParam(required = false) Long minAvailable) {
+        log.debug("GET /api/public/hospitals/nearby - Finding hospitals within {} km, blood group: {}", radiusKm, bloodGroup);
+        try {
+            GeoPoint center = hospitalLocatorService.locate(lat, lon, city, state);
+            return ResponseEntity.ok(hospitalLocatorService.findNearby(center, radiusKm, limit, bloodGroup, minAvailable));
+        } catch (RuntimeException e) {
+            log.error("Error finding nearby hospitals: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @GetMapping("/blood-stats")
     public ResponseEntity<Map<String, Object>> getBloodDonationStats() {
-        log.info("GET /api/public/blood-stats - Fetching blood donation statistics");
+        log.debug("GET /api/public/blood-stats - Fetching blood donation statistics");
         
         Map<String, Object> stats = new HashMap<>();
         
@@ -73,8 +99,7 @@ public class PublicController {
         stats.put("totalDonors", allDonors.size());
         
         // Get total hospitals
-        List<Hospital> allHospitals = hospitalService.getPublicHospitals();
-        stats.put("totalHospitals", allHospitals.size());
+        stats.put("totalHospitals", hospitalService.countPublicHospitals());
         
         // Get total blood donations
         List<com.bloodsync.dto.BloodDonationDto> allDonations = bloodDonationService.getAllBloodDonations();
@@ -91,20 +116,25 @@ public class PublicController {
         stats.put("totalBloodVolume", totalBloodVolume);
         
         // Blood group distribution
-        Map<String, Long> bloodGroupDistribution = allDonors.stream()
-                .collect(java.util.stream.Collectors.groupingBy(
-                    DonorDto::getBloodGroup,
-                    java.util.stream.Collectors.counting()
-                ));
+        long[] counts = new long[BloodGroup.COUNT];
+        for (DonorDto donor : allDonors) {
+            counts[BloodGroup.fromLabel(donor.getBloodGroup()).ordinal()]++;
+        }
+        Map<String, Long> bloodGroupDistribution = new TreeMap<>();
+        for (BloodGroup bloodGroup : BloodGroup.values()) {
+            if (counts[bloodGroup.ordinal()] > 0) {
+                bloodGroupDistribution.put(bloodGroup.label(), counts[bloodGroup.ordinal()]);
+            }
+        }
         stats.put("bloodGroupDistribution", bloodGroupDistribution);
         
         return ResponseEntity.ok(stats);
     }
     
     @GetMapping("/emergency-contacts")
-    public ResponseEntity<List<Hospital>> getEmergencyContacts() {
-        log.info("GET /api/public/emergency-contacts - Fetching emergency contact information");
-        List<Hospital> emergencyContacts = hospitalService.getEmergencyContacts();
+    public ResponseEntity<List<PublicHospitalDto>> getEmergencyContacts() {
+        log.debug("GET /api/public/emergency-contacts - Fetching emergency contact information");
+        List<PublicHospitalDto> emergencyContacts = hospitalService.getEmergencyContacts();
         return ResponseEntity.ok(emergencyContacts);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.bloodsync.controller;
+
+import com.bloodsync.dto.DonorDto;
+import com.bloodsync.dto.PublicHospitalDto;
+import com.bloodsync.service.PublicReadService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+// Non-blocking read tier: the servlet thread is released as soon as the publisher is returned
+@RestController
+@RequestMapping("/api/public/stream")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class PublicStreamController {
+
+    private final PublicReadService publicReadService;
+
+    @GetMapping(value = "/donors", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<DonorDto> streamPublicDonors() {
+        log.debug("GET /api/public/stream/donors - Streaming public donor information");
+        return publicReadService.streamPublicDonors();
+    }
+
+    @GetMapping(value = "/hospitals", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<PublicHospitalDto> streamPublicHospitals() {
+        log.debug("GET /api/public/stream/hospitals - Streaming public hospital information");
+        return publicReadService.streamPublicHospitals();
+    }
+
+    @GetMapping("/blood-stats")
+    public Mono<ResponseEntity<Map<String, Object>>> getBloodDonationStats() {
+        log.debug("GET /api/public/stream/blood-stats - Aggregating blood donation statistics");
+        return publicReadService.getBloodStats().map(ResponseEntity::ok);
+    }
+}
@@ -1,5 +1,6 @@
 package com.bloodsync.controller;
 
+import com.bloodsync.dto.UserDto;
 import com.bloodsync.entity.User;
 import com.bloodsync.enums.UserRole;
 import com.bloodsync.service.UserService;
@@ -10,7 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import javax.validation.Valid;
+import jakarta.validation.Valid;
 import java.util.List;
 
 @RestController
@@ -24,14 +25,14 @@ public class UserController {
     
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
+    public ResponseEntity<List<UserDto>> getAllUsers() {
+        List<UserDto> users = userService.getAllUsers();
         return ResponseEntity.ok(users);
     }
     
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or #id == authentication.principal.id")
-    public ResponseEntity<User> getUserById(@PathVariable Long id) {
+    public ResponseEntity<UserDto> getUserById(@PathVariable Long id) {
         return userService.getUserById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -39,7 +40,7 @@ public class UserController {
     
     @GetMapping("/username/{username}")
     @PreAuthorize("hasRole('ADMIN') or #username == authentication.principal.username")
-    public ResponseEntity<User> getUserByUsername(@PathVariable String username) {
+    public ResponseEntity<UserDto> getUserByUsername(@PathVariable String username) {
         return userService.getUserByUsername(username)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -47,10 +48,10 @@ public class UserController {
     
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<User> createUser(@Valid @RequestBody User user) {
+    public ResponseEntity<UserDto> createUser(@Valid @RequestBody User user) {
         try {
             User createdUser = userService.createUser(user);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
+            return ResponseEntity.status(HttpStatus.CREATED).body(userService.convertToDto(createdUser));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -58,10 +59,10 @@ public class UserController {
     
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or #id == authentication.principal.id")
-    public ResponseEntity<User> updateUser(@PathVariable Long id, @Valid @RequestBody User userDetails) {
+    public ResponseEntity<UserDto> updateUser(@PathVariable Long id, @Valid @RequestBody User userDetails) {
         try {
             User updatedUser = userService.updateUser(id, userDetails);
-            return ResponseEntity.ok(updatedUser);
+            return ResponseEntity.ok(userService.convertToDto(updatedUser));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -89,6 +90,17 @@ public class UserController {
         }
     }
     
+    @PostMapping("/{id}/revoke-tokens")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> revokeTokens(@PathVariable Long id) {
+        try {
+            userService.revokeTokens(id);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
     @PostMapping("/{username}/unlock")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> unlockAccount(@PathVariable String username) {
@@ -98,28 +110,29 @@ public class UserController {
     
     @GetMapping("/role/{role}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<User>> getUsersByRole(@PathVariable UserRole role) {
-        List<User> users = userService.getUsersByRole(role);
+    public ResponseEntity<List<UserDto>> getUsersByRole(@PathVariable UserRole role) {
+        List<UserDto> users = userService.getUsersByRole(role);
         return ResponseEntity.ok(users);
     }
     
     // USER role specific endpoints
     @GetMapping("/profile")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<User> getCurrentUserProfile() {
-        log.info("GET /api/users/profile - Fetching current user profile");
+    public ResponseEntity<UserDto> getCurrentUserProfile() {
+        log.debug("GET /api/users/profile - Fetching current user profile");
         return userService.getCurrentUserProfile()
+                .map(userService::convertToDto)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
     
     @PutMapping("/profile")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<User> updateCurrentUserProfile(@Valid @RequestBody User userDetails) {
-        log.info("PUT /api/users/profile - Updating current user profile");
+    public ResponseEntity<UserDto> updateCurrentUserProfile(@Valid @RequestBody User userDetails) {
+        log.debug("PUT /api/users/profile - Updating current user profile");
         try {
             User updatedUser = userService.updateCurrentUserProfile(userDetails);
-            return ResponseEntity.ok(updatedUser);
+            return ResponseEntity.ok(userService.convertToDto(updatedUser));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -128,7 +141,7 @@ public class UserController {
     @PostMapping("/profile/change-password")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Void> changeCurrentUserPassword(@RequestBody String newPassword) {
-        log.info("POST /api/users/profile/change-password - Changing current user password");
+        log.debug("POST /api/users/profile/change-password - Changing current user password");
         try {
             userService.changeCurrentUserPassword(newPassword);
             return ResponseEntity.ok().build();
@@ -137,18 +150,10 @@ public class UserController {
         }
     }
     
-    @GetMapping("/dashboard")
-    @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<Object> getUserDashboard() {
-        log.info("GET /api/users/dashboard - Fetching user dashboard data");
-        Object dashboardData = userService.getUserDashboard();
-        return ResponseEntity.ok(dashboardData);
-    }
-    
     @PostMapping("/become-donor")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Void> becomeDonor(@RequestBody String bloodGroup) {
-        log.info("POST /api/users/become-donor - User requesting to become donor");
+        log.debug("POST /api/users/become-donor - User requesting to become donor");
         try {
             userService.becomeDonor(bloodGroup);
             return ResponseEntity.ok().build();
@@ -160,7 +165,7 @@ public class UserController {
     @PostMapping("/become-recipient")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Void> becomeRecipient() {
-        log.info("POST /api/users/become-recipient - User requesting to become recipient");
+        log.debug("POST /api/users/become-recipient - User requesting to become recipient");
         try {
             userService.becomeRecipient();
             return ResponseEntity.ok().build();
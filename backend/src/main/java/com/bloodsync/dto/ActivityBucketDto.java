@@ -0,0 +1,21 @@
+package com.bloodsync.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityBucketDto {
+
+    private LocalDateTime bucketStart;
+    private String granularity; // HOUR, DAY or MONTH
+    private Long hospitalId;
+    private String bloodGroup;
+    private String status;
+    private long count;
+    private long quantity; // in ml
+}
@@ -0,0 +1,22 @@
+package com.bloodsync.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.NotBlank;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusRequest {
+
+    @NotBlank(message = "Status is required")
+    private String status;
+
+    // Either the IDs to move, or search filters selecting them
+    private List<Long> ids;
+    private Map<String, String> filter;
+}
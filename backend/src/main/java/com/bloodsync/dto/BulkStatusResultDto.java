@@ -0,0 +1,38 @@
+package com.bloodsync.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class BulkStatusResultDto {
+
+    private String status;
+    private int updated;
+    private int unchanged;
+    private int rejected;
+    private int notFound;
+    private boolean complete = true; // false when a filter matched more rows than one call moves
+    private long elapsedMillis;
+
+    // One per ID, in ID order
+    private List<Outcome> outcomes = new ArrayList<>();
+
+    public enum Result {
+        UPDATED, UNCHANGED, INVALID_TRANSITION, NOT_FOUND
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Outcome {
+        private Long id;
+        private Result result;
+        private String previousStatus;
+        private String status;
+    }
+}
@@ -0,0 +1,46 @@
+package com.bloodsync.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardDto {
+    
+    private LocalDateTime generatedAt;
+    
+    private List<HospitalInventory> inventoryByHospital;
+    private Map<String, Long> openRequestsByPriority;
+    private QuantitySummary donationsThisWeek;
+    private QuantitySummary expiringUnits;
+    private Integer expiringWithinDays;
+    
+    // Sections that timed out or failed are null and listed here
+    private boolean partial;
+    private List<String> missingSections = new ArrayList<>();
+    private long elapsedMillis;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HospitalInventory {
+        private Long hospitalId;
+        private String hospitalName;
+        private Map<String, Long> availableByBloodGroup; // in ml
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class QuantitySummary {
+        private long count;
+        private long quantity; // in ml
+    }
+}
@@ -0,0 +1,24 @@
+package com.bloodsync.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DemandForecastDto {
+
+    private Long hospitalId;
+    private String bloodGroup;
+    private double dailyDemand; // forecast requested quantity per day, in ml
+    private double dailyDonations; // forecast donated quantity per day, in ml
+    private double demandStdDev; // of the one-day-ahead demand forecast, in ml
+    private int observations; // days of history in the model
+    private LocalDate fittedThrough;
+    private long reorderPoint; // in ml; inventory below it is LOW_STOCK
+    private LocalDateTime updatedAt;
+}
@@ -4,7 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import javax.validation.constraints.*;
+import jakarta.validation.constraints.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
@@ -53,6 +53,7 @@ public class DonorDto {
     
     private boolean isEligible;
     private LocalDate lastDonationDate;
+    private LocalDate deferralEndDate;
     private boolean isActive;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
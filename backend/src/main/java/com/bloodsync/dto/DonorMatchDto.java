@@ -0,0 +1,28 @@
+package com.bloodsync.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DonorMatchDto {
+
+    private Long donorId;
+    private String firstName;
+    private String lastName;
+    private String phoneNumber;
+    private String bloodGroup;
+    private String city;
+    private String state;
+    private LocalDate lastDonationDate;
+
+    // Ranking details
+    private boolean exactMatch;
+    private boolean sameCity;
+    private boolean sameState;
+    private Double distanceKm; // from the hospital, for proximity searches only
+}
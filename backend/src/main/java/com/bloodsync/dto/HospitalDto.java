@@ -4,9 +4,9 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import javax.validation.constraints.Email;
-import javax.validation.constraints.NotBlank;
-import javax.validation.constraints.Size;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 
 @Data
@@ -40,6 +40,9 @@ public class HospitalDto {
     @Size(max = 100, message = "State cannot exceed 100 characters")
     private String state;
     
+    private Double latitude;
+    private Double longitude;
+    
     @NotBlank(message = "License number is required")
     @Size(max = 50, message = "License number cannot exceed 50 characters")
     private String licenseNumber;
@@ -0,0 +1,27 @@
+package com.bloodsync.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryAvailabilityDto {
+
+    private Long hospitalId;
+    private String hospitalName;
+    private String city;
+    private String state;
+    private String phoneNumber;
+    private String bloodGroup;
+    private long availableQuantity; // in ml
+    private long reservedQuantity; // in ml
+    private long netAvailableQuantity; // available minus reserved, in ml
+    private long expiringQuantity; // in ml
+    private long expiredQuantity; // in ml
+    private LocalDateTime nextExpiry;
+    private LocalDateTime updatedAt;
+}
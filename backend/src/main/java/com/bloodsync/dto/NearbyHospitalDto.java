@@ -0,0 +1,24 @@
+package com.bloodsync.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyHospitalDto {
+
+    private Long hospitalId;
+    private String hospitalName;
+    private String city;
+    private String state;
+    private String phoneNumber;
+    private double latitude;
+    private double longitude;
+    private double distanceKm;
+
+    // Set when the search is filtered by blood group
+    private String bloodGroup;
+    private Long netAvailableQuantity; // in ml
+}
@@ -0,0 +1,22 @@
+package com.bloodsync.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// What unauthenticated callers see of a hospital: contact details and location only
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PublicHospitalDto {
+    
+    private Long id;
+    private String hospitalName;
+    private String email;
+    private String phoneNumber;
+    private String address;
+    private String city;
+    private String state;
+    private Double latitude;
+    private Double longitude;
+}
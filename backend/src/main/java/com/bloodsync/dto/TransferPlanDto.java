@@ -0,0 +1,23 @@
+package com.bloodsync.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class TransferPlanDto {
+
+    private LocalDateTime generatedAt;
+    private int horizonDays;
+    private double maxDistanceKm;
+    private long totalQuantity; // in ml
+    private long totalSavedFromExpiry; // in ml
+    private long elapsedMillis;
+
+    // Ordered by quantity saved from expiry, then by quantity
+    private List<TransferSuggestionDto> transfers = new ArrayList<>();
+}
@@ -0,0 +1,20 @@
+package com.bloodsync.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferSuggestionDto {
+
+    private String bloodGroup;
+    private Long fromHospitalId;
+    private String fromHospitalName;
+    private Long toHospitalId;
+    private String toHospitalName;
+    private double distanceKm;
+    private long quantity; // in ml
+    private long savedFromExpiry; // part of quantity that would otherwise expire unused, in ml
+}
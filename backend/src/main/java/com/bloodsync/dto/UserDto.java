@@ -0,0 +1,25 @@
+package com.bloodsync.dto;
+
+import com.bloodsync.enums.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Account as returned by the API; the password hash and lockout counters stay server-side
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDto {
+    
+    private Long id;
+    private String username;
+    private String email;
+    private String fullName;
+    private UserRole role;
+    private boolean isActive;
+    private boolean accountNonLocked;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,75 @@
+package com.bloodsync.entity;
+
+import com.bloodsync.enums.BloodGroup;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+// Count and quantity of donations or requests per (hospital, blood group, status) and time bucket.
+// Hourly, daily and monthly buckets live side by side; ActivityRollupService keeps all three
+// current from writes.
+@Entity
+@Table(name = "activity_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_activity_rollup_key",
+                columnNames = {"source", "granularity", "bucket_start", "hospital_id", "blood_group", "status"}),
+        indexes = @Index(name = "idx_activity_rollup_range", columnList = "source, granularity, bucket_start"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Source source;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 5)
+    private Granularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "hospital_id", nullable = false)
+    private Long hospitalId;
+
+    @Column(name = "blood_group", nullable = false, length = 3)
+    private BloodGroup bloodGroup;
+
+    // DonationStatus or RequestStatus name, depending on source
+    @Column(nullable = false, length = 16)
+    private String status;
+
+    @Column(name = "event_count", nullable = false)
+    private long eventCount;
+
+    // Donated or requested ml
+    @Column(nullable = false)
+    private long quantity;
+
+    public enum Source {
+        DONATION, REQUEST
+    }
+
+    public enum Granularity {
+        HOUR, DAY, MONTH;
+
+        public LocalDateTime truncate(LocalDateTime time) {
+            switch (this) {
+                case HOUR:
+                    return time.truncatedTo(ChronoUnit.HOURS);
+                case DAY:
+                    return time.truncatedTo(ChronoUnit.DAYS);
+                default:
+                    return time.toLocalDate().withDayOfMonth(1).atStartOfDay();
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.bloodsync.entity;
+
+import com.bloodsync.enums.BloodGroup;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Closed donation moved out of blood_donations by ArchiveService. Keeps the original ID and
+// copies the donor and hospital names, so archived rows read without joins and survive the
+// donor or hospital being removed.
+@Entity
+@Table(name = "blood_donations_archive",
+        indexes = {
+                @Index(name = "idx_donation_archive_donor", columnList = "donor_id"),
+                @Index(name = "idx_donation_archive_hospital", columnList = "hospital_id"),
+                @Index(name = "idx_donation_archive_date", columnList = "donation_date")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedBloodDonation implements Persistable<Long> {
+    
+    @Id
+    private Long id;
+    
+    @Column(name = "donor_id", nullable = false)
+    private Long donorId;
+    
+    @Column(name = "donor_name")
+    private String donorName;
+    
+    @Column(name = "hospital_id", nullable = false)
+    private Long hospitalId;
+    
+    @Column(name = "hospital_name")
+    private String hospitalName;
+    
+    @Column(name = "donation_date", nullable = false)
+    private LocalDateTime donationDate;
+    
+    @Column(name = "blood_group", nullable = false, length = 3)
+    private BloodGroup bloodGroup;
+    
+    @Column(nullable = false)
+    private Integer quantity; // in ml
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "donation_status", nullable = false)
+    private BloodDonation.DonationStatus status;
+    
+    @Column(name = "notes", length = 500)
+    private String notes;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+    
+    // Archive rows are only ever inserted; skips the existence check save() does for assigned IDs
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,74 @@
+package com.bloodsync.entity;
+
+import com.bloodsync.enums.BloodGroup;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Closed request moved out of blood_requests by ArchiveService, keeping its original ID
+@Entity
+@Table(name = "blood_requests_archive",
+        indexes = {
+                @Index(name = "idx_request_archive_patient", columnList = "patient_id"),
+                @Index(name = "idx_request_archive_hospital", columnList = "hospital_id"),
+                @Index(name = "idx_request_archive_date", columnList = "request_date")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedBloodRequest implements Persistable<Long> {
+    
+    @Id
+    private Long id;
+    
+    @Column(name = "patient_id", nullable = false)
+    private Long patientId;
+    
+    @Column(name = "hospital_id", nullable = false)
+    private Long hospitalId;
+    
+    @Column(name = "blood_group", nullable = false, length = 3)
+    private BloodGroup bloodGroup;
+    
+    @Column(name = "required_quantity", nullable = false)
+    private Integer requiredQuantity; // in ml
+    
+    @Column(name = "request_date", nullable = false)
+    private LocalDateTime requestDate;
+    
+    @Column(name = "required_date", nullable = false)
+    private LocalDateTime requiredDate;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "request_status", nullable = false)
+    private BloodRequest.RequestStatus status;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority_level", nullable = false)
+    private BloodRequest.PriorityLevel priority;
+    
+    @Column(nullable = false, length = 500)
+    private String reason;
+    
+    @Column(name = "notes", length = 500)
+    private String notes;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+    
+    // Archive rows are only ever inserted; skips the existence check save() does for assigned IDs
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -1,15 +1,19 @@
 package com.bloodsync.entity;
 
+import com.bloodsync.enums.BloodGroup;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import javax.persistence.*;
-import javax.validation.constraints.*;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "blood_donations")
+@Table(name = "blood_donations", indexes = {
+    @Index(name = "idx_blood_donations_group_status", columnList = "blood_group, donation_status"),
+    @Index(name = "idx_blood_donations_donation_date", columnList = "donation_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -34,9 +38,8 @@ public class BloodDonation {
     private LocalDateTime donationDate;
     
     @NotNull(message = "Blood group is required")
-    @Pattern(regexp = "^(A|B|AB|O)[+-]$", message = "Blood group must be in format A+, A-, B+, B-, AB+, AB-, O+, O-")
-    @Column(name = "blood_group", nullable = false)
-    private String bloodGroup;
+    @Column(name = "blood_group", nullable = false, length = 3)
+    private BloodGroup bloodGroup;
     
     @NotNull(message = "Quantity is required")
     @Min(value = 200, message = "Minimum donation quantity is 200ml")
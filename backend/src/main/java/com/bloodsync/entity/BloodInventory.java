@@ -1,15 +1,22 @@
 package com.bloodsync.entity;
 
+import com.bloodsync.enums.BloodGroup;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import javax.persistence.*;
-import javax.validation.constraints.*;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "blood_inventory")
+@Table(name = "blood_inventory", uniqueConstraints = {
+    // One live row per hospital and blood group; quarantined and expired lots carry a null live_stock
+    @UniqueConstraint(name = "uk_blood_inventory_live_stock", columnNames = {"hospital_id", "blood_group", "live_stock"})
+}, indexes = {
+    @Index(name = "idx_blood_inventory_hospital_group_status", columnList = "hospital_id, blood_group, inventory_status"),
+    @Index(name = "idx_blood_inventory_expiry_date", columnList = "expiry_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,9 +32,8 @@ public class BloodInventory {
     private Hospital hospital;
     
     @NotNull(message = "Blood group is required")
-    @Pattern(regexp = "^(A|B|AB|O)[+-]$", message = "Blood group must be in format A+, A-, B+, B-, AB+, AB-, O+, O-")
-    @Column(name = "blood_group", nullable = false)
-    private String bloodGroup;
+    @Column(name = "blood_group", nullable = false, length = 3)
+    private BloodGroup bloodGroup;
     
     @NotNull(message = "Available quantity is required")
     @Min(value = 0, message = "Available quantity cannot be negative")
@@ -48,6 +54,11 @@ public class BloodInventory {
     @Column(name = "inventory_status", nullable = false)
     private InventoryStatus status = InventoryStatus.AVAILABLE;
     
+    // TRUE while the status is a stock level, otherwise null (never FALSE), so that the unique key
+    // only binds live rows. Kept in step with the status on every write.
+    @Column(name = "live_stock")
+    private Boolean liveStock;
+    
     @Size(max = 500, message = "Notes cannot exceed 500 characters")
     @Column(name = "notes")
     private String notes;
@@ -59,17 +70,28 @@ public class BloodInventory {
     private LocalDateTime updatedAt;
     
     public enum InventoryStatus {
-        AVAILABLE, LOW_STOCK, OUT_OF_STOCK, EXPIRED, QUARANTINED
+        AVAILABLE, LOW_STOCK, OUT_OF_STOCK, EXPIRED, QUARANTINED;
+        
+        // Stock levels derived from the quantity, as opposed to lots taken out of stock
+        public boolean isLive() {
+            return this == AVAILABLE || this == LOW_STOCK || this == OUT_OF_STOCK;
+        }
+    }
+    
+    public static Boolean liveStockOf(InventoryStatus status) {
+        return status != null && status.isLive() ? Boolean.TRUE : null;
     }
     
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        liveStock = liveStockOf(status);
     }
     
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        liveStock = liveStockOf(status);
     }
 } 
\ No newline at end of file
@@ -1,15 +1,19 @@
 package com.bloodsync.entity;
 
+import com.bloodsync.enums.BloodGroup;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import javax.persistence.*;
-import javax.validation.constraints.*;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "blood_requests")
+@Table(name = "blood_requests", indexes = {
+    @Index(name = "idx_blood_requests_group_status", columnList = "blood_group, request_status"),
+    @Index(name = "idx_blood_requests_request_date", columnList = "request_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -29,10 +33,9 @@ public class BloodRequest {
     @JoinColumn(name = "hospital_id", nullable = false)
     private Hospital hospital;
     
-    @NotBlank(message = "Blood group is required")
-    @Pattern(regexp = "^(A|B|AB|O)[+-]$", message = "Blood group must be in format A+, A-, B+, B-, AB+, AB-, O+, O-")
-    @Column(name = "blood_group", nullable = false)
-    private String bloodGroup;
+    @NotNull(message = "Blood group is required")
+    @Column(name = "blood_group", nullable = false, length = 3)
+    private BloodGroup bloodGroup;
     
     @NotNull(message = "Required quantity is required")
     @Min(value = 100, message = "Minimum required quantity is 100ml")
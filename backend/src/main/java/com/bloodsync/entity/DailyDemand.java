@@ -0,0 +1,43 @@
+package com.bloodsync.entity;
+
+import com.bloodsync.enums.BloodGroup;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+// Daily rollup of requested and donated quantity per (hospital, blood group). Maintained
+// incrementally by DemandForecastService from request and donation writes.
+@Entity
+@Table(name = "daily_demand",
+        uniqueConstraints = @UniqueConstraint(name = "uk_daily_demand_key",
+                columnNames = {"hospital_id", "blood_group", "demand_day"}),
+        indexes = @Index(name = "idx_daily_demand_day", columnList = "demand_day"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyDemand {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "hospital_id", nullable = false)
+    private Long hospitalId;
+    
+    @Column(name = "blood_group", nullable = false, length = 3)
+    private BloodGroup bloodGroup;
+    
+    @Column(name = "demand_day", nullable = false)
+    private LocalDate day;
+    
+    // Requests raised that day, excluding cancelled ones, in ml
+    @Column(name = "requested_quantity", nullable = false)
+    private long requestedQuantity;
+    
+    // Completed donations that day, in ml
+    @Column(name = "donated_quantity", nullable = false)
+    private long donatedQuantity;
+}
@@ -0,0 +1,58 @@
+package com.bloodsync.entity;
+
+import com.bloodsync.enums.BloodGroup;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Exponential smoothing state and reorder point per (hospital, blood group). The state is
+// carried forward day by day, so a nightly run only reads the days since fittedThrough.
+@Entity
+@Table(name = "demand_forecasts",
+        uniqueConstraints = @UniqueConstraint(name = "uk_demand_forecast_key",
+                columnNames = {"hospital_id", "blood_group"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DemandForecast {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "hospital_id", nullable = false)
+    private Long hospitalId;
+    
+    @Column(name = "blood_group", nullable = false, length = 3)
+    private BloodGroup bloodGroup;
+    
+    // Smoothed daily requested quantity in ml
+    @Column(name = "demand_level", nullable = false)
+    private double demandLevel;
+    
+    // Smoothed squared one-day-ahead forecast error of demand
+    @Column(name = "demand_variance", nullable = false)
+    private double demandVariance;
+    
+    // Smoothed daily donated quantity in ml
+    @Column(name = "supply_level", nullable = false)
+    private double supplyLevel;
+    
+    @Column(name = "observations", nullable = false)
+    private int observations;
+    
+    // Last day folded into the smoothing state
+    @Column(name = "fitted_through", nullable = false)
+    private LocalDate fittedThrough;
+    
+    // Stock in ml below which inventory is LOW_STOCK
+    @Column(name = "reorder_point", nullable = false)
+    private long reorderPoint;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -1,16 +1,20 @@
 package com.bloodsync.entity;
 
+import com.bloodsync.enums.BloodGroup;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import javax.persistence.*;
-import javax.validation.constraints.*;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "donors")
+@Table(name = "donors", indexes = {
+    @Index(name = "idx_donors_deferral_end_date", columnList = "deferral_end_date"),
+    @Index(name = "idx_donors_blood_group_city", columnList = "blood_group, city")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -45,10 +49,9 @@ public class Donor {
     @Column(name = "date_of_birth", nullable = false)
     private LocalDate dateOfBirth;
     
-    @NotBlank(message = "Blood group is required")
-    @Pattern(regexp = "^(A|B|AB|O)[+-]$", message = "Blood group must be in format A+, A-, B+, B-, AB+, AB-, O+, O-")
-    @Column(name = "blood_group", nullable = false)
-    private String bloodGroup;
+    @NotNull(message = "Blood group is required")
+    @Column(name = "blood_group", nullable = false, length = 3)
+    private BloodGroup bloodGroup;
     
     @NotBlank(message = "Address is required")
     @Size(max = 500, message = "Address cannot exceed 500 characters")
@@ -65,12 +68,23 @@ public class Donor {
     @Column(nullable = false)
     private String state;
     
+    // City centroid from the offline geocoder; donors' own addresses are never located
+    @Column(name = "latitude")
+    private Double latitude;
+    
+    @Column(name = "longitude")
+    private Double longitude;
+    
     @Column(name = "is_eligible")
     private boolean isEligible = true;
     
     @Column(name = "last_donation_date")
     private LocalDate lastDonationDate;
     
+    // Day the post-donation deferral ends; null unless deferred by a donation
+    @Column(name = "deferral_end_date")
+    private LocalDate deferralEndDate;
+    
     @Column(name = "is_active")
     private boolean isActive = true;
     
@@ -0,0 +1,72 @@
+package com.bloodsync.entity;
+
+import com.bloodsync.enums.BloodGroup;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Denormalized availability per (hospital, blood group), carrying the hospital's city for
+// lookups. Derived from blood_inventory and blood_requests by InventoryAvailabilityService;
+// never written directly.
+@Entity
+@Table(name = "inventory_availability",
+        uniqueConstraints = @UniqueConstraint(name = "uk_inventory_availability_hospital",
+                columnNames = {"hospital_id", "blood_group"}),
+        indexes = {
+                @Index(name = "idx_inventory_availability_group", columnList = "blood_group"),
+                @Index(name = "idx_inventory_availability_city", columnList = "city_key, blood_group")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryAvailability {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    // Trimmed, lower-cased hospital city used for lookups
+    @Column(name = "city_key", nullable = false, length = 100)
+    private String cityKey;
+    
+    @Column(name = "blood_group", nullable = false, length = 3)
+    private BloodGroup bloodGroup;
+    
+    @Column(name = "hospital_id", nullable = false)
+    private Long hospitalId;
+    
+    @Column(name = "hospital_name", nullable = false)
+    private String hospitalName;
+    
+    @Column(name = "city", nullable = false, length = 100)
+    private String city;
+    
+    @Column(name = "state", nullable = false, length = 100)
+    private String state;
+    
+    @Column(name = "phone_number", length = 20)
+    private String phoneNumber;
+    
+    // Usable (AVAILABLE/LOW_STOCK, unexpired) quantity in ml
+    @Column(name = "available_quantity", nullable = false)
+    private long availableQuantity;
+    
+    // Quantity held by APPROVED requests in ml
+    @Column(name = "reserved_quantity", nullable = false)
+    private long reservedQuantity;
+    
+    @Column(name = "expiring_quantity", nullable = false)
+    private long expiringQuantity;
+    
+    @Column(name = "expired_quantity", nullable = false)
+    private long expiredQuantity;
+    
+    @Column(name = "next_expiry")
+    private LocalDateTime nextExpiry;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
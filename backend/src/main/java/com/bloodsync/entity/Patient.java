@@ -1,16 +1,19 @@
 package com.bloodsync.entity;
 
+import com.bloodsync.enums.BloodGroup;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import javax.persistence.*;
-import javax.validation.constraints.*;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "patients")
+@Table(name = "patients", indexes = {
+    @Index(name = "idx_patients_hospital_group", columnList = "hospital_id, blood_group")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -45,10 +48,9 @@ public class Patient {
     @Column(name = "date_of_birth", nullable = false)
     private LocalDate dateOfBirth;
     
-    @NotBlank(message = "Blood group is required")
-    @Pattern(regexp = "^(A|B|AB|O)[+-]$", message = "Blood group must be in format A+, A-, B+, B-, AB+, AB-, O+, O-")
-    @Column(name = "blood_group", nullable = false)
-    private String bloodGroup;
+    @NotNull(message = "Blood group is required")
+    @Column(name = "blood_group", nullable = false, length = 3)
+    private BloodGroup bloodGroup;
     
     @NotBlank(message = "Address is required")
     @Size(max = 500, message = "Address cannot exceed 500 characters")
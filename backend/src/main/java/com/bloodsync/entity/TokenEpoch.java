@@ -0,0 +1,27 @@
+package com.bloodsync.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Per-user revocation epoch: access tokens issued before revokedBefore are rejected. One row per
+// user, moved forward whenever all of the user's sessions are revoked.
+@Entity
+@Table(name = "token_epochs", indexes = {
+        @Index(name = "idx_token_epochs_revoked_before", columnList = "revoked_before")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenEpoch {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "revoked_before", nullable = false)
+    private LocalDateTime revokedBefore;
+}
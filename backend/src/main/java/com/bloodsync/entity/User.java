@@ -5,9 +5,9 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import javax.persistence.*;
-import javax.validation.constraints.Email;
-import javax.validation.constraints.NotBlank;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
 import java.time.LocalDateTime;
 
 @Entity
@@ -53,12 +53,6 @@ public class User {
     @Column(name = "lock_time")
     private LocalDateTime lockTime;
     
-    @Column(name = "refresh_token")
-    private String refreshToken;
-    
-    @Column(name = "refresh_token_expiry")
-    private LocalDateTime refreshTokenExpiry;
-    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
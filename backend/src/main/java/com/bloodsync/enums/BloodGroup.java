@@ -0,0 +1,115 @@
+package com.bloodsync.enums;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// ABO/Rh blood group. The ordinal is the antigen mask (A = 1, B = 2, RhD = 4), so per-group
+// totals fit in arrays of COUNT and red-cell compatibility is a subset test on ordinals.
+public enum BloodGroup {
+    O_NEG("O-"),
+    A_NEG("A-"),
+    B_NEG("B-"),
+    AB_NEG("AB-"),
+    O_POS("O+"),
+    A_POS("A+"),
+    B_POS("B+"),
+    AB_POS("AB+");
+
+    public static final int COUNT = 8;
+
+    private static final BloodGroup[] VALUES = values();
+
+    // Order donors are offered in: same ABO group first, RhD-positive before negative
+    private static final BloodGroup[] PREFERENCE = {AB_POS, AB_NEG, A_POS, A_NEG, B_POS, B_NEG, O_POS, O_NEG};
+
+    // Recipient ordinal -> compatible donor groups, exact match first
+    private static final List<List<BloodGroup>> DONORS_FOR = new ArrayList<>(COUNT);
+
+    // Recipient ordinal -> bit set of compatible donor ordinals
+    private static final int[] DONOR_MASKS = new int[COUNT];
+
+    static {
+        for (BloodGroup recipient : VALUES) {
+            List<BloodGroup> donors = new ArrayList<>();
+            for (BloodGroup donor : PREFERENCE) {
+                if (donor.canDonateTo(recipient)) {
+                    donors.add(donor);
+                    DONOR_MASKS[recipient.ordinal()] |= 1 << donor.ordinal();
+                }
+            }
+            DONORS_FOR.add(List.copyOf(donors));
+        }
+    }
+
+    private final String label;
+
+    BloodGroup(String label) {
+        this.label = label;
+    }
+
+    @JsonValue
+    public String label() {
+        return label;
+    }
+
+    public boolean canDonateTo(BloodGroup recipient) {
+        return (ordinal() & ~recipient.ordinal()) == 0;
+    }
+
+    public List<BloodGroup> compatibleDonors() {
+        return DONORS_FOR.get(ordinal());
+    }
+
+    // Bit i is set when BloodGroup.of(i) can donate to this group
+    public int donorMask() {
+        return DONOR_MASKS[ordinal()];
+    }
+
+    public static BloodGroup of(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    // Hospital ID and group packed into one map key, replacing "id|group" strings
+    public static long key(long hospitalId, BloodGroup bloodGroup) {
+        return hospitalId * COUNT + bloodGroup.ordinal();
+    }
+
+    public static long hospitalOf(long key) {
+        return key / COUNT;
+    }
+
+    public static BloodGroup groupOf(long key) {
+        return VALUES[(int) (key % COUNT)];
+    }
+
+    // Accepts the canonical labels plus the spellings found in older rows and clients:
+    // any case, embedded spaces, "pos"/"neg"/"positive"/"negative"/"+ve"/"-ve" and a zero for O
+    @JsonCreator
+    public static BloodGroup fromLabel(String value) {
+        if (value == null) {
+            return null;
+        }
+        String normalized = value.toUpperCase(Locale.ROOT).replaceAll("[\\s_]", "")
+                .replace("POSITIVE", "+").replace("NEGATIVE", "-")
+                .replace("POS", "+").replace("NEG", "-")
+                .replace("+VE", "+").replace("-VE", "-");
+        if (normalized.startsWith("0")) {
+            normalized = "O" + normalized.substring(1);
+        }
+        for (BloodGroup bloodGroup : VALUES) {
+            if (bloodGroup.label.equals(normalized)) {
+                return bloodGroup;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported blood group: " + value);
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,21 @@
+package com.bloodsync.enums;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Stores the canonical label ("AB+") in a three-character column. Reading goes through
+// BloodGroup.fromLabel, so legacy spellings load as the right group and are rewritten
+// canonically on the next save.
+@Converter(autoApply = true)
+public class BloodGroupConverter implements AttributeConverter<BloodGroup, String> {
+
+    @Override
+    public String convertToDatabaseColumn(BloodGroup bloodGroup) {
+        return bloodGroup != null ? bloodGroup.label() : null;
+    }
+
+    @Override
+    public BloodGroup convertToEntityAttribute(String value) {
+        return BloodGroup.fromLabel(value);
+    }
+}
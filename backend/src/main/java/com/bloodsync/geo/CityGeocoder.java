@@ -0,0 +1,71 @@
+package com.bloodsync.geo;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+// Offline geocoding against the bundled city table; resolves to the city centroid
+@Component
+@Slf4j
+public class CityGeocoder {
+
+    private static final String CITY_TABLE = "geo/cities.csv";
+
+    // "city|state" -> centroid
+    private final Map<String, GeoPoint> byCityAndState = new HashMap<>();
+
+    // City alone, for callers without a (matching) state
+    private final Map<String, GeoPoint> byCity = new HashMap<>();
+
+    public CityGeocoder() {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ClassPathResource(CITY_TABLE).getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            boolean header = true;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                if (header) {
+                    header = false;
+                    continue;
+                }
+                String[] columns = line.split(",");
+                GeoPoint point = new GeoPoint(Double.parseDouble(columns[2]), Double.parseDouble(columns[3]));
+                byCityAndState.put(normalize(columns[0]) + "|" + normalize(columns[1]), point);
+                byCity.putIfAbsent(normalize(columns[0]), point);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to load " + CITY_TABLE, e);
+        }
+        log.info("Loaded {} cities for offline geocoding", byCityAndState.size());
+    }
+
+    public Optional<GeoPoint> locate(String city, String state) {
+        if (city == null) {
+            return Optional.empty();
+        }
+        GeoPoint point = byCityAndState.get(normalize(city) + "|" + normalize(state));
+        return Optional.ofNullable(point != null ? point : byCity.get(normalize(city)));
+    }
+
+    // Explicit coordinates win; otherwise the city centroid
+    public Optional<GeoPoint> locate(Double latitude, Double longitude, String city, String state) {
+        GeoPoint explicit = GeoPoint.of(latitude, longitude);
+        return explicit != null ? Optional.of(explicit) : locate(city, state);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
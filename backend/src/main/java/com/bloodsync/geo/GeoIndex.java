@@ -0,0 +1,146 @@
+package com.bloodsync.geo;
+
+import lombok.Value;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+// Fixed-precision grid (a geohash at one level) over latitude/longitude cells. Queries walk
+// rings of cells outward from the centre and stop once no unvisited cell can beat the
+// current k-th hit or lie inside the radius. Safe for concurrent reads; writers must be serialized.
+public class GeoIndex<T> {
+
+    private static final double KM_PER_DEGREE = Math.PI * GeoPoint.EARTH_RADIUS_KM / 180;
+
+    // About 22 km of latitude per cell
+    private static final double DEFAULT_CELL_DEGREES = 0.2;
+
+    private final double cellDegrees;
+
+    // Cell key -> item ID -> entry
+    private final Map<Long, Map<Long, Entry<T>>> cells = new ConcurrentHashMap<>();
+
+    // Item ID -> entry, to find the old cell on move or removal
+    private final Map<Long, Entry<T>> entries = new ConcurrentHashMap<>();
+
+    public GeoIndex() {
+        this(DEFAULT_CELL_DEGREES);
+    }
+
+    public GeoIndex(double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+    }
+
+    public void put(Long id, GeoPoint point, T value) {
+        remove(id);
+        Entry<T> entry = new Entry<>(id, point, value);
+        entries.put(id, entry);
+        cells.computeIfAbsent(cellKey(point), key -> new ConcurrentHashMap<>()).put(id, entry);
+    }
+
+    public void remove(Long id) {
+        Entry<T> existing = entries.remove(id);
+        if (existing == null) {
+            return;
+        }
+        Map<Long, Entry<T>> cell = cells.get(cellKey(existing.getPoint()));
+        if (cell != null) {
+            cell.remove(id);
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+        cells.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Up to `limit` items within `radiusKm` of the centre that pass the filter, nearest first
+    public List<Hit<T>> nearest(GeoPoint center, double radiusKm, int limit, Predicate<T> filter) {
+        if (limit <= 0 || entries.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int centerRow = row(center.getLatitude());
+        int centerColumn = column(center.getLongitude());
+        int maxRing = (int) Math.ceil(180 / cellDegrees);
+
+        // Bounded max-heap of the best `limit` hits so far
+        PriorityQueue<Hit<T>> best = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(Hit<T>::getDistanceKm).reversed());
+        for (int ring = 0; ring <= maxRing; ring++) {
+            double ringDistanceKm = minDistanceKm(center, ring);
+            if (ringDistanceKm > radiusKm || best.size() == limit && ringDistanceKm > best.peek().getDistanceKm()) {
+                break;
+            }
+            for (int dRow = -ring; dRow <= ring; dRow++) {
+                // Full rows at the ring's top and bottom edge, only the two end cells in between
+                int step = Math.abs(dRow) == ring ? 1 : Math.max(1, 2 * ring);
+                for (int dColumn = -ring; dColumn <= ring; dColumn += step) {
+                    Map<Long, Entry<T>> cell = cells.get(cellKey(centerRow + dRow, centerColumn + dColumn));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (Entry<T> entry : cell.values()) {
+                        double distanceKm = center.distanceKm(entry.getPoint());
+                        if (distanceKm > radiusKm || !filter.test(entry.getValue())) {
+                            continue;
+                        }
+                        best.offer(new Hit<>(entry.getValue(), entry.getPoint(), distanceKm));
+                        if (best.size() > limit) {
+                            best.poll();
+                        }
+                    }
+                }
+            }
+        }
+
+        List<Hit<T>> hits = new ArrayList<>(best);
+        hits.sort(Comparator.comparingDouble(Hit::getDistanceKm));
+        return hits;
+    }
+
+    // Lower bound on the distance from the centre to any cell of the given ring. The centre may
+    // sit anywhere in its own cell, so one cell width is discounted; longitude cells narrow
+    // towards the poles, so the narrowest row the ring reaches is used.
+    private double minDistanceKm(GeoPoint center, int ring) {
+        if (ring <= 1) {
+            return 0;
+        }
+        double farthestLatitude = Math.min(89.9, Math.abs(center.getLatitude()) + (ring + 1) * cellDegrees);
+        double cellKm = cellDegrees * KM_PER_DEGREE * Math.cos(Math.toRadians(farthestLatitude));
+        return (ring - 1) * cellKm;
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor(latitude / cellDegrees);
+    }
+
+    private int column(double longitude) {
+        return (int) Math.floor(longitude / cellDegrees);
+    }
+
+    private long cellKey(GeoPoint point) {
+        return cellKey(row(point.getLatitude()), column(point.getLongitude()));
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+
+    @Value
+    private static class Entry<T> {
+        Long id;
+        GeoPoint point;
+        T value;
+    }
+
+    @Value
+    public static class Hit<T> {
+        T value;
+        GeoPoint point;
+        double distanceKm;
+    }
+}
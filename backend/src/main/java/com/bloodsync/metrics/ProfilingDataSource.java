@@ -0,0 +1,206 @@
+package com.bloodsync.metrics;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Times every statement executed through the pool and counts its rows for SqlProfiler. Connections,
+// statements and result sets are handed out as JDK proxies; unwrap() still reaches the pool, so
+// Hikari metrics and health checks see through this. A query is recorded when its result set (or
+// failing that, its statement) is closed, with the time spent in execute and the rows read.
+public class ProfilingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final ObjectProvider<SqlProfiler> profilerProvider;
+    private volatile SqlProfiler profiler;
+
+    public ProfilingDataSource(DataSource target, ObjectProvider<SqlProfiler> profilerProvider) {
+        super(target);
+        this.profilerProvider = profilerProvider;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    // Shuts the pool down with the context, as it would be if it weren't wrapped
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable pool) {
+            pool.close();
+        }
+    }
+
+    // Resolved on first use: the pool is wrapped before the profiler bean exists
+    private SqlProfiler profiler() {
+        SqlProfiler resolved = profiler;
+        if (resolved == null) {
+            resolved = profilerProvider.getObject();
+            profiler = resolved;
+        }
+        return resolved;
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(ProfilingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private abstract static class Delegating implements InvocationHandler {
+        protected final Object target;
+
+        Delegating(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> intercept(method, args);
+            };
+        }
+
+        abstract Object intercept(Method method, Object[] args) throws Throwable;
+
+        Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private final class ConnectionHandler extends Delegating {
+
+        ConnectionHandler(Connection target) {
+            super(target);
+        }
+
+        @Override
+        Object intercept(Method method, Object[] args) throws Throwable {
+            Object result = call(method, args);
+            if (!(result instanceof Statement statement)) {
+                return result;
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+            if (statement instanceof CallableStatement) {
+                return proxy(CallableStatement.class, new StatementHandler(statement, sql));
+            }
+            if (statement instanceof PreparedStatement) {
+                return proxy(PreparedStatement.class, new StatementHandler(statement, sql));
+            }
+            return proxy(Statement.class, new StatementHandler(statement, sql));
+        }
+    }
+
+    private final class StatementHandler extends Delegating {
+        private final String sql;
+        private RowCounter open;
+
+        StatementHandler(Statement target, String sql) {
+            super(target);
+            this.sql = sql;
+        }
+
+        @Override
+        Object intercept(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                if (name.equals("close")) {
+                    flush();
+                }
+                return call(method, args);
+            }
+            // Plain statements carry their SQL in the execute call
+            String executed = args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+            flush();
+            long start = System.nanoTime();
+            Object result = call(method, args);
+            long elapsed = System.nanoTime() - start;
+            if (result instanceof ResultSet resultSet) {
+                open = new RowCounter(resultSet, executed, elapsed);
+                return proxy(ResultSet.class, open);
+            }
+            profiler().recordStatement(executed, elapsed, rows(result));
+            return result;
+        }
+
+        private void flush() {
+            if (open != null) {
+                open.record();
+                open = null;
+            }
+        }
+
+        private static long rows(Object result) {
+            if (result instanceof Number count) {
+                return Math.max(count.longValue(), 0);
+            }
+            long rows = 0;
+            if (result instanceof int[] counts) {
+                for (int count : counts) {
+                    rows += Math.max(count, 0);
+                }
+            } else if (result instanceof long[] counts) {
+                for (long count : counts) {
+                    rows += Math.max(count, 0);
+                }
+            }
+            return rows;
+        }
+    }
+
+    private final class RowCounter extends Delegating {
+        private final String sql;
+        private final long elapsed;
+        private long rows;
+        private boolean recorded;
+
+        RowCounter(ResultSet target, String sql, long elapsed) {
+            super(target);
+            this.sql = sql;
+            this.elapsed = elapsed;
+        }
+
+        @Override
+        Object intercept(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("next")) {
+                Object more = call(method, args);
+                if (Boolean.TRUE.equals(more)) {
+                    rows++;
+                }
+                return more;
+            }
+            if (name.equals("close")) {
+                record();
+            }
+            return call(method, args);
+        }
+
+        void record() {
+            if (!recorded) {
+                recorded = true;
+                profiler().recordStatement(sql, elapsed, rows);
+            }
+        }
+    }
+}
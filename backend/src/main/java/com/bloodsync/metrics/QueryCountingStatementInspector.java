@@ -0,0 +1,23 @@
+package com.bloodsync.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Counts SQL statements prepared by Hibernate on the current thread
+public class QueryCountingStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<long[]> STATEMENT_COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENT_COUNT.get()[0]++;
+        return sql;
+    }
+
+    public static void reset() {
+        STATEMENT_COUNT.get()[0] = 0;
+    }
+
+    public static long currentCount() {
+        return STATEMENT_COUNT.get()[0];
+    }
+}
@@ -0,0 +1,80 @@
+package com.bloodsync.metrics;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// The N slowest statements since a window opened, without locks. Entries only ever replace a
+// faster one, so the floor (the fastest entry once the slots are full) only rises; reading a stale
+// one just sends a statement down the CAS path to be turned away there.
+final class SlowQueryLog {
+
+    private final AtomicReferenceArray<SqlProfiler.SlowQuery> slots;
+    private final Instant openedAt = Instant.now();
+    private volatile long floorMicros = -1;
+
+    SlowQueryLog(int size) {
+        slots = new AtomicReferenceArray<>(size);
+    }
+
+    Instant openedAt() {
+        return openedAt;
+    }
+
+    // Cheap pre-check, so the entry (and its origin) is only built for candidates
+    boolean admits(long micros) {
+        return micros > floorMicros;
+    }
+
+    void offer(SqlProfiler.SlowQuery query) {
+        while (true) {
+            int fastest = -1;
+            SqlProfiler.SlowQuery fastestQuery = null;
+            for (int i = 0; i < slots.length(); i++) {
+                SqlProfiler.SlowQuery slot = slots.get(i);
+                if (slot == null) {
+                    fastest = i;
+                    fastestQuery = null;
+                    break;
+                }
+                if (fastestQuery == null || slot.micros() < fastestQuery.micros()) {
+                    fastest = i;
+                    fastestQuery = slot;
+                }
+            }
+            if (fastest < 0 || fastestQuery != null && query.micros() <= fastestQuery.micros()) {
+                return;
+            }
+            if (slots.compareAndSet(fastest, fastestQuery, query)) {
+                raiseFloor();
+                return;
+            }
+        }
+    }
+
+    List<SqlProfiler.SlowQuery> entries() {
+        List<SqlProfiler.SlowQuery> entries = new ArrayList<>(slots.length());
+        for (int i = 0; i < slots.length(); i++) {
+            SqlProfiler.SlowQuery slot = slots.get(i);
+            if (slot != null) {
+                entries.add(slot);
+            }
+        }
+        entries.sort(Comparator.comparingLong(SqlProfiler.SlowQuery::micros).reversed());
+        return entries;
+    }
+
+    private void raiseFloor() {
+        long floor = Long.MAX_VALUE;
+        for (int i = 0; i < slots.length(); i++) {
+            SqlProfiler.SlowQuery slot = slots.get(i);
+            if (slot == null) {
+                return;
+            }
+            floor = Math.min(floor, slot.micros());
+        }
+        floorMicros = floor;
+    }
+}
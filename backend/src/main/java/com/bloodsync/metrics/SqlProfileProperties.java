@@ -0,0 +1,24 @@
+package com.bloodsync.metrics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// sql-profile.* settings for the JDBC profiler behind /api/admin/sql-profile
+@Component
+@ConfigurationProperties(prefix = "sql-profile")
+@Data
+public class SqlProfileProperties {
+
+    // Wrap the DataSource; read once at startup
+    private boolean enabled = true;
+
+    // Slowest statements kept per window
+    private int slowQueries = 20;
+
+    // Most statements a request to each handler (SimpleClassName.method) may issue
+    private Map<String, Integer> budgets = new HashMap<>();
+}
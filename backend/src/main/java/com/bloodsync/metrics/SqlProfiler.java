@@ -0,0 +1,184 @@
+package com.bloodsync.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Statement timings from ProfilingDataSource, kept two ways: the slowest statements of the current
+// and previous window (with the handler that issued them), and per-handler totals of statements,
+// SQL time and rows per request. Requests are tracked on the thread that serves them, so work
+// handed to other threads counts towards no endpoint. Parameters are never recorded.
+@Component
+@Slf4j
+public class SqlProfiler {
+
+    private static final ThreadLocal<RequestTally> TALLY = new ThreadLocal<>();
+
+    private final SqlProfileProperties properties;
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private volatile SlowQueryLog current;
+    private volatile SlowQueryLog previous;
+
+    public SqlProfiler(SqlProfileProperties properties) {
+        this.properties = properties;
+        this.current = new SlowQueryLog(properties.getSlowQueries());
+        this.previous = current;
+    }
+
+    public record SlowQuery(String sql, long micros, long rows, String origin, Instant executedAt) {
+    }
+
+    public record EndpointProfile(String handler, String route, long requests, long statements,
+                                  double statementsPerRequest, long maxStatements, double sqlMillisPerRequest,
+                                  double rowsPerRequest, Integer budget, long overBudget) {
+    }
+
+    public record Profile(Instant since, List<SlowQuery> slowQueries, List<EndpointProfile> endpoints) {
+    }
+
+    void startRequest(HttpServletRequest request) {
+        TALLY.set(new RequestTally(request));
+    }
+
+    // Closes the request's tally; requests no handler picked up (404s, rejected before dispatch)
+    // only feed the slow-query log
+    void endRequest() {
+        RequestTally tally = TALLY.get();
+        TALLY.remove();
+        String handler = tally != null ? handlerName(tally.request) : null;
+        if (handler == null) {
+            return;
+        }
+        EndpointStats stats = endpoints.computeIfAbsent(handler, key -> new EndpointStats(route(tally.request)));
+        stats.requests.increment();
+        stats.statements.add(tally.statements);
+        stats.nanos.add(tally.nanos);
+        stats.rows.add(tally.rows);
+        stats.maxStatements.accumulateAndGet(tally.statements, Math::max);
+        Integer budget = properties.getBudgets().get(handler);
+        if (budget != null && tally.statements > budget) {
+            stats.overBudget.increment();
+            log.warn("{} issued {} SQL statements, over its budget of {}", handler, tally.statements, budget);
+        }
+    }
+
+    void recordStatement(String sql, long nanos, long rows) {
+        RequestTally tally = TALLY.get();
+        if (tally != null) {
+            tally.statements++;
+            tally.nanos += nanos;
+            tally.rows += rows;
+        }
+        long micros = nanos / 1_000;
+        SlowQueryLog log = current;
+        if (log.admits(micros)) {
+            log.offer(new SlowQuery(sql, micros, rows, origin(tally), Instant.now()));
+        }
+    }
+
+    // The previous window is kept so a rotation never leaves the report empty
+    @Scheduled(fixedDelayString = "${sql-profile.window-ms:300000}", initialDelayString = "${sql-profile.window-ms:300000}")
+    public void rotate() {
+        previous = current;
+        current = new SlowQueryLog(properties.getSlowQueries());
+    }
+
+    public void reset() {
+        rotate();
+        previous = current;
+        endpoints.clear();
+    }
+
+    public Profile profile() {
+        SlowQueryLog older = previous;
+        SlowQueryLog newer = current;
+        List<SlowQuery> slowest = new ArrayList<>(newer.entries());
+        if (older != newer) {
+            slowest.addAll(older.entries());
+            slowest.sort(Comparator.comparingLong(SlowQuery::micros).reversed());
+        }
+        List<EndpointProfile> profiles = endpoints.entrySet().stream()
+                .map(entry -> entry.getValue().profile(entry.getKey(), properties.getBudgets().get(entry.getKey())))
+                .sorted(Comparator.comparingDouble(EndpointProfile::statementsPerRequest).reversed())
+                .toList();
+        return new Profile(older.openedAt(), slowest.subList(0, Math.min(slowest.size(), properties.getSlowQueries())),
+                profiles);
+    }
+
+    // Handlers that went over budget since the last reset, for tests run with sql-profile.budgets set
+    public void assertWithinBudgets() {
+        List<String> over = profile().endpoints().stream()
+                .filter(endpoint -> endpoint.overBudget() > 0)
+                .map(endpoint -> endpoint.handler() + " issued up to " + endpoint.maxStatements()
+                        + " statements (budget " + endpoint.budget() + ")")
+                .toList();
+        if (!over.isEmpty()) {
+            throw new IllegalStateException("SQL budgets exceeded: " + String.join("; ", over));
+        }
+    }
+
+    private static String origin(RequestTally tally) {
+        if (tally == null) {
+            return Thread.currentThread().getName();
+        }
+        String handler = handlerName(tally.request);
+        return handler != null ? handler : tally.request.getMethod() + " " + tally.request.getRequestURI();
+    }
+
+    private static String handlerName(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        }
+        return null;
+    }
+
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+
+    private static final class RequestTally {
+        private final HttpServletRequest request;
+        private long statements;
+        private long nanos;
+        private long rows;
+
+        private RequestTally(HttpServletRequest request) {
+            this.request = request;
+        }
+    }
+
+    private static final class EndpointStats {
+        private final String route;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder overBudget = new LongAdder();
+        private final AtomicLong maxStatements = new AtomicLong();
+
+        private EndpointStats(String route) {
+            this.route = route;
+        }
+
+        private EndpointProfile profile(String handler, Integer budget) {
+            long count = Math.max(requests.sum(), 1);
+            return new EndpointProfile(handler, route, requests.sum(), statements.sum(),
+                    (double) statements.sum() / count, maxStatements.get(), nanos.sum() / 1e6 / count,
+                    (double) rows.sum() / count, budget, overBudget.sum());
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.bloodsync.planning;
+
+import java.util.Arrays;
+
+// Min-cost max-flow by successive shortest paths, using Dijkstra over reduced costs
+// (Johnson potentials). After each Dijkstra pass all shortest paths are saturated at once
+// with a blocking flow over the zero-reduced-cost arcs, as in Dinic's algorithm, so the
+// number of Dijkstra passes is the number of distinct path costs rather than of paths.
+// Costs must be non-negative. Edges live in flat arrays; edge e and e ^ 1 are a forward
+// arc and its residual twin.
+public class MinCostFlow {
+
+    private static final long INFINITY = Long.MAX_VALUE / 4;
+
+    private final int nodeCount;
+    private final int[] head;
+    private int[] next;
+    private int[] to;
+    private long[] capacity;
+    private long[] cost;
+    private int edgeCount;
+
+    // Solver state, allocated once per solve
+    private long[] potential;
+    private long[] distance;
+    private int[] level;
+    private int[] cursor;
+    private int[] queue;
+    private int[] heap;
+    private int[] heapIndex;
+    private int heapSize;
+
+    public MinCostFlow(int nodeCount, int expectedEdges) {
+        this.nodeCount = nodeCount;
+        this.head = new int[nodeCount];
+        Arrays.fill(head, -1);
+        int slots = Math.max(2, expectedEdges * 2);
+        this.next = new int[slots];
+        this.to = new int[slots];
+        this.capacity = new long[slots];
+        this.cost = new long[slots];
+    }
+
+    // Returns the edge ID, for reading its flow after solving
+    public int addEdge(int from, int target, long edgeCapacity, long edgeCost) {
+        if (edgeCost < 0) {
+            throw new IllegalArgumentException("Negative edge cost: " + edgeCost);
+        }
+        ensureCapacity(edgeCount + 2);
+        int id = edgeCount;
+        link(from, target, edgeCapacity, edgeCost);
+        link(target, from, 0, -edgeCost);
+        return id;
+    }
+
+    public long flow(int edge) {
+        // Flow pushed along an edge is the capacity gained by its residual twin
+        return capacity[edge ^ 1];
+    }
+
+    // Pushes as much flow as possible from source to sink at minimum total cost; returns {flow, cost}
+    public long[] solve(int source, int sink) {
+        potential = new long[nodeCount];
+        distance = new long[nodeCount];
+        level = new int[nodeCount];
+        cursor = new int[nodeCount];
+        queue = new int[nodeCount];
+        heap = new int[nodeCount];
+        heapIndex = new int[nodeCount];
+        long totalFlow = 0;
+        long totalCost = 0;
+
+        while (shortestPaths(source, sink)) {
+            // Capping at the sink distance keeps reduced costs non-negative for nodes beyond it
+            long sinkDistance = distance[sink];
+            for (int node = 0; node < nodeCount; node++) {
+                potential[node] += Math.min(distance[node], sinkDistance);
+            }
+
+            // Saturate every shortest path found this round before running Dijkstra again
+            while (levelAdmissible(source, sink, sinkDistance)) {
+                System.arraycopy(head, 0, cursor, 0, nodeCount);
+                long pushed;
+                while ((pushed = augment(source, sink, INFINITY)) > 0) {
+                    totalFlow += pushed;
+                    totalCost += pushed * (potential[sink] - potential[source]);
+                }
+            }
+        }
+        return new long[]{totalFlow, totalCost};
+    }
+
+    // Dijkstra over reduced costs with an indexed binary heap; stops once the sink is settled
+    private boolean shortestPaths(int source, int sink) {
+        Arrays.fill(distance, INFINITY);
+        Arrays.fill(heapIndex, -1);
+        heapSize = 0;
+        distance[source] = 0;
+        push(source);
+        while (heapSize > 0) {
+            int node = pop();
+            if (node == sink) {
+                // Nodes still queued are at least as far; the capped update covers them
+                return true;
+            }
+            for (int e = head[node]; e != -1; e = next[e]) {
+                if (capacity[e] <= 0) {
+                    continue;
+                }
+                int target = to[e];
+                long candidate = distance[node] + cost[e] + potential[node] - potential[target];
+                if (candidate < distance[target]) {
+                    distance[target] = candidate;
+                    push(target);
+                }
+            }
+        }
+        return false;
+    }
+
+    // Breadth-first levels over admissible arcs: residual capacity and zero reduced cost.
+    // Only nodes no farther than the sink can lie on a shortest path.
+    private boolean levelAdmissible(int source, int sink, long sinkDistance) {
+        Arrays.fill(level, -1);
+        int tail = 0;
+        level[source] = 0;
+        queue[tail++] = source;
+        for (int index = 0; index < tail; index++) {
+            int node = queue[index];
+            if (level[sink] >= 0 && level[node] >= level[sink]) {
+                break;
+            }
+            for (int e = head[node]; e != -1; e = next[e]) {
+                int target = to[e];
+                if (capacity[e] > 0 && level[target] < 0 && distance[target] <= sinkDistance
+                        && cost[e] + potential[node] - potential[target] == 0) {
+                    level[target] = level[node] + 1;
+                    queue[tail++] = target;
+                }
+            }
+        }
+        return level[sink] >= 0;
+    }
+
+    private long augment(int node, int sink, long limit) {
+        if (node == sink) {
+            return limit;
+        }
+        for (; cursor[node] != -1; cursor[node] = next[cursor[node]]) {
+            int e = cursor[node];
+            int target = to[e];
+            if (capacity[e] <= 0 || level[target] != level[node] + 1
+                    || cost[e] + potential[node] - potential[target] != 0) {
+                continue;
+            }
+            long pushed = augment(target, sink, Math.min(limit, capacity[e]));
+            if (pushed > 0) {
+                capacity[e] -= pushed;
+                capacity[e ^ 1] += pushed;
+                return pushed;
+            }
+        }
+        return 0;
+    }
+
+    // Inserts the node, or moves it up after its distance decreased
+    private void push(int node) {
+        int position = heapIndex[node];
+        if (position < 0) {
+            position = heapSize++;
+        }
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (distance[heap[parent]] <= distance[node]) {
+                break;
+            }
+            heap[position] = heap[parent];
+            heapIndex[heap[position]] = position;
+            position = parent;
+        }
+        heap[position] = node;
+        heapIndex[node] = position;
+    }
+
+    private int pop() {
+        int top = heap[0];
+        heapIndex[top] = -1;
+        int last = heap[--heapSize];
+        if (heapSize > 0) {
+            int position = 0;
+            while (true) {
+                int child = 2 * position + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && distance[heap[child + 1]] < distance[heap[child]]) {
+                    child++;
+                }
+                if (distance[heap[child]] >= distance[last]) {
+                    break;
+                }
+                heap[position] = heap[child];
+                heapIndex[heap[position]] = position;
+                position = child;
+            }
+            heap[position] = last;
+            heapIndex[last] = position;
+        }
+        return top;
+    }
+
+    private void link(int from, int target, long edgeCapacity, long edgeCost) {
+        to[edgeCount] = target;
+        capacity[edgeCount] = edgeCapacity;
+        cost[edgeCount] = edgeCost;
+        next[edgeCount] = head[from];
+        head[from] = edgeCount;
+        edgeCount++;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= to.length) {
+            return;
+        }
+        int size = Math.max(required, to.length * 2);
+        next = Arrays.copyOf(next, size);
+        to = Arrays.copyOf(to, size);
+        capacity = Arrays.copyOf(capacity, size);
+        cost = Arrays.copyOf(cost, size);
+    }
+}
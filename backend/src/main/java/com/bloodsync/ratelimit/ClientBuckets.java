@@ -0,0 +1,77 @@
+package com.bloodsync.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token buckets per client, kept as a single timestamp each: the time at which the bucket would
+// be full again (GCRA). Taking a token is one CAS, and a bucket whose time has passed is full, so
+// it carries no information and can be dropped. Clients are spread over independent shards;
+// a shard that grows past its share is swept for full buckets, at most once per second.
+class ClientBuckets {
+
+    private static final int SHARDS = 16;
+    private static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final Shard[] shards = new Shard[SHARDS];
+    // Nanoseconds per token, and the burst as a span of time
+    private final long interval;
+    private final long burst;
+    private final int maxPerShard;
+
+    ClientBuckets(int capacity, double refillPerSecond, int maxClients) {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate limit needs a positive capacity and refill rate");
+        }
+        this.interval = Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+        this.burst = interval * capacity;
+        this.maxPerShard = Math.max(1, maxClients / SHARDS);
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    // Takes a token; returns 0 on success, otherwise the nanoseconds until one is available
+    long tryAcquire(String client, long now) {
+        int hash = client.hashCode();
+        Shard shard = shards[(hash ^ (hash >>> 16)) & (SHARDS - 1)];
+        AtomicLong full = shard.buckets.get(client);
+        if (full == null) {
+            if (shard.buckets.size() >= maxPerShard) {
+                shard.sweep(now);
+            }
+            full = shard.buckets.computeIfAbsent(client, key -> new AtomicLong(now));
+        }
+        while (true) {
+            long current = full.get();
+            long next = Math.max(current, now) + interval;
+            if (next - now > burst) {
+                return next - now - burst;
+            }
+            if (full.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.buckets.size();
+        }
+        return size;
+    }
+
+    private static class Shard {
+
+        private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final AtomicLong nextSweep = new AtomicLong(Long.MIN_VALUE);
+
+        // One thread sweeps; the others carry on and let the shard run over for a moment
+        void sweep(long now) {
+            long due = nextSweep.get();
+            if ((due == Long.MIN_VALUE || now - due >= 0) && nextSweep.compareAndSet(due, now + SWEEP_INTERVAL_NANOS)) {
+                buckets.values().removeIf(full -> full.get() - now <= 0);
+            }
+        }
+    }
+}
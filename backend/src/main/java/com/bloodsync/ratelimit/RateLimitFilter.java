@@ -0,0 +1,151 @@
+package com.bloodsync.ratelimit;
+
+import com.bloodsync.exception.GlobalExceptionHandler.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+// Token-bucket limits per client on the routes in rate-limit.routes. Runs in the security chain
+// after JwtAuthenticationFilter, so USER routes can key on the authenticated username. The check
+// is a path match and a CAS on the client's bucket; nothing is locked or allocated per request.
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Limit[] limits;
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.limits = properties.getRoutes().stream()
+                .map(route -> new Limit(route, properties.getMaxClients(), meterRegistry))
+                .toArray(Limit[]::new);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || limits.length == 0;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Limit limit = match(request.getRequestURI());
+        if (limit != null) {
+            long waitNanos = limit.tryAcquire(request);
+            if (waitNanos > 0) {
+                limit.rejected.increment();
+                reject(response, waitNanos);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private Limit match(String path) {
+        for (Limit limit : limits) {
+            if (limit.matches(path)) {
+                return limit;
+            }
+        }
+        return null;
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfter = Math.max(1, (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase(),
+                "Rate limit exceeded, retry in " + retryAfter + " seconds",
+                null));
+    }
+
+    private String clientAddress(HttpServletRequest request) {
+        if (properties.isTrustForwardedFor()) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                // Counted from the right, where our proxies append; a shorter chain yields its first entry
+                String[] hops = forwardedFor.split(",");
+                return hops[Math.max(0, hops.length - Math.max(1, properties.getTrustedProxies()))].trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private class Limit {
+
+        private final String path;
+        private final boolean prefix;
+        private final RateLimitProperties.Key key;
+        // Usernames and addresses are counted apart, so neither can spend the other's tokens
+        private final ClientBuckets byAddress;
+        private final ClientBuckets byUser;
+        private final Counter rejected;
+
+        Limit(RateLimitProperties.Route route, int maxClients, MeterRegistry meterRegistry) {
+            String pattern = route.getPattern();
+            this.prefix = pattern.endsWith("/**");
+            // "/api/public/**" matches "/api/public" and everything below it
+            this.path = prefix ? pattern.substring(0, pattern.length() - 3) : pattern;
+            this.key = route.getKey();
+            this.byAddress = new ClientBuckets(route.getCapacity(), route.getRefillPerSecond(), maxClients);
+            this.byUser = key == RateLimitProperties.Key.USER
+                    ? new ClientBuckets(route.getCapacity(), route.getRefillPerSecond(), maxClients)
+                    : null;
+            this.rejected = Counter.builder("bloodsync.ratelimit.rejected")
+                    .description("Requests refused with 429 by the rate limiter")
+                    .tag("route", pattern)
+                    .register(meterRegistry);
+        }
+
+        boolean matches(String requestPath) {
+            if (!prefix) {
+                return requestPath.equals(path);
+            }
+            return requestPath.startsWith(path)
+                    && (requestPath.length() == path.length() || requestPath.charAt(path.length()) == '/');
+        }
+
+        long tryAcquire(HttpServletRequest request) {
+            long now = System.nanoTime();
+            if (byUser != null) {
+                String user = currentUser();
+                if (user != null) {
+                    return byUser.tryAcquire(user, now);
+                }
+            }
+            return byAddress.tryAcquire(clientAddress(request), now);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.bloodsync.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// rate-limit.* settings. Routes are checked in order and the first match applies.
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+@Data
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Take the client IP from X-Forwarded-For; only behind a proxy that sets it
+    private boolean trustForwardedFor = false;
+
+    // Proxies in front of the app that each append to X-Forwarded-For. The client is the entry
+    // this many places from the right; anything further left was sent by the client and can be forged.
+    private int trustedProxies = 1;
+
+    // Buckets kept per route and key type before full (idle) ones are evicted
+    private int maxClients = 100_000;
+
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+
+        // Exact path, or a prefix ending in /**
+        private String pattern;
+
+        // USER limits authenticated callers by username and everyone else by IP
+        private Key key = Key.IP;
+
+        // Burst size, and tokens added back per second
+        private int capacity;
+        private double refillPerSecond;
+    }
+
+    public enum Key {
+        IP, USER
+    }
+}
@@ -0,0 +1,50 @@
+package com.bloodsync.repository;
+
+import com.bloodsync.entity.ActivityRollup;
+import com.bloodsync.enums.BloodGroup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ActivityRollupRepository extends JpaRepository<ActivityRollup, Long> {
+
+    // Adds to the bucket's row, or inserts it, in one statement so concurrent writers cannot both
+    // insert against uk_activity_rollup_key. A new row starts at the delta floored at zero.
+    @Modifying(flushAutomatically = true)
+    @Query(value = "insert into activity_rollups (source, granularity, bucket_start, hospital_id, blood_group, status, " +
+                   "event_count, quantity) " +
+                   "values (:source, :granularity, :bucketStart, :hospitalId, :bloodGroup, :status, " +
+                   "greatest(:count, 0), greatest(:quantity, 0)) " +
+                   "on duplicate key update " +
+                   "event_count = event_count + :count, " +
+                   "quantity = quantity + :quantity",
+           nativeQuery = true)
+    int addToBucket(@Param("source") String source,
+                    @Param("granularity") String granularity,
+                    @Param("bucketStart") LocalDateTime bucketStart,
+                    @Param("hospitalId") Long hospitalId,
+                    @Param("bloodGroup") String bloodGroup,
+                    @Param("status") String status,
+                    @Param("count") long count,
+                    @Param("quantity") long quantity);
+
+    // Buckets starting in [from, to]; rows emptied by deletes or status changes are skipped
+    @Query("select r from ActivityRollup r " +
+           "where r.source = :source and r.granularity = :granularity " +
+           "and r.bucketStart >= :from and r.bucketStart <= :to and r.eventCount > 0 " +
+           "and (:hospitalId is null or r.hospitalId = :hospitalId) " +
+           "and (:bloodGroup is null or r.bloodGroup = :bloodGroup) " +
+           "order by r.bucketStart, r.hospitalId, r.bloodGroup, r.status")
+    List<ActivityRollup> findBuckets(@Param("source") ActivityRollup.Source source,
+                                     @Param("granularity") ActivityRollup.Granularity granularity,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to,
+                                     @Param("hospitalId") Long hospitalId,
+                                     @Param("bloodGroup") BloodGroup bloodGroup);
+}
@@ -0,0 +1,34 @@
+package com.bloodsync.repository;
+
+import com.bloodsync.entity.ArchivedBloodDonation;
+import com.bloodsync.entity.BloodDonation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ArchivedBloodDonationRepository extends JpaRepository<ArchivedBloodDonation, Long> {
+    
+    List<ArchivedBloodDonation> findByDonorId(Long donorId);
+    
+    List<ArchivedBloodDonation> findByHospitalId(Long hospitalId);
+    
+    List<ArchivedBloodDonation> findByStatus(BloodDonation.DonationStatus status);
+    
+    List<ArchivedBloodDonation> findByDonationDateBetween(LocalDateTime startDate, LocalDateTime endDate);
+    
+    // Activity rollup backfill, one ID range at a time
+    @Query("select min(d.id) as min, max(d.id) as max from ArchivedBloodDonation d")
+    IdRange findIdRange();
+    
+    @Query("select d.hospitalId as hospitalId, d.bloodGroup as bloodGroup, cast(d.status as String) as status, " +
+           "cast(d.donationDate as LocalDate) as day, extract(hour from d.donationDate) as hour, " +
+           "count(d) as count, sum(d.quantity) as quantity from ArchivedBloodDonation d " +
+           "where d.id between :fromId and :toId " +
+           "group by d.hospitalId, d.bloodGroup, d.status, cast(d.donationDate as LocalDate), extract(hour from d.donationDate)")
+    List<HourlyActivity> sumHourlyActivity(@Param("fromId") Long fromId, @Param("toId") Long toId);
+}
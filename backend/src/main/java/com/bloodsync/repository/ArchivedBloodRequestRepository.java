@@ -0,0 +1,34 @@
+package com.bloodsync.repository;
+
+import com.bloodsync.entity.ArchivedBloodRequest;
+import com.bloodsync.entity.BloodRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ArchivedBloodRequestRepository extends JpaRepository<ArchivedBloodRequest, Long> {
+    
+    List<ArchivedBloodRequest> findByHospitalId(Long hospitalId);
+    
+    List<ArchivedBloodRequest> findByPatientId(Long patientId);
+    
+    List<ArchivedBloodRequest> findByStatus(BloodRequest.RequestStatus status);
+    
+    List<ArchivedBloodRequest> findByRequestDateBetween(LocalDateTime startDate, LocalDateTime endDate);
+    
+    // Activity rollup backfill, one ID range at a time
+    @Query("select min(r.id) as min, max(r.id) as max from ArchivedBloodRequest r")
+    IdRange findIdRange();
+    
+    @Query("select r.hospitalId as hospitalId, r.bloodGroup as bloodGroup, cast(r.status as String) as status, " +
+           "cast(r.requestDate as LocalDate) as day, extract(hour from r.requestDate) as hour, " +
+           "count(r) as count, sum(r.requiredQuantity) as quantity from ArchivedBloodRequest r " +
+           "where r.id between :fromId and :toId " +
+           "group by r.hospitalId, r.bloodGroup, r.status, cast(r.requestDate as LocalDate), extract(hour from r.requestDate)")
+    List<HourlyActivity> sumHourlyActivity(@Param("fromId") Long fromId, @Param("toId") Long toId);
+}
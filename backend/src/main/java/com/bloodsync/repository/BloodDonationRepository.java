@@ -1,20 +1,29 @@
 package com.bloodsync.repository;
 
 import com.bloodsync.entity.BloodDonation;
+import com.bloodsync.enums.BloodGroup;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface BloodDonationRepository extends JpaRepository<BloodDonation, Long> {
+public interface BloodDonationRepository extends JpaRepository<BloodDonation, Long>, JpaSpecificationExecutor<BloodDonation> {
     
     List<BloodDonation> findByDonorId(Long donorId);
     
     List<BloodDonation> findByHospitalId(Long hospitalId);
     
-    List<BloodDonation> findByBloodGroup(String bloodGroup);
+    List<BloodDonation> findByBloodGroup(BloodGroup bloodGroup);
     
     List<BloodDonation> findByStatus(BloodDonation.DonationStatus status);
     
@@ -24,5 +33,48 @@ public interface BloodDonationRepository extends JpaRepository<BloodDonation, Lo
     
     List<BloodDonation> findByHospitalIdAndStatus(Long hospitalId, BloodDonation.DonationStatus status);
     
-    List<BloodDonation> findByBloodGroupAndStatus(String bloodGroup, BloodDonation.DonationStatus status);
+    List<BloodDonation> findByBloodGroupAndStatus(BloodGroup bloodGroup, BloodDonation.DonationStatus status);
+    
+    // Dashboard aggregates
+    @Query("select count(d) as count, coalesce(sum(d.quantity), 0) as quantity from BloodDonation d " +
+           "where d.status = :status and d.donationDate >= :from")
+    QuantitySummary summarizeSince(@Param("status") BloodDonation.DonationStatus status,
+                                   @Param("from") LocalDateTime from);
+    
+    // Demand rollup backfill
+    @Query("select d.hospital.id as hospitalId, d.bloodGroup as bloodGroup, cast(d.donationDate as LocalDate) as day, " +
+           "sum(d.quantity) as quantity from BloodDonation d " +
+           "where d.status = :status and d.donationDate >= :from " +
+           "group by d.hospital.id, d.bloodGroup, cast(d.donationDate as LocalDate)")
+    List<DailyQuantity> sumDailyQuantity(@Param("status") BloodDonation.DonationStatus status,
+                                         @Param("from") LocalDateTime from);
+    
+    // Archival candidates, oldest ID first, with the donor and hospital names the archive copies
+    @Query("select d from BloodDonation d join fetch d.donor join fetch d.hospital " +
+           "where d.status in :statuses and d.donationDate < :before order by d.id")
+    List<BloodDonation> findArchivable(@Param("statuses") Collection<BloodDonation.DonationStatus> statuses,
+                                       @Param("before") LocalDateTime before,
+                                       Pageable pageable);
+    
+    // Activity rollup backfill, one ID range at a time
+    @Query("select min(d.id) as min, max(d.id) as max from BloodDonation d")
+    IdRange findIdRange();
+    
+    @Query("select d.hospital.id as hospitalId, d.bloodGroup as bloodGroup, cast(d.status as String) as status, " +
+           "cast(d.donationDate as LocalDate) as day, extract(hour from d.donationDate) as hour, " +
+           "count(d) as count, sum(d.quantity) as quantity from BloodDonation d " +
+           "where d.id between :fromId and :toId " +
+           "group by d.hospital.id, d.bloodGroup, d.status, cast(d.donationDate as LocalDate), extract(hour from d.donationDate)")
+    List<HourlyActivity> sumHourlyActivity(@Param("fromId") Long fromId, @Param("toId") Long toId);
+    
+    // Bulk status transitions: the chunk is locked while it is validated, then written in one statement
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select d from BloodDonation d where d.id in :ids")
+    List<BloodDonation> findAllForUpdate(@Param("ids") Collection<Long> ids);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update BloodDonation d set d.status = :status, d.updatedAt = :now where d.id in :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("status") BloodDonation.DonationStatus status,
+                     @Param("now") LocalDateTime now);
 } 
\ No newline at end of file
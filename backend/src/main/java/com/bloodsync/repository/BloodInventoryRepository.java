@@ -1,31 +1,179 @@
 package com.bloodsync.repository;
 
 import com.bloodsync.entity.BloodInventory;
+import com.bloodsync.enums.BloodGroup;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BloodInventoryRepository extends JpaRepository<BloodInventory, Long> {
+public interface BloodInventoryRepository extends JpaRepository<BloodInventory, Long>, JpaSpecificationExecutor<BloodInventory> {
     
     List<BloodInventory> findByHospitalId(Long hospitalId);
     
-    List<BloodInventory> findByBloodGroup(String bloodGroup);
+    List<BloodInventory> findByBloodGroup(BloodGroup bloodGroup);
     
     List<BloodInventory> findByStatus(BloodInventory.InventoryStatus status);
     
-    List<BloodInventory> findByHospitalIdAndBloodGroup(Long hospitalId, String bloodGroup);
+    List<BloodInventory> findByHospitalIdAndBloodGroup(Long hospitalId, BloodGroup bloodGroup);
     
     List<BloodInventory> findByHospitalIdAndStatus(Long hospitalId, BloodInventory.InventoryStatus status);
     
-    List<BloodInventory> findByBloodGroupAndStatus(String bloodGroup, BloodInventory.InventoryStatus status);
+    List<BloodInventory> findByBloodGroupAndStatus(BloodGroup bloodGroup, BloodInventory.InventoryStatus status);
     
     List<BloodInventory> findByExpiryDateBefore(LocalDateTime date);
     
     List<BloodInventory> findByAvailableQuantityLessThan(Integer quantity);
     
-    Optional<BloodInventory> findByHospitalIdAndBloodGroupAndStatus(Long hospitalId, String bloodGroup, BloodInventory.InventoryStatus status);
-} 
\ No newline at end of file
+    @Query("select i from BloodInventory i join fetch i.hospital " +
+           "where i.hospital.id = :hospitalId and i.bloodGroup = :bloodGroup and i.liveStock = true")
+    Optional<BloodInventory> findLiveStock(@Param("hospitalId") Long hospitalId, @Param("bloodGroup") BloodGroup bloodGroup);
+    
+    // Intake: adds to the live row of the hospital and blood group, or inserts it, in one statement.
+    // The status is assigned before the quantity, so both engines derive it from the old quantity
+    // plus the intake. Merged lots keep the earliest expiry.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "insert into blood_inventory (hospital_id, blood_group, available_quantity, total_quantity, expiry_date, " +
+                   "inventory_status, notes, live_stock, created_at, updated_at) " +
+                   "values (:hospitalId, :bloodGroup, :available, :total, :expiryDate, :status, :notes, true, :now, :now) " +
+                   "on duplicate key update " +
+                   "inventory_status = case when available_quantity + :available <= 0 then 'OUT_OF_STOCK' " +
+                   "when available_quantity + :available < :reorderPoint then 'LOW_STOCK' else 'AVAILABLE' end, " +
+                   "available_quantity = available_quantity + :available, " +
+                   "total_quantity = total_quantity + :total, " +
+                   "expiry_date = least(expiry_date, :expiryDate), " +
+                   "updated_at = :now",
+           nativeQuery = true)
+    int upsertLiveStock(@Param("hospitalId") Long hospitalId,
+                        @Param("bloodGroup") String bloodGroup,
+                        @Param("available") int available,
+                        @Param("total") int total,
+                        @Param("expiryDate") LocalDateTime expiryDate,
+                        @Param("status") String status,
+                        @Param("notes") String notes,
+                        @Param("reorderPoint") long reorderPoint,
+                        @Param("now") LocalDateTime now);
+    
+    // Compaction: stock rows not yet keyed as live, with any live row they are merged into
+    @Query("select i from BloodInventory i where i.status in :statuses and (i.liveStock is null or exists (" +
+           "select o.id from BloodInventory o where o.hospital = i.hospital and o.bloodGroup = i.bloodGroup " +
+           "and o.status in :statuses and o.liveStock is null)) order by i.id")
+    List<BloodInventory> findUnkeyedStock(@Param("statuses") Collection<BloodInventory.InventoryStatus> statuses);
+    
+    @Query("select count(i) > 0 from BloodInventory i where i.status in :statuses and i.liveStock is null")
+    boolean existsUnkeyedStock(@Param("statuses") Collection<BloodInventory.InventoryStatus> statuses);
+    
+    // Dashboard aggregates
+    @Query("select h.id as hospitalId, h.hospitalName as hospitalName, i.bloodGroup as bloodGroup, " +
+           "sum(i.availableQuantity) as quantity " +
+           "from BloodInventory i join i.hospital h " +
+           "where i.status in :statuses and i.expiryDate > :now " +
+           "group by h.id, h.hospitalName, i.bloodGroup")
+    List<HospitalBloodGroupQuantity> sumAvailableByHospitalAndBloodGroup(
+            @Param("statuses") Collection<BloodInventory.InventoryStatus> statuses,
+            @Param("now") LocalDateTime now);
+    
+    @Query("select count(i) as count, coalesce(sum(i.availableQuantity), 0) as quantity " +
+           "from BloodInventory i " +
+           "where i.status in :statuses and i.expiryDate > :now and i.expiryDate <= :until")
+    QuantitySummary summarizeExpiring(@Param("statuses") Collection<BloodInventory.InventoryStatus> statuses,
+                                      @Param("now") LocalDateTime now,
+                                      @Param("until") LocalDateTime until);
+    
+    // Inventory availability read model
+    String AVAILABILITY_SELECT =
+            "select i.hospital.id as hospitalId, i.bloodGroup as bloodGroup, " +
+            "coalesce(sum(case when i.status in :statuses and i.expiryDate > :now " +
+            "then i.availableQuantity else 0 end), 0) as available, " +
+            "coalesce(sum(case when i.status in :statuses and i.expiryDate > :now and i.expiryDate <= :until " +
+            "then i.availableQuantity else 0 end), 0) as expiring, " +
+            "coalesce(sum(case when i.status = :expired or i.expiryDate <= :now " +
+            "then i.availableQuantity else 0 end), 0) as expired, " +
+            "min(case when i.status in :statuses and i.expiryDate > :now then i.expiryDate end) as nextExpiry " +
+            "from BloodInventory i ";
+    
+    @Query(AVAILABILITY_SELECT + "group by i.hospital.id, i.bloodGroup")
+    List<AvailabilitySummary> summarizeAvailability(@Param("statuses") Collection<BloodInventory.InventoryStatus> statuses,
+                                                    @Param("expired") BloodInventory.InventoryStatus expired,
+                                                    @Param("now") LocalDateTime now,
+                                                    @Param("until") LocalDateTime until);
+    
+    @Query(AVAILABILITY_SELECT + "where i.hospital.id = :hospitalId and i.bloodGroup = :bloodGroup " +
+           "group by i.hospital.id, i.bloodGroup")
+    Optional<AvailabilitySummary> summarizeAvailability(@Param("hospitalId") Long hospitalId,
+                                                        @Param("bloodGroup") BloodGroup bloodGroup,
+                                                        @Param("statuses") Collection<BloodInventory.InventoryStatus> statuses,
+                                                        @Param("expired") BloodInventory.InventoryStatus expired,
+                                                        @Param("now") LocalDateTime now,
+                                                        @Param("until") LocalDateTime until);
+    
+    // Reorder points from demand forecasts, with a default for series that have none
+    String REORDER_POINT = "coalesce((select f.reorderPoint from DemandForecast f " +
+            "where f.hospitalId = i.hospital.id and f.bloodGroup = i.bloodGroup), :defaultReorderPoint)";
+    
+    @Query("select i from BloodInventory i where i.availableQuantity < " + REORDER_POINT)
+    List<BloodInventory> findBelowReorderPoint(@Param("defaultReorderPoint") long defaultReorderPoint);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update BloodInventory i set i.status = :status " +
+           "where i.status = :current and i.availableQuantity > 0 and i.availableQuantity < " + REORDER_POINT)
+    int updateStatusBelowReorderPoint(@Param("current") BloodInventory.InventoryStatus current,
+                                      @Param("status") BloodInventory.InventoryStatus status,
+                                      @Param("defaultReorderPoint") long defaultReorderPoint);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update BloodInventory i set i.status = :status " +
+           "where i.status = :current and i.availableQuantity >= " + REORDER_POINT)
+    int updateStatusAtOrAboveReorderPoint(@Param("current") BloodInventory.InventoryStatus current,
+                                          @Param("status") BloodInventory.InventoryStatus status,
+                                          @Param("defaultReorderPoint") long defaultReorderPoint);
+    
+    // Bulk status transitions (quarantine, expiry, release)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from BloodInventory i where i.id in :ids")
+    List<BloodInventory> findAllForUpdate(@Param("ids") Collection<Long> ids);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update BloodInventory i set i.status = :status, i.liveStock = :liveStock, i.updatedAt = :now where i.id in :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("status") BloodInventory.InventoryStatus status,
+                     @Param("liveStock") Boolean liveStock,
+                     @Param("now") LocalDateTime now);
+    
+    @Query("select coalesce(sum(i.availableQuantity), 0) from BloodInventory i")
+    Long sumAvailableQuantity();
+    
+    interface HospitalBloodGroupQuantity {
+        Long getHospitalId();
+        
+        String getHospitalName();
+        
+        BloodGroup getBloodGroup();
+        
+        Long getQuantity();
+    }
+    
+    interface AvailabilitySummary {
+        Long getHospitalId();
+        
+        BloodGroup getBloodGroup();
+        
+        Long getAvailable();
+        
+        Long getExpiring();
+        
+        Long getExpired();
+        
+        LocalDateTime getNextExpiry();
+    }
+}
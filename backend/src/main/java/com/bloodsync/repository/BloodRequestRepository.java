@@ -1,21 +1,105 @@
 package com.bloodsync.repository;
 
 import com.bloodsync.entity.BloodRequest;
+import com.bloodsync.enums.BloodGroup;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface BloodRequestRepository extends JpaRepository<BloodRequest, Long> {
+public interface BloodRequestRepository extends JpaRepository<BloodRequest, Long>, JpaSpecificationExecutor<BloodRequest> {
     
     List<BloodRequest> findByHospitalId(Long hospitalId);
     
     List<BloodRequest> findByPatientId(Long patientId);
     
-    List<BloodRequest> findByStatus(String status);
+    List<BloodRequest> findByStatus(BloodRequest.RequestStatus status);
     
-    List<BloodRequest> findByBloodGroup(String bloodGroup);
+    List<BloodRequest> findByBloodGroup(BloodGroup bloodGroup);
     
     List<BloodRequest> findByPriority(String priority);
+    
+    // Dashboard aggregates
+    @Query("select r.priority as priority, count(r) as count from BloodRequest r " +
+           "where r.status in :statuses group by r.priority")
+    List<PriorityCount> countByPriority(@Param("statuses") Collection<BloodRequest.RequestStatus> statuses);
+    
+    // Inventory availability read model
+    @Query("select r.hospital.id as hospitalId, r.bloodGroup as bloodGroup, sum(r.requiredQuantity) as quantity " +
+           "from BloodRequest r where r.status = :status group by r.hospital.id, r.bloodGroup")
+    List<ReservedQuantity> sumQuantityByHospitalAndBloodGroup(@Param("status") BloodRequest.RequestStatus status);
+    
+    // Transfer planning demand
+    @Query("select r.hospital.id as hospitalId, r.bloodGroup as bloodGroup, sum(r.requiredQuantity) as quantity " +
+           "from BloodRequest r where r.status in :statuses group by r.hospital.id, r.bloodGroup")
+    List<ReservedQuantity> sumQuantityByHospitalAndBloodGroup(@Param("statuses") Collection<BloodRequest.RequestStatus> statuses);
+    
+    // Demand rollup backfill
+    @Query("select r.hospital.id as hospitalId, r.bloodGroup as bloodGroup, cast(r.requestDate as LocalDate) as day, " +
+           "sum(r.requiredQuantity) as quantity from BloodRequest r " +
+           "where r.status <> :excluded and r.requestDate >= :from " +
+           "group by r.hospital.id, r.bloodGroup, cast(r.requestDate as LocalDate)")
+    List<DailyQuantity> sumDailyQuantity(@Param("excluded") BloodRequest.RequestStatus excluded,
+                                         @Param("from") LocalDateTime from);
+    
+    // Archival candidates, oldest ID first
+    @Query("select r from BloodRequest r join fetch r.patient join fetch r.hospital " +
+           "where r.status in :statuses and r.requestDate < :before order by r.id")
+    List<BloodRequest> findArchivable(@Param("statuses") Collection<BloodRequest.RequestStatus> statuses,
+                                      @Param("before") LocalDateTime before,
+                                      Pageable pageable);
+    
+    // Activity rollup backfill, one ID range at a time
+    @Query("select min(r.id) as min, max(r.id) as max from BloodRequest r")
+    IdRange findIdRange();
+    
+    @Query("select r.hospital.id as hospitalId, r.bloodGroup as bloodGroup, cast(r.status as String) as status, " +
+           "cast(r.requestDate as LocalDate) as day, extract(hour from r.requestDate) as hour, " +
+           "count(r) as count, sum(r.requiredQuantity) as quantity from BloodRequest r " +
+           "where r.id between :fromId and :toId " +
+           "group by r.hospital.id, r.bloodGroup, r.status, cast(r.requestDate as LocalDate), extract(hour from r.requestDate)")
+    List<HourlyActivity> sumHourlyActivity(@Param("fromId") Long fromId, @Param("toId") Long toId);
+    
+    List<BloodRequest> findByRequestDateBetween(LocalDateTime startDate, LocalDateTime endDate);
+    
+    @Query("select coalesce(sum(r.requiredQuantity), 0) from BloodRequest r " +
+           "where r.hospital.id = :hospitalId and r.bloodGroup = :bloodGroup and r.status = :status")
+    Long sumQuantity(@Param("hospitalId") Long hospitalId,
+                     @Param("bloodGroup") BloodGroup bloodGroup,
+                     @Param("status") BloodRequest.RequestStatus status);
+    
+    // Bulk status transitions, as for donations
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from BloodRequest r where r.id in :ids")
+    List<BloodRequest> findAllForUpdate(@Param("ids") Collection<Long> ids);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update BloodRequest r set r.status = :status, r.updatedAt = :now where r.id in :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("status") BloodRequest.RequestStatus status,
+                     @Param("now") LocalDateTime now);
+    
+    interface ReservedQuantity {
+        Long getHospitalId();
+        
+        BloodGroup getBloodGroup();
+        
+        Long getQuantity();
+    }
+    
+    interface PriorityCount {
+        BloodRequest.PriorityLevel getPriority();
+        
+        Long getCount();
+    }
 } 
\ No newline at end of file
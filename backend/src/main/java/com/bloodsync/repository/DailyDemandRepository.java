@@ -0,0 +1,33 @@
+package com.bloodsync.repository;
+
+import com.bloodsync.entity.DailyDemand;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyDemandRepository extends JpaRepository<DailyDemand, Long> {
+    
+    // Adds to the day's row, or inserts it, in one statement: an update-then-insert lets two
+    // writers both miss the row and collide on uk_daily_demand_key. A new row starts at the
+    // delta floored at zero.
+    @Modifying(flushAutomatically = true)
+    @Query(value = "insert into daily_demand (hospital_id, blood_group, demand_day, requested_quantity, donated_quantity) " +
+                   "values (:hospitalId, :bloodGroup, :day, greatest(:requested, 0), greatest(:donated, 0)) " +
+                   "on duplicate key update " +
+                   "requested_quantity = requested_quantity + :requested, " +
+                   "donated_quantity = donated_quantity + :donated",
+           nativeQuery = true)
+    int addToDay(@Param("hospitalId") Long hospitalId,
+                 @Param("bloodGroup") String bloodGroup,
+                 @Param("day") LocalDate day,
+                 @Param("requested") long requested,
+                 @Param("donated") long donated);
+    
+    List<DailyDemand> findByDayBetweenOrderByDay(LocalDate from, LocalDate to);
+}
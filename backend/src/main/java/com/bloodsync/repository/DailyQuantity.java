@@ -0,0 +1,17 @@
+package com.bloodsync.repository;
+
+import com.bloodsync.enums.BloodGroup;
+
+import java.time.LocalDate;
+
+// Summed quantity (ml) per hospital, blood group and day, returned by rollup backfill queries
+public interface DailyQuantity {
+    
+    Long getHospitalId();
+    
+    BloodGroup getBloodGroup();
+    
+    LocalDate getDay();
+    
+    Long getQuantity();
+}
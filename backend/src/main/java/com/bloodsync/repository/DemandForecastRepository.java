@@ -0,0 +1,9 @@
+package com.bloodsync.repository;
+
+import com.bloodsync.entity.DemandForecast;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DemandForecastRepository extends JpaRepository<DemandForecast, Long> {
+}
@@ -1,20 +1,30 @@
 package com.bloodsync.repository;
 
 import com.bloodsync.entity.Donor;
+import com.bloodsync.enums.BloodGroup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface DonorRepository extends JpaRepository<Donor, Long> {
+public interface DonorRepository extends JpaRepository<Donor, Long>, JpaSpecificationExecutor<Donor> {
     
     Optional<Donor> findByEmail(String email);
     
     boolean existsByEmail(String email);
     
-    List<Donor> findByBloodGroup(String bloodGroup);
+    List<Donor> findByBloodGroup(BloodGroup bloodGroup);
     
     List<Donor> findByIsEligibleTrue();
     
@@ -23,7 +33,59 @@ public interface DonorRepository extends JpaRepository<Donor, Long> {
     // Public access methods
     List<Donor> findByIsActiveTrue();
     
-    List<Donor> findByBloodGroupAndIsActiveTrue(String bloodGroup);
+    List<Donor> findByBloodGroupAndIsActiveTrue(BloodGroup bloodGroup);
     
     List<Donor> findByCityAndIsActiveTrue(String city);
+    
+    // Reactive read tier: keyset pages, ordered by the pageable
+    Slice<Donor> findByIsActiveTrueAndIdGreaterThan(Long afterId, Pageable pageable);
+    
+    long countByIsActiveTrue();
+    
+    @Query("select d.bloodGroup as bloodGroup, count(d) as count from Donor d " +
+           "where d.isActive = true group by d.bloodGroup")
+    List<BloodGroupCount> countActiveByBloodGroup();
+    
+    // Donor matching index
+    List<Donor> findByIsActiveTrueAndIsEligibleTrue();
+    
+    // Eligibility engine
+    @Query("select d.id as id, d.deferralEndDate as deferralEndDate from Donor d " +
+           "where d.isEligible = false and d.deferralEndDate is not null")
+    List<DeferredDonor> findDeferredDonors();
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Donor d set d.isEligible = true, d.deferralEndDate = null, d.updatedAt = :now " +
+           "where d.id in :ids and d.isEligible = false and d.deferralEndDate <= :today")
+    int releaseDeferredDonors(@Param("ids") Collection<Long> ids,
+                              @Param("today") LocalDate today,
+                              @Param("now") LocalDateTime now);
+    
+    // Bulk completions: the last donation date only moves forward
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Donor d set d.lastDonationDate = :date, d.updatedAt = :now " +
+           "where d.id in :ids and (d.lastDonationDate is null or d.lastDonationDate < :date)")
+    int recordDonation(@Param("ids") Collection<Long> ids,
+                       @Param("date") LocalDate date,
+                       @Param("now") LocalDateTime now);
+    
+    // ... and a deferral is only ever extended
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Donor d set d.isEligible = false, d.deferralEndDate = :until, d.updatedAt = :now " +
+           "where d.id in :ids and (d.deferralEndDate is null or d.deferralEndDate < :until)")
+    int deferDonors(@Param("ids") Collection<Long> ids,
+                    @Param("until") LocalDate until,
+                    @Param("now") LocalDateTime now);
+    
+    interface BloodGroupCount {
+        BloodGroup getBloodGroup();
+        
+        Long getCount();
+    }
+    
+    interface DeferredDonor {
+        Long getId();
+        
+        LocalDate getDeferralEndDate();
+    }
 } 
\ No newline at end of file
@@ -1,7 +1,13 @@
 package com.bloodsync.repository;
 
+import com.bloodsync.dto.HospitalDto;
+import com.bloodsync.dto.PublicHospitalDto;
 import com.bloodsync.entity.Hospital;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -21,5 +27,35 @@ public interface HospitalRepository extends JpaRepository<Hospital, Long> {
     // Public access methods
     List<Hospital> findByIsActiveTrue();
     
-    List<Hospital> findByCityAndIsActiveTrue(String city);
+    long countByIsActiveTrue();
+    
+    // Read projections: only the columns each response needs, with no managed entities
+    String HOSPITAL_DTO = "select new com.bloodsync.dto.HospitalDto(h.id, h.hospitalName, h.email, h.phoneNumber, "
+            + "h.address, h.city, h.state, h.latitude, h.longitude, h.licenseNumber, h.isActive, h.createdAt, h.updatedAt) "
+            + "from Hospital h";
+    
+    String PUBLIC_HOSPITAL_DTO = "select new com.bloodsync.dto.PublicHospitalDto(h.id, h.hospitalName, h.email, "
+            + "h.phoneNumber, h.address, h.city, h.state, h.latitude, h.longitude) from Hospital h where h.isActive = true";
+    
+    @Query(HOSPITAL_DTO + " order by h.id")
+    List<HospitalDto> findAllDtos();
+    
+    @Query(HOSPITAL_DTO + " where h.id = :id")
+    Optional<HospitalDto> findDtoById(@Param("id") Long id);
+    
+    @Query(HOSPITAL_DTO + " where h.email = :email")
+    Optional<HospitalDto> findDtoByEmail(@Param("email") String email);
+    
+    @Query(HOSPITAL_DTO + " where h.licenseNumber = :licenseNumber")
+    Optional<HospitalDto> findDtoByLicenseNumber(@Param("licenseNumber") String licenseNumber);
+    
+    @Query(PUBLIC_HOSPITAL_DTO + " order by h.id")
+    List<PublicHospitalDto> findPublicDtos();
+    
+    @Query(PUBLIC_HOSPITAL_DTO + " and h.city = :city order by h.id")
+    List<PublicHospitalDto> findPublicDtosByCity(@Param("city") String city);
+    
+    // Reactive read tier: keyset pages, ordered by the pageable
+    @Query(PUBLIC_HOSPITAL_DTO + " and h.id > :afterId")
+    Slice<PublicHospitalDto> findPublicDtosAfter(@Param("afterId") Long afterId, Pageable pageable);
 } 
\ No newline at end of file
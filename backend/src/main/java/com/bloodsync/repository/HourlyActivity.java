@@ -0,0 +1,24 @@
+package com.bloodsync.repository;
+
+import com.bloodsync.enums.BloodGroup;
+
+import java.time.LocalDate;
+
+// Row count and summed quantity (ml) per hospital, blood group, status and hour of day,
+// returned by activity rollup backfill queries
+public interface HourlyActivity {
+
+    Long getHospitalId();
+
+    BloodGroup getBloodGroup();
+
+    String getStatus();
+
+    LocalDate getDay();
+
+    Integer getHour();
+
+    Long getCount();
+
+    Long getQuantity();
+}
@@ -0,0 +1,9 @@
+package com.bloodsync.repository;
+
+// Lowest and highest primary key of a table; both null when it is empty
+public interface IdRange {
+    
+    Long getMin();
+    
+    Long getMax();
+}
@@ -0,0 +1,50 @@
+package com.bloodsync.repository;
+
+import com.bloodsync.entity.InventoryAvailability;
+import com.bloodsync.enums.BloodGroup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface InventoryAvailabilityRepository extends JpaRepository<InventoryAvailability, Long> {
+    
+    List<InventoryAvailability> findByHospitalId(Long hospitalId);
+    
+    // Writes the row of the hospital and blood group, inserting it if missing, in one statement,
+    // so concurrent refreshes of a new pair cannot both insert
+    @Modifying(flushAutomatically = true)
+    @Query(value = "insert into inventory_availability (hospital_id, blood_group, city_key, hospital_name, city, state, " +
+                   "phone_number, available_quantity, reserved_quantity, expiring_quantity, expired_quantity, " +
+                   "next_expiry, updated_at) " +
+                   "values (:hospitalId, :bloodGroup, :cityKey, :hospitalName, :city, :state, :phoneNumber, " +
+                   ":available, :reserved, :expiring, :expired, :nextExpiry, :now) " +
+                   "on duplicate key update " +
+                   "city_key = :cityKey, hospital_name = :hospitalName, city = :city, state = :state, " +
+                   "phone_number = :phoneNumber, available_quantity = :available, reserved_quantity = :reserved, " +
+                   "expiring_quantity = :expiring, expired_quantity = :expired, next_expiry = :nextExpiry, " +
+                   "updated_at = :now",
+           nativeQuery = true)
+    int upsert(@Param("hospitalId") Long hospitalId,
+               @Param("bloodGroup") String bloodGroup,
+               @Param("cityKey") String cityKey,
+               @Param("hospitalName") String hospitalName,
+               @Param("city") String city,
+               @Param("state") String state,
+               @Param("phoneNumber") String phoneNumber,
+               @Param("available") long available,
+               @Param("reserved") long reserved,
+               @Param("expiring") long expiring,
+               @Param("expired") long expired,
+               @Param("nextExpiry") LocalDateTime nextExpiry,
+               @Param("now") LocalDateTime now);
+    
+    @Modifying(flushAutomatically = true)
+    @Query("delete from InventoryAvailability a where a.hospitalId = :hospitalId and a.bloodGroup = :bloodGroup")
+    int deleteByKey(@Param("hospitalId") Long hospitalId, @Param("bloodGroup") BloodGroup bloodGroup);
+}
@@ -1,14 +1,16 @@
 package com.bloodsync.repository;
 
 import com.bloodsync.entity.Patient;
+import com.bloodsync.enums.BloodGroup;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface PatientRepository extends JpaRepository<Patient, Long> {
+public interface PatientRepository extends JpaRepository<Patient, Long>, JpaSpecificationExecutor<Patient> {
     
     Optional<Patient> findByEmail(String email);
     
@@ -16,7 +18,7 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     
     List<Patient> findByHospitalId(Long hospitalId);
     
-    List<Patient> findByBloodGroup(String bloodGroup);
+    List<Patient> findByBloodGroup(BloodGroup bloodGroup);
     
     List<Patient> findByCityAndState(String city, String state);
 } 
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.bloodsync.repository;
+
+// Row count and summed quantity (ml) returned by aggregate queries
+public interface QuantitySummary {
+    
+    Long getCount();
+    
+    Long getQuantity();
+}
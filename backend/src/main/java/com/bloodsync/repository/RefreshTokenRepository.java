@@ -0,0 +1,35 @@
+package com.bloodsync.repository;
+
+import com.bloodsync.entity.RefreshToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // Claims the token for rotation; 0 when it was already used or revoked
+    @Modifying
+    @Query("update RefreshToken t set t.usedAt = :now where t.id = :id and t.usedAt is null and t.revokedAt is null")
+    int markUsed(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update RefreshToken t set t.revokedAt = :now where t.familyId in :familyIds and t.revokedAt is null")
+    int revokeFamilies(@Param("familyIds") Collection<String> familyIds, @Param("now") LocalDateTime now);
+
+    @Query("select distinct t.familyId from RefreshToken t where t.userId = :userId and t.revokedAt is null and t.expiresAt > :now")
+    List<String> findActiveFamilies(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Query("select t.id from RefreshToken t where t.expiresAt <= :now order by t.id")
+    List<Long> findExpiredIds(@Param("now") LocalDateTime now, Pageable pageable);
+}
@@ -0,0 +1,25 @@
+package com.bloodsync.repository;
+
+import com.bloodsync.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    @Query("select t.jti from RevokedToken t where t.expiresAt > :now")
+    List<String> findLiveIds(@Param("now") LocalDateTime now);
+
+    @Query("select t.jti from RevokedToken t where t.revokedAt > :since")
+    List<String> findIdsRevokedSince(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("delete from RevokedToken t where t.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
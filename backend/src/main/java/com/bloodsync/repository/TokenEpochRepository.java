@@ -0,0 +1,22 @@
+package com.bloodsync.repository;
+
+import com.bloodsync.entity.TokenEpoch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TokenEpochRepository extends JpaRepository<TokenEpoch, Long> {
+
+    List<TokenEpoch> findByRevokedBeforeAfter(LocalDateTime since);
+
+    // Epochs older than the access token lifetime can no longer match a live token
+    @Modifying
+    @Query("delete from TokenEpoch e where e.revokedBefore <= :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,9 +1,14 @@
 package com.bloodsync.repository;
 
+import com.bloodsync.dto.UserDto;
 import com.bloodsync.entity.User;
+import com.bloodsync.enums.UserRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,4 +21,20 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
     
     boolean existsByEmail(String email);
+    
+    // Read projections; the password hash is never selected
+    String USER_DTO = "select new com.bloodsync.dto.UserDto(u.id, u.username, u.email, u.fullName, u.role, "
+            + "u.isActive, u.accountNonLocked, u.createdAt, u.updatedAt) from User u";
+    
+    @Query(USER_DTO + " order by u.id")
+    List<UserDto> findAllDtos();
+    
+    @Query(USER_DTO + " where u.id = :id")
+    Optional<UserDto> findDtoById(@Param("id") Long id);
+    
+    @Query(USER_DTO + " where u.username = :username")
+    Optional<UserDto> findDtoByUsername(@Param("username") String username);
+    
+    @Query(USER_DTO + " where u.role = :role order by u.id")
+    List<UserDto> findDtosByRole(@Param("role") UserRole role);
 } 
\ No newline at end of file
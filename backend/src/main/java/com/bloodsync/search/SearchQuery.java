@@ -0,0 +1,263 @@
+package com.bloodsync.search;
+
+import com.bloodsync.dto.CursorPageDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+
+// One parsed search request: the filters, sort, page size and keyset position. Executes as a
+// single select of limit + 1 rows ordered by (sort key, id); the extra row only signals that
+// another page exists, so no count query runs and deep pages cost the same as the first.
+// With fields= the select lists only those columns and rows come back as maps.
+public final class SearchQuery<T> {
+
+    // Leading tuple columns of a sparse select: the row ID and sort value, for the cursor
+    private static final int KEY_COLUMNS = 2;
+
+    private final SearchSchema<T> schema;
+    private final List<Condition> conditions;
+    private final String sortToken;
+    private final String sortName;
+    private final boolean descending;
+    private final int limit;
+    private final Object cursorValue;
+    private final Long cursorId;
+    private final List<String> fields;
+
+    private SearchQuery(SearchSchema<T> schema, List<Condition> conditions, String sortToken,
+                        int limit, Object cursorValue, Long cursorId, List<String> fields) {
+        this.schema = schema;
+        this.conditions = conditions;
+        this.sortToken = sortToken;
+        this.descending = sortToken.startsWith("-");
+        this.sortName = descending ? sortToken.substring(1) : sortToken;
+        this.limit = limit;
+        this.cursorValue = cursorValue;
+        this.cursorId = cursorId;
+        this.fields = fields;
+    }
+
+    static <T> SearchQuery<T> parse(SearchSchema<T> schema, Map<String, String> params) {
+        List<Condition> conditions = new ArrayList<>();
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            String name = param.getKey();
+            String value = param.getValue();
+            if (SearchSchema.CONTROL_PARAMS.contains(name) || value == null || value.isBlank()) {
+                continue;
+            }
+            conditions.add(condition(schema, name, value));
+        }
+
+        String sortToken = params.getOrDefault("sort", "id");
+        if (sortToken == null || sortToken.isBlank()) {
+            sortToken = "id";
+        }
+        String sortName = sortToken.startsWith("-") ? sortToken.substring(1) : sortToken;
+        if (schema.sortKey(sortName) == null) {
+            throw new IllegalArgumentException("Unsupported sort: " + sortName + "; sortable: " + schema.sortNames());
+        }
+
+        int limit = SearchSchema.DEFAULT_LIMIT;
+        String limitParam = params.get("limit");
+        if (limitParam != null && !limitParam.isBlank()) {
+            try {
+                limit = Integer.parseInt(limitParam.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid limit: " + limitParam);
+            }
+            if (limit < 1 || limit > SearchSchema.MAX_LIMIT) {
+                throw new IllegalArgumentException("Limit must be between 1 and " + SearchSchema.MAX_LIMIT);
+            }
+        }
+
+        Object cursorValue = null;
+        Long cursorId = null;
+        String cursor = params.get("cursor");
+        if (cursor != null && !cursor.isBlank()) {
+            // sort token | sort value | id
+            String decoded;
+            try {
+                decoded = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            int first = decoded.indexOf('|');
+            int last = decoded.lastIndexOf('|');
+            if (first < 0 || first == last || !decoded.substring(0, first).equals(sortToken)) {
+                throw new IllegalArgumentException("Cursor does not match sort " + sortToken);
+            }
+            try {
+                cursorId = Long.valueOf(decoded.substring(last + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            cursorValue = schema.filter(sortName).parse("cursor", decoded.substring(first + 1, last));
+        }
+        return new SearchQuery<>(schema, conditions, sortToken, limit, cursorValue, cursorId,
+                fields(schema, params.get(SearchSchema.FIELDS_PARAM)));
+    }
+
+    private static List<String> fields(SearchSchema<?> schema, String param) {
+        if (param == null) {
+            return null;
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        for (String part : param.split(",")) {
+            String name = part.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (schema.column(name) == null) {
+                throw new IllegalArgumentException("Unsupported field: " + name + "; selectable: " + schema.columnNames());
+            }
+            fields.add(name);
+        }
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("fields needs at least one of " + schema.columnNames());
+        }
+        return List.copyOf(fields);
+    }
+
+    private static Condition condition(SearchSchema<?> schema, String name, String value) {
+        SearchSchema.Filter filter = schema.filter(name);
+        if (filter != null) {
+            List<Object> values = new ArrayList<>();
+            for (String part : value.split(",")) {
+                if (!part.isBlank()) {
+                    values.add(filter.parse(name, part));
+                }
+            }
+            return new Condition(filter.path(), Operator.IN, values);
+        }
+        for (Operator bound : List.of(Operator.MIN, Operator.MAX)) {
+            String prefix = bound == Operator.MIN ? "min" : "max";
+            if (name.length() > prefix.length() && name.startsWith(prefix)) {
+                String field = Character.toLowerCase(name.charAt(prefix.length())) + name.substring(prefix.length() + 1);
+                filter = schema.filter(field);
+                if (filter != null && filter.range()) {
+                    return new Condition(filter.path(), bound, List.of(filter.parse(name, value)));
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unsupported filter: " + name + "; filterable: " + schema.filterNames()
+                + " (min/max bounds on range fields), plus sort, limit and cursor");
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Specification<T> specification() {
+        return (root, query, cb) -> {
+            // Only entity selects fetch the DTO's associations; counts and column selects cannot carry fetches
+            if (query.getResultType() == root.getJavaType()) {
+                schema.fetches().forEach(association -> root.fetch(association, JoinType.INNER));
+            }
+            List<Predicate> predicates = new ArrayList<>();
+            for (Condition condition : conditions) {
+                Path path = SearchSchema.path(root, condition.path());
+                switch (condition.operator()) {
+                    case IN:
+                        predicates.add(condition.values().size() == 1
+                                ? cb.equal(path, condition.values().get(0))
+                                : path.in(condition.values()));
+                        break;
+                    case MIN:
+                        predicates.add(cb.greaterThanOrEqualTo(path, (Comparable) condition.values().get(0)));
+                        break;
+                    case MAX:
+                        predicates.add(cb.lessThanOrEqualTo(path, (Comparable) condition.values().get(0)));
+                        break;
+                }
+            }
+            if (cursorId != null) {
+                // Rows strictly after the cursor in (sort key, id) order
+                Path id = root.get("id");
+                if (sortName.equals("id")) {
+                    predicates.add(descending ? cb.lessThan(id, cursorId) : cb.greaterThan(id, cursorId));
+                } else {
+                    Path key = SearchSchema.path(root, schema.filter(sortName).path());
+                    Comparable value = (Comparable) cursorValue;
+                    predicates.add(cb.or(
+                            descending ? cb.lessThan(key, value) : cb.greaterThan(key, value),
+                            cb.and(cb.equal(key, value), descending ? cb.lessThan(id, cursorId) : cb.greaterThan(id, cursorId))));
+                }
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    public Sort sort() {
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort byId = Sort.by(direction, "id");
+        return sortName.equals("id") ? byId : Sort.by(direction, schema.filter(sortName).path()).and(byId);
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public <R> CursorPageDto<R> execute(JpaSpecificationExecutor<T> repository, Function<T, R> mapper) {
+        List<T> rows = repository.findBy(specification(), q -> q.sortBy(sort()).limit(limit + 1).all());
+        boolean more = rows.size() > limit;
+        List<T> page = more ? rows.subList(0, limit) : rows;
+        List<R> items = new ArrayList<>(page.size());
+        page.forEach(row -> items.add(mapper.apply(row)));
+        return new CursorPageDto<>(items, more ? cursorAfter(page.get(page.size() - 1)) : null);
+    }
+
+    // Sparse variant of execute: one select of the ID, the sort key and the requested columns,
+    // with nothing loaded into the persistence context
+    public CursorPageDto<Map<String, Object>> select(EntityManager entityManager, Class<T> type) {
+        if (fields == null) {
+            throw new IllegalStateException("No fields requested");
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(type);
+        List<Selection<?>> columns = new ArrayList<>(KEY_COLUMNS + fields.size());
+        columns.add(root.get("id"));
+        columns.add(sortName.equals("id") ? root.get("id") : SearchSchema.path(root, schema.filter(sortName).path()));
+        for (String field : fields) {
+            columns.add(schema.column(field).selector().select(root, cb));
+        }
+        query.multiselect(columns)
+                .where(specification().toPredicate(root, query, cb))
+                .orderBy(QueryUtils.toOrders(sort(), root, cb));
+        List<Tuple> rows = entityManager.createQuery(query).setMaxResults(limit + 1).getResultList();
+
+        boolean more = rows.size() > limit;
+        List<Tuple> page = more ? rows.subList(0, limit) : rows;
+        List<Map<String, Object>> items = new ArrayList<>(page.size());
+        for (Tuple row : page) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                item.put(fields.get(i), schema.column(fields.get(i)).convert(row.get(KEY_COLUMNS + i)));
+            }
+            items.add(item);
+        }
+        Tuple last = more ? page.get(page.size() - 1) : null;
+        return new CursorPageDto<>(items, last != null ? cursorAfter(last.get(1), last.get(0)) : null);
+    }
+
+    private String cursorAfter(T row) {
+        return cursorAfter(schema.sortKey(sortName).apply(row), schema.id().apply(row));
+    }
+
+    private String cursorAfter(Object value, Object id) {
+        String raw = sortToken + "|" + value + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private enum Operator {
+        IN, MIN, MAX
+    }
+
+    private record Condition(String path, Operator operator, List<Object> values) {
+    }
+}
@@ -0,0 +1,177 @@
+package com.bloodsync.search;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+
+import java.util.*;
+import java.util.function.Function;
+
+// Allow-list of the filters and sort keys a search endpoint accepts for one entity. Each
+// request is parsed against it into a SearchQuery; anything not declared here is rejected.
+//
+//   field=value[,value...]     equality, or IN for a comma-separated list
+//   minField=value / maxField  inclusive bounds, for fields declared with range()
+//   sort=field / sort=-field   ascending / descending, for fields declared with sortable()
+//   limit=n                    page size, default 50, at most 200
+//   cursor=...                 nextCursor of the previous page
+//   fields=name[,name...]      return only these DTO fields, for fields declared with select()
+public final class SearchSchema<T> {
+
+    public static final String FIELDS_PARAM = "fields";
+    public static final Set<String> CONTROL_PARAMS = Set.of("sort", "limit", "cursor", FIELDS_PARAM);
+
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 200;
+
+    private final Function<T, Long> id;
+    private final Map<String, Filter> filters = new LinkedHashMap<>();
+    private final Map<String, Function<T, ? extends Comparable<?>>> sortKeys = new LinkedHashMap<>();
+    private final List<String> fetches = new ArrayList<>();
+    private final Map<String, Column<T>> columns = new LinkedHashMap<>();
+
+    private SearchSchema(Function<T, Long> id) {
+        this.id = id;
+    }
+
+    // The ID is always sortable and breaks ties between equal sort values
+    public static <T> SearchSchema<T> of(Function<T, Long> id) {
+        SearchSchema<T> schema = new SearchSchema<>(id);
+        schema.filters.put("id", new Filter("id", Long::valueOf, false));
+        schema.sortKeys.put("id", id);
+        schema.select("id", "id");
+        return schema;
+    }
+
+    public SearchSchema<T> equal(String name, String path, Function<String, ?> parser) {
+        filters.put(name, new Filter(path, parser, false));
+        return this;
+    }
+
+    public SearchSchema<T> range(String name, Function<String, ? extends Comparable<?>> parser) {
+        filters.put(name, new Filter(name, parser, true));
+        return this;
+    }
+
+    // Only non-null columns, so the keyset condition never has to compare against null
+    public SearchSchema<T> sortable(String name, Function<T, ? extends Comparable<?>> getter) {
+        if (!filters.containsKey(name)) {
+            throw new IllegalStateException("Sort key must be a declared filter: " + name);
+        }
+        sortKeys.put(name, getter);
+        return this;
+    }
+
+    // Many-to-one associations the DTO conversion reads, joined into the same query
+    public SearchSchema<T> fetch(String... associations) {
+        fetches.addAll(Arrays.asList(associations));
+        return this;
+    }
+
+    // A DTO field that fields= may name, read from one attribute path
+    public SearchSchema<T> select(String name, String path) {
+        return select(name, (root, cb) -> path(root, path));
+    }
+
+    // Same, with the attribute converted the way the DTO shows it (e.g. a blood group label)
+    @SuppressWarnings("unchecked")
+    public <V> SearchSchema<T> select(String name, String path, Function<V, ?> converter) {
+        columns.put(name, new Column<>((root, cb) -> path(root, path), (Function<Object, Object>) converter));
+        return this;
+    }
+
+    // A DTO field computed in the query, e.g. a concatenated display name
+    public SearchSchema<T> select(String name, Selector<T> selector) {
+        columns.put(name, new Column<>(selector, Function.identity()));
+        return this;
+    }
+
+    public SearchQuery<T> parse(Map<String, String> params) {
+        return SearchQuery.parse(this, params);
+    }
+
+    Filter filter(String name) {
+        return filters.get(name);
+    }
+
+    Function<T, ? extends Comparable<?>> sortKey(String name) {
+        return sortKeys.get(name);
+    }
+
+    Function<T, Long> id() {
+        return id;
+    }
+
+    List<String> fetches() {
+        return fetches;
+    }
+
+    Column<T> column(String name) {
+        return columns.get(name);
+    }
+
+    Set<String> columnNames() {
+        return columns.keySet();
+    }
+
+    Set<String> filterNames() {
+        return filters.keySet();
+    }
+
+    Set<String> sortNames() {
+        return sortKeys.keySet();
+    }
+
+    static <Y> Path<Y> path(From<?, ?> root, String path) {
+        Path<?> current = root;
+        for (String part : path.split("\\.")) {
+            current = current.get(part);
+        }
+        @SuppressWarnings("unchecked")
+        Path<Y> typed = (Path<Y>) current;
+        return typed;
+    }
+
+    // Case-insensitive enum constant, e.g. "pending" for PENDING
+    public static <E extends Enum<E>> Function<String, E> enumValue(Class<E> type) {
+        return value -> Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public static Function<String, Boolean> booleanValue() {
+        return value -> {
+            if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+                throw new IllegalArgumentException("Expected true or false");
+            }
+            return Boolean.valueOf(value);
+        };
+    }
+
+    @FunctionalInterface
+    public interface Selector<T> {
+        Expression<?> select(Root<T> root, CriteriaBuilder cb);
+    }
+
+    record Column<T>(Selector<T> selector, Function<Object, Object> converter) {
+
+        Object convert(Object value) {
+            return value == null ? null : converter.apply(value);
+        }
+    }
+
+    record Filter(String path, Function<String, ?> parser, boolean range) {
+
+        Object parse(String name, String value) {
+            try {
+                Object parsed = parser.apply(value.trim());
+                if (parsed == null) {
+                    throw new IllegalArgumentException("Missing value for " + name);
+                }
+                return parsed;
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid value for " + name + ": " + value);
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.bloodsync.security;
 
 import com.bloodsync.entity.User;
 import com.bloodsync.repository.UserRepository;
+import com.bloodsync.service.TokenRevocationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -19,6 +20,7 @@ import java.util.Collections;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -57,27 +59,21 @@ public class CustomUserDetailsService implements UserDetailsService {
                 user.setAccountNonLocked(false);
                 user.setLockTime(LocalDateTime.now());
                 log.warn("Account locked for user: {} after {} failed attempts", username, user.getFailedAttempts());
+                tokenRevocationService.revokeUser(user.getId());
             }
             
             userRepository.save(user);
         });
     }
 
-    public void resetFailedAttempts(String username) {
-        userRepository.findByUsername(username).ifPresent(user -> {
+    // Only writes when there is something to reset, so a routine login leaves the row alone
+    public void resetFailedAttempts(User user) {
+        if (user.getFailedAttempts() != 0 || !user.isAccountNonLocked() || user.getLockTime() != null) {
             user.setFailedAttempts(0);
             user.setAccountNonLocked(true);
             user.setLockTime(null);
             userRepository.save(user);
-            log.info("Reset failed attempts for user: {}", username);
-        });
-    }
-
-    public void updateRefreshToken(String username, String refreshToken, LocalDateTime expiry) {
-        userRepository.findByUsername(username).ifPresent(user -> {
-            user.setRefreshToken(refreshToken);
-            user.setRefreshTokenExpiry(expiry);
-            userRepository.save(user);
-        });
+            log.debug("Reset failed attempts for user: {}", user.getUsername());
+        }
     }
 } 
\ No newline at end of file
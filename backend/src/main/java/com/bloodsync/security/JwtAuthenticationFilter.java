@@ -1,28 +1,35 @@
 package com.bloodsync.security;
 
+import com.bloodsync.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import javax.servlet.FilterChain;
-import javax.servlet.ServletException;
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.List;
 
+// Authenticates from the token alone: the role comes from its claims, and revocation is checked
+// against the in-memory mirrors of TokenRevocationService rather than by loading the user
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenUtil jwtTokenUtil;
-    private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -30,32 +37,45 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String authorizationHeader = request.getHeader("Authorization");
         
-        String username = null;
-        String jwt = null;
+        Claims claims = null;
+        String outcome = "anonymous";
+        Timer.Sample sample = Timer.start(meterRegistry);
         
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
             try {
-                username = jwtTokenUtil.extractUsername(jwt);
+                // Signature and expiry are verified while parsing
+                claims = jwtTokenUtil.extractAllClaims(authorizationHeader.substring(7));
             } catch (Exception e) {
                 log.warn("Invalid JWT token: {}", e.getMessage());
+                outcome = "rejected";
             }
         }
         
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        if (claims != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String username = claims.getSubject();
+            Long userId = JwtTokenUtil.userId(claims);
+            String role = JwtTokenUtil.role(claims);
             
-            if (jwtTokenUtil.validateToken(jwt, userDetails)) {
+            // Refresh tokens and tokens from before revocation carry no role, user ID or jti
+            if (username == null || userId == null || role == null || claims.getId() == null) {
+                log.warn("JWT token for user {} is not an access token", username);
+                outcome = "rejected";
+            } else if (tokenRevocationService.isRevoked(claims.getId(), userId, JwtTokenUtil.issuedAtMillis(claims))) {
+                log.warn("Revoked JWT token for user: {}", username);
+                outcome = "revoked";
+            } else {
+                List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role));
+                AuthenticatedUser principal = new AuthenticatedUser(userId, username, authorities);
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
+                        principal, null, authorities);
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
                 log.debug("User {} authenticated successfully", username);
-            } else {
-                log.warn("Invalid JWT token for user: {}", username);
+                outcome = "authenticated";
             }
         }
+        sample.stop(meterRegistry.timer("bloodsync.security.jwt.authentication", "outcome", outcome));
         
         filterChain.doFilter(request, response);
     }
-} 
\ No newline at end of file
+}
@@ -1,22 +1,32 @@
 package com.bloodsync.security;
 
+import com.bloodsync.enums.UserRole;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
 @Slf4j
 public class JwtTokenUtil {
 
+    // Rotation family of a refresh token
+    private static final String FAMILY_CLAIM = "fam";
+    // Access tokens carry what authorization needs, so requests don't load the user
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
+    // Issue time in milliseconds; iat only has whole seconds, too coarse to order a token against
+    // a revocation made in the same second
+    private static final String ISSUED_MILLIS_CLAIM = "iat_ms";
+
     @Value("${jwt.secret:defaultSecretKeyForDevelopmentOnly}")
     private String secret;
 
@@ -38,12 +48,16 @@ public class JwtTokenUtil {
         return extractClaim(token, Claims::getExpiration);
     }
 
+    public String extractFamily(String token) {
+        return extractClaim(token, claims -> claims.get(FAMILY_CLAIM, String.class));
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
+    public Claims extractAllClaims(String token) {
         try {
             return Jwts.parserBuilder()
                     .setSigningKey(getSigningKey())
@@ -68,38 +82,46 @@ public class JwtTokenUtil {
         }
     }
 
-    public String generateToken(UserDetails userDetails) {
+    // The jti names the token for revocation
+    public String generateToken(Long userId, String username, UserRole role) {
         Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, userDetails.getUsername(), jwtExpiration);
+        claims.put(Claims.ID, UUID.randomUUID().toString());
+        claims.put(USER_ID_CLAIM, userId);
+        claims.put(ROLE_CLAIM, role.name());
+        long now = System.currentTimeMillis();
+        claims.put(ISSUED_MILLIS_CLAIM, now);
+        return createToken(claims, username, now, jwtExpiration);
+    }
+
+    public static Long userId(Claims claims) {
+        return claims.get(USER_ID_CLAIM, Long.class);
+    }
+
+    public static String role(Claims claims) {
+        return claims.get(ROLE_CLAIM, String.class);
     }
 
-    public String generateRefreshToken(UserDetails userDetails) {
+    // Falls back to iat for tokens issued before the millisecond claim existed
+    public static long issuedAtMillis(Claims claims) {
+        Long millis = claims.get(ISSUED_MILLIS_CLAIM, Long.class);
+        return millis != null ? millis : claims.getIssuedAt().getTime();
+    }
+
+    // The random ID keeps refresh tokens issued within the same second distinct
+    public String generateRefreshToken(String username, String familyId) {
         Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, userDetails.getUsername(), refreshExpiration);
+        claims.put(FAMILY_CLAIM, familyId);
+        claims.put(Claims.ID, UUID.randomUUID().toString());
+        return createToken(claims, username, System.currentTimeMillis(), refreshExpiration);
     }
 
-    private String createToken(Map<String, Object> claims, String subject, long expiration) {
+    private String createToken(Map<String, Object> claims, String subject, long issuedAt, long expiration) {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
+                .setIssuedAt(new Date(issuedAt))
+                .setExpiration(new Date(issuedAt + expiration))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
-
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-    }
-
-    public boolean isTokenExpired(String token) {
-        try {
-            Date expiration = extractExpiration(token);
-            return expiration.before(new Date());
-        } catch (Exception e) {
-            log.error("Error checking token expiration: {}", e.getMessage());
-            return true;
-        }
-    }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,271 @@
+package com.bloodsync.service;
+
+import com.bloodsync.dto.ActivityBucketDto;
+import com.bloodsync.entity.ActivityRollup;
+import com.bloodsync.entity.BloodDonation;
+import com.bloodsync.entity.BloodRequest;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.repository.ActivityRollupRepository;
+import com.bloodsync.repository.ArchivedBloodDonationRepository;
+import com.bloodsync.repository.ArchivedBloodRequestRepository;
+import com.bloodsync.repository.BloodDonationRepository;
+import com.bloodsync.repository.BloodRequestRepository;
+import com.bloodsync.repository.HourlyActivity;
+import com.bloodsync.repository.IdRange;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+import static com.bloodsync.service.TransactionCallbacks.afterCompletion;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ActivityRollupService {
+
+    private final ActivityRollupRepository activityRollupRepository;
+    private final BloodDonationRepository bloodDonationRepository;
+    private final BloodRequestRepository bloodRequestRepository;
+    private final ArchivedBloodDonationRepository archivedBloodDonationRepository;
+    private final ArchivedBloodRequestRepository archivedBloodRequestRepository;
+
+    // IDs aggregated per backfill query
+    @Value("${rollup.backfill-chunk-size:20000}")
+    private int backfillChunkSize;
+
+    @Value("${rollup.backfill-threads:4}")
+    private int backfillThreads;
+
+    // Read side: transactions applying deltas, held until they complete. Write side: rebuild(),
+    // held until its replacement rows commit or roll back.
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    // Buckets of the given granularity that overlap [from, to]; one row per bucket, hospital,
+    // blood group and status, read straight from the rollup
+    @Transactional(readOnly = true)
+    public List<ActivityBucketDto> getBuckets(ActivityRollup.Source source, ActivityRollup.Granularity granularity,
+                                              LocalDateTime from, LocalDateTime to,
+                                              Long hospitalId, String bloodGroup) {
+        return activityRollupRepository.findBuckets(source, granularity, granularity.truncate(from), to, hospitalId,
+                        BloodGroup.fromLabel(bloodGroup))
+                .stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    // Write-path hook, as DemandForecastService.record: the activity a record contributed before
+    // and after the write is moved between buckets inside the caller's transaction
+    @Transactional
+    public void record(ActivityEntry removed, ActivityEntry added) {
+        joinWriters();
+        for (ActivityRollup.Granularity granularity : ActivityRollup.Granularity.values()) {
+            if (removed != null && added != null && removed.sameBucket(added, granularity)) {
+                addToBucket(added, granularity, 0, added.getQuantity() - removed.getQuantity());
+                continue;
+            }
+            if (removed != null) {
+                addToBucket(removed, granularity, -1, -removed.getQuantity());
+            }
+            if (added != null) {
+                addToBucket(added, granularity, 1, added.getQuantity());
+            }
+        }
+    }
+
+    // Batch form of record for many writes at once: the deltas are netted per bucket first, so each
+    // bucket touched costs one statement however many records moved through it
+    @Transactional
+    public void recordAll(List<ActivityEntry> removed, List<ActivityEntry> added) {
+        joinWriters();
+        Map<Bucket, long[]> deltas = new HashMap<>();
+        addDeltas(deltas, removed, -1);
+        addDeltas(deltas, added, 1);
+        deltas.forEach((bucket, delta) -> addToBucket(bucket.source(), bucket.granularity(), bucket.start(),
+                bucket.hospitalId(), bucket.bloodGroup(), bucket.status(), delta[0], delta[1]));
+    }
+
+    private static void addDeltas(Map<Bucket, long[]> deltas, List<ActivityEntry> entries, int sign) {
+        for (ActivityEntry entry : entries) {
+            if (entry == null) {
+                continue;
+            }
+            for (ActivityRollup.Granularity granularity : ActivityRollup.Granularity.values()) {
+                long[] delta = deltas.computeIfAbsent(new Bucket(entry.getSource(), granularity, granularity.truncate(entry.getTime()),
+                        entry.getHospitalId(), entry.getBloodGroup(), entry.getStatus()), key -> new long[2]);
+                delta[0] += sign;
+                delta[1] += sign * entry.getQuantity();
+            }
+        }
+    }
+
+    private void addToBucket(ActivityEntry entry, ActivityRollup.Granularity granularity, long count, long quantity) {
+        addToBucket(entry.getSource(), granularity, granularity.truncate(entry.getTime()), entry.getHospitalId(),
+                entry.getBloodGroup(), entry.getStatus(), count, quantity);
+    }
+
+    private void addToBucket(ActivityRollup.Source source, ActivityRollup.Granularity granularity, LocalDateTime bucketStart,
+                             Long hospitalId, BloodGroup bloodGroup, String status, long count, long quantity) {
+        if (count == 0 && quantity == 0) {
+            return;
+        }
+        activityRollupRepository.addToBucket(source.name(), granularity.name(), bucketStart, hospitalId,
+                bloodGroup.label(), status, count, quantity);
+    }
+
+    // Holds off rebuild() until the calling transaction completes. Deltas are applied in the
+    // writer's transaction, after its raw write; a rebuild that ran in between would aggregate
+    // without the write and then replace the rows the delta landed on.
+    private void joinWriters() {
+        if (!rebuildLock.isWriteLockedByCurrentThread()) {
+            rebuildLock.readLock().lock();
+            afterCompletion(() -> rebuildLock.readLock().unlock());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initialize() {
+        if (activityRollupRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    // Recomputes every rollup from the raw and archive tables. Each table is split into ID ranges
+    // that are aggregated to hours in parallel; days and months are then summed from the hours.
+    // Writers wait while it runs, so the replacement rows are exact when they commit.
+    // Returns the number of rollup rows written.
+    @Transactional
+    public int rebuild() {
+        if (rebuildLock.getReadHoldCount() > 0) {
+            throw new IllegalStateException("Activity rollups cannot be rebuilt in a transaction that has recorded activity");
+        }
+        rebuildLock.writeLock().lock();
+        afterCompletion(() -> rebuildLock.writeLock().unlock());
+        long start = System.currentTimeMillis();
+        Map<Bucket, long[]> hours = new HashMap<>();
+        backfill(ActivityRollup.Source.DONATION, bloodDonationRepository.findIdRange(),
+                bloodDonationRepository::sumHourlyActivity, hours);
+        backfill(ActivityRollup.Source.REQUEST, bloodRequestRepository.findIdRange(),
+                bloodRequestRepository::sumHourlyActivity, hours);
+        backfill(ActivityRollup.Source.DONATION, archivedBloodDonationRepository.findIdRange(),
+                archivedBloodDonationRepository::sumHourlyActivity, hours);
+        backfill(ActivityRollup.Source.REQUEST, archivedBloodRequestRepository.findIdRange(),
+                archivedBloodRequestRepository::sumHourlyActivity, hours);
+
+        Map<Bucket, long[]> buckets = new HashMap<>(hours);
+        hours.forEach((hour, totals) -> {
+            for (ActivityRollup.Granularity granularity : List.of(ActivityRollup.Granularity.DAY, ActivityRollup.Granularity.MONTH)) {
+                long[] sum = buckets.computeIfAbsent(hour.at(granularity), key -> new long[2]);
+                sum[0] += totals[0];
+                sum[1] += totals[1];
+            }
+        });
+
+        activityRollupRepository.deleteAllInBatch();
+        List<ActivityRollup> rows = new ArrayList<>(buckets.size());
+        buckets.forEach((bucket, totals) -> rows.add(new ActivityRollup(null, bucket.source(), bucket.granularity(),
+                bucket.start(), bucket.hospitalId(), bucket.bloodGroup(), bucket.status(), totals[0], totals[1])));
+        activityRollupRepository.saveAll(rows);
+        log.info("Activity rollups rebuilt with {} rows in {} ms", rows.size(), System.currentTimeMillis() - start);
+        return rows.size();
+    }
+
+    private void backfill(ActivityRollup.Source source, IdRange ids,
+                          BiFunction<Long, Long, List<HourlyActivity>> query, Map<Bucket, long[]> hours) {
+        if (ids == null || ids.getMin() == null) {
+            return;
+        }
+        List<CompletableFuture<List<HourlyActivity>>> chunks = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(backfillThreads)) {
+            for (long from = ids.getMin(); from <= ids.getMax(); from += backfillChunkSize) {
+                long fromId = from;
+                long toId = Math.min(from + backfillChunkSize - 1, ids.getMax());
+                chunks.add(CompletableFuture.supplyAsync(() -> query.apply(fromId, toId), pool));
+            }
+            // A bucket can span chunks, so partial sums are merged here rather than in the workers
+            for (CompletableFuture<List<HourlyActivity>> chunk : chunks) {
+                for (HourlyActivity row : chunk.join()) {
+                    Bucket hour = new Bucket(source, ActivityRollup.Granularity.HOUR,
+                            row.getDay().atTime(row.getHour(), 0), row.getHospitalId(), row.getBloodGroup(), row.getStatus());
+                    long[] totals = hours.computeIfAbsent(hour, key -> new long[2]);
+                    totals[0] += row.getCount();
+                    totals[1] += row.getQuantity();
+                }
+            }
+        }
+    }
+
+    private ActivityBucketDto convertToDto(ActivityRollup rollup) {
+        return new ActivityBucketDto(
+                rollup.getBucketStart(),
+                rollup.getGranularity().name(),
+                rollup.getHospitalId(),
+                rollup.getBloodGroup().label(),
+                rollup.getStatus(),
+                rollup.getEventCount(),
+                rollup.getQuantity()
+        );
+    }
+
+    private record Bucket(ActivityRollup.Source source, ActivityRollup.Granularity granularity, LocalDateTime start,
+                          Long hospitalId, BloodGroup bloodGroup, String status) {
+
+        Bucket at(ActivityRollup.Granularity coarser) {
+            return new Bucket(source, coarser, coarser.truncate(start), hospitalId, bloodGroup, status);
+        }
+    }
+
+    // What one donation or request adds to the rollups
+    @lombok.Value
+    public static class ActivityEntry {
+        ActivityRollup.Source source;
+        Long hospitalId;
+        BloodGroup bloodGroup;
+        String status;
+        LocalDateTime time;
+        long quantity;
+
+        public static ActivityEntry of(BloodDonation donation) {
+            return of(donation, donation.getStatus());
+        }
+
+        // As the donation would contribute with the given status
+        public static ActivityEntry of(BloodDonation donation, BloodDonation.DonationStatus status) {
+            if (donation.getDonationDate() == null) {
+                return null;
+            }
+            return new ActivityEntry(ActivityRollup.Source.DONATION, donation.getHospital().getId(), donation.getBloodGroup(),
+                    status.name(), donation.getDonationDate(), donation.getQuantity());
+        }
+
+        public static ActivityEntry of(BloodRequest request) {
+            return of(request, request.getStatus());
+        }
+
+        public static ActivityEntry of(BloodRequest request, BloodRequest.RequestStatus status) {
+            if (request.getRequestDate() == null) {
+                return null;
+            }
+            return new ActivityEntry(ActivityRollup.Source.REQUEST, request.getHospital().getId(), request.getBloodGroup(),
+                    status.name(), request.getRequestDate(), request.getRequiredQuantity());
+        }
+
+        boolean sameBucket(ActivityEntry other, ActivityRollup.Granularity granularity) {
+            return source == other.source && hospitalId.equals(other.hospitalId) && bloodGroup == other.bloodGroup
+                    && status.equals(other.status) && granularity.truncate(time).equals(granularity.truncate(other.time));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.bloodsync.service;
+
+import com.bloodsync.entity.ArchivedBloodDonation;
+import com.bloodsync.entity.ArchivedBloodRequest;
+import com.bloodsync.entity.BloodDonation;
+import com.bloodsync.entity.BloodRequest;
+import com.bloodsync.repository.ArchivedBloodDonationRepository;
+import com.bloodsync.repository.ArchivedBloodRequestRepository;
+import com.bloodsync.repository.BloodDonationRepository;
+import com.bloodsync.repository.BloodRequestRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Moves closed donations and requests older than the retention window out of the hot tables.
+// Rollups and the demand history already hold their totals, so nothing else changes.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ArchiveService {
+
+    private static final List<BloodDonation.DonationStatus> CLOSED_DONATION_STATUSES = List.of(
+            BloodDonation.DonationStatus.COMPLETED,
+            BloodDonation.DonationStatus.CANCELLED,
+            BloodDonation.DonationStatus.REJECTED);
+
+    private static final List<BloodRequest.RequestStatus> CLOSED_REQUEST_STATUSES = List.of(
+            BloodRequest.RequestStatus.FULFILLED,
+            BloodRequest.RequestStatus.CANCELLED,
+            BloodRequest.RequestStatus.REJECTED);
+
+    private final BloodDonationRepository bloodDonationRepository;
+    private final BloodRequestRepository bloodRequestRepository;
+    private final ArchivedBloodDonationRepository archivedBloodDonationRepository;
+    private final ArchivedBloodRequestRepository archivedBloodRequestRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${archive.retention-days:365}")
+    private int retentionDays;
+
+    // Rows moved per transaction
+    @Value("${archive.batch-size:500}")
+    private int batchSize;
+
+    // Pause between batches, leaving the database to live traffic
+    @Value("${archive.batch-pause-ms:200}")
+    private long batchPauseMillis;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Scheduled(cron = "${archive.cron:0 0 3 * * *}")
+    public void archiveNightly() {
+        archive();
+    }
+
+    // Returns the number of donations and requests moved; nothing if a run is already in progress
+    public ArchiveRun archive() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Archival already running, skipped");
+            return new ArchiveRun(0, 0, 0);
+        }
+        try {
+            long start = System.currentTimeMillis();
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime cutoff = now.minusDays(retentionDays);
+            int donations = moveInBatches(pageSize -> archiveDonations(cutoff, now, pageSize));
+            int requests = moveInBatches(pageSize -> archiveRequests(cutoff, now, pageSize));
+            long elapsed = System.currentTimeMillis() - start;
+            log.info("Archived {} donations and {} requests closed before {} in {} ms", donations, requests, cutoff, elapsed);
+            return new ArchiveRun(donations, requests, elapsed);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int moveInBatches(Function<Integer, Integer> batch) {
+        int moved = 0;
+        while (true) {
+            Integer count = transactionTemplate.execute(status -> batch.apply(batchSize));
+            moved += count;
+            if (count < batchSize) {
+                return moved;
+            }
+            try {
+                Thread.sleep(batchPauseMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return moved;
+            }
+        }
+    }
+
+    private int archiveDonations(LocalDateTime cutoff, LocalDateTime now, int pageSize) {
+        List<BloodDonation> batch = bloodDonationRepository.findArchivable(CLOSED_DONATION_STATUSES, cutoff, PageRequest.of(0, pageSize));
+        archivedBloodDonationRepository.saveAll(batch.stream()
+                .map(donation -> toArchive(donation, now))
+                .collect(Collectors.toList()));
+        bloodDonationRepository.deleteAllInBatch(batch);
+        return batch.size();
+    }
+
+    private int archiveRequests(LocalDateTime cutoff, LocalDateTime now, int pageSize) {
+        List<BloodRequest> batch = bloodRequestRepository.findArchivable(CLOSED_REQUEST_STATUSES, cutoff, PageRequest.of(0, pageSize));
+        archivedBloodRequestRepository.saveAll(batch.stream()
+                .map(request -> toArchive(request, now))
+                .collect(Collectors.toList()));
+        bloodRequestRepository.deleteAllInBatch(batch);
+        return batch.size();
+    }
+
+    private static ArchivedBloodDonation toArchive(BloodDonation donation, LocalDateTime archivedAt) {
+        return new ArchivedBloodDonation(
+                donation.getId(),
+                donation.getDonor().getId(),
+                donation.getDonor().getFirstName() + " " + donation.getDonor().getLastName(),
+                donation.getHospital().getId(),
+                donation.getHospital().getHospitalName(),
+                donation.getDonationDate(),
+                donation.getBloodGroup(),
+                donation.getQuantity(),
+                donation.getStatus(),
+                donation.getNotes(),
+                donation.getCreatedAt(),
+                donation.getUpdatedAt(),
+                archivedAt
+        );
+    }
+
+    private static ArchivedBloodRequest toArchive(BloodRequest request, LocalDateTime archivedAt) {
+        return new ArchivedBloodRequest(
+                request.getId(),
+                request.getPatient().getId(),
+                request.getHospital().getId(),
+                request.getBloodGroup(),
+                request.getRequiredQuantity(),
+                request.getRequestDate(),
+                request.getRequiredDate(),
+                request.getStatus(),
+                request.getPriority(),
+                request.getReason(),
+                request.getNotes(),
+                request.getCreatedAt(),
+                request.getUpdatedAt(),
+                archivedAt
+        );
+    }
+
+    @lombok.Value
+    public static class ArchiveRun {
+        int donations;
+        int requests;
+        long elapsedMillis;
+    }
+}
@@ -9,18 +9,17 @@ import com.bloodsync.enums.UserRole;
 import com.bloodsync.repository.UserRepository;
 import com.bloodsync.security.CustomUserDetailsService;
 import com.bloodsync.security.JwtTokenUtil;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.CredentialsExpiredException;
 import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -31,6 +30,8 @@ public class AuthenticationService {
     private final JwtTokenUtil jwtTokenUtil;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
 
     public AuthResponse login(LoginRequest loginRequest) {
         try {
@@ -38,22 +39,18 @@ public class AuthenticationService {
                     new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword())
             );
             
-            UserDetails userDetails = userDetailsService.loadUserByUsername(loginRequest.getUsername());
-            String accessToken = jwtTokenUtil.generateToken(userDetails);
-            String refreshToken = jwtTokenUtil.generateRefreshToken(userDetails);
+            User user = userRepository.findByUsername(loginRequest.getUsername())
+                    .orElseThrow(() -> new BadCredentialsException("User not found: " + loginRequest.getUsername()));
             
             // Reset failed attempts on successful login
-            userDetailsService.resetFailedAttempts(loginRequest.getUsername());
-            
-            // Update refresh token in database
-            LocalDateTime refreshExpiry = LocalDateTime.now().plusHours(24);
-            userDetailsService.updateRefreshToken(loginRequest.getUsername(), refreshToken, refreshExpiry);
+            userDetailsService.resetFailedAttempts(user);
             
-            User user = userRepository.findByUsername(loginRequest.getUsername()).orElse(null);
-            String role = user != null ? user.getRole().name() : "USER";
+            // Each login starts its own token family, so devices sign in independently
+            RefreshTokenService.IssuedToken refreshToken = refreshTokenService.issue(user);
+            String accessToken = jwtTokenUtil.generateToken(user.getId(), user.getUsername(), user.getRole());
             
-            log.info("User {} logged in successfully", loginRequest.getUsername());
-            return new AuthResponse(accessToken, refreshToken, loginRequest.getUsername(), role);
+            log.debug("User {} logged in successfully", loginRequest.getUsername());
+            return new AuthResponse(accessToken, refreshToken.token(), user.getUsername(), user.getRole().name());
             
         } catch (BadCredentialsException e) {
             userDetailsService.incrementFailedAttempts(loginRequest.getUsername());
@@ -92,16 +89,11 @@ public class AuthenticationService {
             
             User savedUser = userRepository.save(user);
             
-            UserDetails userDetails = userDetailsService.loadUserByUsername(savedUser.getUsername());
-            String accessToken = jwtTokenUtil.generateToken(userDetails);
-            String refreshToken = jwtTokenUtil.generateRefreshToken(userDetails);
-            
-            // Update refresh token in database
-            LocalDateTime refreshExpiry = LocalDateTime.now().plusHours(24);
-            userDetailsService.updateRefreshToken(savedUser.getUsername(), refreshToken, refreshExpiry);
+            RefreshTokenService.IssuedToken refreshToken = refreshTokenService.issue(savedUser);
+            String accessToken = jwtTokenUtil.generateToken(savedUser.getId(), savedUser.getUsername(), savedUser.getRole());
             
             log.info("User {} registered successfully", savedUser.getUsername());
-            return new AuthResponse(accessToken, refreshToken, savedUser.getUsername(), savedUser.getRole().name());
+            return new AuthResponse(accessToken, refreshToken.token(), savedUser.getUsername(), savedUser.getRole().name());
             
         } catch (Exception e) {
             log.error("Registration error: {}", e.getMessage());
@@ -109,37 +101,36 @@ public class AuthenticationService {
         }
     }
 
+    // Served from the refresh token store alone; revoking a user's tokens is what ends their
+    // sessions when the account is locked, disabled or changed
     public AuthResponse refreshToken(RefreshTokenRequest refreshTokenRequest) {
         try {
-            String username = jwtTokenUtil.extractUsername(refreshTokenRequest.getRefreshToken());
-            
-            if (username == null) {
-                return new AuthResponse("Invalid refresh token");
-            }
-            
-            User user = userRepository.findByUsername(username).orElse(null);
-            if (user == null || !user.getRefreshToken().equals(refreshTokenRequest.getRefreshToken())) {
-                return new AuthResponse("Invalid refresh token");
-            }
+            RefreshTokenService.IssuedToken refreshToken = refreshTokenService.rotate(refreshTokenRequest.getRefreshToken());
+            String newAccessToken = jwtTokenUtil.generateToken(refreshToken.userId(), refreshToken.username(), refreshToken.role());
             
-            if (user.getRefreshTokenExpiry() != null && user.getRefreshTokenExpiry().isBefore(LocalDateTime.now())) {
-                return new AuthResponse("Refresh token has expired");
-            }
-            
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            String newAccessToken = jwtTokenUtil.generateToken(userDetails);
-            String newRefreshToken = jwtTokenUtil.generateRefreshToken(userDetails);
+            log.debug("Token refreshed for user: {}", refreshToken.username());
+            return new AuthResponse(newAccessToken, refreshToken.token(), refreshToken.username(), refreshToken.role().name());
             
-            // Update refresh token in database
-            LocalDateTime refreshExpiry = LocalDateTime.now().plusHours(24);
-            userDetailsService.updateRefreshToken(username, newRefreshToken, refreshExpiry);
-            
-            log.info("Token refreshed for user: {}", username);
-            return new AuthResponse(newAccessToken, newRefreshToken, username, user.getRole().name());
+        } catch (BadCredentialsException | CredentialsExpiredException e) {
+            return new AuthResponse(e.getMessage());
             
         } catch (Exception e) {
             log.error("Token refresh error: {}", e.getMessage());
             return new AuthResponse("Token refresh failed: " + e.getMessage());
         }
     }
-} 
\ No newline at end of file
+
+    // Revokes the access token right away, and the session's refresh tokens when one is given
+    public void logout(String accessToken, String refreshToken) {
+        Claims claims = jwtTokenUtil.extractAllClaims(accessToken);
+        Long userId = JwtTokenUtil.userId(claims);
+        if (claims.getId() == null || userId == null) {
+            throw new BadCredentialsException("Not an access token");
+        }
+        tokenRevocationService.revokeToken(claims.getId(), userId, claims.getExpiration());
+        if (refreshToken != null) {
+            refreshTokenService.revokeFamily(refreshToken);
+        }
+        log.debug("User {} logged out", claims.getSubject());
+    }
+}
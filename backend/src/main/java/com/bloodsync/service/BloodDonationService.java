@@ -1,19 +1,29 @@
 package com.bloodsync.service;
 
+import com.bloodsync.dto.ActivityBucketDto;
 import com.bloodsync.dto.BloodDonationDto;
+import com.bloodsync.dto.CursorPageDto;
+import com.bloodsync.entity.ActivityRollup;
+import com.bloodsync.entity.ArchivedBloodDonation;
 import com.bloodsync.entity.BloodDonation;
 import com.bloodsync.entity.Donor;
 import com.bloodsync.entity.Hospital;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.repository.ArchivedBloodDonationRepository;
 import com.bloodsync.repository.BloodDonationRepository;
 import com.bloodsync.repository.DonorRepository;
 import com.bloodsync.repository.HospitalRepository;
+import com.bloodsync.search.SearchSchema;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -23,60 +33,112 @@ import java.util.stream.Collectors;
 @Transactional
 public class BloodDonationService {
     
+    // Filters, sort keys and fields= columns accepted by searchBloodDonations, and filters for bulk status changes
+    static final SearchSchema<BloodDonation> SEARCH = SearchSchema.of(BloodDonation::getId)
+            .equal("donorId", "donor.id", Long::valueOf)
+            .equal("hospitalId", "hospital.id", Long::valueOf)
+            .equal("bloodGroup", "bloodGroup", BloodGroup::fromLabel)
+            .equal("status", "status", SearchSchema.enumValue(BloodDonation.DonationStatus.class))
+            .range("donationDate", LocalDateTime::parse)
+            .range("quantity", Integer::valueOf)
+            .sortable("donationDate", BloodDonation::getDonationDate)
+            .sortable("quantity", BloodDonation::getQuantity)
+            .fetch("donor", "hospital")
+            .select("donorId", "donor.id")
+            .select("donorName", (root, cb) -> cb.concat(
+                    cb.concat(root.get("donor").<String>get("firstName"), " "), root.get("donor").<String>get("lastName")))
+            .select("hospitalId", "hospital.id")
+            .select("hospitalName", "hospital.hospitalName")
+            .select("donationDate", "donationDate")
+            .select("bloodGroup", "bloodGroup", BloodGroup::label)
+            .select("quantity", "quantity")
+            .select("status", "status")
+            .select("notes", "notes")
+            .select("createdAt", "createdAt")
+            .select("updatedAt", "updatedAt");
+    
     private final BloodDonationRepository bloodDonationRepository;
     private final DonorRepository donorRepository;
     private final HospitalRepository hospitalRepository;
+    private final DonorMatchingService donorMatchingService;
+    private final DonorEligibilityService donorEligibilityService;
+    private final DemandForecastService demandForecastService;
+    private final ActivityRollupService activityRollupService;
+    private final ArchivedBloodDonationRepository archivedBloodDonationRepository;
+    private final EntityManager entityManager;
     
     public List<BloodDonationDto> getAllBloodDonations() {
-        log.info("Fetching all blood donations");
+        log.debug("Fetching all blood donations");
         return bloodDonationRepository.findAll().stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
     
-    public Optional<BloodDonationDto> getBloodDonationById(Long id) {
-        log.info("Fetching blood donation with ID: {}", id);
-        return bloodDonationRepository.findById(id)
-                .map(this::convertToDto);
+    // Any combination of the schema's filters as one query, keyset-paginated
+    @Transactional(readOnly = true)
+    public CursorPageDto<BloodDonationDto> searchBloodDonations(Map<String, String> params) {
+        log.debug("Searching blood donations with {}", params);
+        return SEARCH.parse(params).execute(bloodDonationRepository, this::convertToDto);
     }
     
-    public List<BloodDonationDto> getBloodDonationsByDonorId(Long donorId) {
-        log.info("Fetching blood donations for donor ID: {}", donorId);
-        return bloodDonationRepository.findByDonorId(donorId).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    // The same search reading only the fields= columns
+    @Transactional(readOnly = true)
+    public CursorPageDto<Map<String, Object>> selectBloodDonations(Map<String, String> params) {
+        log.debug("Selecting blood donation fields with {}", params);
+        return SEARCH.parse(params).select(entityManager, BloodDonation.class);
     }
     
-    public List<BloodDonationDto> getBloodDonationsByHospitalId(Long hospitalId) {
-        log.info("Fetching blood donations for hospital ID: {}", hospitalId);
-        return bloodDonationRepository.findByHospitalId(hospitalId).stream()
+    public Optional<BloodDonationDto> getBloodDonationById(Long id, boolean includeArchived) {
+        log.debug("Fetching blood donation with ID: {}", id);
+        return bloodDonationRepository.findById(id)
                 .map(this::convertToDto)
-                .collect(Collectors.toList());
+                .or(() -> includeArchived
+                        ? archivedBloodDonationRepository.findById(id).map(this::convertToDto)
+                        : Optional.empty());
+    }
+    
+    public List<BloodDonationDto> getBloodDonationsByDonorId(Long donorId, boolean includeArchived) {
+        log.debug("Fetching blood donations for donor ID: {}", donorId);
+        return withArchived(bloodDonationRepository.findByDonorId(donorId),
+                includeArchived ? archivedBloodDonationRepository.findByDonorId(donorId) : null);
+    }
+    
+    public List<BloodDonationDto> getBloodDonationsByHospitalId(Long hospitalId, boolean includeArchived) {
+        log.debug("Fetching blood donations for hospital ID: {}", hospitalId);
+        return withArchived(bloodDonationRepository.findByHospitalId(hospitalId),
+                includeArchived ? archivedBloodDonationRepository.findByHospitalId(hospitalId) : null);
     }
     
     public List<BloodDonationDto> getBloodDonationsByBloodGroup(String bloodGroup) {
-        log.info("Fetching blood donations for blood group: {}", bloodGroup);
-        return bloodDonationRepository.findByBloodGroup(bloodGroup).stream()
+        log.debug("Fetching blood donations for blood group: {}", bloodGroup);
+        return bloodDonationRepository.findByBloodGroup(BloodGroup.fromLabel(bloodGroup)).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
     
-    public List<BloodDonationDto> getBloodDonationsByStatus(BloodDonation.DonationStatus status) {
-        log.info("Fetching blood donations with status: {}", status);
-        return bloodDonationRepository.findByStatus(status).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public List<BloodDonationDto> getBloodDonationsByStatus(BloodDonation.DonationStatus status, boolean includeArchived) {
+        log.debug("Fetching blood donations with status: {}", status);
+        return withArchived(bloodDonationRepository.findByStatus(status),
+                includeArchived ? archivedBloodDonationRepository.findByStatus(status) : null);
     }
     
-    public List<BloodDonationDto> getBloodDonationsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        log.info("Fetching blood donations between {} and {}", startDate, endDate);
-        return bloodDonationRepository.findByDonationDateBetween(startDate, endDate).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public List<BloodDonationDto> getBloodDonationsByDateRange(LocalDateTime startDate, LocalDateTime endDate,
+                                                               boolean includeArchived) {
+        log.debug("Fetching blood donations between {} and {}", startDate, endDate);
+        return withArchived(bloodDonationRepository.findByDonationDateBetween(startDate, endDate),
+                includeArchived ? archivedBloodDonationRepository.findByDonationDateBetween(startDate, endDate) : null);
+    }
+    
+    public List<ActivityBucketDto> getBloodDonationBuckets(LocalDateTime startDate, LocalDateTime endDate,
+                                                           ActivityRollup.Granularity granularity,
+                                                           Long hospitalId, String bloodGroup) {
+        log.debug("Fetching {} blood donation buckets between {} and {}", granularity, startDate, endDate);
+        return activityRollupService.getBuckets(ActivityRollup.Source.DONATION, granularity, startDate, endDate,
+                hospitalId, bloodGroup);
     }
     
     public BloodDonationDto createBloodDonation(BloodDonationDto bloodDonationDto) {
-        log.info("Creating new blood donation for donor ID: {}", bloodDonationDto.getDonorId());
+        log.debug("Creating new blood donation for donor ID: {}", bloodDonationDto.getDonorId());
         
         // Validate donor exists
         Donor donor = donorRepository.findById(bloodDonationDto.getDonorId())
@@ -101,27 +163,36 @@ public class BloodDonationService {
         }
         
         BloodDonation savedDonation = bloodDonationRepository.save(bloodDonation);
+        demandForecastService.record(null, DemandForecastService.DemandEntry.of(savedDonation));
+        activityRollupService.record(null, ActivityRollupService.ActivityEntry.of(savedDonation));
         
-        // Update donor's last donation date
+        // Update donor's last donation date and defer further donations
         donor.setLastDonationDate(bloodDonation.getDonationDate().toLocalDate());
+        if (savedDonation.getStatus() == BloodDonation.DonationStatus.COMPLETED) {
+            donorEligibilityService.deferAfterDonation(donor, donor.getLastDonationDate());
+        }
         donorRepository.save(donor);
+        donorMatchingService.onDonorSaved(donor);
         
-        log.info("Blood donation created successfully with ID: {}", savedDonation.getId());
+        log.debug("Blood donation created successfully with ID: {}", savedDonation.getId());
         return convertToDto(savedDonation);
     }
     
     public BloodDonationDto updateBloodDonation(Long id, BloodDonationDto bloodDonationDto) {
-        log.info("Updating blood donation with ID: {}", id);
+        log.debug("Updating blood donation with ID: {}", id);
         
         BloodDonation bloodDonation = bloodDonationRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Blood donation not found with ID: " + id));
+        DemandForecastService.DemandEntry previousSupply = DemandForecastService.DemandEntry.of(bloodDonation);
+        ActivityRollupService.ActivityEntry previousActivity = ActivityRollupService.ActivityEntry.of(bloodDonation);
+        boolean wasCompleted = bloodDonation.getStatus() == BloodDonation.DonationStatus.COMPLETED;
         
         // Update fields
         if (bloodDonationDto.getDonationDate() != null) {
             bloodDonation.setDonationDate(bloodDonationDto.getDonationDate());
         }
         if (bloodDonationDto.getBloodGroup() != null) {
-            bloodDonation.setBloodGroup(bloodDonationDto.getBloodGroup());
+            bloodDonation.setBloodGroup(BloodGroup.fromLabel(bloodDonationDto.getBloodGroup()));
         }
         if (bloodDonationDto.getQuantity() != null) {
             bloodDonation.setQuantity(bloodDonationDto.getQuantity());
@@ -134,17 +205,43 @@ public class BloodDonationService {
         }
         
         BloodDonation updatedDonation = bloodDonationRepository.save(bloodDonation);
-        log.info("Blood donation updated successfully with ID: {}", updatedDonation.getId());
+        demandForecastService.record(previousSupply, DemandForecastService.DemandEntry.of(updatedDonation));
+        activityRollupService.record(previousActivity, ActivityRollupService.ActivityEntry.of(updatedDonation));
+        
+        // A scheduled donation marked done defers the donor from its donation date
+        if (!wasCompleted && updatedDonation.getStatus() == BloodDonation.DonationStatus.COMPLETED) {
+            Donor donor = updatedDonation.getDonor();
+            LocalDate donationDate = updatedDonation.getDonationDate().toLocalDate();
+            if (donor.getLastDonationDate() == null || donationDate.isAfter(donor.getLastDonationDate())) {
+                donor.setLastDonationDate(donationDate);
+            }
+            donorEligibilityService.deferAfterDonation(donor, donationDate);
+            donorRepository.save(donor);
+            donorMatchingService.onDonorSaved(donor);
+        }
+        log.debug("Blood donation updated successfully with ID: {}", updatedDonation.getId());
         return convertToDto(updatedDonation);
     }
     
     public void deleteBloodDonation(Long id) {
-        log.info("Deleting blood donation with ID: {}", id);
-        if (!bloodDonationRepository.existsById(id)) {
-            throw new RuntimeException("Blood donation not found with ID: " + id);
+        log.debug("Deleting blood donation with ID: {}", id);
+        BloodDonation bloodDonation = bloodDonationRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Blood donation not found with ID: " + id));
+        bloodDonationRepository.delete(bloodDonation);
+        demandForecastService.record(DemandForecastService.DemandEntry.of(bloodDonation), null);
+        activityRollupService.record(ActivityRollupService.ActivityEntry.of(bloodDonation), null);
+        log.debug("Blood donation deleted successfully with ID: {}", id);
+    }
+    
+    // Hot rows followed by archived ones; the two sets never overlap
+    private List<BloodDonationDto> withArchived(List<BloodDonation> donations, List<ArchivedBloodDonation> archived) {
+        List<BloodDonationDto> dtos = donations.stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+        if (archived != null) {
+            archived.stream().map(this::convertToDto).forEach(dtos::add);
         }
-        bloodDonationRepository.deleteById(id);
-        log.info("Blood donation deleted successfully with ID: {}", id);
+        return dtos;
     }
     
     private BloodDonationDto convertToDto(BloodDonation bloodDonation) {
@@ -153,7 +250,7 @@ public class BloodDonationService {
         dto.setDonorId(bloodDonation.getDonor().getId());
         dto.setHospitalId(bloodDonation.getHospital().getId());
         dto.setDonationDate(bloodDonation.getDonationDate());
-        dto.setBloodGroup(bloodDonation.getBloodGroup());
+        dto.setBloodGroup(bloodDonation.getBloodGroup().label());
         dto.setQuantity(bloodDonation.getQuantity());
         dto.setStatus(bloodDonation.getStatus());
         dto.setNotes(bloodDonation.getNotes());
@@ -167,11 +264,28 @@ public class BloodDonationService {
         return dto;
     }
     
+    private BloodDonationDto convertToDto(ArchivedBloodDonation archived) {
+        BloodDonationDto dto = new BloodDonationDto();
+        dto.setId(archived.getId());
+        dto.setDonorId(archived.getDonorId());
+        dto.setHospitalId(archived.getHospitalId());
+        dto.setDonationDate(archived.getDonationDate());
+        dto.setBloodGroup(archived.getBloodGroup().label());
+        dto.setQuantity(archived.getQuantity());
+        dto.setStatus(archived.getStatus());
+        dto.setNotes(archived.getNotes());
+        dto.setCreatedAt(archived.getCreatedAt());
+        dto.setUpdatedAt(archived.getUpdatedAt());
+        dto.setDonorName(archived.getDonorName());
+        dto.setHospitalName(archived.getHospitalName());
+        return dto;
+    }
+    
     private BloodDonation convertToEntity(BloodDonationDto dto) {
         BloodDonation bloodDonation = new BloodDonation();
         bloodDonation.setId(dto.getId());
         bloodDonation.setDonationDate(dto.getDonationDate());
-        bloodDonation.setBloodGroup(dto.getBloodGroup());
+        bloodDonation.setBloodGroup(BloodGroup.fromLabel(dto.getBloodGroup()));
         bloodDonation.setQuantity(dto.getQuantity());
         bloodDonation.setStatus(dto.getStatus());
         bloodDonation.setNotes(dto.getNotes());
@@ -0,0 +1,123 @@
+package com.bloodsync.service;
+
+import com.bloodsync.enums.BloodGroup;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+// Rewrites blood groups stored under legacy spellings ("a pos", "0+", "AB+ve") to the canonical
+// labels. BloodGroupConverter already reads them, but grouping queries run on the stored values,
+// so they are normalized once at startup before the derived tables are rebuilt. A value that
+// names no blood group fails startup, listing the rows to fix, rather than leaving rows the
+// converter cannot load.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BloodGroupMigrationService {
+
+    // Tables whose rows are written directly; updated in place
+    private static final List<String> SOURCE_TABLES = List.of(
+            "donors", "patients", "blood_inventory", "blood_donations", "blood_requests",
+            "blood_donations_archive", "blood_requests_archive");
+
+    // Tables derived from the source tables, unique per blood group. Legacy rows cannot be
+    // renamed without colliding, so the table is emptied and rebuilt by its service on startup.
+    private static final List<String> DERIVED_TABLES = List.of(
+            "daily_demand", "demand_forecasts", "activity_rollups", "inventory_availability");
+
+    // Row IDs listed per unrecognized value
+    private static final int MAX_LISTED_IDS = 20;
+
+    private final EntityManager entityManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional
+    public void normalize() {
+        Map<String, Map<String, BloodGroup>> renames = new LinkedHashMap<>();
+        List<String> unrecognized = new ArrayList<>();
+        for (String table : SOURCE_TABLES) {
+            for (String stored : legacyValues(table)) {
+                BloodGroup bloodGroup = parse(stored);
+                if (bloodGroup != null) {
+                    renames.computeIfAbsent(table, key -> new LinkedHashMap<>()).put(stored, bloodGroup);
+                } else {
+                    unrecognized.add(describe(table, stored));
+                }
+            }
+        }
+        if (!unrecognized.isEmpty()) {
+            throw new IllegalStateException("Unrecognized blood groups; correct or remove these rows and restart: "
+                    + String.join("; ", unrecognized));
+        }
+
+        int rows = 0;
+        for (Map.Entry<String, Map<String, BloodGroup>> table : renames.entrySet()) {
+            for (Map.Entry<String, BloodGroup> rename : table.getValue().entrySet()) {
+                rows += entityManager.createNativeQuery("update " + table.getKey() + " set blood_group = ?1 where blood_group = ?2")
+                        .setParameter(1, rename.getValue().label())
+                        .setParameter(2, rename.getKey())
+                        .executeUpdate();
+            }
+        }
+        for (String table : DERIVED_TABLES) {
+            if (!legacyValues(table).isEmpty()) {
+                entityManager.createNativeQuery("delete from " + table).executeUpdate();
+                log.info("Cleared {} for rebuild after blood group normalization", table);
+            }
+        }
+        if (rows > 0) {
+            log.info("Normalized blood group on {} rows", rows);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> legacyValues(String table) {
+        return ((List<Object>) entityManager.createNativeQuery("select distinct blood_group from " + table)
+                .getResultList()).stream()
+                .filter(Objects::nonNull)
+                .map(String::valueOf)
+                .filter(stored -> !isCanonical(stored))
+                .toList();
+    }
+
+    private static boolean isCanonical(String stored) {
+        for (BloodGroup bloodGroup : BloodGroup.values()) {
+            if (bloodGroup.label().equals(stored)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // "donors '?' (2 rows): id 14, 92"
+    @SuppressWarnings("unchecked")
+    private String describe(String table, String stored) {
+        List<Object> ids = entityManager.createNativeQuery("select id from " + table + " where blood_group = ?1 order by id")
+                .setParameter(1, stored)
+                .getResultList();
+        String listed = ids.stream().limit(MAX_LISTED_IDS).map(String::valueOf).collect(Collectors.joining(", "));
+        return table + " '" + stored + "' (" + ids.size() + " rows): id " + listed + (ids.size() > MAX_LISTED_IDS ? ", ..." : "");
+    }
+
+    private static BloodGroup parse(String stored) {
+        try {
+            return BloodGroup.fromLabel(stored);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
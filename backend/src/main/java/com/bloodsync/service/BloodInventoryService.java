@@ -1,10 +1,16 @@
 package com.bloodsync.service;
 
 import com.bloodsync.dto.BloodInventoryDto;
+import com.bloodsync.dto.CursorPageDto;
+import com.bloodsync.dto.DemandForecastDto;
+import com.bloodsync.dto.InventoryAvailabilityDto;
 import com.bloodsync.entity.BloodInventory;
 import com.bloodsync.entity.Hospital;
+import com.bloodsync.enums.BloodGroup;
 import com.bloodsync.repository.BloodInventoryRepository;
 import com.bloodsync.repository.HospitalRepository;
+import com.bloodsync.search.SearchSchema;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -12,6 +18,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -21,127 +28,163 @@ import java.util.stream.Collectors;
 @Transactional
 public class BloodInventoryService {
     
+    // Filters, sort keys and fields= columns accepted by searchBloodInventory, and filters for bulk status changes
+    static final SearchSchema<BloodInventory> SEARCH = SearchSchema.of(BloodInventory::getId)
+            .equal("hospitalId", "hospital.id", Long::valueOf)
+            .equal("bloodGroup", "bloodGroup", BloodGroup::fromLabel)
+            .equal("status", "status", SearchSchema.enumValue(BloodInventory.InventoryStatus.class))
+            .range("availableQuantity", Integer::valueOf)
+            .range("expiryDate", LocalDateTime::parse)
+            .sortable("availableQuantity", BloodInventory::getAvailableQuantity)
+            .sortable("expiryDate", BloodInventory::getExpiryDate)
+            .fetch("hospital")
+            .select("hospitalId", "hospital.id")
+            .select("hospitalName", "hospital.hospitalName")
+            .select("bloodGroup", "bloodGroup", BloodGroup::label)
+            .select("availableQuantity", "availableQuantity")
+            .select("totalQuantity", "totalQuantity")
+            .select("expiryDate", "expiryDate")
+            .select("status", "status")
+            .select("notes", "notes")
+            .select("createdAt", "createdAt")
+            .select("updatedAt", "updatedAt");
+    
     private final BloodInventoryRepository bloodInventoryRepository;
     private final HospitalRepository hospitalRepository;
+    private final InventoryAvailabilityService inventoryAvailabilityService;
+    private final DemandForecastService demandForecastService;
+    private final EntityManager entityManager;
     
     public List<BloodInventoryDto> getAllBloodInventory() {
-        log.info("Fetching all blood inventory");
+        log.debug("Fetching all blood inventory");
         return bloodInventoryRepository.findAll().stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
     
+    // Any combination of the schema's filters as one query, keyset-paginated
+    @Transactional(readOnly = true)
+    public CursorPageDto<BloodInventoryDto> searchBloodInventory(Map<String, String> params) {
+        log.debug("Searching blood inventory with {}", params);
+        return SEARCH.parse(params).execute(bloodInventoryRepository, this::convertToDto);
+    }
+    
+    // The same search reading only the fields= columns
+    @Transactional(readOnly = true)
+    public CursorPageDto<Map<String, Object>> selectBloodInventory(Map<String, String> params) {
+        log.debug("Selecting blood inventory fields with {}", params);
+        return SEARCH.parse(params).select(entityManager, BloodInventory.class);
+    }
+    
     public Optional<BloodInventoryDto> getBloodInventoryById(Long id) {
-        log.info("Fetching blood inventory with ID: {}", id);
+        log.debug("Fetching blood inventory with ID: {}", id);
         return bloodInventoryRepository.findById(id)
                 .map(this::convertToDto);
     }
     
     public List<BloodInventoryDto> getBloodInventoryByHospitalId(Long hospitalId) {
-        log.info("Fetching blood inventory for hospital ID: {}", hospitalId);
+        log.debug("Fetching blood inventory for hospital ID: {}", hospitalId);
         return bloodInventoryRepository.findByHospitalId(hospitalId).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
     
     public List<BloodInventoryDto> getBloodInventoryByBloodGroup(String bloodGroup) {
-        log.info("Fetching blood inventory for blood group: {}", bloodGroup);
-        return bloodInventoryRepository.findByBloodGroup(bloodGroup).stream()
+        log.debug("Fetching blood inventory for blood group: {}", bloodGroup);
+        return bloodInventoryRepository.findByBloodGroup(BloodGroup.fromLabel(bloodGroup)).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
     
     public List<BloodInventoryDto> getBloodInventoryByStatus(BloodInventory.InventoryStatus status) {
-        log.info("Fetching blood inventory with status: {}", status);
+        log.debug("Fetching blood inventory with status: {}", status);
         return bloodInventoryRepository.findByStatus(status).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
     
     public List<BloodInventoryDto> getBloodInventoryByHospitalAndBloodGroup(Long hospitalId, String bloodGroup) {
-        log.info("Fetching blood inventory for hospital ID: {} and blood group: {}", hospitalId, bloodGroup);
-        return bloodInventoryRepository.findByHospitalIdAndBloodGroup(hospitalId, bloodGroup).stream()
+        log.debug("Fetching blood inventory for hospital ID: {} and blood group: {}", hospitalId, bloodGroup);
+        return bloodInventoryRepository.findByHospitalIdAndBloodGroup(hospitalId, BloodGroup.fromLabel(bloodGroup)).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
     
     public List<BloodInventoryDto> getExpiredBloodInventory() {
-        log.info("Fetching expired blood inventory");
+        log.debug("Fetching expired blood inventory");
         return bloodInventoryRepository.findByExpiryDateBefore(LocalDateTime.now()).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
     
+    public List<InventoryAvailabilityDto> searchAvailability(String city, String bloodGroup, Long hospitalId,
+                                                             Long minAvailable, Long maxAvailable) {
+        // Served from the availability read model; no database access
+        return inventoryAvailabilityService.search(city, bloodGroup, hospitalId, minAvailable, maxAvailable);
+    }
+    
+    public List<DemandForecastDto> getDemandForecasts(Long hospitalId, String bloodGroup) {
+        // Served from the forecast cache; no database access
+        return demandForecastService.getForecasts(hospitalId, bloodGroup);
+    }
+    
     public List<BloodInventoryDto> getLowStockBloodInventory(Integer threshold) {
-        log.info("Fetching low stock blood inventory with threshold: {}", threshold);
-        return bloodInventoryRepository.findByAvailableQuantityLessThan(threshold).stream()
+        log.debug("Fetching low stock blood inventory with threshold: {}", threshold);
+        // Without an explicit threshold, each hospital and blood group uses its forecast reorder point
+        List<BloodInventory> lowStock = threshold != null
+                ? bloodInventoryRepository.findByAvailableQuantityLessThan(threshold)
+                : bloodInventoryRepository.findBelowReorderPoint(demandForecastService.getDefaultReorderPoint());
+        return lowStock.stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
     
     public BloodInventoryDto createBloodInventory(BloodInventoryDto bloodInventoryDto) {
-        log.info("Creating new blood inventory for hospital ID: {}", bloodInventoryDto.getHospitalId());
+        log.debug("Creating new blood inventory for hospital ID: {}", bloodInventoryDto.getHospitalId());
         
         // Validate hospital exists
         Hospital hospital = hospitalRepository.findById(bloodInventoryDto.getHospitalId())
                 .orElseThrow(() -> new RuntimeException("Hospital not found with ID: " + bloodInventoryDto.getHospitalId()));
+        BloodGroup bloodGroup = BloodGroup.fromLabel(bloodInventoryDto.getBloodGroup());
         
-        // Check if inventory already exists for this hospital and blood group
-        Optional<BloodInventory> existingInventory = bloodInventoryRepository
-                .findByHospitalIdAndBloodGroupAndStatus(
-                    bloodInventoryDto.getHospitalId(), 
-                    bloodInventoryDto.getBloodGroup(), 
-                    BloodInventory.InventoryStatus.AVAILABLE
-                );
-        
-        if (existingInventory.isPresent()) {
-            // Update existing inventory
-            BloodInventory existing = existingInventory.get();
-            existing.setAvailableQuantity(existing.getAvailableQuantity() + bloodInventoryDto.getAvailableQuantity());
-            existing.setTotalQuantity(existing.getTotalQuantity() + bloodInventoryDto.getTotalQuantity());
-            
-            // Update status based on available quantity
-            if (existing.getAvailableQuantity() <= 0) {
-                existing.setStatus(BloodInventory.InventoryStatus.OUT_OF_STOCK);
-            } else if (existing.getAvailableQuantity() < 1000) { // Less than 1L
-                existing.setStatus(BloodInventory.InventoryStatus.LOW_STOCK);
-            } else {
-                existing.setStatus(BloodInventory.InventoryStatus.AVAILABLE);
-            }
-            
-            BloodInventory updatedInventory = bloodInventoryRepository.save(existing);
-            log.info("Blood inventory updated successfully with ID: {}", updatedInventory.getId());
-            return convertToDto(updatedInventory);
-        } else {
-            // Create new inventory
-            BloodInventory bloodInventory = convertToEntity(bloodInventoryDto);
-            bloodInventory.setHospital(hospital);
-            
-            // Set status based on available quantity
-            if (bloodInventory.getAvailableQuantity() <= 0) {
-                bloodInventory.setStatus(BloodInventory.InventoryStatus.OUT_OF_STOCK);
-            } else if (bloodInventory.getAvailableQuantity() < 1000) { // Less than 1L
-                bloodInventory.setStatus(BloodInventory.InventoryStatus.LOW_STOCK);
-            } else {
-                bloodInventory.setStatus(BloodInventory.InventoryStatus.AVAILABLE);
-            }
-            
-            BloodInventory savedInventory = bloodInventoryRepository.save(bloodInventory);
-            log.info("Blood inventory created successfully with ID: {}", savedInventory.getId());
-            return convertToDto(savedInventory);
-        }
+        // Added to the hospital's live row for the blood group, or inserted as it, atomically; the
+        // status is set from the resulting quantity and the reorder point either way
+        bloodInventoryRepository.upsertLiveStock(
+                hospital.getId(),
+                bloodGroup.label(),
+                bloodInventoryDto.getAvailableQuantity(),
+                bloodInventoryDto.getTotalQuantity(),
+                bloodInventoryDto.getExpiryDate(),
+                demandForecastService.stockStatus(hospital.getId(), bloodGroup, bloodInventoryDto.getAvailableQuantity()).name(),
+                bloodInventoryDto.getNotes(),
+                demandForecastService.getReorderPoint(hospital.getId(), bloodGroup),
+                LocalDateTime.now());
+        BloodInventory savedInventory = bloodInventoryRepository.findLiveStock(hospital.getId(), bloodGroup)
+                .orElseThrow(() -> new RuntimeException("Blood inventory not found after intake for hospital ID: " + hospital.getId()));
+        inventoryAvailabilityService.refresh(hospital.getId(), bloodGroup);
+        log.debug("Blood inventory intake recorded on ID: {}", savedInventory.getId());
+        return convertToDto(savedInventory);
     }
     
     public BloodInventoryDto updateBloodInventory(Long id, BloodInventoryDto bloodInventoryDto) {
-        log.info("Updating blood inventory with ID: {}", id);
+        log.debug("Updating blood inventory with ID: {}", id);
         
         BloodInventory bloodInventory = bloodInventoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Blood inventory not found with ID: " + id));
+        BloodGroup previousBloodGroup = bloodInventory.getBloodGroup();
+        
+        // The update leaves the row live, and each hospital has one live row per blood group
+        BloodGroup bloodGroup = bloodInventoryDto.getBloodGroup() != null
+                ? BloodGroup.fromLabel(bloodInventoryDto.getBloodGroup()) : previousBloodGroup;
+        bloodInventoryRepository.findLiveStock(bloodInventory.getHospital().getId(), bloodGroup)
+                .filter(live -> !live.getId().equals(id))
+                .ifPresent(live -> {
+                    throw new RuntimeException("Blood inventory ID " + live.getId() + " already holds the stock for "
+                            + bloodGroup.label() + "; update that row instead");
+                });
         
         // Update fields
-        if (bloodInventoryDto.getBloodGroup() != null) {
-            bloodInventory.setBloodGroup(bloodInventoryDto.getBloodGroup());
-        }
+        bloodInventory.setBloodGroup(bloodGroup);
         if (bloodInventoryDto.getAvailableQuantity() != null) {
             bloodInventory.setAvailableQuantity(bloodInventoryDto.getAvailableQuantity());
         }
@@ -158,34 +201,35 @@ public class BloodInventoryService {
             bloodInventory.setNotes(bloodInventoryDto.getNotes());
         }
         
-        // Update status based on available quantity
-        if (bloodInventory.getAvailableQuantity() <= 0) {
-            bloodInventory.setStatus(BloodInventory.InventoryStatus.OUT_OF_STOCK);
-        } else if (bloodInventory.getAvailableQuantity() < 1000) { // Less than 1L
-            bloodInventory.setStatus(BloodInventory.InventoryStatus.LOW_STOCK);
-        } else {
-            bloodInventory.setStatus(BloodInventory.InventoryStatus.AVAILABLE);
-        }
+        // Update status based on available quantity and the reorder point
+        bloodInventory.setStatus(demandForecastService.stockStatus(
+                bloodInventory.getHospital().getId(), bloodInventory.getBloodGroup(), bloodInventory.getAvailableQuantity()));
         
         BloodInventory updatedInventory = bloodInventoryRepository.save(bloodInventory);
-        log.info("Blood inventory updated successfully with ID: {}", updatedInventory.getId());
+        Long hospitalId = updatedInventory.getHospital().getId();
+        inventoryAvailabilityService.refresh(hospitalId, updatedInventory.getBloodGroup());
+        if (previousBloodGroup != updatedInventory.getBloodGroup()) {
+            inventoryAvailabilityService.refresh(hospitalId, previousBloodGroup);
+        }
+        log.debug("Blood inventory updated successfully with ID: {}", updatedInventory.getId());
         return convertToDto(updatedInventory);
     }
     
     public void deleteBloodInventory(Long id) {
-        log.info("Deleting blood inventory with ID: {}", id);
-        if (!bloodInventoryRepository.existsById(id)) {
-            throw new RuntimeException("Blood inventory not found with ID: " + id);
-        }
-        bloodInventoryRepository.deleteById(id);
-        log.info("Blood inventory deleted successfully with ID: {}", id);
+        log.debug("Deleting blood inventory with ID: {}", id);
+        BloodInventory bloodInventory = bloodInventoryRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Blood inventory not found with ID: " + id));
+        bloodInventoryRepository.delete(bloodInventory);
+        bloodInventoryRepository.flush();
+        inventoryAvailabilityService.refresh(bloodInventory.getHospital().getId(), bloodInventory.getBloodGroup());
+        log.debug("Blood inventory deleted successfully with ID: {}", id);
     }
     
     private BloodInventoryDto convertToDto(BloodInventory bloodInventory) {
         BloodInventoryDto dto = new BloodInventoryDto();
         dto.setId(bloodInventory.getId());
         dto.setHospitalId(bloodInventory.getHospital().getId());
-        dto.setBloodGroup(bloodInventory.getBloodGroup());
+        dto.setBloodGroup(bloodInventory.getBloodGroup().label());
         dto.setAvailableQuantity(bloodInventory.getAvailableQuantity());
         dto.setTotalQuantity(bloodInventory.getTotalQuantity());
         dto.setExpiryDate(bloodInventory.getExpiryDate());
@@ -199,16 +243,4 @@ public class BloodInventoryService {
         
         return dto;
     }
-    
-    private BloodInventory convertToEntity(BloodInventoryDto dto) {
-        BloodInventory bloodInventory = new BloodInventory();
-        bloodInventory.setId(dto.getId());
-        bloodInventory.setBloodGroup(dto.getBloodGroup());
-        bloodInventory.setAvailableQuantity(dto.getAvailableQuantity());
-        bloodInventory.setTotalQuantity(dto.getTotalQuantity());
-        bloodInventory.setExpiryDate(dto.getExpiryDate());
-        bloodInventory.setStatus(dto.getStatus());
-        bloodInventory.setNotes(dto.getNotes());
-        return bloodInventory;
-    }
 } 
\ No newline at end of file
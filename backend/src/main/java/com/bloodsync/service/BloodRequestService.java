@@ -1,17 +1,26 @@
 package com.bloodsync.service;
 
+import com.bloodsync.dto.ActivityBucketDto;
 import com.bloodsync.dto.BloodRequestDto;
+import com.bloodsync.dto.CursorPageDto;
+import com.bloodsync.entity.ActivityRollup;
+import com.bloodsync.entity.ArchivedBloodRequest;
 import com.bloodsync.entity.BloodRequest;
 import com.bloodsync.entity.Hospital;
 import com.bloodsync.entity.Patient;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.repository.ArchivedBloodRequestRepository;
 import com.bloodsync.repository.BloodRequestRepository;
 import com.bloodsync.repository.HospitalRepository;
 import com.bloodsync.repository.PatientRepository;
+import com.bloodsync.search.SearchSchema;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -20,9 +29,27 @@ import java.util.stream.Collectors;
 @Transactional
 public class BloodRequestService {
     
+    // Filters and sort keys accepted by searchBloodRequests and by bulk status filters
+    static final SearchSchema<BloodRequest> SEARCH = SearchSchema.of(BloodRequest::getId)
+            .equal("hospitalId", "hospital.id", Long::valueOf)
+            .equal("patientId", "patient.id", Long::valueOf)
+            .equal("bloodGroup", "bloodGroup", BloodGroup::fromLabel)
+            .equal("status", "status", SearchSchema.enumValue(BloodRequest.RequestStatus.class))
+            .equal("priority", "priority", SearchSchema.enumValue(BloodRequest.PriorityLevel.class))
+            .range("requestDate", LocalDateTime::parse)
+            .range("requiredDate", LocalDateTime::parse)
+            .range("requiredQuantity", Integer::valueOf)
+            .sortable("requestDate", BloodRequest::getRequestDate)
+            .sortable("requiredDate", BloodRequest::getRequiredDate)
+            .sortable("requiredQuantity", BloodRequest::getRequiredQuantity);
+    
     private final BloodRequestRepository bloodRequestRepository;
     private final PatientRepository patientRepository;
     private final HospitalRepository hospitalRepository;
+    private final InventoryAvailabilityService inventoryAvailabilityService;
+    private final DemandForecastService demandForecastService;
+    private final ActivityRollupService activityRollupService;
+    private final ArchivedBloodRequestRepository archivedBloodRequestRepository;
     
     public List<BloodRequestDto> getAllBloodRequests() {
         return bloodRequestRepository.findAll().stream()
@@ -30,35 +57,55 @@ public class BloodRequestService {
                 .collect(Collectors.toList());
     }
     
-    public Optional<BloodRequestDto> getBloodRequestById(Long id) {
-        return bloodRequestRepository.findById(id)
-                .map(this::convertToDto);
+    // Any combination of the schema's filters as one query, keyset-paginated
+    @Transactional(readOnly = true)
+    public CursorPageDto<BloodRequestDto> searchBloodRequests(Map<String, String> params) {
+        return SEARCH.parse(params).execute(bloodRequestRepository, this::convertToDto);
     }
     
-    public List<BloodRequestDto> getBloodRequestsByHospitalId(Long hospitalId) {
-        return bloodRequestRepository.findByHospitalId(hospitalId).stream()
+    public Optional<BloodRequestDto> getBloodRequestById(Long id, boolean includeArchived) {
+        return bloodRequestRepository.findById(id)
                 .map(this::convertToDto)
-                .collect(Collectors.toList());
+                .or(() -> includeArchived
+                        ? archivedBloodRequestRepository.findById(id).map(this::convertToDto)
+                        : Optional.empty());
     }
     
-    public List<BloodRequestDto> getBloodRequestsByPatientId(Long patientId) {
-        return bloodRequestRepository.findByPatientId(patientId).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public List<BloodRequestDto> getBloodRequestsByHospitalId(Long hospitalId, boolean includeArchived) {
+        return withArchived(bloodRequestRepository.findByHospitalId(hospitalId),
+                includeArchived ? archivedBloodRequestRepository.findByHospitalId(hospitalId) : null);
     }
     
-    public List<BloodRequestDto> getBloodRequestsByStatus(String status) {
-        return bloodRequestRepository.findByStatus(status).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public List<BloodRequestDto> getBloodRequestsByPatientId(Long patientId, boolean includeArchived) {
+        return withArchived(bloodRequestRepository.findByPatientId(patientId),
+                includeArchived ? archivedBloodRequestRepository.findByPatientId(patientId) : null);
+    }
+    
+    public List<BloodRequestDto> getBloodRequestsByStatus(String status, boolean includeArchived) {
+        BloodRequest.RequestStatus requestStatus = BloodRequest.RequestStatus.valueOf(status);
+        return withArchived(bloodRequestRepository.findByStatus(requestStatus),
+                includeArchived ? archivedBloodRequestRepository.findByStatus(requestStatus) : null);
     }
     
     public List<BloodRequestDto> getBloodRequestsByBloodGroup(String bloodGroup) {
-        return bloodRequestRepository.findByBloodGroup(bloodGroup).stream()
+        return bloodRequestRepository.findByBloodGroup(BloodGroup.fromLabel(bloodGroup)).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
     
+    public List<BloodRequestDto> getBloodRequestsByDateRange(LocalDateTime startDate, LocalDateTime endDate,
+                                                             boolean includeArchived) {
+        return withArchived(bloodRequestRepository.findByRequestDateBetween(startDate, endDate),
+                includeArchived ? archivedBloodRequestRepository.findByRequestDateBetween(startDate, endDate) : null);
+    }
+    
+    public List<ActivityBucketDto> getBloodRequestBuckets(LocalDateTime startDate, LocalDateTime endDate,
+                                                          ActivityRollup.Granularity granularity,
+                                                          Long hospitalId, String bloodGroup) {
+        return activityRollupService.getBuckets(ActivityRollup.Source.REQUEST, granularity, startDate, endDate,
+                hospitalId, bloodGroup);
+    }
+    
     public BloodRequestDto createBloodRequest(BloodRequestDto bloodRequestDto) {
         // Verify patient exists
         Patient patient = patientRepository.findById(bloodRequestDto.getPatientId())
@@ -73,12 +120,20 @@ public class BloodRequestService {
         bloodRequest.setHospital(hospital);
         
         BloodRequest savedBloodRequest = bloodRequestRepository.save(bloodRequest);
+        refreshReservation(savedBloodRequest.getStatus(), hospital.getId(), savedBloodRequest.getBloodGroup());
+        demandForecastService.record(null, DemandForecastService.DemandEntry.of(savedBloodRequest));
+        activityRollupService.record(null, ActivityRollupService.ActivityEntry.of(savedBloodRequest));
         return convertToDto(savedBloodRequest);
     }
     
     public BloodRequestDto updateBloodRequest(Long id, BloodRequestDto bloodRequestDto) {
         BloodRequest bloodRequest = bloodRequestRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Blood request not found"));
+        BloodRequest.RequestStatus previousStatus = bloodRequest.getStatus();
+        Long previousHospitalId = bloodRequest.getHospital().getId();
+        BloodGroup previousBloodGroup = bloodRequest.getBloodGroup();
+        DemandForecastService.DemandEntry previousDemand = DemandForecastService.DemandEntry.of(bloodRequest);
+        ActivityRollupService.ActivityEntry previousActivity = ActivityRollupService.ActivityEntry.of(bloodRequest);
         
         // Verify patient exists if being changed
         if (!bloodRequest.getPatient().getId().equals(bloodRequestDto.getPatientId())) {
@@ -94,7 +149,7 @@ public class BloodRequestService {
             bloodRequest.setHospital(hospital);
         }
         
-        bloodRequest.setBloodGroup(bloodRequestDto.getBloodGroup());
+        bloodRequest.setBloodGroup(BloodGroup.fromLabel(bloodRequestDto.getBloodGroup()));
         bloodRequest.setRequiredQuantity(bloodRequestDto.getRequiredQuantity());
         bloodRequest.setRequestDate(bloodRequestDto.getRequestDate());
         bloodRequest.setRequiredDate(bloodRequestDto.getRequiredDate());
@@ -104,14 +159,39 @@ public class BloodRequestService {
         bloodRequest.setNotes(bloodRequestDto.getNotes());
         
         BloodRequest updatedBloodRequest = bloodRequestRepository.save(bloodRequest);
+        refreshReservation(previousStatus, previousHospitalId, previousBloodGroup);
+        refreshReservation(updatedBloodRequest.getStatus(), updatedBloodRequest.getHospital().getId(), updatedBloodRequest.getBloodGroup());
+        demandForecastService.record(previousDemand, DemandForecastService.DemandEntry.of(updatedBloodRequest));
+        activityRollupService.record(previousActivity, ActivityRollupService.ActivityEntry.of(updatedBloodRequest));
         return convertToDto(updatedBloodRequest);
     }
     
     public void deleteBloodRequest(Long id) {
-        if (!bloodRequestRepository.existsById(id)) {
-            throw new RuntimeException("Blood request not found");
+        BloodRequest bloodRequest = bloodRequestRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Blood request not found"));
+        bloodRequestRepository.delete(bloodRequest);
+        bloodRequestRepository.flush();
+        refreshReservation(bloodRequest.getStatus(), bloodRequest.getHospital().getId(), bloodRequest.getBloodGroup());
+        demandForecastService.record(DemandForecastService.DemandEntry.of(bloodRequest), null);
+        activityRollupService.record(ActivityRollupService.ActivityEntry.of(bloodRequest), null);
+    }
+    
+    // Approved requests hold stock in the availability read model
+    private void refreshReservation(BloodRequest.RequestStatus status, Long hospitalId, BloodGroup bloodGroup) {
+        if (status == BloodRequest.RequestStatus.APPROVED) {
+            inventoryAvailabilityService.refresh(hospitalId, bloodGroup);
         }
-        bloodRequestRepository.deleteById(id);
+    }
+    
+    // Hot rows followed by archived ones; the two sets never overlap
+    private List<BloodRequestDto> withArchived(List<BloodRequest> requests, List<ArchivedBloodRequest> archived) {
+        List<BloodRequestDto> dtos = requests.stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+        if (archived != null) {
+            archived.stream().map(this::convertToDto).forEach(dtos::add);
+        }
+        return dtos;
     }
     
     private BloodRequestDto convertToDto(BloodRequest bloodRequest) {
@@ -119,7 +199,7 @@ public class BloodRequestService {
         dto.setId(bloodRequest.getId());
         dto.setPatientId(bloodRequest.getPatient().getId());
         dto.setHospitalId(bloodRequest.getHospital().getId());
-        dto.setBloodGroup(bloodRequest.getBloodGroup());
+        dto.setBloodGroup(bloodRequest.getBloodGroup().label());
         dto.setRequiredQuantity(bloodRequest.getRequiredQuantity());
         dto.setRequestDate(bloodRequest.getRequestDate());
         dto.setRequiredDate(bloodRequest.getRequiredDate());
@@ -132,10 +212,28 @@ public class BloodRequestService {
         return dto;
     }
     
+    private BloodRequestDto convertToDto(ArchivedBloodRequest archived) {
+        BloodRequestDto dto = new BloodRequestDto();
+        dto.setId(archived.getId());
+        dto.setPatientId(archived.getPatientId());
+        dto.setHospitalId(archived.getHospitalId());
+        dto.setBloodGroup(archived.getBloodGroup().label());
+        dto.setRequiredQuantity(archived.getRequiredQuantity());
+        dto.setRequestDate(archived.getRequestDate());
+        dto.setRequiredDate(archived.getRequiredDate());
+        dto.setStatus(archived.getStatus().name());
+        dto.setPriority(archived.getPriority().name());
+        dto.setReason(archived.getReason());
+        dto.setNotes(archived.getNotes());
+        dto.setCreatedAt(archived.getCreatedAt());
+        dto.setUpdatedAt(archived.getUpdatedAt());
+        return dto;
+    }
+    
     private BloodRequest convertToEntity(BloodRequestDto dto) {
         BloodRequest bloodRequest = new BloodRequest();
         bloodRequest.setId(dto.getId());
-        bloodRequest.setBloodGroup(dto.getBloodGroup());
+        bloodRequest.setBloodGroup(BloodGroup.fromLabel(dto.getBloodGroup()));
         bloodRequest.setRequiredQuantity(dto.getRequiredQuantity());
         bloodRequest.setRequestDate(dto.getRequestDate());
         bloodRequest.setRequiredDate(dto.getRequiredDate());
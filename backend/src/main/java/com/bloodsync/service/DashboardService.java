@@ -0,0 +1,153 @@
+package com.bloodsync.service;
+
+import com.bloodsync.dto.DashboardDto;
+import com.bloodsync.entity.BloodDonation;
+import com.bloodsync.entity.BloodInventory;
+import com.bloodsync.entity.BloodRequest;
+import com.bloodsync.repository.BloodDonationRepository;
+import com.bloodsync.repository.BloodInventoryRepository;
+import com.bloodsync.repository.BloodRequestRepository;
+import com.bloodsync.repository.QuantitySummary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Service
+@Slf4j
+public class DashboardService {
+
+    private static final List<BloodInventory.InventoryStatus> USABLE_STATUSES =
+            Arrays.asList(BloodInventory.InventoryStatus.AVAILABLE, BloodInventory.InventoryStatus.LOW_STOCK);
+
+    private static final List<BloodRequest.RequestStatus> OPEN_REQUEST_STATUSES =
+            Arrays.asList(BloodRequest.RequestStatus.PENDING, BloodRequest.RequestStatus.APPROVED);
+
+    private final BloodInventoryRepository bloodInventoryRepository;
+    private final BloodRequestRepository bloodRequestRepository;
+    private final BloodDonationRepository bloodDonationRepository;
+    private final Executor dashboardExecutor;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${dashboard.query-timeout-ms:2000}")
+    private long queryTimeoutMillis;
+
+    @Value("${dashboard.expiring-within-days:7}")
+    private int expiringWithinDays;
+
+    public DashboardService(BloodInventoryRepository bloodInventoryRepository,
+                            BloodRequestRepository bloodRequestRepository,
+                            BloodDonationRepository bloodDonationRepository,
+                            @Qualifier("dashboardExecutor") Executor dashboardExecutor,
+                            PlatformTransactionManager transactionManager) {
+        this.bloodInventoryRepository = bloodInventoryRepository;
+        this.bloodRequestRepository = bloodRequestRepository;
+        this.bloodDonationRepository = bloodDonationRepository;
+        this.dashboardExecutor = dashboardExecutor;
+        this.transactionManager = transactionManager;
+    }
+
+    // Completes once every section has finished or timed out; no caller thread waits on it
+    public CompletableFuture<DashboardDto> getAdminDashboard() {
+        long startNanos = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime startOfWeek = LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay();
+
+        // Independent aggregates run concurrently, each bounded by the query timeout
+        TransactionTemplate query = queryTransaction();
+        CompletableFuture<List<DashboardDto.HospitalInventory>> inventory = submit(query, () ->
+                groupByHospital(bloodInventoryRepository.sumAvailableByHospitalAndBloodGroup(USABLE_STATUSES, now)));
+        CompletableFuture<Map<String, Long>> openRequests = submit(query, () ->
+                countByPriority(bloodRequestRepository.countByPriority(OPEN_REQUEST_STATUSES)));
+        CompletableFuture<DashboardDto.QuantitySummary> donations = submit(query, () ->
+                toSummary(bloodDonationRepository.summarizeSince(BloodDonation.DonationStatus.COMPLETED, startOfWeek)));
+        CompletableFuture<DashboardDto.QuantitySummary> expiring = submit(query, () ->
+                toSummary(bloodInventoryRepository.summarizeExpiring(USABLE_STATUSES, now, now.plusDays(expiringWithinDays))));
+
+        return CompletableFuture.allOf(inventory, openRequests, donations, expiring)
+                .handle((ignored, failure) -> {
+                    DashboardDto dashboard = new DashboardDto();
+                    dashboard.setGeneratedAt(now);
+                    dashboard.setExpiringWithinDays(expiringWithinDays);
+                    dashboard.setInventoryByHospital(await("inventoryByHospital", inventory, dashboard));
+                    dashboard.setOpenRequestsByPriority(await("openRequestsByPriority", openRequests, dashboard));
+                    dashboard.setDonationsThisWeek(await("donationsThisWeek", donations, dashboard));
+                    dashboard.setExpiringUnits(await("expiringUnits", expiring, dashboard));
+                    dashboard.setPartial(!dashboard.getMissingSections().isEmpty());
+                    dashboard.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+                    return dashboard;
+                });
+    }
+
+    // orTimeout only stops waiting; the transaction timeout is what cancels the statement. Spring
+    // passes the time left to each query as jakarta.persistence.query.timeout, so a timed-out
+    // aggregate gives its connection back instead of running on.
+    private TransactionTemplate queryTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        template.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(queryTimeoutMillis + 999)));
+        return template;
+    }
+
+    private <T> CompletableFuture<T> submit(TransactionTemplate transaction, Supplier<T> query) {
+        try {
+            return CompletableFuture.supplyAsync(() -> transaction.execute(status -> query.get()), dashboardExecutor)
+                    .orTimeout(queryTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            // Executor saturated
+            CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    private <T> T await(String section, CompletableFuture<T> future, DashboardDto dashboard) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            log.warn("Dashboard section {} unavailable: {}", section, e.getCause() != null ? e.getCause().toString() : e.getMessage());
+            dashboard.getMissingSections().add(section);
+            return null;
+        }
+    }
+
+    private List<DashboardDto.HospitalInventory> groupByHospital(
+            List<BloodInventoryRepository.HospitalBloodGroupQuantity> rows) {
+        Map<Long, DashboardDto.HospitalInventory> byHospital = new LinkedHashMap<>();
+        for (BloodInventoryRepository.HospitalBloodGroupQuantity row : rows) {
+            byHospital.computeIfAbsent(row.getHospitalId(), id ->
+                    new DashboardDto.HospitalInventory(id, row.getHospitalName(), new TreeMap<>()))
+                    .getAvailableByBloodGroup()
+                    .put(row.getBloodGroup().label(), row.getQuantity());
+        }
+        return new ArrayList<>(byHospital.values());
+    }
+
+    private Map<String, Long> countByPriority(List<BloodRequestRepository.PriorityCount> rows) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (BloodRequest.PriorityLevel priority : BloodRequest.PriorityLevel.values()) {
+            counts.put(priority.name(), 0L);
+        }
+        rows.forEach(row -> counts.put(row.getPriority().name(), row.getCount()));
+        return counts;
+    }
+
+    private DashboardDto.QuantitySummary toSummary(QuantitySummary summary) {
+        return new DashboardDto.QuantitySummary(
+                summary.getCount() != null ? summary.getCount() : 0L,
+                summary.getQuantity() != null ? summary.getQuantity() : 0L);
+    }
+}
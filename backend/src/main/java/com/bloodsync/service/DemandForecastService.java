@@ -0,0 +1,350 @@
+package com.bloodsync.service;
+
+import com.bloodsync.dto.DemandForecastDto;
+import com.bloodsync.entity.BloodDonation;
+import com.bloodsync.entity.BloodInventory;
+import com.bloodsync.entity.BloodRequest;
+import com.bloodsync.entity.DailyDemand;
+import com.bloodsync.entity.DemandForecast;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.repository.BloodDonationRepository;
+import com.bloodsync.repository.BloodInventoryRepository;
+import com.bloodsync.repository.BloodRequestRepository;
+import com.bloodsync.repository.DailyDemandRepository;
+import com.bloodsync.repository.DailyQuantity;
+import com.bloodsync.repository.DemandForecastRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.bloodsync.service.TransactionCallbacks.afterCommit;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DemandForecastService {
+
+    private final DailyDemandRepository dailyDemandRepository;
+    private final DemandForecastRepository demandForecastRepository;
+    private final BloodInventoryRepository bloodInventoryRepository;
+    private final BloodRequestRepository bloodRequestRepository;
+    private final BloodDonationRepository bloodDonationRepository;
+
+    @Value("${forecast.smoothing-alpha:0.2}")
+    private double alpha;
+
+    // Days between reordering and the stock arriving
+    @Value("${forecast.lead-time-days:2}")
+    private int leadTimeDays;
+
+    // Safety factor on the demand error; 1.65 covers 95% of lead-time demand
+    @Value("${forecast.service-level-z:1.65}")
+    private double serviceLevelZ;
+
+    @Value("${forecast.history-days:180}")
+    private int historyDays;
+
+    // Series with less history keep the default reorder point
+    @Value("${forecast.min-observations:14}")
+    private int minObservations;
+
+    @Value("${forecast.default-reorder-point-ml:1000}")
+    private long defaultReorderPoint;
+
+    // In-memory copy of demand_forecasts, replaced after each recompute commits
+    private final Map<Long, DemandForecastDto> forecasts = new ConcurrentHashMap<>();
+
+    public List<DemandForecastDto> getForecasts(Long hospitalId, String bloodGroup) {
+        BloodGroup group = BloodGroup.fromLabel(bloodGroup);
+        return forecasts.values().stream()
+                .filter(forecast -> hospitalId == null || forecast.getHospitalId().equals(hospitalId))
+                .filter(forecast -> group == null || forecast.getBloodGroup().equals(group.label()))
+                .sorted(Comparator.comparing(DemandForecastDto::getHospitalId).thenComparing(DemandForecastDto::getBloodGroup))
+                .collect(Collectors.toList());
+    }
+
+    public long getReorderPoint(Long hospitalId, BloodGroup bloodGroup) {
+        DemandForecastDto forecast = forecasts.get(BloodGroup.key(hospitalId, bloodGroup));
+        return forecast != null ? forecast.getReorderPoint() : defaultReorderPoint;
+    }
+
+    public long getDefaultReorderPoint() {
+        return defaultReorderPoint;
+    }
+
+    public BloodInventory.InventoryStatus stockStatus(Long hospitalId, BloodGroup bloodGroup, int availableQuantity) {
+        if (availableQuantity <= 0) {
+            return BloodInventory.InventoryStatus.OUT_OF_STOCK;
+        }
+        return availableQuantity < getReorderPoint(hospitalId, bloodGroup)
+                ? BloodInventory.InventoryStatus.LOW_STOCK
+                : BloodInventory.InventoryStatus.AVAILABLE;
+    }
+
+    // Write-path hooks. Callers pass the demand a record contributed before and after the write;
+    // the difference is added to the daily rollup inside the caller's transaction.
+
+    @Transactional
+    public void record(DemandEntry removed, DemandEntry added) {
+        if (removed != null && added != null && removed.sameDay(added)) {
+            addToDay(added.getHospitalId(), added.getBloodGroup(), added.getDay(),
+                    added.getRequested() - removed.getRequested(), added.getDonated() - removed.getDonated());
+            return;
+        }
+        if (removed != null) {
+            addToDay(removed.getHospitalId(), removed.getBloodGroup(), removed.getDay(), -removed.getRequested(), -removed.getDonated());
+        }
+        if (added != null) {
+            addToDay(added.getHospitalId(), added.getBloodGroup(), added.getDay(), added.getRequested(), added.getDonated());
+        }
+    }
+
+    // Batch form of record; deltas are netted per hospital, blood group and day before writing
+    @Transactional
+    public void recordAll(List<DemandEntry> removed, List<DemandEntry> added) {
+        Map<DayKey, long[]> deltas = new HashMap<>();
+        addDeltas(deltas, removed, -1);
+        addDeltas(deltas, added, 1);
+        deltas.forEach((key, delta) -> addToDay(key.hospitalId(), key.bloodGroup(), key.day(), delta[0], delta[1]));
+    }
+
+    private static void addDeltas(Map<DayKey, long[]> deltas, List<DemandEntry> entries, int sign) {
+        for (DemandEntry entry : entries) {
+            if (entry != null) {
+                long[] delta = deltas.computeIfAbsent(new DayKey(entry.getHospitalId(), entry.getBloodGroup(), entry.getDay()),
+                        key -> new long[2]);
+                delta[0] += sign * entry.getRequested();
+                delta[1] += sign * entry.getDonated();
+            }
+        }
+    }
+
+    private record DayKey(Long hospitalId, BloodGroup bloodGroup, LocalDate day) {
+    }
+
+    private void addToDay(Long hospitalId, BloodGroup bloodGroup, LocalDate day, long requested, long donated) {
+        if (requested == 0 && donated == 0) {
+            return;
+        }
+        dailyDemandRepository.addToDay(hospitalId, bloodGroup.label(), day, requested, donated);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initialize() {
+        if (dailyDemandRepository.count() == 0) {
+            backfill();
+        }
+        if (demandForecastRepository.count() == 0) {
+            recompute(true);
+        } else {
+            List<DemandForecastDto> snapshot = demandForecastRepository.findAll().stream()
+                    .map(this::convertToDto)
+                    .collect(Collectors.toList());
+            replaceAll(snapshot);
+        }
+    }
+
+    // One-off aggregation of existing history into daily_demand; afterwards writes keep it current
+    private void backfill() {
+        LocalDateTime from = LocalDate.now().minusDays(historyDays).atStartOfDay();
+        Map<List<Object>, DailyDemand> days = new HashMap<>();
+        for (DailyQuantity row : bloodRequestRepository.sumDailyQuantity(BloodRequest.RequestStatus.CANCELLED, from)) {
+            dayOf(days, row).setRequestedQuantity(row.getQuantity());
+        }
+        for (DailyQuantity row : bloodDonationRepository.sumDailyQuantity(BloodDonation.DonationStatus.COMPLETED, from)) {
+            dayOf(days, row).setDonatedQuantity(row.getQuantity());
+        }
+        dailyDemandRepository.saveAll(days.values());
+        log.info("Daily demand backfilled with {} rows", days.size());
+    }
+
+    private static DailyDemand dayOf(Map<List<Object>, DailyDemand> days, DailyQuantity row) {
+        return days.computeIfAbsent(List.of(BloodGroup.key(row.getHospitalId(), row.getBloodGroup()), row.getDay()),
+                key -> new DailyDemand(null, row.getHospitalId(), row.getBloodGroup(), row.getDay(), 0L, 0L));
+    }
+
+    @Scheduled(cron = "${forecast.recompute-cron:0 30 1 * * *}")
+    @Transactional
+    public void recomputeNightly() {
+        recompute(false);
+    }
+
+    // Folds every complete day since each series was last fitted into its smoothing state, or
+    // refits all series over the history window when full is set, then re-derives LOW_STOCK.
+    // Returns the number of series updated.
+    @Transactional
+    public int recompute(boolean full) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate through = now.toLocalDate().minusDays(1);
+        LocalDate earliest = through.minusDays(historyDays - 1L);
+
+        Map<Long, DemandForecast> models = demandForecastRepository.findAll().stream()
+                .collect(Collectors.toMap(model -> BloodGroup.key(model.getHospitalId(), model.getBloodGroup()), Function.identity()));
+        LocalDate from = full ? earliest : models.values().stream()
+                .map(model -> model.getFittedThrough().plusDays(1))
+                .min(Comparator.naturalOrder())
+                .filter(day -> day.isAfter(earliest))
+                .orElse(earliest);
+
+        Map<Long, List<DailyDemand>> series = (from.isAfter(through)
+                ? Collections.<DailyDemand>emptyList()
+                : dailyDemandRepository.findByDayBetweenOrderByDay(from, through)).stream()
+                .collect(Collectors.groupingBy(row -> BloodGroup.key(row.getHospitalId(), row.getBloodGroup())));
+        if (full) {
+            models.forEach((key, model) -> reset(model, firstDay(series.get(key), earliest).minusDays(1)));
+        }
+        // New series start from their first recorded day
+        series.forEach((key, rows) -> models.computeIfAbsent(key, k -> {
+            DemandForecast model = new DemandForecast();
+            model.setHospitalId(rows.get(0).getHospitalId());
+            model.setBloodGroup(rows.get(0).getBloodGroup());
+            reset(model, rows.get(0).getDay().minusDays(1));
+            return model;
+        }));
+
+        List<DemandForecast> updated = new ArrayList<>();
+        for (Map.Entry<Long, DemandForecast> entry : models.entrySet()) {
+            DemandForecast model = entry.getValue();
+            if (!model.getFittedThrough().isBefore(through)) {
+                continue;
+            }
+            Iterator<DailyDemand> rows = series.getOrDefault(entry.getKey(), Collections.emptyList()).iterator();
+            DailyDemand row = rows.hasNext() ? rows.next() : null;
+            LocalDate day = model.getFittedThrough().plusDays(1);
+            if (day.isBefore(earliest)) {
+                day = earliest;
+            }
+            for (; !day.isAfter(through); day = day.plusDays(1)) {
+                while (row != null && row.getDay().isBefore(day)) {
+                    row = rows.hasNext() ? rows.next() : null;
+                }
+                boolean observed = row != null && row.getDay().equals(day);
+                step(model, observed ? row.getRequestedQuantity() : 0, observed ? row.getDonatedQuantity() : 0, alpha);
+            }
+            model.setFittedThrough(through);
+            model.setReorderPoint(model.getObservations() >= minObservations
+                    ? reorderPoint(model, leadTimeDays, serviceLevelZ)
+                    : defaultReorderPoint);
+            model.setUpdatedAt(now);
+            updated.add(model);
+        }
+        demandForecastRepository.saveAll(updated);
+
+        int low = bloodInventoryRepository.updateStatusBelowReorderPoint(
+                BloodInventory.InventoryStatus.AVAILABLE, BloodInventory.InventoryStatus.LOW_STOCK, defaultReorderPoint);
+        int restored = bloodInventoryRepository.updateStatusAtOrAboveReorderPoint(
+                BloodInventory.InventoryStatus.LOW_STOCK, BloodInventory.InventoryStatus.AVAILABLE, defaultReorderPoint);
+
+        List<DemandForecastDto> snapshot = models.values().stream().map(this::convertToDto).collect(Collectors.toList());
+        afterCommit(() -> replaceAll(snapshot));
+        log.info("Demand forecasts recomputed for {} series; {} inventory rows now LOW_STOCK, {} back to AVAILABLE",
+                updated.size(), low, restored);
+        return updated.size();
+    }
+
+    // One day of simple exponential smoothing: demand level with its squared error, and supply level
+    static void step(DemandForecast model, double requested, double donated, double alpha) {
+        if (model.getObservations() == 0) {
+            model.setDemandLevel(requested);
+            model.setSupplyLevel(donated);
+            model.setDemandVariance(0);
+        } else {
+            double error = requested - model.getDemandLevel();
+            model.setDemandVariance((1 - alpha) * model.getDemandVariance() + alpha * error * error);
+            model.setDemandLevel(model.getDemandLevel() + alpha * error);
+            model.setSupplyLevel(model.getSupplyLevel() + alpha * (donated - model.getSupplyLevel()));
+        }
+        model.setObservations(model.getObservations() + 1);
+    }
+
+    // Expected net consumption over the lead time plus safety stock for the demand error over it
+    static long reorderPoint(DemandForecast model, int leadTimeDays, double serviceLevelZ) {
+        double netDaily = Math.max(0, model.getDemandLevel() - model.getSupplyLevel());
+        double safetyStock = serviceLevelZ * Math.sqrt(model.getDemandVariance() * leadTimeDays);
+        return (long) Math.ceil(netDaily * leadTimeDays + safetyStock);
+    }
+
+    private static LocalDate firstDay(List<DailyDemand> rows, LocalDate fallback) {
+        return rows == null || rows.isEmpty() ? fallback : rows.get(0).getDay();
+    }
+
+    private static void reset(DemandForecast model, LocalDate fittedThrough) {
+        model.setDemandLevel(0);
+        model.setDemandVariance(0);
+        model.setSupplyLevel(0);
+        model.setObservations(0);
+        model.setFittedThrough(fittedThrough);
+    }
+
+    private synchronized void replaceAll(List<DemandForecastDto> snapshot) {
+        forecasts.clear();
+        snapshot.forEach(forecast -> forecasts.put(BloodGroup.key(forecast.getHospitalId(), BloodGroup.fromLabel(forecast.getBloodGroup())), forecast));
+    }
+
+    private DemandForecastDto convertToDto(DemandForecast model) {
+        return new DemandForecastDto(
+                model.getHospitalId(),
+                model.getBloodGroup().label(),
+                model.getDemandLevel(),
+                model.getSupplyLevel(),
+                Math.sqrt(model.getDemandVariance()),
+                model.getObservations(),
+                model.getFittedThrough(),
+                model.getReorderPoint(),
+                model.getUpdatedAt()
+        );
+    }
+
+    // What one request or donation adds to the daily rollup
+    @lombok.Value
+    public static class DemandEntry {
+        Long hospitalId;
+        BloodGroup bloodGroup;
+        LocalDate day;
+        long requested;
+        long donated;
+
+        public static DemandEntry of(BloodRequest request) {
+            return of(request, request.getStatus());
+        }
+
+        // Every request except a cancelled one is demand, whether or not it was met
+        public static DemandEntry of(BloodRequest request, BloodRequest.RequestStatus status) {
+            if (status == BloodRequest.RequestStatus.CANCELLED || request.getRequestDate() == null) {
+                return null;
+            }
+            return new DemandEntry(request.getHospital().getId(), request.getBloodGroup(),
+                    request.getRequestDate().toLocalDate(), request.getRequiredQuantity(), 0);
+        }
+
+        public static DemandEntry of(BloodDonation donation) {
+            return of(donation, donation.getStatus());
+        }
+
+        // As the donation would contribute with the given status
+        public static DemandEntry of(BloodDonation donation, BloodDonation.DonationStatus status) {
+            if (status != BloodDonation.DonationStatus.COMPLETED || donation.getDonationDate() == null) {
+                return null;
+            }
+            return new DemandEntry(donation.getHospital().getId(), donation.getBloodGroup(),
+                    donation.getDonationDate().toLocalDate(), 0, donation.getQuantity());
+        }
+
+        boolean sameDay(DemandEntry other) {
+            return hospitalId.equals(other.hospitalId) && bloodGroup == other.bloodGroup && day.equals(other.day);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.bloodsync.service;
+
+import com.bloodsync.entity.Donor;
+import com.bloodsync.repository.DonorRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+import static com.bloodsync.service.TransactionCallbacks.afterCommit;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DonorEligibilityService {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final DonorRepository donorRepository;
+    private final DonorMatchingService donorMatchingService;
+
+    @Value("${donor.deferral-days:56}")
+    private int deferralDays;
+
+    // Deferral end date -> donors to release that day
+    private final ConcurrentSkipListMap<LocalDate, Set<Long>> buckets = new ConcurrentSkipListMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void loadDeferredDonors() {
+        buckets.clear();
+        List<DonorRepository.DeferredDonor> deferredDonors = donorRepository.findDeferredDonors();
+        deferredDonors.forEach(donor -> bucket(donor.getId(), donor.getDeferralEndDate()));
+        log.info("Loaded {} deferred donors into {} eligibility buckets", deferredDonors.size(), buckets.size());
+
+        // Catch up on any days missed while the application was down
+        releaseDueDonors();
+    }
+
+    public void deferAfterDonation(Donor donor, LocalDate donationDate) {
+        LocalDate deferralEndDate = donationDate.plusDays(deferralDays);
+        if (!deferralEndDate.isAfter(LocalDate.now())) {
+            // Back-dated donation whose deferral has already passed
+            return;
+        }
+        donor.setEligible(false);
+        donor.setDeferralEndDate(deferralEndDate);
+
+        Long donorId = donor.getId();
+        afterCommit(() -> bucket(donorId, deferralEndDate));
+    }
+
+    // Set-based deferAfterDonation for bulk completions, given each donor's latest completed
+    // donation: one pair of updates per distinct donation date, in the caller's transaction
+    @Transactional
+    public void recordCompletedDonations(Map<Long, LocalDate> donationDates) {
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+        Map<LocalDate, List<Long>> byDate = donationDates.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue, Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+        byDate.forEach((donationDate, donorIds) -> {
+            donorRepository.recordDonation(donorIds, donationDate, now);
+            LocalDate deferralEndDate = donationDate.plusDays(deferralDays);
+            if (deferralEndDate.isAfter(today)) {
+                donorRepository.deferDonors(donorIds, deferralEndDate, now);
+                afterCommit(() -> donorIds.forEach(donorId -> bucket(donorId, deferralEndDate)));
+            }
+        });
+        donorRepository.findAllById(donationDates.keySet()).forEach(donorMatchingService::onDonorSaved);
+    }
+
+    // Buckets are only dropped once the release commits; after a rollback the same donors are
+    // picked up again on the next run
+    @Scheduled(cron = "${donor.eligibility-cron:0 5 0 * * *}")
+    @Transactional
+    public void releaseDueDonors() {
+        LocalDate today = LocalDate.now();
+        Map<LocalDate, Set<Long>> due = new HashMap<>();
+        buckets.headMap(today, true).forEach((date, ids) -> due.put(date, Set.copyOf(ids)));
+        List<Long> donorIds = due.values().stream().flatMap(Set::stream).toList();
+        if (donorIds.isEmpty()) {
+            return;
+        }
+
+        // The update re-checks the deferral date, so stale bucket entries are no-ops
+        int released = 0;
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < donorIds.size(); from += BATCH_SIZE) {
+            List<Long> batch = donorIds.subList(from, Math.min(from + BATCH_SIZE, donorIds.size()));
+            released += donorRepository.releaseDeferredDonors(batch, today, now);
+            donorRepository.findAllById(batch).forEach(donorMatchingService::onDonorSaved);
+        }
+        afterCommit(() -> due.forEach((date, ids) -> buckets.computeIfPresent(date, (key, bucket) -> {
+            bucket.removeAll(ids);
+            return bucket.isEmpty() ? null : bucket;
+        })));
+        log.info("Released {} of {} bucketed donors from deferral", released, donorIds.size());
+    }
+
+    private void bucket(Long donorId, LocalDate deferralEndDate) {
+        buckets.computeIfAbsent(deferralEndDate, date -> ConcurrentHashMap.newKeySet()).add(donorId);
+    }
+}
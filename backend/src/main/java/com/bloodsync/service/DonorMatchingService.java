@@ -0,0 +1,312 @@
+package com.bloodsync.service;
+
+import com.bloodsync.dto.DonorMatchDto;
+import com.bloodsync.entity.Donor;
+import com.bloodsync.entity.Hospital;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.geo.CityGeocoder;
+import com.bloodsync.geo.GeoIndex;
+import com.bloodsync.geo.GeoPoint;
+import com.bloodsync.repository.DonorRepository;
+import com.bloodsync.repository.HospitalRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static com.bloodsync.service.TransactionCallbacks.afterCommit;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DonorMatchingService {
+
+    private static final int MAX_MATCHES = 100;
+
+    private static final double MAX_RADIUS_KM = 500;
+
+    private final DonorRepository donorRepository;
+    private final HospitalRepository hospitalRepository;
+    private final CityGeocoder cityGeocoder;
+
+    // Active, eligible donors only. Loaded once at startup, then kept current by the
+    // donor, donation and hospital write paths so matching never touches the database.
+    // Donor ID -> indexed snapshot
+    private final Map<Long, DonorEntry> donors = new ConcurrentHashMap<>();
+
+    // Blood group ordinal -> state -> city -> donors
+    private final List<Map<String, Map<String, Set<DonorEntry>>>> index =
+            Stream.<Map<String, Map<String, Set<DonorEntry>>>>generate(ConcurrentHashMap::new).limit(BloodGroup.COUNT).toList();
+
+    // Hospital ID -> location, so a match request needs no lookup
+    private final Map<Long, Location> hospitals = new ConcurrentHashMap<>();
+
+    // Located donors only, for radius and nearest-neighbour searches
+    private final GeoIndex<DonorEntry> donorLocations = new GeoIndex<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuildIndex() {
+        donors.clear();
+        index.forEach(Map::clear);
+        hospitals.clear();
+        donorLocations.clear();
+        donorRepository.findByIsActiveTrueAndIsEligibleTrue().forEach(donor -> add(entryOf(donor)));
+        hospitalRepository.findAll().forEach(hospital -> hospitals.put(hospital.getId(), locationOf(hospital)));
+        log.info("Donor matching index built with {} donors and {} hospitals", donors.size(), hospitals.size());
+    }
+
+    public List<DonorMatchDto> findMatches(Long hospitalId, String bloodGroup, int limit) {
+        Location location = hospitals.get(hospitalId);
+        if (location == null) {
+            throw new RuntimeException("Hospital not found with ID: " + hospitalId);
+        }
+        BloodGroup neededGroup = parse(bloodGroup);
+        int cappedLimit = Math.max(1, Math.min(limit, MAX_MATCHES));
+
+        // Nearest tier first: same city, then the rest of the state, then everywhere else
+        List<DonorMatchDto> matches = new ArrayList<>(cappedLimit);
+        for (Tier tier : Tier.values()) {
+            collectTier(matches, cappedLimit, neededGroup, location, tier);
+            if (matches.size() >= cappedLimit) {
+                break;
+            }
+        }
+        return matches;
+    }
+
+    // Nearest compatible donors within the radius, by great-circle distance from the hospital
+    public List<DonorMatchDto> findNearby(Long hospitalId, String bloodGroup, double radiusKm, int limit) {
+        Location location = hospitals.get(hospitalId);
+        if (location == null) {
+            throw new RuntimeException("Hospital not found with ID: " + hospitalId);
+        }
+        if (location.getPoint() == null) {
+            throw new RuntimeException("Hospital location unknown for ID: " + hospitalId);
+        }
+        BloodGroup neededGroup = parse(bloodGroup);
+        int donorMask = neededGroup.donorMask();
+        int cappedLimit = Math.max(1, Math.min(limit, MAX_MATCHES));
+
+        List<DonorMatchDto> matches = new ArrayList<>(cappedLimit);
+        for (GeoIndex.Hit<DonorEntry> hit : donorLocations.nearest(location.getPoint(), Math.min(radiusKm, MAX_RADIUS_KM),
+                cappedLimit, entry -> (donorMask & 1 << entry.getBloodGroup().ordinal()) != 0)) {
+            matches.add(toMatchDto(hit.getValue(), neededGroup, tierOf(hit.getValue(), location), hit.getDistanceKm()));
+        }
+        return matches;
+    }
+
+    public List<String> getCompatibleDonorGroups(String bloodGroup) {
+        try {
+            return parse(bloodGroup).compatibleDonors().stream().map(BloodGroup::label).toList();
+        } catch (RuntimeException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    public int getIndexedDonorCount() {
+        return donors.size();
+    }
+
+    // Write-path hooks, applied once the surrounding transaction commits
+
+    public void onDonorSaved(Donor donor) {
+        Long donorId = donor.getId();
+        DonorEntry entry = donor.isActive() && donor.isEligible() ? entryOf(donor) : null;
+        afterCommit(() -> {
+            synchronized (this) {
+                remove(donorId);
+                if (entry != null) {
+                    add(entry);
+                }
+            }
+        });
+    }
+
+    public void onDonorDeleted(Long donorId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                remove(donorId);
+            }
+        });
+    }
+
+    public void onHospitalSaved(Hospital hospital) {
+        Long hospitalId = hospital.getId();
+        Location location = locationOf(hospital);
+        afterCommit(() -> hospitals.put(hospitalId, location));
+    }
+
+    public void onHospitalDeleted(Long hospitalId) {
+        afterCommit(() -> hospitals.remove(hospitalId));
+    }
+
+    private void collectTier(List<DonorMatchDto> matches, int limit, BloodGroup neededGroup, Location location, Tier tier) {
+        int remaining = limit - matches.size();
+        Comparator<DonorEntry> ranking = ranking(neededGroup);
+
+        // Bounded max-heap keeps only the best `remaining` candidates of this tier
+        PriorityQueue<DonorEntry> best = new PriorityQueue<>(remaining + 1, ranking.reversed());
+        for (BloodGroup group : neededGroup.compatibleDonors()) {
+            Map<String, Map<String, Set<DonorEntry>>> byState = index.get(group.ordinal());
+            for (Map.Entry<String, Map<String, Set<DonorEntry>>> stateEntry : byState.entrySet()) {
+                boolean sameState = stateEntry.getKey().equals(location.getState());
+                if (tier != Tier.ELSEWHERE && !sameState || tier == Tier.ELSEWHERE && sameState) {
+                    continue;
+                }
+                for (Map.Entry<String, Set<DonorEntry>> cityEntry : stateEntry.getValue().entrySet()) {
+                    boolean sameCity = sameState && cityEntry.getKey().equals(location.getCity());
+                    if (tier == Tier.SAME_CITY && !sameCity || tier == Tier.SAME_STATE && sameCity) {
+                        continue;
+                    }
+                    for (DonorEntry candidate : cityEntry.getValue()) {
+                        best.offer(candidate);
+                        if (best.size() > remaining) {
+                            best.poll();
+                        }
+                    }
+                }
+            }
+        }
+
+        List<DonorEntry> ranked = new ArrayList<>(best);
+        ranked.sort(ranking);
+        for (DonorEntry entry : ranked) {
+            matches.add(toMatchDto(entry, neededGroup, tier, null));
+        }
+    }
+
+    private Comparator<DonorEntry> ranking(BloodGroup neededGroup) {
+        // Exact group first, then the donor who has waited longest since donating
+        return Comparator.comparing((DonorEntry entry) -> entry.getBloodGroup() != neededGroup)
+                .thenComparing(DonorEntry::getLastDonationDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(DonorEntry::getDonorId);
+    }
+
+    private DonorEntry entryOf(Donor donor) {
+        GeoPoint point = cityGeocoder.locate(donor.getLatitude(), donor.getLongitude(), donor.getCity(), donor.getState())
+                .orElse(null);
+        return DonorEntry.of(donor, point);
+    }
+
+    private Location locationOf(Hospital hospital) {
+        GeoPoint point = cityGeocoder.locate(hospital.getLatitude(), hospital.getLongitude(), hospital.getCity(), hospital.getState())
+                .orElse(null);
+        return Location.of(hospital, point);
+    }
+
+    private static Tier tierOf(DonorEntry entry, Location location) {
+        if (!entry.getState().equals(location.getState())) {
+            return Tier.ELSEWHERE;
+        }
+        return entry.getCity().equals(location.getCity()) ? Tier.SAME_CITY : Tier.SAME_STATE;
+    }
+
+    private void add(DonorEntry entry) {
+        donors.put(entry.getDonorId(), entry);
+        if (entry.getPoint() != null) {
+            donorLocations.put(entry.getDonorId(), entry.getPoint(), entry);
+        }
+        index.get(entry.getBloodGroup().ordinal())
+                .computeIfAbsent(entry.getState(), state -> new ConcurrentHashMap<>())
+                .computeIfAbsent(entry.getCity(), city -> ConcurrentHashMap.newKeySet())
+                .add(entry);
+    }
+
+    private void remove(Long donorId) {
+        DonorEntry existing = donors.remove(donorId);
+        if (existing == null) {
+            return;
+        }
+        donorLocations.remove(donorId);
+        Map<String, Set<DonorEntry>> byCity = index.get(existing.getBloodGroup().ordinal()).get(existing.getState());
+        if (byCity == null) {
+            return;
+        }
+        Set<DonorEntry> bucket = byCity.get(existing.getCity());
+        if (bucket != null) {
+            bucket.remove(existing);
+        }
+    }
+
+    private DonorMatchDto toMatchDto(DonorEntry entry, BloodGroup neededGroup, Tier tier, Double distanceKm) {
+        return new DonorMatchDto(
+                entry.getDonorId(),
+                entry.getFirstName(),
+                entry.getLastName(),
+                entry.getPhoneNumber(),
+                entry.getBloodGroup().label(),
+                entry.getDisplayCity(),
+                entry.getDisplayState(),
+                entry.getLastDonationDate(),
+                entry.getBloodGroup() == neededGroup,
+                tier == Tier.SAME_CITY,
+                tier != Tier.ELSEWHERE,
+                distanceKm
+        );
+    }
+
+    private static BloodGroup parse(String bloodGroup) {
+        BloodGroup parsed = BloodGroup.fromLabel(bloodGroup);
+        if (parsed == null) {
+            throw new RuntimeException("Unsupported blood group: null");
+        }
+        return parsed;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private enum Tier {
+        SAME_CITY, SAME_STATE, ELSEWHERE
+    }
+
+    @Value
+    private static class Location {
+        String state;
+        String city;
+        GeoPoint point;
+
+        static Location of(Hospital hospital, GeoPoint point) {
+            return new Location(normalize(hospital.getState()), normalize(hospital.getCity()), point);
+        }
+    }
+
+    @Value
+    private static class DonorEntry {
+        Long donorId;
+        String firstName;
+        String lastName;
+        String phoneNumber;
+        BloodGroup bloodGroup;
+        String state;
+        String city;
+        String displayState;
+        String displayCity;
+        LocalDate lastDonationDate;
+        GeoPoint point;
+
+        static DonorEntry of(Donor donor, GeoPoint point) {
+            return new DonorEntry(
+                    donor.getId(),
+                    donor.getFirstName(),
+                    donor.getLastName(),
+                    donor.getPhoneNumber(),
+                    donor.getBloodGroup(),
+                    normalize(donor.getState()),
+                    normalize(donor.getCity()),
+                    donor.getState(),
+                    donor.getCity(),
+                    donor.getLastDonationDate(),
+                    point
+            );
+        }
+    }
+}
@@ -1,14 +1,25 @@
 package com.bloodsync.service;
 
+import com.bloodsync.dto.CursorPageDto;
 import com.bloodsync.dto.DonorDto;
 import com.bloodsync.entity.Donor;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.geo.CityGeocoder;
+import com.bloodsync.geo.GeoPoint;
 import com.bloodsync.repository.DonorRepository;
+import com.bloodsync.search.SearchSchema;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -16,7 +27,38 @@ import java.util.stream.Collectors;
 @Transactional
 public class DonorService {
     
+    // Filters, sort keys and fields= columns accepted by searchDonors
+    private static final SearchSchema<Donor> SEARCH = SearchSchema.of(Donor::getId)
+            .equal("bloodGroup", "bloodGroup", BloodGroup::fromLabel)
+            .equal("city", "city", Function.identity())
+            .equal("state", "state", Function.identity())
+            .equal("lastName", "lastName", Function.identity())
+            .equal("active", "isActive", SearchSchema.booleanValue())
+            .equal("eligible", "isEligible", SearchSchema.booleanValue())
+            .range("dateOfBirth", LocalDate::parse)
+            .range("lastDonationDate", LocalDate::parse)
+            .sortable("lastName", Donor::getLastName)
+            .sortable("dateOfBirth", Donor::getDateOfBirth)
+            .select("firstName", "firstName")
+            .select("lastName", "lastName")
+            .select("email", "email")
+            .select("phoneNumber", "phoneNumber")
+            .select("dateOfBirth", "dateOfBirth")
+            .select("bloodGroup", "bloodGroup", BloodGroup::label)
+            .select("address", "address")
+            .select("city", "city")
+            .select("state", "state")
+            .select("eligible", "isEligible")
+            .select("lastDonationDate", "lastDonationDate")
+            .select("deferralEndDate", "deferralEndDate")
+            .select("active", "isActive")
+            .select("createdAt", "createdAt")
+            .select("updatedAt", "updatedAt");
+    
     private final DonorRepository donorRepository;
+    private final DonorMatchingService donorMatchingService;
+    private final CityGeocoder cityGeocoder;
+    private final EntityManager entityManager;
     
     public List<DonorDto> getAllDonors() {
         return donorRepository.findAll().stream()
@@ -24,13 +66,25 @@ public class DonorService {
                 .collect(Collectors.toList());
     }
     
+    // Any combination of the schema's filters as one query, keyset-paginated
+    @Transactional(readOnly = true)
+    public CursorPageDto<DonorDto> searchDonors(Map<String, String> params) {
+        return SEARCH.parse(params).execute(donorRepository, this::convertToDto);
+    }
+    
+    // The same search reading only the fields= columns
+    @Transactional(readOnly = true)
+    public CursorPageDto<Map<String, Object>> selectDonors(Map<String, String> params) {
+        return SEARCH.parse(params).select(entityManager, Donor.class);
+    }
+    
     public Optional<DonorDto> getDonorById(Long id) {
         return donorRepository.findById(id)
                 .map(this::convertToDto);
     }
     
     public List<DonorDto> getDonorsByBloodGroup(String bloodGroup) {
-        return donorRepository.findByBloodGroup(bloodGroup).stream()
+        return donorRepository.findByBloodGroup(BloodGroup.fromLabel(bloodGroup)).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
@@ -47,7 +101,9 @@ public class DonorService {
         }
         
         Donor donor = convertToEntity(donorDto);
+        geocode(donor);
         Donor savedDonor = donorRepository.save(donor);
+        donorMatchingService.onDonorSaved(savedDonor);
         return convertToDto(savedDonor);
     }
     
@@ -66,15 +122,22 @@ public class DonorService {
         donor.setEmail(donorDto.getEmail());
         donor.setPhoneNumber(donorDto.getPhoneNumber());
         donor.setDateOfBirth(donorDto.getDateOfBirth());
-        donor.setBloodGroup(donorDto.getBloodGroup());
+        donor.setBloodGroup(BloodGroup.fromLabel(donorDto.getBloodGroup()));
         donor.setAddress(donorDto.getAddress());
         donor.setCity(donorDto.getCity());
         donor.setState(donorDto.getState());
+        geocode(donor);
         donor.setEligible(donorDto.isEligible());
         donor.setLastDonationDate(donorDto.getLastDonationDate());
         donor.setActive(donorDto.isActive());
         
+        // Manually marking a donor eligible ends any pending deferral
+        if (donorDto.isEligible()) {
+            donor.setDeferralEndDate(null);
+        }
+        
         Donor updatedDonor = donorRepository.save(donor);
+        donorMatchingService.onDonorSaved(updatedDonor);
         return convertToDto(updatedDonor);
     }
     
@@ -83,6 +146,7 @@ public class DonorService {
             throw new RuntimeException("Donor not found");
         }
         donorRepository.deleteById(id);
+        donorMatchingService.onDonorDeleted(id);
     }
     
     private DonorDto convertToDto(Donor donor) {
@@ -93,12 +157,13 @@ public class DonorService {
         dto.setEmail(donor.getEmail());
         dto.setPhoneNumber(donor.getPhoneNumber());
         dto.setDateOfBirth(donor.getDateOfBirth());
-        dto.setBloodGroup(donor.getBloodGroup());
+        dto.setBloodGroup(donor.getBloodGroup().label());
         dto.setAddress(donor.getAddress());
         dto.setCity(donor.getCity());
         dto.setState(donor.getState());
         dto.setEligible(donor.isEligible());
         dto.setLastDonationDate(donor.getLastDonationDate());
+        dto.setDeferralEndDate(donor.getDeferralEndDate());
         dto.setActive(donor.isActive());
         dto.setCreatedAt(donor.getCreatedAt());
         dto.setUpdatedAt(donor.getUpdatedAt());
@@ -113,7 +178,7 @@ public class DonorService {
         donor.setEmail(dto.getEmail());
         donor.setPhoneNumber(dto.getPhoneNumber());
         donor.setDateOfBirth(dto.getDateOfBirth());
-        donor.setBloodGroup(dto.getBloodGroup());
+        donor.setBloodGroup(BloodGroup.fromLabel(dto.getBloodGroup()));
         donor.setAddress(dto.getAddress());
         donor.setCity(dto.getCity());
         donor.setState(dto.getState());
@@ -132,7 +197,7 @@ public class DonorService {
     }
     
     public List<DonorDto> getPublicDonorsByBloodGroup(String bloodGroup) {
-        return donorRepository.findByBloodGroupAndIsActiveTrue(bloodGroup).stream()
+        return donorRepository.findByBloodGroupAndIsActiveTrue(BloodGroup.fromLabel(bloodGroup)).stream()
                 .map(this::convertToPublicDto)
                 .collect(Collectors.toList());
     }
@@ -143,9 +208,16 @@ public class DonorService {
                 .collect(Collectors.toList());
     }
     
-    public Object getBloodDonationStats() {
-        // Return basic statistics about blood donations
-        return new Object(); // Placeholder implementation
+    // One page of the public donor stream: the donors after afterId, ordered by ID
+    @Transactional(readOnly = true)
+    public Slice<DonorDto> getPublicDonorPage(Long afterId, Pageable pageable) {
+        return donorRepository.findByIsActiveTrueAndIdGreaterThan(afterId, pageable).map(this::convertToPublicDto);
+    }
+    
+    private void geocode(Donor donor) {
+        GeoPoint point = cityGeocoder.locate(donor.getCity(), donor.getState()).orElse(null);
+        donor.setLatitude(point != null ? point.getLatitude() : null);
+        donor.setLongitude(point != null ? point.getLongitude() : null);
     }
     
     private DonorDto convertToPublicDto(Donor donor) {
@@ -153,7 +225,7 @@ public class DonorService {
         dto.setId(donor.getId());
         dto.setFirstName(donor.getFirstName());
         dto.setLastName(donor.getLastName());
-        dto.setBloodGroup(donor.getBloodGroup());
+        dto.setBloodGroup(donor.getBloodGroup().label());
         dto.setCity(donor.getCity());
         dto.setState(donor.getState());
         dto.setEligible(donor.isEligible());
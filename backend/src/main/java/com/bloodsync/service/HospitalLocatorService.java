@@ -0,0 +1,134 @@
+package com.bloodsync.service;
+
+import com.bloodsync.dto.InventoryAvailabilityDto;
+import com.bloodsync.dto.NearbyHospitalDto;
+import com.bloodsync.entity.Hospital;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.geo.CityGeocoder;
+import com.bloodsync.geo.GeoIndex;
+import com.bloodsync.geo.GeoPoint;
+import com.bloodsync.repository.HospitalRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static com.bloodsync.service.TransactionCallbacks.afterCommit;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HospitalLocatorService {
+
+    private static final int MAX_RESULTS = 100;
+
+    private static final double MAX_RADIUS_KM = 500;
+
+    private final HospitalRepository hospitalRepository;
+    private final InventoryAvailabilityService inventoryAvailabilityService;
+    private final CityGeocoder cityGeocoder;
+
+    // Active, located hospitals, kept current by the hospital write paths
+    private final GeoIndex<HospitalEntry> hospitals = new GeoIndex<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuildIndex() {
+        hospitals.clear();
+        hospitalRepository.findByIsActiveTrue().forEach(this::index);
+        log.info("Hospital spatial index built with {} hospitals", hospitals.size());
+    }
+
+    public GeoPoint locate(Double latitude, Double longitude, String city, String state) {
+        return cityGeocoder.locate(latitude, longitude, city, state)
+                .orElseThrow(() -> new RuntimeException("Unknown location: " + city));
+    }
+
+    // Nearest active hospitals within the radius; with a blood group, only those holding at
+    // least `minAvailable` ml (default: any) of it net of reservations
+    public List<NearbyHospitalDto> findNearby(GeoPoint center, double radiusKm, int limit, String bloodGroup, Long minAvailable) {
+        int cappedLimit = Math.max(1, Math.min(limit, MAX_RESULTS));
+        long required = minAvailable != null ? minAvailable : 1;
+        BloodGroup group = BloodGroup.fromLabel(bloodGroup);
+        Predicate<HospitalEntry> inStock = group == null
+                ? entry -> true
+                : entry -> netAvailable(entry.getHospitalId(), group) >= required;
+
+        List<NearbyHospitalDto> results = new ArrayList<>(cappedLimit);
+        for (GeoIndex.Hit<HospitalEntry> hit : hospitals.nearest(center, Math.min(radiusKm, MAX_RADIUS_KM), cappedLimit, inStock)) {
+            HospitalEntry entry = hit.getValue();
+            results.add(new NearbyHospitalDto(
+                    entry.getHospitalId(),
+                    entry.getHospitalName(),
+                    entry.getCity(),
+                    entry.getState(),
+                    entry.getPhoneNumber(),
+                    hit.getPoint().getLatitude(),
+                    hit.getPoint().getLongitude(),
+                    hit.getDistanceKm(),
+                    group != null ? group.label() : null,
+                    group != null ? netAvailable(entry.getHospitalId(), group) : null));
+        }
+        return results;
+    }
+
+    // Write-path hooks, applied once the surrounding transaction commits
+
+    public void onHospitalSaved(Hospital hospital) {
+        Long hospitalId = hospital.getId();
+        HospitalEntry entry = hospital.isActive() ? HospitalEntry.of(hospital) : null;
+        GeoPoint point = cityGeocoder.locate(hospital.getLatitude(), hospital.getLongitude(), hospital.getCity(), hospital.getState())
+                .orElse(null);
+        afterCommit(() -> {
+            synchronized (this) {
+                hospitals.remove(hospitalId);
+                if (entry != null && point != null) {
+                    hospitals.put(hospitalId, point, entry);
+                }
+            }
+        });
+    }
+
+    public void onHospitalDeleted(Long hospitalId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                hospitals.remove(hospitalId);
+            }
+        });
+    }
+
+    private void index(Hospital hospital) {
+        cityGeocoder.locate(hospital.getLatitude(), hospital.getLongitude(), hospital.getCity(), hospital.getState())
+                .ifPresent(point -> hospitals.put(hospital.getId(), point, HospitalEntry.of(hospital)));
+    }
+
+    private long netAvailable(Long hospitalId, BloodGroup bloodGroup) {
+        return inventoryAvailabilityService.getAvailability(hospitalId, bloodGroup)
+                .map(InventoryAvailabilityDto::getNetAvailableQuantity)
+                .orElse(0L);
+    }
+
+    @Value
+    private static class HospitalEntry {
+        Long hospitalId;
+        String hospitalName;
+        String city;
+        String state;
+        String phoneNumber;
+
+        static HospitalEntry of(Hospital hospital) {
+            return new HospitalEntry(
+                    hospital.getId(),
+                    hospital.getHospitalName(),
+                    hospital.getCity(),
+                    hospital.getState(),
+                    hospital.getPhoneNumber()
+            );
+        }
+    }
+}
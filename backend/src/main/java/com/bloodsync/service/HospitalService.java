@@ -1,9 +1,15 @@
 package com.bloodsync.service;
 
+import com.bloodsync.dto.HospitalDto;
+import com.bloodsync.dto.PublicHospitalDto;
 import com.bloodsync.entity.Hospital;
+import com.bloodsync.geo.CityGeocoder;
+import com.bloodsync.geo.GeoPoint;
 import com.bloodsync.repository.HospitalRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,29 +23,38 @@ import java.util.Optional;
 public class HospitalService {
     
     private final HospitalRepository hospitalRepository;
+    private final DonorMatchingService donorMatchingService;
+    private final InventoryAvailabilityService inventoryAvailabilityService;
+    private final HospitalLocatorService hospitalLocatorService;
+    private final CityGeocoder cityGeocoder;
     
-    public List<Hospital> getAllHospitals() {
-        log.info("Fetching all hospitals");
-        return hospitalRepository.findAll();
+    // Reads are projected straight into DTOs; entities are only loaded to be written
+    @Transactional(readOnly = true)
+    public List<HospitalDto> getAllHospitals() {
+        log.debug("Fetching all hospitals");
+        return hospitalRepository.findAllDtos();
     }
     
-    public Optional<Hospital> getHospitalById(Long id) {
-        log.info("Fetching hospital with ID: {}", id);
-        return hospitalRepository.findById(id);
+    @Transactional(readOnly = true)
+    public Optional<HospitalDto> getHospitalById(Long id) {
+        log.debug("Fetching hospital with ID: {}", id);
+        return hospitalRepository.findDtoById(id);
     }
     
-    public Optional<Hospital> getHospitalByEmail(String email) {
-        log.info("Fetching hospital with email: {}", email);
-        return hospitalRepository.findByEmail(email);
+    @Transactional(readOnly = true)
+    public Optional<HospitalDto> getHospitalByEmail(String email) {
+        log.debug("Fetching hospital with email: {}", email);
+        return hospitalRepository.findDtoByEmail(email);
     }
     
-    public Optional<Hospital> getHospitalByLicenseNumber(String licenseNumber) {
-        log.info("Fetching hospital with license number: {}", licenseNumber);
-        return hospitalRepository.findByLicenseNumber(licenseNumber);
+    @Transactional(readOnly = true)
+    public Optional<HospitalDto> getHospitalByLicenseNumber(String licenseNumber) {
+        log.debug("Fetching hospital with license number: {}", licenseNumber);
+        return hospitalRepository.findDtoByLicenseNumber(licenseNumber);
     }
     
     public Hospital createHospital(Hospital hospital) {
-        log.info("Creating new hospital: {}", hospital.getHospitalName());
+        log.debug("Creating new hospital: {}", hospital.getHospitalName());
         
         // Check if hospital with same email already exists
         if (hospitalRepository.existsByEmail(hospital.getEmail())) {
@@ -51,13 +66,16 @@ public class HospitalService {
             throw new RuntimeException("Hospital with license number " + hospital.getLicenseNumber() + " already exists");
         }
         
+        geocode(hospital);
         Hospital savedHospital = hospitalRepository.save(hospital);
-        log.info("Hospital created successfully with ID: {}", savedHospital.getId());
+        donorMatchingService.onHospitalSaved(savedHospital);
+        hospitalLocatorService.onHospitalSaved(savedHospital);
+        log.debug("Hospital created successfully with ID: {}", savedHospital.getId());
         return savedHospital;
     }
     
     public Hospital updateHospital(Long id, Hospital hospitalDetails) {
-        log.info("Updating hospital with ID: {}", id);
+        log.debug("Updating hospital with ID: {}", id);
         
         Hospital hospital = hospitalRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Hospital not found with id: " + id));
@@ -82,34 +100,83 @@ public class HospitalService {
         hospital.setState(hospitalDetails.getState());
         hospital.setLicenseNumber(hospitalDetails.getLicenseNumber());
         hospital.setActive(hospitalDetails.isActive());
+        hospital.setLatitude(hospitalDetails.getLatitude());
+        hospital.setLongitude(hospitalDetails.getLongitude());
+        geocode(hospital);
         
         Hospital updatedHospital = hospitalRepository.save(hospital);
-        log.info("Hospital updated successfully with ID: {}", updatedHospital.getId());
+        donorMatchingService.onHospitalSaved(updatedHospital);
+        inventoryAvailabilityService.onHospitalSaved(updatedHospital);
+        hospitalLocatorService.onHospitalSaved(updatedHospital);
+        log.debug("Hospital updated successfully with ID: {}", updatedHospital.getId());
         return updatedHospital;
     }
     
     public void deleteHospital(Long id) {
-        log.info("Deleting hospital with ID: {}", id);
+        log.debug("Deleting hospital with ID: {}", id);
         if (!hospitalRepository.existsById(id)) {
             throw new RuntimeException("Hospital not found with id: " + id);
         }
         hospitalRepository.deleteById(id);
-        log.info("Hospital deleted successfully with ID: {}", id);
+        donorMatchingService.onHospitalDeleted(id);
+        inventoryAvailabilityService.onHospitalDeleted(id);
+        hospitalLocatorService.onHospitalDeleted(id);
+        log.debug("Hospital deleted successfully with ID: {}", id);
     }
     
     // Public methods for unauthenticated access
-    public List<Hospital> getPublicHospitals() {
-        log.info("Fetching public hospital information");
-        return hospitalRepository.findByIsActiveTrue();
+    @Transactional(readOnly = true)
+    public List<PublicHospitalDto> getPublicHospitals() {
+        log.debug("Fetching public hospital information");
+        return hospitalRepository.findPublicDtos();
     }
     
-    public List<Hospital> getPublicHospitalsByLocation(String city) {
-        log.info("Fetching public hospitals by location: {}", city);
-        return hospitalRepository.findByCityAndIsActiveTrue(city);
+    @Transactional(readOnly = true)
+    public long countPublicHospitals() {
+        return hospitalRepository.countByIsActiveTrue();
     }
     
-    public List<Hospital> getEmergencyContacts() {
-        log.info("Fetching emergency contact information");
-        return hospitalRepository.findByIsActiveTrue(); // All active hospitals can be emergency contacts
+    @Transactional(readOnly = true)
+    public Slice<PublicHospitalDto> getPublicHospitalPage(Long afterId, Pageable pageable) {
+        return hospitalRepository.findPublicDtosAfter(afterId, pageable);
     }
-} 
\ No newline at end of file
+    
+    @Transactional(readOnly = true)
+    public List<PublicHospitalDto> getPublicHospitalsByLocation(String city) {
+        log.debug("Fetching public hospitals by location: {}", city);
+        return hospitalRepository.findPublicDtosByCity(city);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<PublicHospitalDto> getEmergencyContacts() {
+        log.debug("Fetching emergency contact information");
+        return hospitalRepository.findPublicDtos(); // All active hospitals can be emergency contacts
+    }
+    
+    public HospitalDto convertToDto(Hospital hospital) {
+        return new HospitalDto(
+                hospital.getId(),
+                hospital.getHospitalName(),
+                hospital.getEmail(),
+                hospital.getPhoneNumber(),
+                hospital.getAddress(),
+                hospital.getCity(),
+                hospital.getState(),
+                hospital.getLatitude(),
+                hospital.getLongitude(),
+                hospital.getLicenseNumber(),
+                hospital.isActive(),
+                hospital.getCreatedAt(),
+                hospital.getUpdatedAt());
+    }
+    
+    // Coordinates supplied with the hospital win; otherwise the city centroid
+    private void geocode(Hospital hospital) {
+        if (hospital.getLatitude() != null && hospital.getLongitude() != null) {
+            return;
+        }
+        GeoPoint point = cityGeocoder.locate(hospital.getCity(), hospital.getState()).orElse(null);
+        hospital.setLatitude(point != null ? point.getLatitude() : null);
+        hospital.setLongitude(point != null ? point.getLongitude() : null);
+    }
+}
@@ -0,0 +1,329 @@
+package com.bloodsync.service;
+
+import com.bloodsync.dto.InventoryAvailabilityDto;
+import com.bloodsync.entity.BloodInventory;
+import com.bloodsync.entity.BloodRequest;
+import com.bloodsync.entity.Hospital;
+import com.bloodsync.entity.InventoryAvailability;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.repository.BloodInventoryRepository;
+import com.bloodsync.repository.BloodRequestRepository;
+import com.bloodsync.repository.HospitalRepository;
+import com.bloodsync.repository.InventoryAvailabilityRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.bloodsync.service.TransactionCallbacks.afterCommit;
+import static com.bloodsync.service.TransactionCallbacks.afterCompletion;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryAvailabilityService {
+
+    private static final List<BloodInventory.InventoryStatus> USABLE_STATUSES =
+            Arrays.asList(BloodInventory.InventoryStatus.AVAILABLE, BloodInventory.InventoryStatus.LOW_STOCK);
+
+    private static final Comparator<InventoryAvailabilityDto> MOST_AVAILABLE_FIRST =
+            Comparator.comparingLong((InventoryAvailabilityDto row) -> row.getNetAvailableQuantity()).reversed()
+                    .thenComparing(InventoryAvailabilityDto::getHospitalId);
+
+    private final InventoryAvailabilityRepository availabilityRepository;
+    private final BloodInventoryRepository bloodInventoryRepository;
+    private final BloodRequestRepository bloodRequestRepository;
+    private final HospitalRepository hospitalRepository;
+
+    @Value("${inventory.availability.expiring-within-days:7}")
+    private int expiringWithinDays;
+
+    // How long a rebuild waits for in-flight refreshes before skipping this run
+    @Value("${inventory.availability.rebuild-lock-wait-ms:30000}")
+    private long rebuildLockWaitMillis;
+
+    // Read side: transactions that refreshed rows, held until they complete. Write side: rebuild(),
+    // held until its rows and mirror snapshot are in place.
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    // In-memory mirror of inventory_availability, replaced after each commit that changes a row.
+    // City key -> blood group ordinal -> hospital ID -> row
+    private final Map<String, List<Map<Long, InventoryAvailabilityDto>>> index = new ConcurrentHashMap<>();
+
+    // Hospital ID -> blood group ordinal -> row, for hospital lookups and re-keying on city changes
+    private final Map<Long, AtomicReferenceArray<InventoryAvailabilityDto>> byHospital = new ConcurrentHashMap<>();
+
+    public List<InventoryAvailabilityDto> search(String city, String bloodGroup, Long hospitalId,
+                                                 Long minAvailable, Long maxAvailable) {
+        BloodGroup group = BloodGroup.fromLabel(bloodGroup);
+        Stream<InventoryAvailabilityDto> candidates;
+        if (hospitalId != null) {
+            candidates = rows(byHospital.get(hospitalId));
+        } else if (city != null) {
+            List<Map<Long, InventoryAvailabilityDto>> byGroup = index.get(normalize(city));
+            if (byGroup == null) {
+                candidates = Stream.empty();
+            } else {
+                candidates = group != null
+                        ? byGroup.get(group.ordinal()).values().stream()
+                        : byGroup.stream().flatMap(rows -> rows.values().stream());
+            }
+        } else {
+            candidates = byHospital.values().stream().flatMap(InventoryAvailabilityService::rows);
+        }
+
+        return candidates
+                .filter(row -> city == null || normalize(row.getCity()).equals(normalize(city)))
+                .filter(row -> group == null || row.getBloodGroup().equals(group.label()))
+                .filter(row -> minAvailable == null || row.getNetAvailableQuantity() >= minAvailable)
+                .filter(row -> maxAvailable == null || row.getNetAvailableQuantity() <= maxAvailable)
+                .sorted(MOST_AVAILABLE_FIRST)
+                .collect(Collectors.toList());
+    }
+
+    public Optional<InventoryAvailabilityDto> getAvailability(Long hospitalId, BloodGroup bloodGroup) {
+        AtomicReferenceArray<InventoryAvailabilityDto> rows = byHospital.get(hospitalId);
+        return Optional.ofNullable(rows != null ? rows.get(bloodGroup.ordinal()) : null);
+    }
+
+    // Write-path hooks. They run inside the caller's transaction; the mirror follows after commit.
+
+    @Transactional
+    public void refresh(Long hospitalId, BloodGroup bloodGroup) {
+        joinWriters();
+        LocalDateTime now = LocalDateTime.now();
+        Optional<BloodInventoryRepository.AvailabilitySummary> stock = bloodInventoryRepository.summarizeAvailability(
+                hospitalId, bloodGroup, USABLE_STATUSES, BloodInventory.InventoryStatus.EXPIRED, now, now.plusDays(expiringWithinDays));
+        long reserved = bloodRequestRepository.sumQuantity(hospitalId, bloodGroup, BloodRequest.RequestStatus.APPROVED);
+        Hospital hospital = hospitalRepository.findById(hospitalId).orElse(null);
+
+        if (hospital == null || !hospital.isActive() || stock.isEmpty() && reserved == 0) {
+            availabilityRepository.deleteByKey(hospitalId, bloodGroup);
+            afterCommit(() -> remove(hospitalId, bloodGroup));
+            return;
+        }
+
+        InventoryAvailability row = new InventoryAvailability();
+        apply(row, hospital, bloodGroup, stock.orElse(null), reserved, now);
+        InventoryAvailabilityDto dto = upsert(row);
+        afterCommit(() -> put(dto));
+    }
+
+    @Transactional
+    public void onHospitalSaved(Hospital hospital) {
+        // Display fields and the city key are copied into every row of the hospital
+        for (BloodGroup bloodGroup : BloodGroup.values()) {
+            refresh(hospital.getId(), bloodGroup);
+        }
+    }
+
+    // Bulk transitions refresh each hospital and blood group they touched once, not once per row.
+    // Requests only matter when stock was reserved before or after the move.
+    @EventListener
+    @Transactional
+    public void onStatusTransition(StatusTransitionEvent event) {
+        String approved = BloodRequest.RequestStatus.APPROVED.name();
+        boolean affectsStock = event.getKind() == StatusTransitionEvent.Kind.INVENTORY
+                || event.getKind() == StatusTransitionEvent.Kind.REQUEST
+                && (event.getStatus().equals(approved) || event.getPreviousStatuses().contains(approved));
+        if (affectsStock) {
+            for (long key : event.getStockKeys()) {
+                refresh(BloodGroup.hospitalOf(key), BloodGroup.groupOf(key));
+            }
+        }
+    }
+
+    @Transactional
+    public void onHospitalDeleted(Long hospitalId) {
+        joinWriters();
+        availabilityRepository.deleteAllInBatch(availabilityRepository.findByHospitalId(hospitalId));
+        afterCommit(() -> {
+            synchronized (this) {
+                if (byHospital.containsKey(hospitalId)) {
+                    for (BloodGroup bloodGroup : BloodGroup.values()) {
+                        remove(hospitalId, bloodGroup);
+                    }
+                }
+            }
+        });
+    }
+
+    // Recomputes every row from the source tables. Runs at startup and periodically,
+    // since expiring and expired quantities move with the clock rather than with writes.
+    // Refreshes wait while it runs, and it waits for refreshes in flight, so neither
+    // overwrites the other's numbers in the table or the mirror.
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${inventory.availability.rebuild-cron:0 0 * * * *}")
+    @Transactional
+    public void rebuild() {
+        if (rebuildLock.getReadHoldCount() > 0) {
+            throw new IllegalStateException("Inventory availability cannot be rebuilt in a transaction that has refreshed it");
+        }
+        // Bounded: while queued, the rebuild holds off new refreshes, which may be what an
+        // in-flight writer is waiting on
+        if (!tryLockForRebuild()) {
+            log.warn("Inventory availability rebuild skipped: writers still busy after {} ms", rebuildLockWaitMillis);
+            return;
+        }
+        afterCompletion(() -> rebuildLock.writeLock().unlock());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Hospital> hospitals = hospitalRepository.findByIsActiveTrue().stream()
+                .collect(Collectors.toMap(Hospital::getId, Function.identity()));
+        Map<Long, BloodInventoryRepository.AvailabilitySummary> stock = bloodInventoryRepository.summarizeAvailability(
+                        USABLE_STATUSES, BloodInventory.InventoryStatus.EXPIRED, now, now.plusDays(expiringWithinDays)).stream()
+                .collect(Collectors.toMap(row -> BloodGroup.key(row.getHospitalId(), row.getBloodGroup()), Function.identity()));
+        Map<Long, Long> reserved = bloodRequestRepository.sumQuantityByHospitalAndBloodGroup(BloodRequest.RequestStatus.APPROVED).stream()
+                .collect(Collectors.toMap(row -> BloodGroup.key(row.getHospitalId(), row.getBloodGroup()), BloodRequestRepository.ReservedQuantity::getQuantity));
+        Map<Long, InventoryAvailability> existing = availabilityRepository.findAll().stream()
+                .collect(Collectors.toMap(row -> BloodGroup.key(row.getHospitalId(), row.getBloodGroup()), Function.identity()));
+
+        Set<Long> keys = new HashSet<>(stock.keySet());
+        keys.addAll(reserved.keySet());
+        List<InventoryAvailabilityDto> snapshot = new ArrayList<>();
+        for (Long key : keys) {
+            Hospital hospital = hospitals.get(BloodGroup.hospitalOf(key));
+            if (hospital == null) {
+                continue;
+            }
+            existing.remove(key);
+            InventoryAvailability row = new InventoryAvailability();
+            apply(row, hospital, BloodGroup.groupOf(key), stock.get(key), reserved.getOrDefault(key, 0L), now);
+            snapshot.add(upsert(row));
+        }
+        availabilityRepository.deleteAllInBatch(existing.values());
+
+        afterCommit(() -> {
+            synchronized (this) {
+                index.clear();
+                byHospital.clear();
+                snapshot.forEach(this::put);
+            }
+            log.info("Inventory availability rebuilt with {} rows", snapshot.size());
+        });
+    }
+
+    // Written on (hospital_id, blood_group) in one statement rather than found and saved, which
+    // raced on first insert
+    private InventoryAvailabilityDto upsert(InventoryAvailability row) {
+        availabilityRepository.upsert(row.getHospitalId(), row.getBloodGroup().label(), row.getCityKey(), row.getHospitalName(),
+                row.getCity(), row.getState(), row.getPhoneNumber(), row.getAvailableQuantity(),
+                row.getReservedQuantity(), row.getExpiringQuantity(), row.getExpiredQuantity(), row.getNextExpiry(),
+                row.getUpdatedAt());
+        return convertToDto(row);
+    }
+
+    // Holds off rebuild() until the calling transaction completes, as ActivityRollupService does
+    private void joinWriters() {
+        if (!rebuildLock.isWriteLockedByCurrentThread()) {
+            rebuildLock.readLock().lock();
+            afterCompletion(() -> rebuildLock.readLock().unlock());
+        }
+    }
+
+    private boolean tryLockForRebuild() {
+        try {
+            return rebuildLock.writeLock().tryLock(rebuildLockWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void apply(InventoryAvailability row, Hospital hospital, BloodGroup bloodGroup,
+                       BloodInventoryRepository.AvailabilitySummary stock, long reserved, LocalDateTime now) {
+        row.setHospitalId(hospital.getId());
+        row.setBloodGroup(bloodGroup);
+        row.setCityKey(normalize(hospital.getCity()));
+        row.setHospitalName(hospital.getHospitalName());
+        row.setCity(hospital.getCity());
+        row.setState(hospital.getState());
+        row.setPhoneNumber(hospital.getPhoneNumber());
+        row.setAvailableQuantity(stock != null ? stock.getAvailable() : 0L);
+        row.setExpiringQuantity(stock != null ? stock.getExpiring() : 0L);
+        row.setExpiredQuantity(stock != null ? stock.getExpired() : 0L);
+        row.setNextExpiry(stock != null ? stock.getNextExpiry() : null);
+        row.setReservedQuantity(reserved);
+        row.setUpdatedAt(now);
+    }
+
+    private synchronized void put(InventoryAvailabilityDto row) {
+        BloodGroup bloodGroup = BloodGroup.fromLabel(row.getBloodGroup());
+        remove(row.getHospitalId(), bloodGroup);
+        byHospital.computeIfAbsent(row.getHospitalId(), id -> new AtomicReferenceArray<>(BloodGroup.COUNT))
+                .set(bloodGroup.ordinal(), row);
+        index.computeIfAbsent(normalize(row.getCity()), city -> groupSlots())
+                .get(bloodGroup.ordinal())
+                .put(row.getHospitalId(), row);
+    }
+
+    private synchronized void remove(Long hospitalId, BloodGroup bloodGroup) {
+        AtomicReferenceArray<InventoryAvailabilityDto> rows = byHospital.get(hospitalId);
+        InventoryAvailabilityDto existing = rows != null ? rows.getAndSet(bloodGroup.ordinal(), null) : null;
+        if (existing == null) {
+            return;
+        }
+        List<Map<Long, InventoryAvailabilityDto>> byGroup = index.get(normalize(existing.getCity()));
+        if (byGroup != null) {
+            byGroup.get(bloodGroup.ordinal()).remove(hospitalId);
+        }
+    }
+
+    // One hospital map per blood group ordinal; the list itself never changes after creation
+    private static List<Map<Long, InventoryAvailabilityDto>> groupSlots() {
+        List<Map<Long, InventoryAvailabilityDto>> slots = new ArrayList<>(BloodGroup.COUNT);
+        for (int i = 0; i < BloodGroup.COUNT; i++) {
+            slots.add(new ConcurrentHashMap<>());
+        }
+        return Collections.unmodifiableList(slots);
+    }
+
+    private static Stream<InventoryAvailabilityDto> rows(AtomicReferenceArray<InventoryAvailabilityDto> slots) {
+        if (slots == null) {
+            return Stream.empty();
+        }
+        Stream.Builder<InventoryAvailabilityDto> rows = Stream.builder();
+        for (int i = 0; i < slots.length(); i++) {
+            InventoryAvailabilityDto row = slots.get(i);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        return rows.build();
+    }
+
+    private InventoryAvailabilityDto convertToDto(InventoryAvailability row) {
+        return new InventoryAvailabilityDto(
+                row.getHospitalId(),
+                row.getHospitalName(),
+                row.getCity(),
+                row.getState(),
+                row.getPhoneNumber(),
+                row.getBloodGroup().label(),
+                row.getAvailableQuantity(),
+                row.getReservedQuantity(),
+                row.getAvailableQuantity() - row.getReservedQuantity(),
+                row.getExpiringQuantity(),
+                row.getExpiredQuantity(),
+                row.getNextExpiry(),
+                row.getUpdatedAt()
+        );
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
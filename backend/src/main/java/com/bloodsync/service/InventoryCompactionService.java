@@ -0,0 +1,93 @@
+package com.bloodsync.service;
+
+import com.bloodsync.entity.BloodInventory;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.repository.BloodInventoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+// Merges the stock rows that piled up per hospital and blood group before intake became an
+// upsert, so each keeps one live row. Existing rows start without live_stock set and the unique
+// key ignores them; this gives them their key. After the first run there is nothing left to do.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryCompactionService {
+
+    private static final List<BloodInventory.InventoryStatus> LIVE_STATUSES = Arrays.stream(BloodInventory.InventoryStatus.values())
+            .filter(BloodInventory.InventoryStatus::isLive)
+            .toList();
+    private static final int DELETE_BATCH = 500;
+
+    private final BloodInventoryRepository bloodInventoryRepository;
+    private final DemandForecastService demandForecastService;
+    private final InventoryAvailabilityService inventoryAvailabilityService;
+
+    // After blood group normalization, so rows spelled differently are merged as one group
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    @Transactional
+    public void compactOnStartup() {
+        if (bloodInventoryRepository.existsUnkeyedStock(LIVE_STATUSES)) {
+            compact();
+        }
+    }
+
+    // Sums every group's rows into its live row, or its oldest row when none is live yet. Merged
+    // lots keep the earliest expiry, as intake does. Returns the groups keyed and rows removed.
+    @Transactional
+    public CompactionRun compact() {
+        long start = System.currentTimeMillis();
+        Map<Long, List<BloodInventory>> groups = new LinkedHashMap<>();
+        for (BloodInventory row : bloodInventoryRepository.findUnkeyedStock(LIVE_STATUSES)) {
+            groups.computeIfAbsent(BloodGroup.key(row.getHospital().getId(), row.getBloodGroup()), key -> new ArrayList<>())
+                    .add(row);
+        }
+
+        List<BloodInventory> merged = new ArrayList<>();
+        for (List<BloodInventory> rows : groups.values()) {
+            BloodInventory survivor = rows.stream()
+                    .filter(row -> Boolean.TRUE.equals(row.getLiveStock()))
+                    .findFirst()
+                    .orElse(rows.get(0));
+            for (BloodInventory row : rows) {
+                if (row != survivor) {
+                    survivor.setAvailableQuantity(survivor.getAvailableQuantity() + row.getAvailableQuantity());
+                    survivor.setTotalQuantity(survivor.getTotalQuantity() + row.getTotalQuantity());
+                    if (row.getExpiryDate().isBefore(survivor.getExpiryDate())) {
+                        survivor.setExpiryDate(row.getExpiryDate());
+                    }
+                    merged.add(row);
+                }
+            }
+            survivor.setStatus(demandForecastService.stockStatus(
+                    survivor.getHospital().getId(), survivor.getBloodGroup(), survivor.getAvailableQuantity()));
+            survivor.setLiveStock(Boolean.TRUE);
+        }
+        // Merged rows were never keyed, so they cannot clash with a survivor whichever is written first
+        for (int from = 0; from < merged.size(); from += DELETE_BATCH) {
+            bloodInventoryRepository.deleteAllInBatch(merged.subList(from, Math.min(from + DELETE_BATCH, merged.size())));
+        }
+        bloodInventoryRepository.flush();
+        groups.keySet().forEach(key -> inventoryAvailabilityService.refresh(BloodGroup.hospitalOf(key), BloodGroup.groupOf(key)));
+
+        long elapsed = System.currentTimeMillis() - start;
+        log.info("Compacted blood inventory: {} groups keyed, {} duplicate rows merged in {} ms", groups.size(), merged.size(), elapsed);
+        return new CompactionRun(groups.size(), merged.size(), elapsed);
+    }
+
+    @lombok.Value
+    public static class CompactionRun {
+        int groups;
+        int merged;
+        long elapsedMillis;
+    }
+}
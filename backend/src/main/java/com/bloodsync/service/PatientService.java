@@ -1,16 +1,22 @@
 package com.bloodsync.service;
 
+import com.bloodsync.dto.CursorPageDto;
 import com.bloodsync.dto.PatientDto;
 import com.bloodsync.entity.Hospital;
 import com.bloodsync.entity.Patient;
+import com.bloodsync.enums.BloodGroup;
 import com.bloodsync.repository.HospitalRepository;
 import com.bloodsync.repository.PatientRepository;
+import com.bloodsync.search.SearchSchema;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,6 +24,18 @@ import java.util.stream.Collectors;
 @Transactional
 public class PatientService {
     
+    // Filters and sort keys accepted by searchPatients
+    private static final SearchSchema<Patient> SEARCH = SearchSchema.of(Patient::getId)
+            .equal("hospitalId", "hospital.id", Long::valueOf)
+            .equal("bloodGroup", "bloodGroup", BloodGroup::fromLabel)
+            .equal("city", "city", Function.identity())
+            .equal("state", "state", Function.identity())
+            .equal("lastName", "lastName", Function.identity())
+            .equal("active", "isActive", SearchSchema.booleanValue())
+            .range("dateOfBirth", LocalDate::parse)
+            .sortable("lastName", Patient::getLastName)
+            .sortable("dateOfBirth", Patient::getDateOfBirth);
+    
     private final PatientRepository patientRepository;
     private final HospitalRepository hospitalRepository;
     
@@ -27,6 +45,12 @@ public class PatientService {
                 .collect(Collectors.toList());
     }
     
+    // Any combination of the schema's filters as one query, keyset-paginated
+    @Transactional(readOnly = true)
+    public CursorPageDto<PatientDto> searchPatients(Map<String, String> params) {
+        return SEARCH.parse(params).execute(patientRepository, this::convertToDto);
+    }
+    
     public Optional<PatientDto> getPatientById(Long id) {
         return patientRepository.findById(id)
                 .map(this::convertToDto);
@@ -39,7 +63,7 @@ public class PatientService {
     }
     
     public List<PatientDto> getPatientsByBloodGroup(String bloodGroup) {
-        return patientRepository.findByBloodGroup(bloodGroup).stream()
+        return patientRepository.findByBloodGroup(BloodGroup.fromLabel(bloodGroup)).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
@@ -82,7 +106,7 @@ public class PatientService {
         patient.setEmail(patientDto.getEmail());
         patient.setPhoneNumber(patientDto.getPhoneNumber());
         patient.setDateOfBirth(patientDto.getDateOfBirth());
-        patient.setBloodGroup(patientDto.getBloodGroup());
+        patient.setBloodGroup(BloodGroup.fromLabel(patientDto.getBloodGroup()));
         patient.setAddress(patientDto.getAddress());
         patient.setCity(patientDto.getCity());
         patient.setState(patientDto.getState());
@@ -108,7 +132,7 @@ public class PatientService {
         dto.setEmail(patient.getEmail());
         dto.setPhoneNumber(patient.getPhoneNumber());
         dto.setDateOfBirth(patient.getDateOfBirth());
-        dto.setBloodGroup(patient.getBloodGroup());
+        dto.setBloodGroup(patient.getBloodGroup().label());
         dto.setAddress(patient.getAddress());
         dto.setCity(patient.getCity());
         dto.setState(patient.getState());
@@ -128,7 +152,7 @@ public class PatientService {
         patient.setEmail(dto.getEmail());
         patient.setPhoneNumber(dto.getPhoneNumber());
         patient.setDateOfBirth(dto.getDateOfBirth());
-        patient.setBloodGroup(dto.getBloodGroup());
+        patient.setBloodGroup(BloodGroup.fromLabel(dto.getBloodGroup()));
         patient.setAddress(dto.getAddress());
         patient.setCity(dto.getCity());
         patient.setState(dto.getState());
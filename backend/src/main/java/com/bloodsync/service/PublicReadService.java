@@ -0,0 +1,122 @@
+package com.bloodsync.service;
+
+import com.bloodsync.dto.DonorDto;
+import com.bloodsync.dto.PublicHospitalDto;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.repository.BloodDonationRepository;
+import com.bloodsync.repository.BloodInventoryRepository;
+import com.bloodsync.repository.DonorRepository;
+import com.bloodsync.repository.HospitalRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+@Service
+@Slf4j
+public class PublicReadService {
+
+    private final DonorService donorService;
+    private final HospitalService hospitalService;
+    private final DonorRepository donorRepository;
+    private final HospitalRepository hospitalRepository;
+    private final BloodDonationRepository bloodDonationRepository;
+    private final BloodInventoryRepository bloodInventoryRepository;
+    private final Scheduler publicReadScheduler;
+
+    @Value("${public.read.page-size:500}")
+    private int pageSize;
+
+    public PublicReadService(DonorService donorService,
+                             HospitalService hospitalService,
+                             DonorRepository donorRepository,
+                             HospitalRepository hospitalRepository,
+                             BloodDonationRepository bloodDonationRepository,
+                             BloodInventoryRepository bloodInventoryRepository,
+                             @Qualifier("publicReadScheduler") Scheduler publicReadScheduler) {
+        this.donorService = donorService;
+        this.hospitalService = hospitalService;
+        this.donorRepository = donorRepository;
+        this.hospitalRepository = hospitalRepository;
+        this.bloodDonationRepository = bloodDonationRepository;
+        this.bloodInventoryRepository = bloodInventoryRepository;
+        this.publicReadScheduler = publicReadScheduler;
+    }
+
+    public Flux<DonorDto> streamPublicDonors() {
+        return stream(donorService::getPublicDonorPage, DonorDto::getId);
+    }
+
+    public Flux<PublicHospitalDto> streamPublicHospitals() {
+        return stream(hospitalService::getPublicHospitalPage, PublicHospitalDto::getId);
+    }
+
+    public Mono<Map<String, Object>> getBloodStats() {
+        // Same shape as /api/public/blood-stats, from aggregate queries run concurrently
+        return Mono.zip(
+                read(donorRepository::countByIsActiveTrue),
+                read(hospitalRepository::countByIsActiveTrue),
+                read(bloodDonationRepository::count),
+                read(bloodInventoryRepository::count),
+                read(bloodInventoryRepository::sumAvailableQuantity),
+                read(this::bloodGroupDistribution)
+        ).map(results -> {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("totalDonors", results.getT1());
+            stats.put("totalHospitals", results.getT2());
+            stats.put("totalDonations", results.getT3());
+            stats.put("totalInventory", results.getT4());
+            stats.put("totalBloodVolume", results.getT5());
+            stats.put("bloodGroupDistribution", results.getT6());
+            return stats;
+        });
+    }
+
+    private Map<String, Long> bloodGroupDistribution() {
+        // Rows still stored under legacy spellings fold into their canonical group here
+        long[] counts = new long[BloodGroup.COUNT];
+        donorRepository.countActiveByBloodGroup().forEach(row -> counts[row.getBloodGroup().ordinal()] += row.getCount());
+        Map<String, Long> distribution = new TreeMap<>();
+        for (BloodGroup bloodGroup : BloodGroup.values()) {
+            if (counts[bloodGroup.ordinal()] > 0) {
+                distribution.put(bloodGroup.label(), counts[bloodGroup.ordinal()]);
+            }
+        }
+        return distribution;
+    }
+
+    // Fetches the next page only once the subscriber has drained the previous one,
+    // so a slow client holds at most one page in memory and no thread while it waits.
+    // Pages continue after the last ID seen rather than at an offset, so each one is an
+    // index range scan however deep the stream goes.
+    private <T> Flux<T> stream(BiFunction<Long, Pageable, Slice<T>> pageLoader, Function<T, Long> id) {
+        Pageable page = PageRequest.of(0, pageSize, Sort.by("id"));
+        return read(() -> pageLoader.apply(0L, page))
+                .expand(slice -> slice.hasNext()
+                        ? read(() -> pageLoader.apply(lastId(slice, id), page))
+                        : Mono.empty())
+                .concatMapIterable(Slice::getContent, 1);
+    }
+
+    private static <T> Long lastId(Slice<T> slice, Function<T, Long> id) {
+        return id.apply(slice.getContent().get(slice.getNumberOfElements() - 1));
+    }
+
+    private <T> Mono<T> read(Callable<T> query) {
+        return Mono.fromCallable(query).subscribeOn(publicReadScheduler);
+    }
+}
@@ -0,0 +1,171 @@
+package com.bloodsync.service;
+
+import com.bloodsync.entity.RefreshToken;
+import com.bloodsync.entity.User;
+import com.bloodsync.enums.UserRole;
+import com.bloodsync.repository.RefreshTokenRepository;
+import com.bloodsync.security.JwtTokenUtil;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Issues and rotates refresh tokens. Each login starts a family, so every device has its own
+// chain; presenting a token that was already exchanged revokes its whole family, since either
+// the client or a thief holds a stolen copy. Rows only hold the token's hash.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtTokenUtil jwtTokenUtil;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${jwt.refresh.expiration:86400000}")
+    private long refreshExpiration;
+
+    // Expired rows deleted per transaction by the sweep
+    @Value("${jwt.refresh.sweep-batch-size:1000}")
+    private int sweepBatchSize;
+
+    // Families revoked on this instance, until their last token would have expired anyway.
+    // Lets refreshes with a revoked token fail before touching the database.
+    private final Map<String, LocalDateTime> revokedFamilies = new ConcurrentHashMap<>();
+
+    @Transactional
+    public IssuedToken issue(User user) {
+        return issue(user.getId(), user.getUsername(), user.getRole(), UUID.randomUUID().toString(), LocalDateTime.now());
+    }
+
+    // Exchanges a refresh token for its successor in the same family. The revocation on reuse
+    // is committed even though the refresh fails.
+    @Transactional(noRollbackFor = AuthenticationException.class)
+    public IssuedToken rotate(String token) {
+        String familyId;
+        try {
+            familyId = jwtTokenUtil.extractFamily(token);
+        } catch (ExpiredJwtException e) {
+            throw new CredentialsExpiredException("Refresh token has expired");
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        if (familyId == null || revokedFamilies.containsKey(familyId)) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(token))
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        LocalDateTime now = LocalDateTime.now();
+        if (current.getRevokedAt() != null) {
+            remember(List.of(familyId), current.getRevokedAt());
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        if (current.getExpiresAt().isBefore(now)) {
+            throw new CredentialsExpiredException("Refresh token has expired");
+        }
+        if (refreshTokenRepository.markUsed(current.getId(), now) == 0) {
+            log.warn("Refresh token reuse for user {}, revoking token family {}", current.getUsername(), familyId);
+            revoke(List.of(familyId), now);
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        return issue(current.getUserId(), current.getUsername(), current.getRole(), familyId, now);
+    }
+
+    // Ends the session the token belongs to; unknown or invalid tokens are ignored
+    @Transactional
+    public void revokeFamily(String token) {
+        try {
+            String familyId = jwtTokenUtil.extractFamily(token);
+            if (familyId != null) {
+                revoke(List.of(familyId), LocalDateTime.now());
+            }
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Ignoring invalid refresh token on sign-out: {}", e.getMessage());
+        }
+    }
+
+    // Signs out every device of the user, e.g. when the account is locked, disabled or changed
+    @Transactional
+    public void revokeAll(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> families = refreshTokenRepository.findActiveFamilies(userId, now);
+        if (!families.isEmpty()) {
+            revoke(families, now);
+            log.debug("Revoked {} refresh token families for user ID: {}", families.size(), userId);
+        }
+    }
+
+    // Deletes expired tokens in batches, one transaction each, and forgets the revoked families
+    // whose tokens have all expired
+    @Scheduled(cron = "${jwt.refresh.sweep-cron:0 15 * * * *}")
+    public int sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        int deleted = 0;
+        while (true) {
+            Integer count = transactionTemplate.execute(status -> {
+                List<Long> ids = refreshTokenRepository.findExpiredIds(now, PageRequest.of(0, sweepBatchSize));
+                refreshTokenRepository.deleteAllByIdInBatch(ids);
+                return ids.size();
+            });
+            deleted += count;
+            if (count < sweepBatchSize) {
+                break;
+            }
+        }
+        revokedFamilies.values().removeIf(forgetAt -> forgetAt.isBefore(now));
+        if (deleted > 0) {
+            log.info("Swept {} expired refresh tokens", deleted);
+        }
+        return deleted;
+    }
+
+    private IssuedToken issue(Long userId, String username, UserRole role, String familyId, LocalDateTime now) {
+        String token = jwtTokenUtil.generateRefreshToken(username, familyId);
+        refreshTokenRepository.save(new RefreshToken(null, hash(token), familyId, userId, username, role,
+                now.plus(Duration.ofMillis(refreshExpiration)), null, null, now));
+        return new IssuedToken(token, userId, username, role);
+    }
+
+    private void revoke(Collection<String> familyIds, LocalDateTime now) {
+        refreshTokenRepository.revokeFamilies(familyIds, now);
+        TransactionCallbacks.afterCommit(() -> remember(familyIds, now));
+    }
+
+    private void remember(Collection<String> familyIds, LocalDateTime revokedAt) {
+        LocalDateTime forgetAt = revokedAt.plus(Duration.ofMillis(refreshExpiration));
+        familyIds.forEach(familyId -> revokedFamilies.put(familyId, forgetAt));
+    }
+
+    private static String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public record IssuedToken(String token, Long userId, String username, UserRole role) {
+    }
+}
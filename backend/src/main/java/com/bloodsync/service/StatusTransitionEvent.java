@@ -0,0 +1,21 @@
+package com.bloodsync.service;
+
+import lombok.Value;
+
+import java.util.List;
+import java.util.Set;
+
+// Published once per bulk status transition, after every chunk has committed
+@Value
+public class StatusTransitionEvent {
+
+    public enum Kind {
+        DONATION, REQUEST, INVENTORY
+    }
+
+    Kind kind;
+    String status;
+    List<Long> ids;
+    Set<String> previousStatuses;
+    Set<Long> stockKeys; // BloodGroup.key of each hospital and blood group touched
+}
@@ -0,0 +1,357 @@
+package com.bloodsync.service;
+
+import com.bloodsync.dto.BulkStatusRequest;
+import com.bloodsync.dto.BulkStatusResultDto;
+import com.bloodsync.entity.BloodDonation;
+import com.bloodsync.entity.BloodInventory;
+import com.bloodsync.entity.BloodRequest;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.repository.BloodDonationRepository;
+import com.bloodsync.repository.BloodInventoryRepository;
+import com.bloodsync.repository.BloodRequestRepository;
+import com.bloodsync.search.SearchSchema;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Moves many donations, requests or inventory rows to one status. Rows are selected by ID or by
+// search filters and handled a chunk at a time: each chunk is locked and validated against the
+// allowed transitions, written with one UPDATE, and has its rollup deltas netted, all in its own
+// transaction. Availability is refreshed once per hospital and blood group from the single
+// StatusTransitionEvent published at the end.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatusTransitionService {
+
+    private static final Map<BloodDonation.DonationStatus, Set<BloodDonation.DonationStatus>> DONATION_TRANSITIONS = Map.of(
+            BloodDonation.DonationStatus.SCHEDULED, EnumSet.of(BloodDonation.DonationStatus.IN_PROGRESS,
+                    BloodDonation.DonationStatus.COMPLETED, BloodDonation.DonationStatus.CANCELLED, BloodDonation.DonationStatus.REJECTED),
+            BloodDonation.DonationStatus.IN_PROGRESS, EnumSet.of(BloodDonation.DonationStatus.COMPLETED,
+                    BloodDonation.DonationStatus.CANCELLED, BloodDonation.DonationStatus.REJECTED));
+
+    private static final Map<BloodRequest.RequestStatus, Set<BloodRequest.RequestStatus>> REQUEST_TRANSITIONS = Map.of(
+            BloodRequest.RequestStatus.PENDING, EnumSet.of(BloodRequest.RequestStatus.APPROVED,
+                    BloodRequest.RequestStatus.REJECTED, BloodRequest.RequestStatus.CANCELLED),
+            BloodRequest.RequestStatus.APPROVED, EnumSet.of(BloodRequest.RequestStatus.FULFILLED,
+                    BloodRequest.RequestStatus.CANCELLED));
+
+    // AVAILABLE releases quarantined stock; its actual status is then derived from the quantity
+    private static final Map<BloodInventory.InventoryStatus, Set<BloodInventory.InventoryStatus>> INVENTORY_TRANSITIONS = Map.of(
+            BloodInventory.InventoryStatus.AVAILABLE, EnumSet.of(BloodInventory.InventoryStatus.QUARANTINED, BloodInventory.InventoryStatus.EXPIRED),
+            BloodInventory.InventoryStatus.LOW_STOCK, EnumSet.of(BloodInventory.InventoryStatus.QUARANTINED, BloodInventory.InventoryStatus.EXPIRED),
+            BloodInventory.InventoryStatus.OUT_OF_STOCK, EnumSet.of(BloodInventory.InventoryStatus.QUARANTINED, BloodInventory.InventoryStatus.EXPIRED),
+            BloodInventory.InventoryStatus.QUARANTINED, EnumSet.of(BloodInventory.InventoryStatus.AVAILABLE, BloodInventory.InventoryStatus.EXPIRED));
+
+    private final BloodDonationRepository bloodDonationRepository;
+    private final BloodRequestRepository bloodRequestRepository;
+    private final BloodInventoryRepository bloodInventoryRepository;
+    private final DemandForecastService demandForecastService;
+    private final ActivityRollupService activityRollupService;
+    private final DonorEligibilityService donorEligibilityService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Rows locked and written per transaction
+    @Value("${bulk.chunk-size:500}")
+    private int chunkSize;
+
+    // Rows one call may touch; a larger filter match is left for the next call
+    @Value("${bulk.max-rows:10000}")
+    private int maxRows;
+
+    public BulkStatusResultDto transitionBloodDonations(BulkStatusRequest request) {
+        BloodDonation.DonationStatus target = parseStatus(BloodDonation.DonationStatus.class, request);
+        return run(request, target, new Transition<>(
+                StatusTransitionEvent.Kind.DONATION,
+                bloodDonationRepository,
+                BloodDonationService.SEARCH,
+                bloodDonationRepository::findAllForUpdate,
+                BloodDonation::getId,
+                BloodDonation::getStatus,
+                donation -> allowed(DONATION_TRANSITIONS, donation.getStatus(), target) ? target : null,
+                donation -> BloodGroup.key(donation.getHospital().getId(), donation.getBloodGroup()),
+                (rows, targets) -> applyDonations(rows, target)));
+    }
+
+    public BulkStatusResultDto transitionBloodRequests(BulkStatusRequest request) {
+        BloodRequest.RequestStatus target = parseStatus(BloodRequest.RequestStatus.class, request);
+        return run(request, target, new Transition<>(
+                StatusTransitionEvent.Kind.REQUEST,
+                bloodRequestRepository,
+                BloodRequestService.SEARCH,
+                bloodRequestRepository::findAllForUpdate,
+                BloodRequest::getId,
+                BloodRequest::getStatus,
+                bloodRequest -> allowed(REQUEST_TRANSITIONS, bloodRequest.getStatus(), target) ? target : null,
+                bloodRequest -> BloodGroup.key(bloodRequest.getHospital().getId(), bloodRequest.getBloodGroup()),
+                (rows, targets) -> applyRequests(rows, target)));
+    }
+
+    public BulkStatusResultDto transitionBloodInventory(BulkStatusRequest request) {
+        BloodInventory.InventoryStatus target = parseStatus(BloodInventory.InventoryStatus.class, request);
+        if (target.isLive() && target != BloodInventory.InventoryStatus.AVAILABLE) {
+            throw new IllegalArgumentException("Stock levels are derived from quantities; use AVAILABLE to release quarantined stock");
+        }
+        // A lot is only released where the hospital holds no live row for its blood group yet;
+        // the keys already live are read with each chunk and claimed as lots are released
+        Set<Long> liveKeys = new HashSet<>();
+        Function<Collection<Long>, List<BloodInventory>> lock = ids -> {
+            List<BloodInventory> rows = bloodInventoryRepository.findAllForUpdate(ids);
+            if (target == BloodInventory.InventoryStatus.AVAILABLE) {
+                liveKeys.clear();
+                rows.stream()
+                        .filter(inventory -> inventory.getStatus() == BloodInventory.InventoryStatus.QUARANTINED)
+                        .map(inventory -> BloodGroup.key(inventory.getHospital().getId(), inventory.getBloodGroup()))
+                        .distinct()
+                        .filter(key -> bloodInventoryRepository.findLiveStock(BloodGroup.hospitalOf(key), BloodGroup.groupOf(key)).isPresent())
+                        .forEach(liveKeys::add);
+            }
+            return rows;
+        };
+        // Claims a live key as a side effect, so it is asked once per row (in applyChunk)
+        Function<BloodInventory, BloodInventory.InventoryStatus> next = inventory -> {
+            if (!allowed(INVENTORY_TRANSITIONS, inventory.getStatus(), target)) {
+                return null;
+            }
+            if (target != BloodInventory.InventoryStatus.AVAILABLE) {
+                return target;
+            }
+            Long hospitalId = inventory.getHospital().getId();
+            return liveKeys.add(BloodGroup.key(hospitalId, inventory.getBloodGroup()))
+                    ? demandForecastService.stockStatus(hospitalId, inventory.getBloodGroup(), inventory.getAvailableQuantity())
+                    : null;
+        };
+        return run(request, target, new Transition<>(
+                StatusTransitionEvent.Kind.INVENTORY,
+                bloodInventoryRepository,
+                BloodInventoryService.SEARCH,
+                lock,
+                BloodInventory::getId,
+                BloodInventory::getStatus,
+                next,
+                inventory -> BloodGroup.key(inventory.getHospital().getId(), inventory.getBloodGroup()),
+                (rows, targets) -> applyInventory(targets)));
+    }
+
+    private <T, S extends Enum<S>> BulkStatusResultDto run(BulkStatusRequest request, S target, Transition<T, S> transition) {
+        long start = System.currentTimeMillis();
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean byFilter = request.getFilter() != null && !request.getFilter().isEmpty();
+        if (byIds == byFilter) {
+            throw new IllegalArgumentException("Either ids or filter is required, not both");
+        }
+        if (byIds && request.getIds().size() > maxRows) {
+            throw new IllegalArgumentException("At most " + maxRows + " ids per request");
+        }
+        if (byFilter && !Collections.disjoint(request.getFilter().keySet(), SearchSchema.CONTROL_PARAMS)) {
+            throw new IllegalArgumentException("Bulk filters take no " + SearchSchema.CONTROL_PARAMS);
+        }
+
+        BulkStatusResultDto result = new BulkStatusResultDto();
+        result.setStatus(target.name());
+        Changes changes = new Changes();
+        try {
+            if (byIds) {
+                List<Long> ids = request.getIds().stream()
+                        .filter(Objects::nonNull)
+                        .distinct()
+                        .sorted()
+                        .collect(Collectors.toList());
+                for (int from = 0; from < ids.size(); from += chunkSize) {
+                    List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                    changes.add(transactionTemplate.execute(status -> applyChunk(chunk, target, transition)), transition, result);
+                }
+            } else {
+                // Matching IDs are read in ID order; each chunk is re-checked under lock before it is written
+                Specification<T> filter = transition.schema().parse(request.getFilter()).specification();
+                long afterId = 0;
+                int seen = 0;
+                while (true) {
+                    int limit = Math.min(chunkSize, maxRows - seen);
+                    List<Long> chunk = nextIds(transition, filter, afterId, Math.max(limit, 1));
+                    if (limit == 0) {
+                        result.setComplete(chunk.isEmpty());
+                        break;
+                    }
+                    if (!chunk.isEmpty()) {
+                        changes.add(transactionTemplate.execute(status -> applyChunk(chunk, target, transition)), transition, result);
+                        afterId = chunk.get(chunk.size() - 1);
+                        seen += chunk.size();
+                    }
+                    if (chunk.size() < limit) {
+                        break;
+                    }
+                }
+            }
+        } finally {
+            // Chunks that committed before a failure are still announced
+            if (!changes.ids.isEmpty()) {
+                eventPublisher.publishEvent(new StatusTransitionEvent(transition.kind(), target.name(),
+                        changes.ids, changes.previousStatuses, changes.stockKeys));
+            }
+        }
+        result.setElapsedMillis(System.currentTimeMillis() - start);
+        log.info("Bulk {} transition to {}: {} updated, {} unchanged, {} rejected, {} not found in {} ms", transition.kind(),
+                target, result.getUpdated(), result.getUnchanged(), result.getRejected(), result.getNotFound(), result.getElapsedMillis());
+        return result;
+    }
+
+    private static <T> List<Long> nextIds(Transition<T, ?> transition, Specification<T> filter, long afterId, int limit) {
+        Specification<T> after = (root, query, cb) -> cb.greaterThan(root.get("id"), afterId);
+        return transition.repository().findBy(filter.and(after), q -> q.sortBy(Sort.by("id")).limit(limit).all()).stream()
+                .map(transition.id())
+                .collect(Collectors.toList());
+    }
+
+    private <T, S extends Enum<S>> Chunk<T> applyChunk(List<Long> ids, S target, Transition<T, S> transition) {
+        Map<Long, T> rows = transition.lock().apply(ids).stream()
+                .collect(Collectors.toMap(transition.id(), Function.identity()));
+        List<T> moving = new ArrayList<>();
+        Map<Long, S> targets = new LinkedHashMap<>();
+        List<BulkStatusResultDto.Outcome> outcomes = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T row = rows.get(id);
+            if (row == null) {
+                outcomes.add(new BulkStatusResultDto.Outcome(id, BulkStatusResultDto.Result.NOT_FOUND, null, null));
+                continue;
+            }
+            S current = transition.status().apply(row);
+            S next = current == target ? null : transition.next().apply(row);
+            BulkStatusResultDto.Result outcome = current == target ? BulkStatusResultDto.Result.UNCHANGED
+                    : next == null ? BulkStatusResultDto.Result.INVALID_TRANSITION
+                    : BulkStatusResultDto.Result.UPDATED;
+            outcomes.add(new BulkStatusResultDto.Outcome(id, outcome, current.name(), next != null ? next.name() : current.name()));
+            if (next != null) {
+                moving.add(row);
+                targets.put(id, next);
+            }
+        }
+        if (!moving.isEmpty()) {
+            transition.apply().accept(moving, targets);
+        }
+        return new Chunk<>(outcomes, moving);
+    }
+
+    private void applyDonations(List<BloodDonation> rows, BloodDonation.DonationStatus target) {
+        List<DemandForecastService.DemandEntry> removedSupply = new ArrayList<>();
+        List<DemandForecastService.DemandEntry> addedSupply = new ArrayList<>();
+        List<ActivityRollupService.ActivityEntry> removedActivity = new ArrayList<>();
+        List<ActivityRollupService.ActivityEntry> addedActivity = new ArrayList<>();
+        // Donor ID -> latest donation completed in this chunk, read before the update detaches the rows
+        Map<Long, LocalDate> completedOn = new HashMap<>();
+        for (BloodDonation donation : rows) {
+            removedSupply.add(DemandForecastService.DemandEntry.of(donation));
+            addedSupply.add(DemandForecastService.DemandEntry.of(donation, target));
+            removedActivity.add(ActivityRollupService.ActivityEntry.of(donation));
+            addedActivity.add(ActivityRollupService.ActivityEntry.of(donation, target));
+            if (target == BloodDonation.DonationStatus.COMPLETED && donation.getDonationDate() != null) {
+                completedOn.merge(donation.getDonor().getId(), donation.getDonationDate().toLocalDate(),
+                        (a, b) -> a.isAfter(b) ? a : b);
+            }
+        }
+        bloodDonationRepository.updateStatus(ids(rows, BloodDonation::getId), target, LocalDateTime.now());
+        demandForecastService.recordAll(removedSupply, addedSupply);
+        activityRollupService.recordAll(removedActivity, addedActivity);
+        // As a single completed donation does: the donor's last donation date moves up and the deferral starts
+        if (!completedOn.isEmpty()) {
+            donorEligibilityService.recordCompletedDonations(completedOn);
+        }
+    }
+
+    private void applyRequests(List<BloodRequest> rows, BloodRequest.RequestStatus target) {
+        List<DemandForecastService.DemandEntry> removedDemand = new ArrayList<>();
+        List<DemandForecastService.DemandEntry> addedDemand = new ArrayList<>();
+        List<ActivityRollupService.ActivityEntry> removedActivity = new ArrayList<>();
+        List<ActivityRollupService.ActivityEntry> addedActivity = new ArrayList<>();
+        for (BloodRequest bloodRequest : rows) {
+            removedDemand.add(DemandForecastService.DemandEntry.of(bloodRequest));
+            addedDemand.add(DemandForecastService.DemandEntry.of(bloodRequest, target));
+            removedActivity.add(ActivityRollupService.ActivityEntry.of(bloodRequest));
+            addedActivity.add(ActivityRollupService.ActivityEntry.of(bloodRequest, target));
+        }
+        bloodRequestRepository.updateStatus(ids(rows, BloodRequest::getId), target, LocalDateTime.now());
+        demandForecastService.recordAll(removedDemand, addedDemand);
+        activityRollupService.recordAll(removedActivity, addedActivity);
+    }
+
+    // Released stock can land on different levels, so there is one UPDATE per resulting status
+    private void applyInventory(Map<Long, BloodInventory.InventoryStatus> targets) {
+        LocalDateTime now = LocalDateTime.now();
+        targets.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue, () -> new EnumMap<>(BloodInventory.InventoryStatus.class),
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())))
+                .forEach((status, ids) -> bloodInventoryRepository.updateStatus(ids, status, BloodInventory.liveStockOf(status), now));
+    }
+
+    private static <S extends Enum<S>> S parseStatus(Class<S> type, BulkStatusRequest request) {
+        try {
+            return SearchSchema.enumValue(type).apply(request.getStatus());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid status: " + request.getStatus()
+                    + "; expected one of " + Arrays.toString(type.getEnumConstants()));
+        }
+    }
+
+    private static <S> boolean allowed(Map<S, Set<S>> transitions, S from, S to) {
+        return transitions.getOrDefault(from, Set.of()).contains(to);
+    }
+
+    private static <T> List<Long> ids(List<T> rows, Function<T, Long> id) {
+        return rows.stream().map(id).collect(Collectors.toList());
+    }
+
+    // What one entity type needs for a bulk transition. next gives the status a row moves to, or
+    // null when its current status does not allow the move; apply writes the rows that move, given
+    // the status next returned for each (by ID).
+    private record Transition<T, S extends Enum<S>>(StatusTransitionEvent.Kind kind,
+                                                   JpaSpecificationExecutor<T> repository,
+                                                   SearchSchema<T> schema,
+                                                   Function<Collection<Long>, List<T>> lock,
+                                                   Function<T, Long> id,
+                                                   Function<T, S> status,
+                                                   Function<T, S> next,
+                                                   Function<T, Long> stockKey,
+                                                   BiConsumer<List<T>, Map<Long, S>> apply) {
+    }
+
+    private record Chunk<T>(List<BulkStatusResultDto.Outcome> outcomes, List<T> moved) {
+    }
+
+    // Committed chunks, accumulated for the closing event
+    private static class Changes {
+        final List<Long> ids = new ArrayList<>();
+        final Set<String> previousStatuses = new HashSet<>();
+        final Set<Long> stockKeys = new HashSet<>();
+
+        <T> void add(Chunk<T> chunk, Transition<T, ?> transition, BulkStatusResultDto result) {
+            for (BulkStatusResultDto.Outcome outcome : chunk.outcomes()) {
+                switch (outcome.getResult()) {
+                    case UPDATED -> result.setUpdated(result.getUpdated() + 1);
+                    case UNCHANGED -> result.setUnchanged(result.getUnchanged() + 1);
+                    case INVALID_TRANSITION -> result.setRejected(result.getRejected() + 1);
+                    case NOT_FOUND -> result.setNotFound(result.getNotFound() + 1);
+                }
+            }
+            result.getOutcomes().addAll(chunk.outcomes());
+            for (T row : chunk.moved()) {
+                ids.add(transition.id().apply(row));
+                previousStatuses.add(transition.status().apply(row).name());
+                stockKeys.add(transition.stockKey().apply(row));
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.bloodsync.service;
+
+import com.bloodsync.entity.RevokedToken;
+import com.bloodsync.entity.TokenEpoch;
+import com.bloodsync.repository.RevokedTokenRepository;
+import com.bloodsync.repository.TokenEpochRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Revocation of access tokens before they expire. Single tokens are revoked by jti, and all of a
+// user's tokens by moving the user's epoch past their issue time. Both live in tables and are
+// mirrored here: revoked IDs in a Bloom filter, epochs in a map. Most checks need no database
+// access; only a Bloom filter hit is confirmed against revoked_tokens. Each node polls the tables,
+// so revocations made elsewhere apply within jwt.revocation.sync-interval-ms.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationService {
+
+    // How far each poll reaches back past the previous one, for revocations committed late
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TokenEpochRepository tokenEpochRepository;
+    private final RefreshTokenService refreshTokenService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${jwt.expiration:3600000}")
+    private long jwtExpiration;
+
+    @Value("${jwt.revocation.expected-tokens:100000}")
+    private long expectedTokens;
+
+    @Value("${jwt.revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    // Null until loaded; until then every check goes to the database
+    private volatile BloomFilter revokedIds;
+    private volatile LocalDateTime lastSync;
+
+    // User ID to the epoch millisecond before which the user's tokens are revoked
+    private final Map<Long, Long> epochs = new ConcurrentHashMap<>();
+
+    // Compares issue times in milliseconds, so a token issued right after a revocation is accepted
+    // even within the same second. Only tokens from the revocation's own millisecond are ambiguous;
+    // those are let through.
+    public boolean isRevoked(String jti, Long userId, long issuedAtMillis) {
+        BloomFilter filter = revokedIds;
+        if (filter == null) {
+            return revokedTokenRepository.existsById(jti) || tokenEpochRepository.findById(userId)
+                    .map(epoch -> issuedAtMillis < epochMilli(epoch.getRevokedBefore()))
+                    .orElse(false);
+        }
+        Long epoch = epochs.get(userId);
+        if (epoch != null && issuedAtMillis < epoch) {
+            return true;
+        }
+        return filter.mightContain(jti) && revokedTokenRepository.existsById(jti);
+    }
+
+    @Transactional
+    public void revokeToken(String jti, Long userId, Date expiresAt) {
+        revokedTokenRepository.save(new RevokedToken(jti, userId,
+                LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault()), LocalDateTime.now()));
+        TransactionCallbacks.afterCommit(() -> {
+            BloomFilter filter = revokedIds;
+            if (filter != null) {
+                filter.add(jti);
+            }
+        });
+    }
+
+    // Signs the user out everywhere: access tokens issued before now, and every refresh token
+    // family. Used when the account is locked, disabled, deleted or its credentials change.
+    @Transactional
+    public void revokeUser(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        tokenEpochRepository.save(new TokenEpoch(userId, now));
+        refreshTokenService.revokeAll(userId);
+        TransactionCallbacks.afterCommit(() -> epochs.merge(userId, epochMilli(now), Math::max));
+        log.debug("Revoked all tokens of user ID: {}", userId);
+    }
+
+    // Builds the filter and epoch map from the tables. The next poll re-reads everything revoked
+    // while this runs.
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> ids = revokedTokenRepository.findLiveIds(now);
+        BloomFilter filter = new BloomFilter(Math.max(expectedTokens, 2L * ids.size()), falsePositiveRate);
+        ids.forEach(filter::add);
+
+        LocalDateTime cutoff = now.minus(Duration.ofMillis(jwtExpiration));
+        tokenEpochRepository.findByRevokedBeforeAfter(cutoff)
+                .forEach(epoch -> epochs.merge(epoch.getUserId(), epochMilli(epoch.getRevokedBefore()), Math::max));
+        long cutoffMilli = epochMilli(cutoff);
+        epochs.values().removeIf(milli -> milli <= cutoffMilli);
+
+        revokedIds = filter;
+        lastSync = now;
+        log.info("Loaded {} revoked access tokens and {} revocation epochs", ids.size(), epochs.size());
+    }
+
+    // Picks up revocations made on other nodes
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:5000}")
+    public void sync() {
+        BloomFilter filter = revokedIds;
+        if (filter == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = lastSync.minus(SYNC_OVERLAP);
+        revokedTokenRepository.findIdsRevokedSince(since).forEach(filter::add);
+        tokenEpochRepository.findByRevokedBeforeAfter(since)
+                .forEach(epoch -> epochs.merge(epoch.getUserId(), epochMilli(epoch.getRevokedBefore()), Math::max));
+        lastSync = now;
+    }
+
+    // Drops revocations of tokens that have expired since, then rebuilds the filter without them
+    @Scheduled(cron = "${jwt.revocation.sweep-cron:0 20 * * * *}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer deleted = transactionTemplate.execute(status -> revokedTokenRepository.deleteExpired(now)
+                + tokenEpochRepository.deleteOlderThan(now.minus(Duration.ofMillis(jwtExpiration))));
+        log.debug("Swept {} expired token revocations", deleted);
+        reload();
+    }
+
+    private static long epochMilli(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,230 @@
+package com.bloodsync.service;
+
+import com.bloodsync.dto.TransferPlanDto;
+import com.bloodsync.dto.TransferSuggestionDto;
+import com.bloodsync.entity.BloodInventory;
+import com.bloodsync.entity.BloodRequest;
+import com.bloodsync.entity.Hospital;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.geo.CityGeocoder;
+import com.bloodsync.geo.GeoIndex;
+import com.bloodsync.geo.GeoPoint;
+import com.bloodsync.planning.MinCostFlow;
+import com.bloodsync.repository.BloodInventoryRepository;
+import com.bloodsync.repository.BloodRequestRepository;
+import com.bloodsync.repository.HospitalRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransferPlanningService {
+
+    private static final double MAX_DISTANCE_KM = 500;
+
+    private static final List<BloodInventory.InventoryStatus> USABLE_STATUSES =
+            Arrays.asList(BloodInventory.InventoryStatus.AVAILABLE, BloodInventory.InventoryStatus.LOW_STOCK);
+
+    private static final List<BloodRequest.RequestStatus> OPEN_REQUEST_STATUSES =
+            Arrays.asList(BloodRequest.RequestStatus.PENDING, BloodRequest.RequestStatus.APPROVED);
+
+    private final BloodInventoryRepository bloodInventoryRepository;
+    private final BloodRequestRepository bloodRequestRepository;
+    private final HospitalRepository hospitalRepository;
+    private final CityGeocoder cityGeocoder;
+    private final DemandForecastService demandForecastService;
+
+    @Value("${transfer.expiry-horizon-days:3}")
+    private int defaultHorizonDays;
+
+    @Value("${transfer.max-distance-km:300}")
+    private double defaultMaxDistanceKm;
+
+    // Nearest surplus hospitals considered per short hospital, which keeps the network sparse
+    @Value("${transfer.candidates-per-hospital:25}")
+    private int candidatesPerHospital;
+
+    @Transactional(readOnly = true)
+    public TransferPlanDto plan(Integer horizonDays, Double maxDistanceKm) {
+        long startNanos = System.nanoTime();
+        int horizon = horizonDays != null ? horizonDays : defaultHorizonDays;
+        double requestedDistance = maxDistanceKm != null ? maxDistanceKm : defaultMaxDistanceKm;
+        if (horizon < 0 || !Double.isFinite(requestedDistance) || requestedDistance <= 0) {
+            throw new RuntimeException("Horizon must be non-negative and distance positive");
+        }
+        // Capped as the locator and matcher cap their radius; past it the ring walk dominates the plan
+        double maxDistance = Math.min(requestedDistance, MAX_DISTANCE_KM);
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<Long, Hospital> hospitals = hospitalRepository.findByIsActiveTrue().stream()
+                .collect(Collectors.toMap(Hospital::getId, hospital -> hospital));
+        Map<Long, BloodInventoryRepository.AvailabilitySummary> stock = new HashMap<>();
+        bloodInventoryRepository.summarizeAvailability(USABLE_STATUSES, BloodInventory.InventoryStatus.EXPIRED, now, now.plusDays(horizon))
+                .forEach(row -> stock.put(BloodGroup.key(row.getHospitalId(), row.getBloodGroup()), row));
+        Map<Long, Long> demand = new HashMap<>();
+        bloodRequestRepository.sumQuantityByHospitalAndBloodGroup(OPEN_REQUEST_STATUSES)
+                .forEach(row -> demand.put(BloodGroup.key(row.getHospitalId(), row.getBloodGroup()), row.getQuantity()));
+
+        // One site per located hospital and blood group it stocks or needs
+        List<List<Site>> sitesByGroup = new ArrayList<>(BloodGroup.COUNT);
+        for (int i = 0; i < BloodGroup.COUNT; i++) {
+            sitesByGroup.add(new ArrayList<>());
+        }
+        Set<Long> keys = new HashSet<>(stock.keySet());
+        keys.addAll(demand.keySet());
+        for (Long key : keys) {
+            BloodGroup bloodGroup = BloodGroup.groupOf(key);
+            Hospital hospital = hospitals.get(BloodGroup.hospitalOf(key));
+            GeoPoint point = hospital == null ? null : cityGeocoder
+                    .locate(hospital.getLatitude(), hospital.getLongitude(), hospital.getCity(), hospital.getState())
+                    .orElse(null);
+            if (point == null) {
+                continue;
+            }
+            BloodInventoryRepository.AvailabilitySummary summary = stock.get(key);
+            sitesByGroup.get(bloodGroup.ordinal()).add(new Site(
+                    hospital.getId(),
+                    hospital.getHospitalName(),
+                    point,
+                    summary != null ? summary.getAvailable() : 0L,
+                    summary != null ? summary.getExpiring() : 0L,
+                    demand.getOrDefault(key, 0L),
+                    demandForecastService.getReorderPoint(hospital.getId(), bloodGroup)));
+        }
+
+        // Blood groups cannot substitute for each other in stock, so each is an independent problem
+        List<TransferSuggestionDto> transfers = Arrays.stream(BloodGroup.values()).parallel()
+                .filter(group -> !sitesByGroup.get(group.ordinal()).isEmpty())
+                .flatMap(group -> planGroup(group, sitesByGroup.get(group.ordinal()), maxDistance, candidatesPerHospital).stream())
+                .sorted(Comparator.comparingLong(TransferSuggestionDto::getSavedFromExpiry).reversed()
+                        .thenComparing(Comparator.comparingLong(TransferSuggestionDto::getQuantity).reversed())
+                        .thenComparingDouble(TransferSuggestionDto::getDistanceKm))
+                .collect(Collectors.toList());
+
+        TransferPlanDto plan = new TransferPlanDto();
+        plan.setGeneratedAt(now);
+        plan.setHorizonDays(horizon);
+        plan.setMaxDistanceKm(maxDistance);
+        plan.setTransfers(transfers);
+        plan.setTotalQuantity(transfers.stream().mapToLong(TransferSuggestionDto::getQuantity).sum());
+        plan.setTotalSavedFromExpiry(transfers.stream().mapToLong(TransferSuggestionDto::getSavedFromExpiry).sum());
+        plan.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        log.debug("Transfer plan with {} transfers computed in {} ms", transfers.size(), plan.getElapsedMillis());
+        return plan;
+    }
+
+    // Transportation problem for one blood group. Every site holds its open demand plus its reorder
+    // point; anything above is surplus and anything below is shortfall. Surplus expiring within the
+    // horizon (after local demand, which uses the oldest units first) enters at cost 0, other surplus
+    // at a penalty above any distance, so the solver moves expiring units whenever they can fill a
+    // shortfall and otherwise minimizes distance travelled.
+    static List<TransferSuggestionDto> planGroup(BloodGroup bloodGroup, List<Site> sites,
+                                                 double maxDistanceKm, int candidatesPerSite) {
+        List<Site> suppliers = new ArrayList<>();
+        List<Site> receivers = new ArrayList<>();
+        for (Site site : sites) {
+            long target = site.getDemand() + site.getReorderPoint();
+            if (site.getAvailable() > target) {
+                suppliers.add(site);
+            } else if (site.getAvailable() < target) {
+                receivers.add(site);
+            }
+        }
+        if (suppliers.isEmpty() || receivers.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        GeoIndex<Integer> supplierIndex = new GeoIndex<>();
+        for (int i = 0; i < suppliers.size(); i++) {
+            supplierIndex.put((long) i, suppliers.get(i).getPoint(), i);
+        }
+
+        // Nodes: 0 source, 1 sink, then suppliers, then receivers. Arc costs are whole kilometres:
+        // finer costs add nothing for road transfers and multiply the solver's shortest-path rounds.
+        int source = 0;
+        int sink = 1;
+        int firstReceiver = 2 + suppliers.size();
+        long penalty = (long) Math.ceil(maxDistanceKm) + 1;
+        MinCostFlow network = new MinCostFlow(firstReceiver + receivers.size(),
+                suppliers.size() * 2 + receivers.size() * (candidatesPerSite + 1));
+
+        int[] expiringEdges = new int[suppliers.size()];
+        for (int i = 0; i < suppliers.size(); i++) {
+            Site supplier = suppliers.get(i);
+            long surplus = supplier.getAvailable() - supplier.getDemand() - supplier.getReorderPoint();
+            long expiringSurplus = Math.min(surplus, Math.max(0, supplier.getExpiring() - supplier.getDemand()));
+            expiringEdges[i] = network.addEdge(source, 2 + i, expiringSurplus, 0);
+            network.addEdge(source, 2 + i, surplus - expiringSurplus, penalty);
+        }
+
+        List<Route> routes = new ArrayList<>();
+        for (int j = 0; j < receivers.size(); j++) {
+            Site receiver = receivers.get(j);
+            long shortfall = receiver.getDemand() + receiver.getReorderPoint() - receiver.getAvailable();
+            network.addEdge(firstReceiver + j, sink, shortfall, 0);
+            for (GeoIndex.Hit<Integer> hit : supplierIndex.nearest(receiver.getPoint(), maxDistanceKm, candidatesPerSite, supplier -> true)) {
+                int i = hit.getValue();
+                int edge = network.addEdge(2 + i, firstReceiver + j, shortfall, Math.round(hit.getDistanceKm()));
+                routes.add(new Route(i, j, edge, hit.getDistanceKm()));
+            }
+        }
+        network.solve(source, sink);
+
+        // Attribute each supplier's expiring units to its nearest routes first
+        long[] expiringLeft = new long[suppliers.size()];
+        for (int i = 0; i < suppliers.size(); i++) {
+            expiringLeft[i] = network.flow(expiringEdges[i]);
+        }
+        routes.sort(Comparator.comparingDouble(Route::getDistanceKm));
+
+        List<TransferSuggestionDto> transfers = new ArrayList<>();
+        for (Route route : routes) {
+            long quantity = network.flow(route.getEdge());
+            if (quantity <= 0) {
+                continue;
+            }
+            long saved = Math.min(quantity, expiringLeft[route.getSupplier()]);
+            expiringLeft[route.getSupplier()] -= saved;
+            Site from = suppliers.get(route.getSupplier());
+            Site to = receivers.get(route.getReceiver());
+            transfers.add(new TransferSuggestionDto(
+                    bloodGroup.label(),
+                    from.getHospitalId(),
+                    from.getHospitalName(),
+                    to.getHospitalId(),
+                    to.getHospitalName(),
+                    route.getDistanceKm(),
+                    quantity,
+                    saved));
+        }
+        return transfers;
+    }
+
+    @lombok.Value
+    static class Site {
+        Long hospitalId;
+        String hospitalName;
+        GeoPoint point;
+        long available; // usable, in ml
+        long expiring; // usable and expiring within the horizon, in ml
+        long demand; // open requests, in ml
+        long reorderPoint; // stock kept on top of open requests, in ml
+    }
+
+    @lombok.Value
+    private static class Route {
+        int supplier;
+        int receiver;
+        int edge;
+        double distanceKm;
+    }
+}
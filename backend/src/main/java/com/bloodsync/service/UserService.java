@@ -1,5 +1,6 @@
 package com.bloodsync.service;
 
+import com.bloodsync.dto.UserDto;
 import com.bloodsync.entity.User;
 import com.bloodsync.enums.UserRole;
 import com.bloodsync.repository.UserRepository;
@@ -20,17 +21,22 @@ public class UserService {
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenRevocationService tokenRevocationService;
     
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    // Reads are projected straight into DTOs, so the password hash never leaves the database
+    @Transactional(readOnly = true)
+    public List<UserDto> getAllUsers() {
+        return userRepository.findAllDtos();
     }
     
-    public Optional<User> getUserById(Long id) {
-        return userRepository.findById(id);
+    @Transactional(readOnly = true)
+    public Optional<UserDto> getUserById(Long id) {
+        return userRepository.findDtoById(id);
     }
     
-    public Optional<User> getUserByUsername(String username) {
-        return userRepository.findByUsername(username);
+    @Transactional(readOnly = true)
+    public Optional<UserDto> getUserByUsername(String username) {
+        return userRepository.findDtoByUsername(username);
     }
     
     public Optional<User> getUserByEmail(String email) {
@@ -69,6 +75,11 @@ public class UserService {
             throw new RuntimeException("Email already exists");
         }
         
+        // Tokens carry the username and role, and must stop working for a disabled account
+        boolean signOut = !user.getUsername().equals(userDetails.getUsername())
+                || user.getRole() != userDetails.getRole()
+                || user.isActive() != userDetails.isActive();
+        
         user.setUsername(userDetails.getUsername());
         user.setEmail(userDetails.getEmail());
         user.setFullName(userDetails.getFullName());
@@ -78,9 +89,13 @@ public class UserService {
         // Only encode password if it's being changed
         if (userDetails.getPassword() != null && !userDetails.getPassword().isEmpty()) {
             user.setPassword(passwordEncoder.encode(userDetails.getPassword()));
+            signOut = true;
         }
         
         User updatedUser = userRepository.save(user);
+        if (signOut) {
+            tokenRevocationService.revokeUser(id);
+        }
         log.info("User updated: {}", updatedUser.getUsername());
         return updatedUser;
     }
@@ -89,6 +104,7 @@ public class UserService {
         if (!userRepository.existsById(id)) {
             throw new RuntimeException("User not found");
         }
+        tokenRevocationService.revokeUser(id);
         userRepository.deleteById(id);
         log.info("User deleted with ID: {}", id);
     }
@@ -99,9 +115,18 @@ public class UserService {
         
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        tokenRevocationService.revokeUser(userId);
         log.info("Password changed for user: {}", user.getUsername());
     }
     
+    public void revokeTokens(Long id) {
+        if (!userRepository.existsById(id)) {
+            throw new RuntimeException("User not found");
+        }
+        tokenRevocationService.revokeUser(id);
+        log.info("Tokens revoked for user ID: {}", id);
+    }
+    
     public void unlockAccount(String username) {
         userRepository.findByUsername(username).ifPresent(user -> {
             user.setAccountNonLocked(true);
@@ -112,10 +137,22 @@ public class UserService {
         });
     }
     
-    public List<User> getUsersByRole(UserRole role) {
-        return userRepository.findAll().stream()
-                .filter(user -> user.getRole() == role)
-                .collect(java.util.stream.Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<UserDto> getUsersByRole(UserRole role) {
+        return userRepository.findDtosByRole(role);
+    }
+    
+    public UserDto convertToDto(User user) {
+        return new UserDto(
+                user.getId(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getFullName(),
+                user.getRole(),
+                user.isActive(),
+                user.isAccountNonLocked(),
+                user.getCreatedAt(),
+                user.getUpdatedAt());
     }
     
     // USER role specific methods
@@ -138,12 +175,6 @@ public class UserService {
         throw new RuntimeException("Method not implemented yet");
     }
     
-    public Object getUserDashboard() {
-        // This would return dashboard data for the current user
-        // For now, we'll return a placeholder implementation
-        return new Object(); // Placeholder
-    }
-    
     public void becomeDonor(String bloodGroup) {
         // This would change the current user's role to DONOR
         // For now, we'll return a placeholder implementation
@@ -0,0 +1,63 @@
+package com.bloodsync.audit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.InsufficientAuthenticationException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AuditRejectionHandlerTest {
+
+    private final AuditTrail auditTrail = mock(AuditTrail.class);
+    private final AuditRejectionHandler handler = new AuditRejectionHandler(auditTrail);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void recordsUnauthenticatedRequests() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        handler.commence(new MockHttpServletRequest("DELETE", "/api/blood-inventory/7"), response,
+                new InsufficientAuthenticationException("no token"));
+
+        assertEquals(403, response.getStatus());
+        AuditEvent event = recorded();
+        assertNull(event.getUser());
+        assertEquals("DELETE", event.getAction());
+        assertEquals("/api/blood-inventory/7", event.getRoute());
+        assertEquals("blood-inventory", event.getEntity());
+        assertEquals(403, event.getStatus());
+    }
+
+    @Test
+    void recordsRequestsDeniedForTheirRole() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("donor@example.com", null, List.of()));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        handler.handle(new MockHttpServletRequest("GET", "/api/admin/users"), response,
+                new AccessDeniedException("Access Denied"));
+
+        assertEquals(403, response.getStatus());
+        AuditEvent event = recorded();
+        assertEquals("donor@example.com", event.getUser());
+        assertEquals("/api/admin/users", event.getRoute());
+        assertEquals(403, event.getStatus());
+    }
+
+    private AuditEvent recorded() {
+        ArgumentCaptor<AuditEvent> event = ArgumentCaptor.forClass(AuditEvent.class);
+        verify(auditTrail).record(event.capture());
+        return event.getValue();
+    }
+}
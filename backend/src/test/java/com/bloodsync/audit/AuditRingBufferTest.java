@@ -0,0 +1,75 @@
+package com.bloodsync.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditRingBufferTest {
+
+    @Test
+    void dropsWhenFullAndReusesDrainedSlots() {
+        AuditRingBuffer buffer = new AuditRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(event(i)));
+        }
+        assertFalse(buffer.offer(event(4)));
+        assertEquals(1, buffer.dropped());
+
+        List<AuditEvent> drained = new ArrayList<>();
+        assertEquals(2, buffer.drain(drained::add, 2));
+        assertTrue(buffer.offer(event(5)));
+        assertEquals(3, buffer.drain(drained::add, 10));
+
+        assertEquals(List.of("0", "1", "2", "3", "5"), ids(drained));
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void deliversEveryEventFromConcurrentProducers() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        AuditRingBuffer buffer = new AuditRingBuffer(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            executor.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    // Spin until the consumer frees a slot so nothing is dropped
+                    while (!buffer.offer(event(producer * perProducer + i))) {
+                        Thread.onSpinWait();
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        Set<String> seen = new HashSet<>();
+        while (done.getCount() > 0 || buffer.size() > 0) {
+            buffer.drain(event -> assertTrue(seen.add(event.getEntityId())), 256);
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(producers * perProducer, seen.size());
+    }
+
+    private static AuditEvent event(int id) {
+        return new AuditEvent(0L, "user", "GET", "/api/donors/{id}", String.valueOf(id), 200, 1000L);
+    }
+
+    private static List<String> ids(List<AuditEvent> events) {
+        List<String> ids = new ArrayList<>();
+        events.forEach(event -> ids.add(event.getEntityId()));
+        return ids;
+    }
+}
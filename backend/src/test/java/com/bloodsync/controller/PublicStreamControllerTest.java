@@ -0,0 +1,83 @@
+package com.bloodsync.controller;
+
+import com.bloodsync.entity.Donor;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.repository.DonorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "public.read.page-size=2")
+class PublicStreamControllerTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private DonorRepository donorRepository;
+
+    @AfterEach
+    void tearDown() {
+        donorRepository.deleteAll();
+    }
+
+    @Test
+    void streamsEveryActiveDonorAcrossPagesAsNdjson() {
+        IntStream.rangeClosed(1, 5).forEach(i -> donorRepository.save(donor(i, i != 3)));
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/public/stream/donors", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(MediaType.APPLICATION_NDJSON.isCompatibleWith(response.getHeaders().getContentType()));
+        String[] lines = response.getBody().trim().split("\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].contains("\"bloodGroup\":\"O+\""));
+        // Each page picks up after the last ID of the one before: nothing repeated or skipped
+        String[] expected = {"1", "2", "4", "5"};
+        for (int i = 0; i < lines.length; i++) {
+            assertTrue(lines[i].contains("\"lastName\":\"" + expected[i] + "\""), lines[i]);
+        }
+        assertTrue(!response.getBody().contains("@stream.test"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void aggregatesStatsWithoutLoadingRows() {
+        IntStream.rangeClosed(1, 3).forEach(i -> donorRepository.save(donor(i, true)));
+
+        ResponseEntity<Map> response = restTemplate.getForEntity("/api/public/stream/blood-stats", Map.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(3, ((Number) response.getBody().get("totalDonors")).intValue());
+        assertEquals(0, ((Number) response.getBody().get("totalBloodVolume")).intValue());
+        assertEquals(Map.of("O+", 3), response.getBody().get("bloodGroupDistribution"));
+    }
+
+    private static Donor donor(int i, boolean active) {
+        Donor donor = new Donor();
+        donor.setFirstName("Donor");
+        donor.setLastName(String.valueOf(i));
+        donor.setEmail("donor" + i + "@stream.test");
+        donor.setPhoneNumber("900000000" + i);
+        donor.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        donor.setBloodGroup(BloodGroup.O_POS);
+        donor.setAddress("1 Main Road");
+        donor.setCity("Pune");
+        donor.setState("Maharashtra");
+        donor.setActive(active);
+        return donor;
+    }
+}
@@ -0,0 +1,116 @@
+package com.bloodsync.controller;
+
+import com.bloodsync.entity.Hospital;
+import com.bloodsync.entity.User;
+import com.bloodsync.enums.UserRole;
+import com.bloodsync.repository.HospitalRepository;
+import com.bloodsync.repository.UserRepository;
+import com.bloodsync.security.JwtTokenUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Hospital and user endpoints answer with projected DTOs rather than serialized entities
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ReadDtoControllerTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HospitalRepository hospitalRepository;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @AfterEach
+    void tearDown() {
+        hospitalRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void userResponsesLeaveOutThePassword() {
+        User admin = userRepository.save(user("root", UserRole.ADMIN));
+        User clerk = userRepository.save(user("clerk", UserRole.USER));
+        String token = jwtTokenUtil.generateToken(admin.getId(), admin.getUsername(), UserRole.ADMIN);
+
+        ResponseEntity<String> all = get("/api/users", token);
+        assertEquals(HttpStatus.OK, all.getStatusCode());
+        assertTrue(all.getBody().contains("\"username\":\"clerk\""));
+        assertFalse(all.getBody().contains("password"));
+        assertFalse(all.getBody().contains("failedAttempts"));
+
+        ResponseEntity<String> one = get("/api/users/" + clerk.getId(), token);
+        assertTrue(one.getBody().contains("\"role\":\"USER\""));
+        assertFalse(one.getBody().contains("password"));
+        assertEquals(HttpStatus.NOT_FOUND, get("/api/users/" + (clerk.getId() + 100), token).getStatusCode());
+
+        ResponseEntity<String> byRole = get("/api/users/role/ADMIN", token);
+        assertTrue(byRole.getBody().contains("\"username\":\"root\""));
+        assertFalse(byRole.getBody().contains("clerk"));
+    }
+
+    @Test
+    void publicHospitalsShowContactDetailsOnly() {
+        Hospital hospital = hospitalRepository.save(hospital());
+        User staff = userRepository.save(user("staff", UserRole.HOSPITAL));
+
+        ResponseEntity<String> listed = get("/api/public/hospitals/location/Kolhapur", null);
+        assertEquals(HttpStatus.OK, listed.getStatusCode());
+        assertTrue(listed.getBody().contains("\"phoneNumber\":\"0231-200000\""));
+        assertFalse(listed.getBody().contains("licenseNumber"));
+        assertFalse(listed.getBody().contains("createdAt"));
+
+        // Hospital staff see the full record
+        String token = jwtTokenUtil.generateToken(staff.getId(), staff.getUsername(), UserRole.HOSPITAL);
+        ResponseEntity<String> full = get("/api/hospital/" + hospital.getId(), token);
+        assertEquals(HttpStatus.OK, full.getStatusCode());
+        assertTrue(full.getBody().contains("\"licenseNumber\":\"LIC-KOP-1\""));
+        assertTrue(full.getBody().contains("\"latitude\":16.7"));
+    }
+
+    private ResponseEntity<String> get(String path, String token) {
+        HttpHeaders headers = new HttpHeaders();
+        if (token != null) {
+            headers.setBearerAuth(token);
+        }
+        return restTemplate.exchange(path, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    private static User user(String username, UserRole role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@dto.test");
+        user.setPassword("$2a$10$notARealHashButLongEnoughToLookLikeOne");
+        user.setFullName(username);
+        user.setRole(role);
+        return user;
+    }
+
+    private static Hospital hospital() {
+        Hospital hospital = new Hospital();
+        hospital.setHospitalName("CPR Hospital");
+        hospital.setEmail("cpr@dto.test");
+        hospital.setPhoneNumber("0231-200000");
+        hospital.setAddress("Bhausingji Road");
+        hospital.setCity("Kolhapur");
+        hospital.setState("Maharashtra");
+        hospital.setLatitude(16.7);
+        hospital.setLongitude(74.24);
+        hospital.setLicenseNumber("LIC-KOP-1");
+        return hospital;
+    }
+}
@@ -0,0 +1,51 @@
+package com.bloodsync.enums;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloodGroupTest {
+
+    @Test
+    void compatibleDonorsListExactMatchFirst() {
+        assertEquals(List.of(BloodGroup.O_NEG), BloodGroup.O_NEG.compatibleDonors());
+        assertEquals(List.of(BloodGroup.O_POS, BloodGroup.O_NEG), BloodGroup.O_POS.compatibleDonors());
+        assertEquals(List.of(BloodGroup.A_POS, BloodGroup.A_NEG, BloodGroup.O_POS, BloodGroup.O_NEG),
+                BloodGroup.A_POS.compatibleDonors());
+        assertEquals(List.of(BloodGroup.AB_NEG, BloodGroup.A_NEG, BloodGroup.B_NEG, BloodGroup.O_NEG),
+                BloodGroup.AB_NEG.compatibleDonors());
+        assertEquals(BloodGroup.COUNT, BloodGroup.AB_POS.compatibleDonors().size());
+        assertEquals(BloodGroup.AB_POS, BloodGroup.AB_POS.compatibleDonors().get(0));
+    }
+
+    @Test
+    void donorMaskMatchesCompatibleDonors() {
+        for (BloodGroup recipient : BloodGroup.values()) {
+            for (BloodGroup donor : BloodGroup.values()) {
+                boolean inMask = (recipient.donorMask() & 1 << donor.ordinal()) != 0;
+                assertEquals(recipient.compatibleDonors().contains(donor), inMask);
+                assertEquals(donor.canDonateTo(recipient), inMask);
+            }
+        }
+    }
+
+    @Test
+    void parsesLegacySpellings() {
+        assertEquals(BloodGroup.AB_POS, BloodGroup.fromLabel("AB+"));
+        assertEquals(BloodGroup.A_POS, BloodGroup.fromLabel("a pos"));
+        assertEquals(BloodGroup.O_NEG, BloodGroup.fromLabel("0-"));
+        assertEquals(BloodGroup.B_NEG, BloodGroup.fromLabel("B Negative"));
+        assertEquals(BloodGroup.AB_POS, BloodGroup.fromLabel("ab+ve"));
+        assertNull(BloodGroup.fromLabel(null));
+        assertThrows(IllegalArgumentException.class, () -> BloodGroup.fromLabel("C+"));
+    }
+
+    @Test
+    void packsHospitalAndGroupIntoOneKey() {
+        long key = BloodGroup.key(42L, BloodGroup.B_POS);
+        assertEquals(42L, BloodGroup.hospitalOf(key));
+        assertEquals(BloodGroup.B_POS, BloodGroup.groupOf(key));
+    }
+}
@@ -0,0 +1,61 @@
+package com.bloodsync.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoIndexTest {
+
+    @Test
+    void matchesBruteForceNearestNeighbours() {
+        Random random = new Random(42);
+        GeoIndex<Long> index = new GeoIndex<>();
+        Map<Long, GeoPoint> points = new HashMap<>();
+        for (long id = 0; id < 5000; id++) {
+            GeoPoint point = new GeoPoint(8 + random.nextDouble() * 26, 68 + random.nextDouble() * 29);
+            points.put(id, point);
+            index.put(id, point, id);
+        }
+        // Moves and removals must leave no stale cell entries behind
+        for (long id = 0; id < 500; id++) {
+            GeoPoint moved = new GeoPoint(8 + random.nextDouble() * 26, 68 + random.nextDouble() * 29);
+            points.put(id, moved);
+            index.put(id, moved, id);
+        }
+        for (long id = 500; id < 1000; id++) {
+            points.remove(id);
+            index.remove(id);
+        }
+
+        for (int query = 0; query < 50; query++) {
+            GeoPoint center = new GeoPoint(8 + random.nextDouble() * 26, 68 + random.nextDouble() * 29);
+            double radiusKm = 20 + random.nextDouble() * 300;
+
+            List<Long> expected = points.entrySet().stream()
+                    .filter(entry -> entry.getKey() % 3 != 0)
+                    .filter(entry -> center.distanceKm(entry.getValue()) <= radiusKm)
+                    .sorted(Comparator.comparingDouble(entry -> center.distanceKm(entry.getValue())))
+                    .limit(15)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+            List<Long> actual = index.nearest(center, radiusKm, 15, id -> id % 3 != 0).stream()
+                    .map(GeoIndex.Hit::getValue)
+                    .collect(Collectors.toList());
+
+            assertEquals(expected, actual);
+        }
+        assertEquals(4500, index.size());
+    }
+
+    @Test
+    void distancesAreGreatCircle() {
+        GeoPoint mumbai = new GeoPoint(19.0760, 72.8777);
+        GeoPoint pune = new GeoPoint(18.5204, 73.8567);
+        double distanceKm = mumbai.distanceKm(pune);
+        assertTrue(distanceKm > 115 && distanceKm < 125, "Mumbai-Pune was " + distanceKm);
+    }
+}
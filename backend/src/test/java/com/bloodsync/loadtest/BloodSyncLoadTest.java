@@ -0,0 +1,92 @@
+package com.bloodsync.loadtest;
+
+import com.bloodsync.repository.*;
+import com.bloodsync.service.DonorEligibilityService;
+import com.bloodsync.service.DonorMatchingService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs only with -Dloadtest=true (or `mvn test -Ploadtest`). Tunable with:
+//   loadtest.seed, loadtest.scale, loadtest.users, loadtest.warmup-seconds, loadtest.duration-seconds,
+//   loadtest.max-p99-ms, loadtest.max-error-rate, loadtest.min-throughput (latency and throughput
+//   limits are off unless set; the report is also written to target/loadtest/report.txt)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        // Per-request INFO lines would turn the run into a console benchmark
+        "logging.level.com.bloodsync=WARN",
+        "logging.level.org.springframework.security=WARN",
+        // Every simulated client shares one address and would be throttled as one
+        "rate-limit.enabled=false"
+})
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@Slf4j
+class BloodSyncLoadTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired private HospitalRepository hospitalRepository;
+    @Autowired private DonorRepository donorRepository;
+    @Autowired private PatientRepository patientRepository;
+    @Autowired private BloodDonationRepository bloodDonationRepository;
+    @Autowired private BloodInventoryRepository bloodInventoryRepository;
+    @Autowired private BloodRequestRepository bloodRequestRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private DonorMatchingService donorMatchingService;
+    @Autowired private DonorEligibilityService donorEligibilityService;
+
+    @Test
+    void mixedWorkloadMeetsThresholds() throws Exception {
+        long seed = Long.getLong("loadtest.seed", 42L);
+        int users = Integer.getInteger("loadtest.users", 16);
+
+        LoadTestDataGenerator.Dataset dataset = new LoadTestDataGenerator(hospitalRepository, donorRepository,
+                patientRepository, bloodDonationRepository, bloodInventoryRepository, bloodRequestRepository,
+                userRepository, passwordEncoder)
+                .generate(seed, doubleProperty("loadtest.scale", 1.0), users);
+
+        // Seeded behind the application's back, so reload the in-memory views
+        donorMatchingService.rebuildIndex();
+        donorEligibilityService.loadDeferredDonors();
+
+        LoadTestReport report = new LoadDriver("http://localhost:" + port, dataset, seed).run(users,
+                Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 10L)),
+                Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 30L)));
+
+        String formatted = report.format();
+        log.warn("Load test results ({} virtual users):{}{}", users, System.lineSeparator(), formatted);
+        write(formatted);
+
+        List<String> violations = report.check(
+                doubleProperty("loadtest.max-p99-ms", 0),
+                doubleProperty("loadtest.max-error-rate", 0.01),
+                doubleProperty("loadtest.min-throughput", 0));
+        assertTrue(violations.isEmpty(), "Load test thresholds violated: " + violations);
+    }
+
+    private static void write(String report) throws IOException {
+        Path file = Paths.get("target", "loadtest", "report.txt");
+        Files.createDirectories(file.getParent());
+        Files.write(file, report.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+}
@@ -0,0 +1,48 @@
+package com.bloodsync.loadtest;
+
+import java.util.Arrays;
+
+// Append-only latency samples for one endpoint on one worker; merged after the run
+class LatencyLog {
+
+    private long[] nanos = new long[1024];
+    private int size;
+    private long errors;
+
+    void record(long latencyNanos, boolean error) {
+        if (size == nanos.length) {
+            nanos = Arrays.copyOf(nanos, size * 2);
+        }
+        nanos[size++] = latencyNanos;
+        if (error) {
+            errors++;
+        }
+    }
+
+    void merge(LatencyLog other) {
+        if (size + other.size > nanos.length) {
+            nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, size + other.size));
+        }
+        System.arraycopy(other.nanos, 0, nanos, size, other.size);
+        size += other.size;
+        errors += other.errors;
+    }
+
+    int count() {
+        return size;
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    // Nearest-rank percentile in milliseconds; sorts in place, so call after the run
+    double percentileMillis(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        Arrays.sort(nanos, 0, size);
+        int rank = (int) Math.ceil(percentile / 100.0 * size);
+        return nanos[Math.max(0, Math.min(size, rank) - 1)] / 1_000_000.0;
+    }
+}
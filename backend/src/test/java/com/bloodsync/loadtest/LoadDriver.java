@@ -0,0 +1,195 @@
+package com.bloodsync.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Closed-loop HTTP driver: each virtual user logs in, then issues a weighted mix of
+// requests back to back until the deadline. Samples taken during warm-up are discarded.
+@Slf4j
+class LoadDriver {
+
+    enum Operation {
+        LOGIN(5),
+        INVENTORY_BY_HOSPITAL(30),
+        INVENTORY_BY_HOSPITAL_AND_GROUP(20),
+        INVENTORY_LOW_STOCK(10),
+        DONATION_WRITE(20),
+        PUBLIC_STATS(15);
+
+        final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    private final String baseUrl;
+    private final LoadTestDataGenerator.Dataset dataset;
+    private final long seed;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    // Each write takes the next donor so donations are not rejected by the deferral
+    // rule; once every donor has donated, writes fall back to scheduled donations
+    private final AtomicInteger donorCursor = new AtomicInteger();
+
+    LoadDriver(String baseUrl, LoadTestDataGenerator.Dataset dataset, long seed) {
+        this.baseUrl = baseUrl;
+        this.dataset = dataset;
+        this.seed = seed;
+    }
+
+    LoadTestReport run(int virtualUsers, Duration warmup, Duration duration) throws InterruptedException {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long deadline = measureFrom + duration.toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(virtualUsers);
+        List<Future<Map<Operation, LatencyLog>>> results = new ArrayList<>();
+        for (int user = 0; user < virtualUsers; user++) {
+            int userIndex = user;
+            results.add(workers.submit(() -> virtualUser(userIndex, measureFrom, deadline)));
+        }
+        workers.shutdown();
+
+        Map<Operation, LatencyLog> merged = new EnumMap<>(Operation.class);
+        for (Future<Map<Operation, LatencyLog>> result : results) {
+            try {
+                result.get().forEach((operation, log) -> merged.computeIfAbsent(operation, o -> new LatencyLog()).merge(log));
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Virtual user failed", e.getCause());
+            }
+        }
+        return new LoadTestReport(merged, duration);
+    }
+
+    private Map<Operation, LatencyLog> virtualUser(int userIndex, long measureFrom, long deadline) throws Exception {
+        Random random = new Random(seed + userIndex);
+        String username = dataset.usernames[userIndex % dataset.usernames.length];
+        Map<Operation, LatencyLog> logs = new EnumMap<>(Operation.class);
+
+        String token = login(username);
+        while (true) {
+            long started = System.nanoTime();
+            if (started >= deadline) {
+                return logs;
+            }
+            Operation operation = pickOperation(random);
+            boolean error;
+            try {
+                if (operation == Operation.LOGIN) {
+                    String refreshed = login(username);
+                    error = refreshed == null;
+                    token = refreshed != null ? refreshed : token;
+                } else {
+                    error = send(request(operation, random, token)) >= 400;
+                }
+            } catch (Exception e) {
+                error = true;
+            }
+            long elapsed = System.nanoTime() - started;
+            if (started >= measureFrom) {
+                logs.computeIfAbsent(operation, o -> new LatencyLog()).record(elapsed, error);
+            }
+        }
+    }
+
+    private HttpRequest request(Operation operation, Random random, String token) throws Exception {
+        long hospitalId = dataset.hospitalIds[random.nextInt(dataset.hospitalIds.length)];
+        switch (operation) {
+            case INVENTORY_BY_HOSPITAL:
+                return get("/api/blood-inventory/hospital/" + hospitalId, token);
+            case INVENTORY_BY_HOSPITAL_AND_GROUP:
+                String bloodGroup = LoadTestDataGenerator.BLOOD_GROUPS[random.nextInt(LoadTestDataGenerator.BLOOD_GROUPS.length)].label();
+                return get("/api/blood-inventory/hospital/" + hospitalId + "/blood-group/"
+                        + URLEncoder.encode(bloodGroup, StandardCharsets.UTF_8), token);
+            case INVENTORY_LOW_STOCK:
+                return get("/api/blood-inventory/low-stock?threshold=1000", token);
+            case DONATION_WRITE:
+                return donation(hospitalId, random, token);
+            case PUBLIC_STATS:
+                return get("/api/public/blood-stats", null);
+            default:
+                throw new IllegalArgumentException("Unsupported operation: " + operation);
+        }
+    }
+
+    private HttpRequest donation(long hospitalId, Random random, String token) throws Exception {
+        int cursor = donorCursor.getAndIncrement();
+        int donor = cursor % dataset.donorIds.length;
+        boolean firstPass = cursor < dataset.donorIds.length;
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("donorId", dataset.donorIds[donor]);
+        body.put("hospitalId", hospitalId);
+        body.put("donationDate", LocalDateTime.now().withNano(0).toString());
+        body.put("bloodGroup", dataset.donorBloodGroups[donor]);
+        body.put("quantity", 350 + 50 * random.nextInt(3));
+        body.put("status", firstPass ? "COMPLETED" : "SCHEDULED");
+
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/blood-donations"))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+    }
+
+    private String login(String username) throws Exception {
+        Map<String, String> body = new LinkedHashMap<>();
+        body.put("username", username);
+        body.put("password", LoadTestDataGenerator.PASSWORD);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            log.warn("Login failed for {} with status {}", username, response.statusCode());
+            return null;
+        }
+        JsonNode json = objectMapper.readTree(response.body());
+        return json.path("accessToken").asText(null);
+    }
+
+    private HttpRequest get(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private int send(HttpRequest request) throws Exception {
+        // Drain the body so the timing includes serialization and transfer
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray()).statusCode();
+    }
+
+    private static Operation pickOperation(Random random) {
+        int total = 0;
+        for (Operation operation : Operation.values()) {
+            total += operation.weight;
+        }
+        int roll = random.nextInt(total);
+        for (Operation operation : Operation.values()) {
+            roll -= operation.weight;
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        return Operation.PUBLIC_STATS;
+    }
+}
@@ -0,0 +1,235 @@
+package com.bloodsync.loadtest;
+
+import com.bloodsync.entity.*;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.enums.UserRole;
+import com.bloodsync.repository.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Seeds the embedded database with a deterministic dataset. Scale 1 is roughly a
+// regional network: 50 hospitals, 5,000 donors, 2,000 patients, 20,000 donations.
+@RequiredArgsConstructor
+@Slf4j
+class LoadTestDataGenerator {
+
+    static final BloodGroup[] BLOOD_GROUPS = {BloodGroup.O_POS, BloodGroup.A_POS, BloodGroup.B_POS, BloodGroup.AB_POS,
+            BloodGroup.O_NEG, BloodGroup.A_NEG, BloodGroup.B_NEG, BloodGroup.AB_NEG};
+    private static final int[] BLOOD_GROUP_WEIGHTS = {37, 27, 22, 5, 4, 3, 1, 1};
+
+    private static final String[][] CITIES = {
+            {"Mumbai", "Maharashtra"}, {"Pune", "Maharashtra"}, {"Nagpur", "Maharashtra"},
+            {"Delhi", "Delhi"}, {"Bengaluru", "Karnataka"}, {"Mysuru", "Karnataka"},
+            {"Chennai", "Tamil Nadu"}, {"Hyderabad", "Telangana"}, {"Kolkata", "West Bengal"},
+            {"Ahmedabad", "Gujarat"}, {"Jaipur", "Rajasthan"}, {"Lucknow", "Uttar Pradesh"}
+    };
+
+    private static final String[] FIRST_NAMES = {"Aarav", "Priya", "Rohan", "Ananya", "Vikram", "Sneha", "Arjun", "Kavya"};
+    private static final String[] LAST_NAMES = {"Sharma", "Patel", "Reddy", "Iyer", "Singh", "Gupta", "Nair", "Das"};
+
+    static final String PASSWORD = "LoadTest@123";
+    private static final int INVENTORY_BATCHES = 3;
+    private static final int SAVE_CHUNK = 1000;
+
+    private final HospitalRepository hospitalRepository;
+    private final DonorRepository donorRepository;
+    private final PatientRepository patientRepository;
+    private final BloodDonationRepository bloodDonationRepository;
+    private final BloodInventoryRepository bloodInventoryRepository;
+    private final BloodRequestRepository bloodRequestRepository;
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+
+    Dataset generate(long seed, double scale, int hospitalUsers) {
+        Random random = new Random(seed);
+        LocalDateTime now = LocalDateTime.now();
+        long started = System.currentTimeMillis();
+
+        List<Hospital> hospitals = new ArrayList<>();
+        for (int i = 1; i <= scaled(50, scale); i++) {
+            String[] city = pick(random, CITIES);
+            Hospital hospital = new Hospital();
+            hospital.setHospitalName(city[0] + " General Hospital " + i);
+            hospital.setEmail("hospital" + i + "@loadtest.example.com");
+            hospital.setPhoneNumber(phoneNumber(random));
+            hospital.setAddress(i + " Hospital Road");
+            hospital.setCity(city[0]);
+            hospital.setState(city[1]);
+            hospital.setLicenseNumber("LT-" + (100000 + i));
+            hospitals.add(hospital);
+        }
+        hospitals = saveAll(hospitalRepository, hospitals);
+
+        List<Donor> donors = new ArrayList<>();
+        for (int i = 1; i <= scaled(5000, scale); i++) {
+            String[] city = pick(random, CITIES);
+            Donor donor = new Donor();
+            donor.setFirstName(pick(random, FIRST_NAMES));
+            donor.setLastName(pick(random, LAST_NAMES));
+            donor.setEmail("donor" + i + "@loadtest.example.com");
+            donor.setPhoneNumber(phoneNumber(random));
+            donor.setDateOfBirth(LocalDate.of(1960 + random.nextInt(45), 1 + random.nextInt(12), 1 + random.nextInt(28)));
+            donor.setBloodGroup(bloodGroup(random));
+            donor.setAddress(i + " Main Road");
+            donor.setCity(city[0]);
+            donor.setState(city[1]);
+            donor.setLastDonationDate(random.nextBoolean() ? now.toLocalDate().minusDays(60 + random.nextInt(300)) : null);
+            donors.add(donor);
+        }
+        donors = saveAll(donorRepository, donors);
+
+        List<Patient> patients = new ArrayList<>();
+        for (int i = 1; i <= scaled(2000, scale); i++) {
+            Hospital hospital = hospitals.get(random.nextInt(hospitals.size()));
+            Patient patient = new Patient();
+            patient.setFirstName(pick(random, FIRST_NAMES));
+            patient.setLastName(pick(random, LAST_NAMES));
+            patient.setEmail("patient" + i + "@loadtest.example.com");
+            patient.setPhoneNumber(phoneNumber(random));
+            patient.setDateOfBirth(LocalDate.of(1940 + random.nextInt(80), 1 + random.nextInt(12), 1 + random.nextInt(28)));
+            patient.setBloodGroup(bloodGroup(random));
+            patient.setAddress(i + " Hospital Road");
+            patient.setCity(hospital.getCity());
+            patient.setState(hospital.getState());
+            patient.setHospital(hospital);
+            patients.add(patient);
+        }
+        patients = saveAll(patientRepository, patients);
+
+        List<BloodDonation> donations = new ArrayList<>();
+        for (int i = 1; i <= scaled(20000, scale); i++) {
+            Donor donor = donors.get(random.nextInt(donors.size()));
+            BloodDonation donation = new BloodDonation();
+            donation.setDonor(donor);
+            donation.setHospital(hospitals.get(random.nextInt(hospitals.size())));
+            donation.setDonationDate(now.minusDays(60 + random.nextInt(700)));
+            donation.setBloodGroup(donor.getBloodGroup());
+            donation.setQuantity(350 + 50 * random.nextInt(3));
+            donation.setStatus(random.nextInt(10) < 9 ? BloodDonation.DonationStatus.COMPLETED : BloodDonation.DonationStatus.CANCELLED);
+            donations.add(donation);
+        }
+        saveAll(bloodDonationRepository, donations);
+
+        // One live row per hospital and blood group, holding a few merged batches as intake would
+        List<BloodInventory> inventory = new ArrayList<>();
+        for (Hospital hospital : hospitals) {
+            for (BloodGroup bloodGroup : BLOOD_GROUPS) {
+                BloodInventory row = new BloodInventory();
+                row.setHospital(hospital);
+                row.setBloodGroup(bloodGroup);
+                row.setAvailableQuantity(0);
+                row.setTotalQuantity(0);
+                for (int batch = 0; batch < INVENTORY_BATCHES; batch++) {
+                    int available = random.nextInt(10) == 0 ? 0 : random.nextInt(6000);
+                    LocalDateTime expiry = now.plusDays(1 + random.nextInt(42));
+                    row.setAvailableQuantity(row.getAvailableQuantity() + available);
+                    row.setTotalQuantity(row.getTotalQuantity() + available + random.nextInt(2000));
+                    if (row.getExpiryDate() == null || expiry.isBefore(row.getExpiryDate())) {
+                        row.setExpiryDate(expiry);
+                    }
+                }
+                int available = row.getAvailableQuantity();
+                row.setStatus(available == 0 ? BloodInventory.InventoryStatus.OUT_OF_STOCK
+                        : available < 1000 ? BloodInventory.InventoryStatus.LOW_STOCK
+                        : BloodInventory.InventoryStatus.AVAILABLE);
+                inventory.add(row);
+            }
+        }
+        saveAll(bloodInventoryRepository, inventory);
+
+        BloodRequest.RequestStatus[] statuses = BloodRequest.RequestStatus.values();
+        BloodRequest.PriorityLevel[] priorities = BloodRequest.PriorityLevel.values();
+        List<BloodRequest> requests = new ArrayList<>();
+        for (int i = 1; i <= scaled(5000, scale); i++) {
+            Patient patient = patients.get(random.nextInt(patients.size()));
+            BloodRequest request = new BloodRequest();
+            request.setPatient(patient);
+            request.setHospital(patient.getHospital());
+            request.setBloodGroup(patient.getBloodGroup());
+            request.setRequiredQuantity(450 * (1 + random.nextInt(4)));
+            request.setRequestDate(now.minusDays(random.nextInt(30)));
+            request.setRequiredDate(now.plusDays(1 + random.nextInt(14)));
+            request.setStatus(statuses[random.nextInt(statuses.length)]);
+            request.setPriority(priorities[random.nextInt(priorities.length)]);
+            request.setReason("Scheduled transfusion");
+            requests.add(request);
+        }
+        saveAll(bloodRequestRepository, requests);
+
+        // BCrypt is deliberately slow, so every load-test user shares one hash
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        List<User> users = new ArrayList<>();
+        for (int i = 1; i <= hospitalUsers; i++) {
+            User user = new User();
+            user.setUsername("loadtest.hospital" + i);
+            user.setEmail("loadtest.hospital" + i + "@loadtest.example.com");
+            user.setPassword(passwordHash);
+            user.setFullName("Load Test Hospital " + i);
+            user.setRole(UserRole.HOSPITAL);
+            users.add(user);
+        }
+        saveAll(userRepository, users);
+
+        log.info("Generated load-test dataset at scale {} in {} ms: {} hospitals, {} donors, {} patients, {} donations, {} inventory rows, {} requests",
+                scale, System.currentTimeMillis() - started, hospitals.size(), donors.size(), patients.size(),
+                donations.size(), inventory.size(), requests.size());
+        return new Dataset(
+                hospitals.stream().mapToLong(Hospital::getId).toArray(),
+                donors.stream().mapToLong(Donor::getId).toArray(),
+                donors.stream().map(donor -> donor.getBloodGroup().label()).toArray(String[]::new),
+                users.stream().map(User::getUsername).toArray(String[]::new));
+    }
+
+    private static <T> List<T> saveAll(JpaRepository<T, Long> repository, List<T> entities) {
+        List<T> saved = new ArrayList<>(entities.size());
+        for (int from = 0; from < entities.size(); from += SAVE_CHUNK) {
+            saved.addAll(repository.saveAll(entities.subList(from, Math.min(from + SAVE_CHUNK, entities.size()))));
+        }
+        return saved;
+    }
+
+    private static int scaled(int base, double scale) {
+        return Math.max(1, (int) Math.round(base * scale));
+    }
+
+    private static BloodGroup bloodGroup(Random random) {
+        int roll = random.nextInt(100);
+        for (int i = 0; i < BLOOD_GROUPS.length; i++) {
+            roll -= BLOOD_GROUP_WEIGHTS[i];
+            if (roll < 0) {
+                return BLOOD_GROUPS[i];
+            }
+        }
+        return BLOOD_GROUPS[0];
+    }
+
+    private static String phoneNumber(Random random) {
+        return "9" + (100000000 + random.nextInt(900000000));
+    }
+
+    private static <T> T pick(Random random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    static class Dataset {
+        final long[] hospitalIds;
+        final long[] donorIds;
+        final String[] donorBloodGroups;
+        final String[] usernames;
+
+        Dataset(long[] hospitalIds, long[] donorIds, String[] donorBloodGroups, String[] usernames) {
+            this.hospitalIds = hospitalIds;
+            this.donorIds = donorIds;
+            this.donorBloodGroups = donorBloodGroups;
+            this.usernames = usernames;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.bloodsync.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Per-endpoint throughput, latency percentiles and error counts for one run
+class LoadTestReport {
+
+    private final Map<LoadDriver.Operation, LatencyLog> logs;
+    private final Duration duration;
+
+    LoadTestReport(Map<LoadDriver.Operation, LatencyLog> logs, Duration duration) {
+        this.logs = logs;
+        this.duration = duration;
+    }
+
+    String format() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "%-32s %8s %8s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms"));
+        logs.forEach((operation, log) -> out.append(row(operation.name(), log)));
+        LatencyLog total = total();
+        out.append(row("TOTAL", total));
+        return out.toString();
+    }
+
+    // Violations of the given limits; empty when the run passes
+    List<String> check(double maxP99Millis, double maxErrorRate, double minThroughput) {
+        List<String> violations = new ArrayList<>();
+        logs.forEach((operation, log) -> {
+            double p99 = log.percentileMillis(99);
+            if (maxP99Millis > 0 && p99 > maxP99Millis) {
+                violations.add(String.format(Locale.ROOT, "%s p99 %.1f ms exceeds %.1f ms", operation, p99, maxP99Millis));
+            }
+        });
+        LatencyLog total = total();
+        double errorRate = total.count() == 0 ? 1.0 : (double) total.errors() / total.count();
+        if (errorRate > maxErrorRate) {
+            violations.add(String.format(Locale.ROOT, "error rate %.4f exceeds %.4f", errorRate, maxErrorRate));
+        }
+        double throughput = throughput(total);
+        if (throughput < minThroughput) {
+            violations.add(String.format(Locale.ROOT, "throughput %.1f req/s below %.1f req/s", throughput, minThroughput));
+        }
+        return violations;
+    }
+
+    private LatencyLog total() {
+        LatencyLog total = new LatencyLog();
+        logs.values().forEach(total::merge);
+        return total;
+    }
+
+    private String row(String name, LatencyLog log) {
+        return String.format(Locale.ROOT, "%-32s %8d %8d %10.1f %10.2f %10.2f %10.2f%n",
+                name, log.count(), log.errors(), throughput(log),
+                log.percentileMillis(50), log.percentileMillis(99), log.percentileMillis(99.9));
+    }
+
+    private double throughput(LatencyLog log) {
+        return log.count() / (duration.toMillis() / 1000.0);
+    }
+}
@@ -0,0 +1,54 @@
+package com.bloodsync.metrics;
+
+import com.bloodsync.enums.UserRole;
+import com.bloodsync.security.JwtTokenUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PrometheusEndpointTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Test
+    void exposesRequestPoolServiceAndHibernateMetrics() {
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity("/api/public/blood-stats", String.class).getStatusCode());
+
+        // Only admins may scrape
+        assertEquals(HttpStatus.FORBIDDEN, restTemplate.getForEntity("/actuator/prometheus", String.class).getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, scrape(UserRole.HOSPITAL).getStatusCode());
+        ResponseEntity<String> scrape = scrape(UserRole.ADMIN);
+        assertEquals(HttpStatus.OK, scrape.getStatusCode());
+
+        String body = scrape.getBody();
+        assertTrue(body.contains("http_server_requests_seconds_bucket{"));
+        assertTrue(body.contains("uri=\"/api/public/blood-stats\""));
+        assertTrue(body.contains("hikaricp_connections"));
+        assertTrue(body.contains("bloodsync_service_calls_seconds_count{"));
+        assertTrue(body.contains("bloodsync_http_server_queries"));
+        assertTrue(body.contains("bloodsync_security_jwt_authentication_seconds"));
+        assertTrue(body.contains("hibernate_statements_total"));
+    }
+
+    private ResponseEntity<String> scrape(UserRole role) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtTokenUtil.generateToken(1L, "prometheus", role));
+        return restTemplate.exchange("/actuator/prometheus", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+}
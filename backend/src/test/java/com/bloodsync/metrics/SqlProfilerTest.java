@@ -0,0 +1,149 @@
+package com.bloodsync.metrics;
+
+import com.bloodsync.entity.Hospital;
+import com.bloodsync.entity.User;
+import com.bloodsync.enums.UserRole;
+import com.bloodsync.repository.HospitalRepository;
+import com.bloodsync.repository.UserRepository;
+import com.bloodsync.security.JwtTokenUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Endpoints stay within the statement budgets in the test application.properties, and the
+// profile shows which handler issued what
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class SqlProfilerTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private SqlProfiler sqlProfiler;
+
+    @Autowired
+    private SqlProfileProperties properties;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HospitalRepository hospitalRepository;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @BeforeEach
+    void setUp() {
+        sqlProfiler.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        hospitalRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void endpointsStayWithinTheirQueryBudgets() {
+        for (int i = 0; i < 3; i++) {
+            hospitalRepository.save(hospital(i));
+        }
+        User admin = userRepository.save(admin());
+        String token = jwtTokenUtil.generateToken(admin.getId(), admin.getUsername(), UserRole.ADMIN);
+
+        assertEquals(HttpStatus.OK, get("/api/public/hospitals", null).getStatusCode());
+        assertEquals(HttpStatus.OK, get("/api/public/hospitals/location/Kolhapur", null).getStatusCode());
+        assertEquals(HttpStatus.OK, get("/api/public/blood-stats", null).getStatusCode());
+        assertEquals(HttpStatus.OK, get("/api/users", token).getStatusCode());
+        assertEquals(HttpStatus.OK, get("/api/hospital", jwtTokenUtil.generateToken(
+                admin.getId(), admin.getUsername(), UserRole.HOSPITAL)).getStatusCode());
+
+        sqlProfiler.assertWithinBudgets();
+
+        SqlProfiler.Profile profile = sqlProfiler.profile();
+        SqlProfiler.EndpointProfile hospitals = profile.endpoints().stream()
+                .filter(endpoint -> endpoint.handler().equals("PublicController.getPublicHospitals"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("GET /api/public/hospitals", hospitals.route());
+        assertEquals(1, hospitals.requests());
+        assertEquals(3.0, hospitals.rowsPerRequest());
+        assertNotNull(hospitals.budget());
+        assertTrue(profile.slowQueries().stream().anyMatch(query -> "UserController.getAllUsers".equals(query.origin())));
+        assertTrue(profile.slowQueries().stream().allMatch(query -> query.sql() != null));
+
+        // Only admins see the profile
+        assertEquals(HttpStatus.FORBIDDEN, get("/api/admin/sql-profile", jwtTokenUtil.generateToken(
+                admin.getId(), admin.getUsername(), UserRole.USER)).getStatusCode());
+        ResponseEntity<String> report = get("/api/admin/sql-profile", token);
+        assertEquals(HttpStatus.OK, report.getStatusCode());
+        assertTrue(report.getBody().contains("\"handler\":\"PublicController.getPublicHospitals\""));
+        assertTrue(report.getBody().contains("\"slowQueries\":[{"));
+    }
+
+    @Test
+    void reportsHandlersThatGoOverBudget() {
+        User admin = userRepository.save(admin());
+        String token = jwtTokenUtil.generateToken(admin.getId(), admin.getUsername(), UserRole.ADMIN);
+        Integer budget = properties.getBudgets().put("UserController.getAllUsers", 0);
+        try {
+            assertEquals(HttpStatus.OK, get("/api/users", token).getStatusCode());
+            IllegalStateException over = assertThrows(IllegalStateException.class, sqlProfiler::assertWithinBudgets);
+            assertTrue(over.getMessage().contains("UserController.getAllUsers"));
+        } finally {
+            properties.getBudgets().put("UserController.getAllUsers", budget);
+        }
+
+        // A reset starts the profile over
+        assertEquals(HttpStatus.NO_CONTENT, restTemplate.exchange("/api/admin/sql-profile", HttpMethod.DELETE,
+                new HttpEntity<>(headers(token)), Void.class).getStatusCode());
+        assertTrue(sqlProfiler.profile().endpoints().stream()
+                .noneMatch(endpoint -> endpoint.handler().equals("UserController.getAllUsers")));
+        sqlProfiler.assertWithinBudgets();
+    }
+
+    private ResponseEntity<String> get(String path, String token) {
+        return restTemplate.exchange(path, HttpMethod.GET, new HttpEntity<>(headers(token)), String.class);
+    }
+
+    private static HttpHeaders headers(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        if (token != null) {
+            headers.setBearerAuth(token);
+        }
+        return headers;
+    }
+
+    private static User admin() {
+        User user = new User();
+        user.setUsername("profiler");
+        user.setEmail("profiler@hospital.test");
+        user.setPassword("$2a$10$notARealHashButLongEnoughToLookLikeOne");
+        user.setFullName("Profile Admin");
+        user.setRole(UserRole.ADMIN);
+        return user;
+    }
+
+    private static Hospital hospital(int i) {
+        Hospital hospital = new Hospital();
+        hospital.setHospitalName("City Hospital " + i);
+        hospital.setEmail("city" + i + "@hospital.test");
+        hospital.setPhoneNumber("0231-20000" + i);
+        hospital.setAddress("Station Road");
+        hospital.setCity("Kolhapur");
+        hospital.setState("Maharashtra");
+        hospital.setLicenseNumber("LIC-PROF-" + i);
+        return hospital;
+    }
+}
@@ -0,0 +1,99 @@
+package com.bloodsync.planning;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MinCostFlowTest {
+
+    @Test
+    void matchesBellmanFordSuccessiveShortestPaths() {
+        Random random = new Random(42);
+        for (int graph = 0; graph < 300; graph++) {
+            int nodes = 2 + random.nextInt(9);
+            MinCostFlow network = new MinCostFlow(nodes, 4);
+            List<long[]> edges = new ArrayList<>();
+            int edgeCount = random.nextInt(nodes * 3);
+            for (int i = 0; i < edgeCount; i++) {
+                // Few distinct costs, so that many shortest paths tie
+                long[] edge = {random.nextInt(nodes), random.nextInt(nodes), random.nextInt(20), random.nextInt(4)};
+                edges.add(edge);
+                network.addEdge((int) edge[0], (int) edge[1], edge[2], edge[3]);
+            }
+
+            long[] actual = network.solve(0, nodes - 1);
+
+            assertArrayEquals(reference(nodes, edges, 0, nodes - 1), actual, "graph " + graph);
+        }
+    }
+
+    @Test
+    void reportsFlowPerEdge() {
+        MinCostFlow network = new MinCostFlow(4, 5);
+        int cheap = network.addEdge(0, 1, 5, 1);
+        int dear = network.addEdge(0, 2, 5, 3);
+        network.addEdge(1, 3, 4, 0);
+        network.addEdge(2, 3, 10, 0);
+
+        assertArrayEquals(new long[]{9, 4 + 15}, network.solve(0, 3));
+        assertEquals(4, network.flow(cheap));
+        assertEquals(5, network.flow(dear));
+    }
+
+    // Textbook min-cost max-flow: augment along Bellman-Ford shortest paths in the residual graph
+    private static long[] reference(int nodes, List<long[]> edges, int source, int sink) {
+        int size = edges.size() * 2;
+        int[] from = new int[size];
+        int[] to = new int[size];
+        long[] capacity = new long[size];
+        long[] cost = new long[size];
+        for (int i = 0; i < edges.size(); i++) {
+            long[] edge = edges.get(i);
+            from[2 * i] = (int) edge[0];
+            to[2 * i] = (int) edge[1];
+            capacity[2 * i] = edge[2];
+            cost[2 * i] = edge[3];
+            from[2 * i + 1] = (int) edge[1];
+            to[2 * i + 1] = (int) edge[0];
+            cost[2 * i + 1] = -edge[3];
+        }
+
+        long flow = 0;
+        long totalCost = 0;
+        while (true) {
+            long[] distance = new long[nodes];
+            int[] via = new int[nodes];
+            Arrays.fill(distance, Long.MAX_VALUE);
+            Arrays.fill(via, -1);
+            distance[source] = 0;
+            for (int round = 0; round < nodes; round++) {
+                for (int e = 0; e < size; e++) {
+                    if (capacity[e] > 0 && distance[from[e]] != Long.MAX_VALUE
+                            && distance[from[e]] + cost[e] < distance[to[e]]) {
+                        distance[to[e]] = distance[from[e]] + cost[e];
+                        via[to[e]] = e;
+                    }
+                }
+            }
+            if (distance[sink] == Long.MAX_VALUE || source == sink) {
+                return new long[]{flow, totalCost};
+            }
+            long pushed = Long.MAX_VALUE;
+            for (int node = sink; node != source; node = from[via[node]]) {
+                pushed = Math.min(pushed, capacity[via[node]]);
+            }
+            for (int node = sink; node != source; node = from[via[node]]) {
+                capacity[via[node]] -= pushed;
+                capacity[via[node] ^ 1] += pushed;
+            }
+            flow += pushed;
+            totalCost += pushed * distance[sink];
+        }
+    }
+}
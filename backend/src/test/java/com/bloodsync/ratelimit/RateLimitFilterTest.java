@@ -0,0 +1,130 @@
+package com.bloodsync.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void bucketRefillsAtItsRateAndAllowsItsBurst() {
+        ClientBuckets buckets = new ClientBuckets(3, 2.0, 1000);
+        long now = 1_000_000_000L;
+        assertEquals(0, buckets.tryAcquire("a", now));
+        assertEquals(0, buckets.tryAcquire("a", now));
+        assertEquals(0, buckets.tryAcquire("a", now));
+        // Empty: the next token is half a second away, and other clients are unaffected
+        assertEquals(500_000_000L, buckets.tryAcquire("a", now));
+        assertEquals(0, buckets.tryAcquire("b", now));
+        assertEquals(0, buckets.tryAcquire("a", now + 500_000_000L));
+        assertThrows(IllegalArgumentException.class, () -> new ClientBuckets(0, 1.0, 1000));
+    }
+
+    @Test
+    void fullBucketsAreEvictedOnceAShardOverflows() {
+        ClientBuckets buckets = new ClientBuckets(1, 1000.0, 16);
+        long now = 1_000_000_000L;
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0, buckets.tryAcquire("client-" + i, now + i * 10_000_000L));
+        }
+        // Every shard has had a chance to drop the buckets that have refilled
+        assertTrue(buckets.size() < 100, "Buckets kept: " + buckets.size());
+    }
+
+    @Test
+    void rejectsWithRetryAfterPerAddressAndPerUser() throws Exception {
+        RateLimitFilter filter = filter(route("/api/auth/login", RateLimitProperties.Key.IP, 2),
+                route("/api/**", RateLimitProperties.Key.USER, 1));
+
+        assertEquals(200, call(filter, "/api/auth/login", "10.0.0.1").getStatus());
+        assertEquals(200, call(filter, "/api/auth/login", "10.0.0.1").getStatus());
+        MockHttpServletResponse rejected = call(filter, "/api/auth/login", "10.0.0.1");
+        assertEquals(429, rejected.getStatus());
+        assertEquals("60", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("Too Many Requests"));
+        assertEquals(200, call(filter, "/api/auth/login", "10.0.0.2").getStatus());
+        // Routes not configured are not limited
+        assertEquals(200, call(filter, "/actuator/health", "10.0.0.1").getStatus());
+
+        // One user is limited across addresses; another user on the same address is not
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("nurse", null, List.of()));
+        assertEquals(200, call(filter, "/api/donors", "10.0.0.3").getStatus());
+        assertEquals(429, call(filter, "/api/donors", "10.0.0.4").getStatus());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("clerk", null, List.of()));
+        assertEquals(200, call(filter, "/api/donors", "10.0.0.3").getStatus());
+
+        assertEquals(1.0, meterRegistry.get("bloodsync.ratelimit.rejected").tag("route", "/api/auth/login").counter().count());
+    }
+
+    @Test
+    void takesForwardedAddressesFromTheTrustedEndOfTheChain() throws Exception {
+        RateLimitProperties properties = properties(route("/api/auth/login", RateLimitProperties.Key.IP, 1));
+        properties.setTrustForwardedFor(true);
+        RateLimitFilter filter = new RateLimitFilter(properties, new ObjectMapper().findAndRegisterModules(), meterRegistry);
+
+        assertEquals(200, forwarded(filter, "203.0.113.7").getStatus());
+        // A client prepending made-up addresses is still keyed on the address our proxy saw
+        assertEquals(429, forwarded(filter, "1.1.1.1, 203.0.113.7").getStatus());
+        assertEquals(429, forwarded(filter, "2.2.2.2, 203.0.113.7").getStatus());
+
+        // Two proxies: the client is second from the right
+        properties.setTrustedProxies(2);
+        assertEquals(429, forwarded(filter, "9.9.9.9, 203.0.113.7, 10.0.0.5").getStatus());
+        assertEquals(200, forwarded(filter, "9.9.9.9, 198.51.100.4, 10.0.0.5").getStatus());
+    }
+
+    private RateLimitFilter filter(RateLimitProperties.Route... routes) {
+        return new RateLimitFilter(properties(routes), new ObjectMapper().findAndRegisterModules(), meterRegistry);
+    }
+
+    private static RateLimitProperties properties(RateLimitProperties.Route... routes) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRoutes(List.of(routes));
+        return properties;
+    }
+
+    private static RateLimitProperties.Route route(String pattern, RateLimitProperties.Key key, int capacity) {
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setPattern(pattern);
+        route.setKey(key);
+        route.setCapacity(capacity);
+        route.setRefillPerSecond(1.0 / 60);
+        return route;
+    }
+
+    private static MockHttpServletResponse call(RateLimitFilter filter, String path, String address) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setRemoteAddr(address);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletResponse forwarded(RateLimitFilter filter, String forwardedFor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr("10.0.0.254");
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,239 @@
+package com.bloodsync.search;
+
+import com.bloodsync.dto.BloodRequestDto;
+import com.bloodsync.dto.CursorPageDto;
+import com.bloodsync.entity.BloodDonation;
+import com.bloodsync.entity.Donor;
+import com.bloodsync.entity.Hospital;
+import com.bloodsync.entity.Patient;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.repository.*;
+import com.bloodsync.service.BloodDonationService;
+import com.bloodsync.service.BloodRequestService;
+import com.bloodsync.service.HospitalService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class SearchQueryTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 3, 1, 9, 0);
+
+    @Autowired
+    private BloodRequestService bloodRequestService;
+
+    @Autowired
+    private BloodDonationService bloodDonationService;
+
+    @Autowired
+    private HospitalService hospitalService;
+
+    @Autowired
+    private BloodRequestRepository bloodRequestRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private BloodDonationRepository bloodDonationRepository;
+
+    @Autowired
+    private DonorRepository donorRepository;
+
+    @Autowired
+    private HospitalRepository hospitalRepository;
+
+    @Autowired
+    private DailyDemandRepository dailyDemandRepository;
+
+    @Autowired
+    private ActivityRollupRepository activityRollupRepository;
+
+    @AfterEach
+    void tearDown() {
+        bloodDonationRepository.deleteAll();
+        donorRepository.deleteAll();
+        bloodRequestRepository.deleteAll();
+        patientRepository.deleteAll();
+        hospitalRepository.deleteAll();
+        dailyDemandRepository.deleteAll();
+        activityRollupRepository.deleteAll();
+    }
+
+    @Test
+    void walksFilteredResultsPageByPage() {
+        Hospital hospital = hospitalService.createHospital(hospital());
+        Patient patient = patientRepository.save(patient(hospital));
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            // Pairs of requests share a request date, so the ID has to break ties
+            String status = i % 3 == 2 ? "FULFILLED" : "PENDING";
+            BloodRequestDto created = bloodRequestService.createBloodRequest(request(patient, status, BASE.plusDays(i / 2)));
+            if (!status.equals("FULFILLED") && i >= 2) {
+                expected.add(created.getId());
+            }
+        }
+        // Newest first, ties by descending ID
+        expected.sort(Comparator.comparing((Long id) -> bloodRequestRepository.findById(id).orElseThrow().getRequestDate())
+                .thenComparing(id -> id).reversed());
+
+        Map<String, String> params = new HashMap<>();
+        params.put("hospitalId", hospital.getId().toString());
+        params.put("status", "pending,approved");
+        params.put("minRequestDate", BASE.plusDays(1).toString());
+        params.put("sort", "-requestDate");
+        params.put("limit", "2");
+
+        List<Long> seen = new ArrayList<>();
+        CursorPageDto<BloodRequestDto> page;
+        int pages = 0;
+        do {
+            page = bloodRequestService.searchBloodRequests(params);
+            page.getItems().forEach(item -> seen.add(item.getId()));
+            params.put("cursor", page.getNextCursor());
+            pages++;
+        } while (page.getNextCursor() != null);
+
+        assertEquals(expected, seen);
+        assertEquals(2, pages);
+    }
+
+    @Test
+    void rejectsFiltersAndSortsOutsideTheAllowList() {
+        assertThrows(IllegalArgumentException.class,
+                () -> bloodRequestService.searchBloodRequests(Map.of("reason", "Surgery")));
+        assertThrows(IllegalArgumentException.class,
+                () -> bloodRequestService.searchBloodRequests(Map.of("sort", "reason")));
+        assertThrows(IllegalArgumentException.class,
+                () -> bloodRequestService.searchBloodRequests(Map.of("minPriority", "HIGH")));
+        assertThrows(IllegalArgumentException.class,
+                () -> bloodRequestService.searchBloodRequests(Map.of("status", "LOST")));
+        assertThrows(IllegalArgumentException.class,
+                () -> bloodRequestService.searchBloodRequests(Map.of("limit", "1000")));
+    }
+
+    @Test
+    void cursorIsTiedToItsSort() {
+        Hospital hospital = hospitalService.createHospital(hospital());
+        Patient patient = patientRepository.save(patient(hospital));
+        for (int i = 0; i < 3; i++) {
+            bloodRequestService.createBloodRequest(request(patient, "PENDING", BASE.plusDays(i)));
+        }
+        String cursor = bloodRequestService.searchBloodRequests(Map.of("limit", "1")).getNextCursor();
+        assertNotNull(cursor);
+        assertEquals(2, bloodRequestService.searchBloodRequests(Map.of("cursor", cursor)).getItems().size());
+        assertThrows(IllegalArgumentException.class,
+                () -> bloodRequestService.searchBloodRequests(Map.of("cursor", cursor, "sort", "requestDate")));
+        assertThrows(IllegalArgumentException.class,
+                () -> bloodRequestService.searchBloodRequests(Map.of("cursor", "not-a-cursor")));
+    }
+
+    @Test
+    void selectsOnlyTheRequestedFieldsAndKeepsTheCursor() {
+        Hospital hospital = hospitalService.createHospital(hospital());
+        Donor donor = donorRepository.save(donor());
+        for (int i = 0; i < 3; i++) {
+            bloodDonationRepository.save(donation(donor, hospital, 350 + 50 * i));
+        }
+
+        Map<String, String> params = new HashMap<>();
+        params.put("hospitalId", hospital.getId().toString());
+        params.put("sort", "-quantity");
+        params.put("limit", "2");
+        params.put("fields", "donorName,quantity,bloodGroup");
+        CursorPageDto<Map<String, Object>> first = bloodDonationService.selectBloodDonations(params);
+
+        assertEquals(2, first.getItems().size());
+        Map<String, Object> item = first.getItems().get(0);
+        assertEquals(List.of("donorName", "quantity", "bloodGroup"), new ArrayList<>(item.keySet()));
+        assertEquals("Ravi Kumar", item.get("donorName"));
+        assertEquals(450, item.get("quantity"));
+        assertEquals("B-", item.get("bloodGroup"));
+
+        // The cursor is the same as a full search's, so either kind of page can follow
+        params.put("cursor", first.getNextCursor());
+        assertEquals(List.of(Map.of("donorName", "Ravi Kumar", "quantity", 350, "bloodGroup", "B-")),
+                bloodDonationService.selectBloodDonations(params).getItems());
+        params.remove("fields");
+        assertEquals(350, bloodDonationService.searchBloodDonations(params).getItems().get(0).getQuantity());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bloodDonationService.selectBloodDonations(Map.of("fields", "quantity,donor")));
+        assertThrows(IllegalArgumentException.class,
+                () -> bloodDonationService.selectBloodDonations(Map.of("fields", " , ")));
+    }
+
+    private static Donor donor() {
+        Donor donor = new Donor();
+        donor.setFirstName("Ravi");
+        donor.setLastName("Kumar");
+        donor.setEmail("ravi@search.test");
+        donor.setPhoneNumber("9000000002");
+        donor.setDateOfBirth(LocalDate.of(1990, 5, 5));
+        donor.setBloodGroup(BloodGroup.B_NEG);
+        donor.setAddress("3 Main Road");
+        donor.setCity("Pune");
+        donor.setState("Maharashtra");
+        return donor;
+    }
+
+    private static BloodDonation donation(Donor donor, Hospital hospital, int quantity) {
+        BloodDonation donation = new BloodDonation();
+        donation.setDonor(donor);
+        donation.setHospital(hospital);
+        donation.setDonationDate(BASE);
+        donation.setBloodGroup(BloodGroup.B_NEG);
+        donation.setQuantity(quantity);
+        donation.setNotes("Routine");
+        return donation;
+    }
+
+    private static Hospital hospital() {
+        Hospital hospital = new Hospital();
+        hospital.setHospitalName("City Hospital");
+        hospital.setEmail("search@hospital.test");
+        hospital.setPhoneNumber("9000000000");
+        hospital.setAddress("1 Main Road");
+        hospital.setCity("Pune");
+        hospital.setState("Maharashtra");
+        hospital.setLicenseNumber("LIC-SEARCH-1");
+        return hospital;
+    }
+
+    private static Patient patient(Hospital hospital) {
+        Patient patient = new Patient();
+        patient.setFirstName("Asha");
+        patient.setLastName("Rao");
+        patient.setEmail("asha@search.test");
+        patient.setPhoneNumber("9000000001");
+        patient.setDateOfBirth(LocalDate.of(1985, 1, 1));
+        patient.setBloodGroup(BloodGroup.O_POS);
+        patient.setAddress("2 Main Road");
+        patient.setCity("Pune");
+        patient.setState("Maharashtra");
+        patient.setHospital(hospital);
+        return patient;
+    }
+
+    private static BloodRequestDto request(Patient patient, String status, LocalDateTime requestDate) {
+        BloodRequestDto dto = new BloodRequestDto();
+        dto.setPatientId(patient.getId());
+        dto.setHospitalId(patient.getHospital().getId());
+        dto.setBloodGroup("O+");
+        dto.setRequiredQuantity(450);
+        dto.setRequestDate(requestDate);
+        dto.setRequiredDate(LocalDateTime.now().plusDays(2));
+        dto.setStatus(status);
+        dto.setPriority("NORMAL");
+        dto.setReason("Surgery");
+        return dto;
+    }
+}
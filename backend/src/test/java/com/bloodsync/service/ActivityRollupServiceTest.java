@@ -0,0 +1,187 @@
+package com.bloodsync.service;
+
+import com.bloodsync.dto.ActivityBucketDto;
+import com.bloodsync.dto.BloodRequestDto;
+import com.bloodsync.entity.ActivityRollup;
+import com.bloodsync.entity.Hospital;
+import com.bloodsync.entity.Patient;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.repository.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ActivityRollupServiceTest {
+
+    private static final LocalDateTime MORNING = LocalDate.now().minusDays(3).atTime(9, 15);
+
+    @Autowired
+    private ActivityRollupService activityRollupService;
+
+    @Autowired
+    private BloodRequestService bloodRequestService;
+
+    @Autowired
+    private HospitalService hospitalService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ActivityRollupRepository activityRollupRepository;
+
+    @Autowired
+    private BloodRequestRepository bloodRequestRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private HospitalRepository hospitalRepository;
+
+    @Autowired
+    private DailyDemandRepository dailyDemandRepository;
+
+    @AfterEach
+    void tearDown() {
+        bloodRequestRepository.deleteAll();
+        patientRepository.deleteAll();
+        hospitalRepository.deleteAll();
+        dailyDemandRepository.deleteAll();
+        activityRollupRepository.deleteAll();
+    }
+
+    @Test
+    void writesMaintainHourlyDailyAndMonthlyBuckets() {
+        Hospital hospital = hospitalService.createHospital(hospital());
+        Patient patient = patientRepository.save(patient(hospital));
+
+        bloodRequestService.createBloodRequest(request(patient, 400, MORNING));
+        bloodRequestService.createBloodRequest(request(patient, 300, MORNING.plusMinutes(30)));
+        BloodRequestDto later = bloodRequestService.createBloodRequest(request(patient, 500, MORNING.plusHours(2)));
+
+        List<ActivityBucketDto> hours = buckets(hospital, ActivityRollup.Granularity.HOUR);
+        assertEquals(2, hours.size());
+        assertEquals(MORNING.withMinute(0), hours.get(0).getBucketStart());
+        assertEquals(2, hours.get(0).getCount());
+        assertEquals(700, hours.get(0).getQuantity());
+
+        // A status change moves the request to another bucket at every granularity
+        later.setStatus("APPROVED");
+        bloodRequestService.updateBloodRequest(later.getId(), later);
+        List<ActivityBucketDto> days = buckets(hospital, ActivityRollup.Granularity.DAY);
+        assertEquals(2, days.size());
+        assertEquals("APPROVED", days.get(0).getStatus());
+        assertEquals(500, days.get(0).getQuantity());
+        assertEquals("PENDING", days.get(1).getStatus());
+        assertEquals(700, days.get(1).getQuantity());
+
+        bloodRequestService.deleteBloodRequest(later.getId());
+        List<ActivityBucketDto> months = buckets(hospital, ActivityRollup.Granularity.MONTH);
+        assertEquals(1, months.size());
+        assertEquals(2, months.get(0).getCount());
+    }
+
+    @Test
+    void parallelBackfillMatchesIncrementalRollups() {
+        Hospital hospital = hospitalService.createHospital(hospital());
+        Patient patient = patientRepository.save(patient(hospital));
+        for (int i = 0; i < 12; i++) {
+            bloodRequestService.createBloodRequest(request(patient, 100 + 50 * i, MORNING.minusHours(7L * i)));
+        }
+        List<ActivityBucketDto> hours = buckets(hospital, ActivityRollup.Granularity.HOUR);
+        List<ActivityBucketDto> months = buckets(hospital, ActivityRollup.Granularity.MONTH);
+
+        // Small chunks so the rows span several parallel queries
+        ReflectionTestUtils.setField(activityRollupService, "backfillChunkSize", 5);
+        try {
+            activityRollupService.rebuild();
+        } finally {
+            ReflectionTestUtils.setField(activityRollupService, "backfillChunkSize", 20000);
+        }
+
+        assertEquals(hours, buckets(hospital, ActivityRollup.Granularity.HOUR));
+        assertEquals(months, buckets(hospital, ActivityRollup.Granularity.MONTH));
+    }
+
+    @Test
+    void rebuildWaitsForTransactionsThatRecordedActivity() throws Exception {
+        Hospital hospital = hospitalService.createHospital(hospital());
+        Patient patient = patientRepository.save(patient(hospital));
+
+        CompletableFuture<Integer> rebuild = transactionTemplate.execute(status -> {
+            bloodRequestService.createBloodRequest(request(patient, 400, MORNING));
+            CompletableFuture<Integer> pending = CompletableFuture.supplyAsync(activityRollupService::rebuild);
+            assertThrows(TimeoutException.class, () -> pending.get(300, TimeUnit.MILLISECONDS));
+            return pending;
+        });
+
+        // Ran once the request committed: counted by the rebuild, and not twice
+        assertTrue(rebuild.get(5, TimeUnit.SECONDS) > 0);
+        List<ActivityBucketDto> hours = buckets(hospital, ActivityRollup.Granularity.HOUR);
+        assertEquals(1, hours.size());
+        assertEquals(1, hours.get(0).getCount());
+        assertEquals(400, hours.get(0).getQuantity());
+    }
+
+    private List<ActivityBucketDto> buckets(Hospital hospital, ActivityRollup.Granularity granularity) {
+        return activityRollupService.getBuckets(ActivityRollup.Source.REQUEST, granularity,
+                MORNING.minusDays(5), MORNING.plusDays(1), hospital.getId(), null);
+    }
+
+    private static Hospital hospital() {
+        Hospital hospital = new Hospital();
+        hospital.setHospitalName("City Hospital");
+        hospital.setEmail("rollup@hospital.test");
+        hospital.setPhoneNumber("9000000000");
+        hospital.setAddress("1 Main Road");
+        hospital.setCity("Pune");
+        hospital.setState("Maharashtra");
+        hospital.setLicenseNumber("LIC-ROLLUP-1");
+        return hospital;
+    }
+
+    private static Patient patient(Hospital hospital) {
+        Patient patient = new Patient();
+        patient.setFirstName("Asha");
+        patient.setLastName("Rao");
+        patient.setEmail("asha@rollup.test");
+        patient.setPhoneNumber("9000000001");
+        patient.setDateOfBirth(LocalDate.of(1985, 1, 1));
+        patient.setBloodGroup(BloodGroup.B_POS);
+        patient.setAddress("2 Main Road");
+        patient.setCity("Pune");
+        patient.setState("Maharashtra");
+        patient.setHospital(hospital);
+        return patient;
+    }
+
+    private static BloodRequestDto request(Patient patient, int quantity, LocalDateTime requestDate) {
+        BloodRequestDto dto = new BloodRequestDto();
+        dto.setPatientId(patient.getId());
+        dto.setHospitalId(patient.getHospital().getId());
+        dto.setBloodGroup("B+");
+        dto.setRequiredQuantity(quantity);
+        dto.setRequestDate(requestDate);
+        dto.setRequiredDate(LocalDateTime.now().plusDays(2));
+        dto.setStatus("PENDING");
+        dto.setPriority("NORMAL");
+        dto.setReason("Surgery");
+        return dto;
+    }
+}
@@ -0,0 +1,157 @@
+package com.bloodsync.service;
+
+import com.bloodsync.dto.ActivityBucketDto;
+import com.bloodsync.dto.BloodRequestDto;
+import com.bloodsync.entity.ActivityRollup;
+import com.bloodsync.entity.Hospital;
+import com.bloodsync.entity.Patient;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.repository.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ArchiveServiceTest {
+
+    private static final LocalDateTime TWO_YEARS_AGO = LocalDateTime.now().minusYears(2);
+
+    @Autowired
+    private ArchiveService archiveService;
+
+    @Autowired
+    private ActivityRollupService activityRollupService;
+
+    @Autowired
+    private BloodRequestService bloodRequestService;
+
+    @Autowired
+    private HospitalService hospitalService;
+
+    @Autowired
+    private BloodRequestRepository bloodRequestRepository;
+
+    @Autowired
+    private ArchivedBloodRequestRepository archivedBloodRequestRepository;
+
+    @Autowired
+    private ActivityRollupRepository activityRollupRepository;
+
+    @Autowired
+    private DailyDemandRepository dailyDemandRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private HospitalRepository hospitalRepository;
+
+    @BeforeEach
+    void setUp() {
+        // Several small batches per run, without the pause
+        ReflectionTestUtils.setField(archiveService, "batchSize", 2);
+        ReflectionTestUtils.setField(archiveService, "batchPauseMillis", 0L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(archiveService, "batchSize", 500);
+        ReflectionTestUtils.setField(archiveService, "batchPauseMillis", 200L);
+        archivedBloodRequestRepository.deleteAll();
+        bloodRequestRepository.deleteAll();
+        patientRepository.deleteAll();
+        hospitalRepository.deleteAll();
+        dailyDemandRepository.deleteAll();
+        activityRollupRepository.deleteAll();
+    }
+
+    @Test
+    void movesOldClosedRequestsAndKeepsThemReadable() {
+        Hospital hospital = hospitalService.createHospital(hospital());
+        Patient patient = patientRepository.save(patient(hospital));
+        for (int i = 0; i < 5; i++) {
+            bloodRequestService.createBloodRequest(request(patient, "FULFILLED", TWO_YEARS_AGO.plusDays(i)));
+        }
+        // Still open, and recently closed: both stay hot
+        bloodRequestService.createBloodRequest(request(patient, "PENDING", TWO_YEARS_AGO));
+        BloodRequestDto recent = bloodRequestService.createBloodRequest(request(patient, "FULFILLED", LocalDateTime.now().minusDays(3)));
+        List<ActivityBucketDto> months = months(hospital);
+
+        ArchiveService.ArchiveRun run = archiveService.archive();
+
+        assertEquals(5, run.getRequests());
+        assertEquals(2, bloodRequestRepository.count());
+        assertEquals(5, archivedBloodRequestRepository.count());
+        assertEquals(2, bloodRequestService.getBloodRequestsByHospitalId(hospital.getId(), false).size());
+        assertEquals(7, bloodRequestService.getBloodRequestsByHospitalId(hospital.getId(), true).size());
+        assertEquals(6, bloodRequestService.getBloodRequestsByStatus("FULFILLED", true).size());
+
+        Long archivedId = archivedBloodRequestRepository.findAll().get(0).getId();
+        assertTrue(bloodRequestService.getBloodRequestById(archivedId, false).isEmpty());
+        assertEquals("FULFILLED", bloodRequestService.getBloodRequestById(archivedId, true).orElseThrow().getStatus());
+        assertTrue(bloodRequestService.getBloodRequestById(recent.getId(), false).isPresent());
+
+        // Archived rows still count towards the rollups, including after a rebuild
+        assertEquals(months, months(hospital));
+        activityRollupService.rebuild();
+        assertEquals(months, months(hospital));
+
+        assertEquals(0, archiveService.archive().getRequests());
+    }
+
+    private List<ActivityBucketDto> months(Hospital hospital) {
+        return activityRollupService.getBuckets(ActivityRollup.Source.REQUEST, ActivityRollup.Granularity.MONTH,
+                TWO_YEARS_AGO.minusMonths(1), LocalDateTime.now(), hospital.getId(), null);
+    }
+
+    private static Hospital hospital() {
+        Hospital hospital = new Hospital();
+        hospital.setHospitalName("City Hospital");
+        hospital.setEmail("archive@hospital.test");
+        hospital.setPhoneNumber("9000000000");
+        hospital.setAddress("1 Main Road");
+        hospital.setCity("Pune");
+        hospital.setState("Maharashtra");
+        hospital.setLicenseNumber("LIC-ARCHIVE-1");
+        return hospital;
+    }
+
+    private static Patient patient(Hospital hospital) {
+        Patient patient = new Patient();
+        patient.setFirstName("Asha");
+        patient.setLastName("Rao");
+        patient.setEmail("asha@archive.test");
+        patient.setPhoneNumber("9000000001");
+        patient.setDateOfBirth(LocalDate.of(1985, 1, 1));
+        patient.setBloodGroup(BloodGroup.O_POS);
+        patient.setAddress("2 Main Road");
+        patient.setCity("Pune");
+        patient.setState("Maharashtra");
+        patient.setHospital(hospital);
+        return patient;
+    }
+
+    private static BloodRequestDto request(Patient patient, String status, LocalDateTime requestDate) {
+        BloodRequestDto dto = new BloodRequestDto();
+        dto.setPatientId(patient.getId());
+        dto.setHospitalId(patient.getHospital().getId());
+        dto.setBloodGroup("O+");
+        dto.setRequiredQuantity(450);
+        dto.setRequestDate(requestDate);
+        dto.setRequiredDate(LocalDateTime.now().plusDays(2));
+        dto.setStatus(status);
+        dto.setPriority("NORMAL");
+        dto.setReason("Surgery");
+        return dto;
+    }
+}
@@ -0,0 +1,157 @@
+package com.bloodsync.service;
+
+import com.bloodsync.dto.AuthResponse;
+import com.bloodsync.dto.LoginRequest;
+import com.bloodsync.dto.RefreshTokenRequest;
+import com.bloodsync.dto.RegisterRequest;
+import com.bloodsync.entity.RefreshToken;
+import com.bloodsync.entity.User;
+import com.bloodsync.enums.UserRole;
+import com.bloodsync.repository.RefreshTokenRepository;
+import com.bloodsync.repository.RevokedTokenRepository;
+import com.bloodsync.repository.TokenEpochRepository;
+import com.bloodsync.repository.UserRepository;
+import com.bloodsync.security.JwtTokenUtil;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class AuthenticationServiceTest {
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private TokenEpochRepository tokenEpochRepository;
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAll();
+        revokedTokenRepository.deleteAll();
+        tokenEpochRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void rotatesTokensPerDeviceAndRevokesAFamilyOnReuse() {
+        AuthResponse phone = authenticationService.register(
+                new RegisterRequest("nurse", "nurse@hospital.test", "secret123", "Asha Rao", UserRole.HOSPITAL));
+        User registered = userRepository.findByUsername("nurse").orElseThrow();
+        AuthResponse laptop = authenticationService.login(new LoginRequest("nurse", "secret123"));
+        assertNotNull(laptop.getRefreshToken());
+        assertNotEquals(phone.getRefreshToken(), laptop.getRefreshToken());
+        // A routine login does not rewrite the user row
+        assertEquals(registered.getUpdatedAt(), userRepository.findByUsername("nurse").orElseThrow().getUpdatedAt());
+
+        AuthResponse rotated = refresh(phone.getRefreshToken());
+        assertNotNull(rotated.getAccessToken());
+        assertEquals("HOSPITAL", rotated.getRole());
+
+        // Replaying the exchanged token revokes the phone's family, but not the laptop's
+        assertEquals("Invalid refresh token", refresh(phone.getRefreshToken()).getMessage());
+        assertEquals("Invalid refresh token", refresh(rotated.getRefreshToken()).getMessage());
+        AuthResponse laptopRotated = refresh(laptop.getRefreshToken());
+        assertNotNull(laptopRotated.getAccessToken());
+
+        // A password change signs out every device
+        userService.changePassword(registered.getId(), "secret456");
+        assertEquals("Invalid refresh token", refresh(laptopRotated.getRefreshToken()).getMessage());
+        assertEquals("Invalid refresh token", refresh("not-a-token").getMessage());
+    }
+
+    @Test
+    void sweepDeletesExpiredTokens() {
+        authenticationService.register(new RegisterRequest("donor", "donor@hospital.test", "secret123", "Ravi Kumar", UserRole.DONOR));
+        AuthResponse live = authenticationService.login(new LoginRequest("donor", "secret123"));
+        // The token issued at registration runs out
+        RefreshToken expired = refreshTokenRepository.findAll().stream()
+                .min(Comparator.comparing(RefreshToken::getId))
+                .orElseThrow();
+        expired.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        refreshTokenRepository.save(expired);
+
+        assertEquals(1, refreshTokenService.sweep());
+        assertEquals(1, refreshTokenRepository.count());
+        assertEquals(0, refreshTokenService.sweep());
+        assertNotNull(refresh(live.getRefreshToken()).getAccessToken());
+    }
+
+    @Test
+    void revokesAccessTokensOneByOneAndPerUser() {
+        AuthResponse phone = authenticationService.register(
+                new RegisterRequest("clerk", "clerk@hospital.test", "secret123", "Meera Iyer", UserRole.USER));
+        AuthResponse laptop = authenticationService.login(new LoginRequest("clerk", "secret123"));
+        assertFalse(revoked(phone.getAccessToken()));
+        assertFalse(revoked(laptop.getAccessToken()));
+
+        // Signing out revokes that access token and its refresh tokens only
+        authenticationService.logout(phone.getAccessToken(), phone.getRefreshToken());
+        assertTrue(revoked(phone.getAccessToken()));
+        assertFalse(revoked(laptop.getAccessToken()));
+        assertEquals("Invalid refresh token", refresh(phone.getRefreshToken()).getMessage());
+
+        // A rebuilt mirror, as on another node, agrees
+        tokenRevocationService.reload();
+        assertTrue(revoked(phone.getAccessToken()));
+        assertFalse(revoked(laptop.getAccessToken()));
+
+        // Revoking the user covers every token issued so far
+        tokenRevocationService.revokeUser(userRepository.findByUsername("clerk").orElseThrow().getId());
+        assertTrue(revoked(laptop.getAccessToken()));
+        assertEquals("Invalid refresh token", refresh(laptop.getRefreshToken()).getMessage());
+    }
+
+    @Test
+    void acceptsATokenIssuedInTheSameSecondAsARevocation() {
+        authenticationService.register(
+                new RegisterRequest("clerk", "clerk@hospital.test", "secret123", "Meera Iyer", UserRole.USER));
+        User clerk = userRepository.findByUsername("clerk").orElseThrow();
+
+        // Signing back in straight after being signed out everywhere must work, with the mirror
+        // as updated on commit and as rebuilt from the table
+        tokenRevocationService.revokeUser(clerk.getId());
+        String token = jwtTokenUtil.generateToken(clerk.getId(), clerk.getUsername(), clerk.getRole());
+        assertFalse(revoked(token));
+
+        tokenRevocationService.reload();
+        assertFalse(revoked(token));
+    }
+
+    private boolean revoked(String accessToken) {
+        Claims claims = jwtTokenUtil.extractAllClaims(accessToken);
+        return tokenRevocationService.isRevoked(claims.getId(), JwtTokenUtil.userId(claims), JwtTokenUtil.issuedAtMillis(claims));
+    }
+
+    private AuthResponse refresh(String token) {
+        return authenticationService.refreshToken(new RefreshTokenRequest(token));
+    }
+}
@@ -0,0 +1,69 @@
+package com.bloodsync.service;
+
+import com.bloodsync.entity.Donor;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.repository.DonorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class BloodGroupMigrationServiceTest {
+
+    @Autowired
+    private BloodGroupMigrationService bloodGroupMigrationService;
+
+    @Autowired
+    private DonorRepository donorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        // Natively: the converter cannot load the unrecognized row
+        jdbcTemplate.update("delete from donors");
+    }
+
+    @Test
+    void refusesToMigrateWhileAnyValueIsUnrecognized() {
+        Donor legacy = donorRepository.save(donor("legacy", "9000011111"));
+        Donor unknown = donorRepository.save(donor("unknown", "9000022222"));
+        jdbcTemplate.update("update donors set blood_group = '0+' where id = ?", legacy.getId());
+        jdbcTemplate.update("update donors set blood_group = 'Q+' where id = ?", unknown.getId());
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class, bloodGroupMigrationService::normalize);
+        assertTrue(failure.getMessage().contains("donors 'Q+' (1 rows): id " + unknown.getId()), failure.getMessage());
+        // Nothing is rewritten until every row can be
+        assertEquals("0+", storedBloodGroup(legacy));
+
+        jdbcTemplate.update("update donors set blood_group = 'B-' where id = ?", unknown.getId());
+        bloodGroupMigrationService.normalize();
+        assertEquals("O+", storedBloodGroup(legacy));
+        assertEquals("B-", storedBloodGroup(unknown));
+    }
+
+    private String storedBloodGroup(Donor donor) {
+        return jdbcTemplate.queryForObject("select blood_group from donors where id = ?", String.class, donor.getId());
+    }
+
+    private static Donor donor(String name, String phoneNumber) {
+        Donor donor = new Donor();
+        donor.setFirstName(name);
+        donor.setLastName("Kulkarni");
+        donor.setEmail(name + "@migration.test");
+        donor.setPhoneNumber(phoneNumber);
+        donor.setDateOfBirth(LocalDate.of(1990, 5, 5));
+        donor.setBloodGroup(BloodGroup.A_POS);
+        donor.setAddress("1 Main Road");
+        donor.setCity("Pune");
+        donor.setState("Maharashtra");
+        return donor;
+    }
+}
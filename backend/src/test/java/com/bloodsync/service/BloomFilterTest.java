@@ -0,0 +1,53 @@
+package com.bloodsync.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void neverMissesAnAddedValueAndStaysNearItsFalsePositiveRate() throws Exception {
+        int entries = 20_000;
+        BloomFilter filter = new BloomFilter(entries, 0.01);
+        List<String> added = new ArrayList<>();
+        for (int i = 0; i < entries; i++) {
+            added.add(UUID.randomUUID().toString());
+        }
+
+        // Concurrent adds must not lose bits set by one another
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int thread = 0; thread < 4; thread++) {
+            int offset = thread;
+            executor.submit(() -> {
+                for (int i = offset; i < entries; i += 4) {
+                    filter.add(added.get(i));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        added.forEach(value -> assertTrue(filter.mightContain(value), value));
+
+        int falsePositives = 0;
+        for (int i = 0; i < entries; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < entries * 0.02, "False positives: " + falsePositives);
+    }
+
+    @Test
+    void rejectsInvalidSizing() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1.0));
+    }
+}
@@ -0,0 +1,159 @@
+package com.bloodsync.service;
+
+import com.bloodsync.dto.DashboardDto;
+import com.bloodsync.entity.BloodRequest;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.repository.BloodDonationRepository;
+import com.bloodsync.repository.BloodInventoryRepository;
+import com.bloodsync.repository.BloodRequestRepository;
+import com.bloodsync.repository.QuantitySummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class DashboardServiceTest {
+
+    private BloodInventoryRepository bloodInventoryRepository;
+    private BloodRequestRepository bloodRequestRepository;
+    private BloodDonationRepository bloodDonationRepository;
+    private PlatformTransactionManager transactionManager;
+    private ExecutorService executor;
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        bloodInventoryRepository = mock(BloodInventoryRepository.class);
+        bloodRequestRepository = mock(BloodRequestRepository.class);
+        bloodDonationRepository = mock(BloodDonationRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        executor = Executors.newFixedThreadPool(4);
+        dashboardService = new DashboardService(bloodInventoryRepository, bloodRequestRepository,
+                bloodDonationRepository, executor, transactionManager);
+        ReflectionTestUtils.setField(dashboardService, "queryTimeoutMillis", 300L);
+        ReflectionTestUtils.setField(dashboardService, "expiringWithinDays", 7);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void runsTheAggregatesConcurrentlyUnderAQueryTimeout() throws Exception {
+        // Each query waits for the other three, so the dashboard only completes if all run at once
+        CountDownLatch running = new CountDownLatch(4);
+        HospitalRow row = new HospitalRow();
+        when(bloodInventoryRepository.sumAvailableByHospitalAndBloodGroup(any(), any()))
+                .thenAnswer(invocation -> rendezvous(running, List.of(row)));
+        when(bloodRequestRepository.countByPriority(any()))
+                .thenAnswer(invocation -> rendezvous(running, List.of(priority(BloodRequest.PriorityLevel.EMERGENCY, 3L))));
+        when(bloodDonationRepository.summarizeSince(any(), any()))
+                .thenAnswer(invocation -> rendezvous(running, summary(5L, 2250L)));
+        when(bloodInventoryRepository.summarizeExpiring(any(), any(), any()))
+                .thenAnswer(invocation -> rendezvous(running, summary(2L, 900L)));
+
+        DashboardDto dashboard = dashboardService.getAdminDashboard().get(2, TimeUnit.SECONDS);
+
+        assertFalse(dashboard.isPartial());
+        assertTrue(dashboard.getMissingSections().isEmpty());
+        assertEquals(1, dashboard.getInventoryByHospital().size());
+        assertEquals(450L, dashboard.getInventoryByHospital().get(0).getAvailableByBloodGroup().get("O-"));
+        assertEquals(3L, dashboard.getOpenRequestsByPriority().get("EMERGENCY"));
+        assertEquals(0L, dashboard.getOpenRequestsByPriority().get("LOW"));
+        assertEquals(2250L, dashboard.getDonationsThisWeek().getQuantity());
+        assertEquals(2L, dashboard.getExpiringUnits().getCount());
+        // Every aggregate ran in its own read-only transaction whose timeout reaches the statement
+        verify(transactionManager, times(4)).getTransaction(argThat(definition ->
+                definition.isReadOnly() && definition.getTimeout() == 1));
+    }
+
+    @Test
+    void answersWithPartialResultsWhenAQueryIsSlowOrFails() throws Exception {
+        when(bloodInventoryRepository.sumAvailableByHospitalAndBloodGroup(any(), any())).thenReturn(List.of());
+        when(bloodRequestRepository.countByPriority(any())).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return List.of();
+        });
+        when(bloodDonationRepository.summarizeSince(any(), any())).thenThrow(new IllegalStateException("connection reset"));
+        when(bloodInventoryRepository.summarizeExpiring(any(), any(), any())).thenReturn(summary(0L, 0L));
+
+        DashboardDto dashboard = dashboardService.getAdminDashboard().get(2, TimeUnit.SECONDS);
+
+        assertTrue(dashboard.isPartial());
+        assertEquals(List.of("openRequestsByPriority", "donationsThisWeek"), dashboard.getMissingSections());
+        assertNull(dashboard.getOpenRequestsByPriority());
+        assertNull(dashboard.getDonationsThisWeek());
+        assertEquals(List.of(), dashboard.getInventoryByHospital());
+        assertEquals(0L, dashboard.getExpiringUnits().getCount());
+        assertTrue(dashboard.getElapsedMillis() < 2_000);
+    }
+
+    private static <T> T rendezvous(CountDownLatch running, T result) throws InterruptedException {
+        running.countDown();
+        assertTrue(running.await(1, TimeUnit.SECONDS), "aggregates ran one after another");
+        return result;
+    }
+
+    private static QuantitySummary summary(Long count, Long quantity) {
+        return new QuantitySummary() {
+            @Override
+            public Long getCount() {
+                return count;
+            }
+
+            @Override
+            public Long getQuantity() {
+                return quantity;
+            }
+        };
+    }
+
+    private static BloodRequestRepository.PriorityCount priority(BloodRequest.PriorityLevel level, Long count) {
+        return new BloodRequestRepository.PriorityCount() {
+            @Override
+            public BloodRequest.PriorityLevel getPriority() {
+                return level;
+            }
+
+            @Override
+            public Long getCount() {
+                return count;
+            }
+        };
+    }
+
+    private static class HospitalRow implements BloodInventoryRepository.HospitalBloodGroupQuantity {
+        @Override
+        public Long getHospitalId() {
+            return 1L;
+        }
+
+        @Override
+        public String getHospitalName() {
+            return "Sassoon General";
+        }
+
+        @Override
+        public BloodGroup getBloodGroup() {
+            return BloodGroup.O_NEG;
+        }
+
+        @Override
+        public Long getQuantity() {
+            return 450L;
+        }
+    }
+}
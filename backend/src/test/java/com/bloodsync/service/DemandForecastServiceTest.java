@@ -0,0 +1,190 @@
+package com.bloodsync.service;
+
+import com.bloodsync.dto.BloodInventoryDto;
+import com.bloodsync.dto.BloodRequestDto;
+import com.bloodsync.entity.BloodInventory;
+import com.bloodsync.entity.DailyDemand;
+import com.bloodsync.entity.DemandForecast;
+import com.bloodsync.entity.Hospital;
+import com.bloodsync.entity.Patient;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.repository.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class DemandForecastServiceTest {
+
+    @Autowired
+    private DemandForecastService demandForecastService;
+
+    @Autowired
+    private BloodInventoryService bloodInventoryService;
+
+    @Autowired
+    private BloodRequestService bloodRequestService;
+
+    @Autowired
+    private HospitalService hospitalService;
+
+    @Autowired
+    private DailyDemandRepository dailyDemandRepository;
+
+    @Autowired
+    private DemandForecastRepository demandForecastRepository;
+
+    @Autowired
+    private BloodInventoryRepository bloodInventoryRepository;
+
+    @Autowired
+    private BloodRequestRepository bloodRequestRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private HospitalRepository hospitalRepository;
+
+    @Autowired
+    private InventoryAvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private InventoryAvailabilityService inventoryAvailabilityService;
+
+    @AfterEach
+    void tearDown() {
+        bloodRequestRepository.deleteAll();
+        patientRepository.deleteAll();
+        availabilityRepository.deleteAll();
+        bloodInventoryRepository.deleteAll();
+        hospitalRepository.deleteAll();
+        dailyDemandRepository.deleteAll();
+        demandForecastRepository.deleteAll();
+        // Clear the in-memory mirrors as well
+        demandForecastService.recompute(true);
+        inventoryAvailabilityService.rebuild();
+    }
+
+    @Test
+    void forecastReorderPointDrivesLowStock() {
+        Hospital hospital = hospitalService.createHospital(hospital());
+        BloodInventoryDto stock = bloodInventoryService.createBloodInventory(inventory(hospital.getId(), 1500));
+        assertEquals(BloodInventory.InventoryStatus.AVAILABLE, stock.getStatus());
+
+        // A steady 1000 ml a day over the last month
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        for (int day = 0; day < 30; day++) {
+            dailyDemandRepository.save(new DailyDemand(null, hospital.getId(), BloodGroup.A_POS, yesterday.minusDays(day), 1000L, 0L));
+        }
+        assertEquals(1, demandForecastService.recompute(true));
+
+        // Two days of lead-time demand, no error to cover
+        assertEquals(2000, demandForecastService.getReorderPoint(hospital.getId(), BloodGroup.A_POS));
+        assertEquals(BloodInventory.InventoryStatus.LOW_STOCK,
+                bloodInventoryRepository.findById(stock.getId()).orElseThrow().getStatus());
+        assertEquals(1, bloodInventoryService.getLowStockBloodInventory(null).size());
+        assertTrue(bloodInventoryService.getLowStockBloodInventory(1000).isEmpty());
+
+        // Nothing new to fold in until another day completes
+        assertEquals(0, demandForecastService.recompute(false));
+    }
+
+    @Test
+    void requestWritesMaintainTheDailyRollup() {
+        Hospital hospital = hospitalService.createHospital(hospital());
+        Patient patient = patientRepository.save(patient(hospital));
+
+        BloodRequestDto request = bloodRequestService.createBloodRequest(request(patient, 600));
+        assertEquals(600, today(hospital).getRequestedQuantity());
+
+        request.setRequiredQuantity(900);
+        bloodRequestService.updateBloodRequest(request.getId(), request);
+        assertEquals(900, today(hospital).getRequestedQuantity());
+
+        // Cancelled requests are not demand
+        request.setStatus("CANCELLED");
+        bloodRequestService.updateBloodRequest(request.getId(), request);
+        assertEquals(0, today(hospital).getRequestedQuantity());
+    }
+
+    @Test
+    void smoothsDemandAndWidensReorderPointWithVolatility() {
+        DemandForecast steady = new DemandForecast();
+        DemandForecast erratic = new DemandForecast();
+        for (int day = 0; day < 60; day++) {
+            DemandForecastService.step(steady, 500, 100, 0.2);
+            DemandForecastService.step(erratic, day % 2 == 0 ? 0 : 1000, 100, 0.2);
+        }
+
+        assertEquals(500, steady.getDemandLevel(), 1e-9);
+        assertEquals(100, steady.getSupplyLevel(), 1e-9);
+        assertEquals(800, DemandForecastService.reorderPoint(steady, 2, 1.65));
+        assertTrue(DemandForecastService.reorderPoint(erratic, 2, 1.65) > 800 + 1000);
+    }
+
+    private DailyDemand today(Hospital hospital) {
+        return dailyDemandRepository.findByDayBetweenOrderByDay(LocalDate.now(), LocalDate.now()).stream()
+                .filter(row -> row.getHospitalId().equals(hospital.getId()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static Hospital hospital() {
+        Hospital hospital = new Hospital();
+        hospital.setHospitalName("City Hospital");
+        hospital.setEmail("forecast@hospital.test");
+        hospital.setPhoneNumber("9000000000");
+        hospital.setAddress("1 Main Road");
+        hospital.setCity("Pune");
+        hospital.setState("Maharashtra");
+        hospital.setLicenseNumber("LIC-FORECAST-1");
+        return hospital;
+    }
+
+    private static Patient patient(Hospital hospital) {
+        Patient patient = new Patient();
+        patient.setFirstName("Asha");
+        patient.setLastName("Rao");
+        patient.setEmail("asha@patient.test");
+        patient.setPhoneNumber("9000000001");
+        patient.setDateOfBirth(LocalDate.of(1985, 1, 1));
+        patient.setBloodGroup(BloodGroup.A_POS);
+        patient.setAddress("2 Main Road");
+        patient.setCity("Pune");
+        patient.setState("Maharashtra");
+        patient.setHospital(hospital);
+        return patient;
+    }
+
+    private static BloodRequestDto request(Patient patient, int quantity) {
+        BloodRequestDto dto = new BloodRequestDto();
+        dto.setPatientId(patient.getId());
+        dto.setHospitalId(patient.getHospital().getId());
+        dto.setBloodGroup("A+");
+        dto.setRequiredQuantity(quantity);
+        dto.setRequestDate(LocalDateTime.now());
+        dto.setRequiredDate(LocalDateTime.now().plusDays(2));
+        dto.setStatus("PENDING");
+        dto.setPriority("NORMAL");
+        dto.setReason("Surgery");
+        return dto;
+    }
+
+    private static BloodInventoryDto inventory(Long hospitalId, int quantity) {
+        BloodInventoryDto dto = new BloodInventoryDto();
+        dto.setHospitalId(hospitalId);
+        dto.setBloodGroup("A+");
+        dto.setAvailableQuantity(quantity);
+        dto.setTotalQuantity(quantity);
+        dto.setExpiryDate(LocalDateTime.now().plusDays(30));
+        return dto;
+    }
+}
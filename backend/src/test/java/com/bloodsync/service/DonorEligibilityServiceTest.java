@@ -0,0 +1,185 @@
+package com.bloodsync.service;
+
+import com.bloodsync.dto.BloodDonationDto;
+import com.bloodsync.entity.BloodDonation;
+import com.bloodsync.entity.Donor;
+import com.bloodsync.entity.Hospital;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.repository.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class DonorEligibilityServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private DonorEligibilityService donorEligibilityService;
+
+    @Autowired
+    private BloodDonationService bloodDonationService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BloodDonationRepository bloodDonationRepository;
+
+    @Autowired
+    private DonorRepository donorRepository;
+
+    @Autowired
+    private HospitalRepository hospitalRepository;
+
+    @Autowired
+    private DailyDemandRepository dailyDemandRepository;
+
+    @Autowired
+    private ActivityRollupRepository activityRollupRepository;
+
+    @AfterEach
+    void tearDown() {
+        bloodDonationRepository.deleteAll();
+        donorRepository.deleteAll();
+        hospitalRepository.deleteAll();
+        dailyDemandRepository.deleteAll();
+        activityRollupRepository.deleteAll();
+        donorEligibilityService.loadDeferredDonors();
+    }
+
+    @Test
+    void completedDonationsDeferTheDonor() {
+        Hospital hospital = hospitalRepository.save(hospital());
+        Donor walkIn = donorRepository.save(donor("walkin"));
+        Donor booked = donorRepository.save(donor("booked"));
+
+        bloodDonationService.createBloodDonation(donation(walkIn, hospital, BloodDonation.DonationStatus.COMPLETED,
+                TODAY.atTime(9, 0)));
+        Donor deferred = donorRepository.findById(walkIn.getId()).orElseThrow();
+        assertFalse(deferred.isEligible());
+        assertEquals(TODAY.plusDays(56), deferred.getDeferralEndDate());
+        assertTrue(bucketed(TODAY.plusDays(56)).contains(walkIn.getId()));
+
+        // A scheduled donation defers nobody until it is marked completed
+        BloodDonationDto scheduled = bloodDonationService.createBloodDonation(donation(booked, hospital,
+                BloodDonation.DonationStatus.SCHEDULED, TODAY.minusDays(1).atTime(10, 0)));
+        assertTrue(donorRepository.findById(booked.getId()).orElseThrow().isEligible());
+
+        BloodDonationDto completed = new BloodDonationDto();
+        completed.setStatus(BloodDonation.DonationStatus.COMPLETED);
+        bloodDonationService.updateBloodDonation(scheduled.getId(), completed);
+        Donor updated = donorRepository.findById(booked.getId()).orElseThrow();
+        assertFalse(updated.isEligible());
+        assertEquals(TODAY.minusDays(1), updated.getLastDonationDate());
+        assertEquals(TODAY.plusDays(55), updated.getDeferralEndDate());
+        assertTrue(bucketed(TODAY.plusDays(55)).contains(booked.getId()));
+    }
+
+    @Test
+    void backDatedDonationPastItsDeferralLeavesTheDonorEligible() {
+        Hospital hospital = hospitalRepository.save(hospital());
+        Donor donor = donorRepository.save(donor("backdated"));
+
+        bloodDonationService.createBloodDonation(donation(donor, hospital, BloodDonation.DonationStatus.COMPLETED,
+                TODAY.minusDays(90).atTime(9, 0)));
+
+        Donor saved = donorRepository.findById(donor.getId()).orElseThrow();
+        assertTrue(saved.isEligible());
+        assertNull(saved.getDeferralEndDate());
+        assertEquals(TODAY.minusDays(90), saved.getLastDonationDate());
+        assertTrue(bucketed(TODAY.minusDays(34)).isEmpty());
+    }
+
+    @Test
+    void releasesDueBucketsOnlyOnceTheReleaseCommits() {
+        Donor due = donorRepository.save(deferred(donor("due"), TODAY.minusDays(1)));
+        Donor later = donorRepository.save(deferred(donor("later"), TODAY.plusDays(3)));
+        // Bucketed as the startup load would, without releasing them
+        DonorEligibilityService target = AopTestUtils.getTargetObject(donorEligibilityService);
+        ReflectionTestUtils.invokeMethod(target, "bucket", due.getId(), TODAY.minusDays(1));
+        ReflectionTestUtils.invokeMethod(target, "bucket", later.getId(), TODAY.plusDays(3));
+
+        // Rolled back: the donor stays deferred and stays bucketed for the next run
+        transactionTemplate.executeWithoutResult(status -> {
+            donorEligibilityService.releaseDueDonors();
+            status.setRollbackOnly();
+        });
+        assertFalse(donorRepository.findById(due.getId()).orElseThrow().isEligible());
+        assertTrue(bucketed(TODAY.minusDays(1)).contains(due.getId()));
+
+        donorEligibilityService.releaseDueDonors();
+        Donor released = donorRepository.findById(due.getId()).orElseThrow();
+        assertTrue(released.isEligible());
+        assertNull(released.getDeferralEndDate());
+        assertTrue(bucketed(TODAY.minusDays(1)).isEmpty());
+
+        assertFalse(donorRepository.findById(later.getId()).orElseThrow().isEligible());
+        assertTrue(bucketed(TODAY.plusDays(3)).contains(later.getId()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<LocalDate, Set<Long>> buckets() {
+        return (Map<LocalDate, Set<Long>>) ReflectionTestUtils.getField(donorEligibilityService, "buckets");
+    }
+
+    private Set<Long> bucketed(LocalDate date) {
+        return buckets().getOrDefault(date, Set.of());
+    }
+
+    private static Donor deferred(Donor donor, LocalDate until) {
+        donor.setEligible(false);
+        donor.setDeferralEndDate(until);
+        return donor;
+    }
+
+    private static BloodDonationDto donation(Donor donor, Hospital hospital, BloodDonation.DonationStatus status,
+                                             LocalDateTime donationDate) {
+        BloodDonationDto dto = new BloodDonationDto();
+        dto.setDonorId(donor.getId());
+        dto.setHospitalId(hospital.getId());
+        dto.setBloodGroup("O+");
+        dto.setQuantity(450);
+        dto.setStatus(status);
+        dto.setDonationDate(donationDate);
+        return dto;
+    }
+
+    private static Donor donor(String name) {
+        Donor donor = new Donor();
+        donor.setFirstName(name);
+        donor.setLastName("Patil");
+        donor.setEmail(name + "@eligibility.test");
+        donor.setPhoneNumber(String.format("90000%05d", Math.abs(name.hashCode()) % 100000));
+        donor.setDateOfBirth(LocalDate.of(1990, 5, 5));
+        donor.setBloodGroup(BloodGroup.O_POS);
+        donor.setAddress("1 Main Road");
+        donor.setCity("Pune");
+        donor.setState("Maharashtra");
+        return donor;
+    }
+
+    private static Hospital hospital() {
+        Hospital hospital = new Hospital();
+        hospital.setHospitalName("Ruby Hall");
+        hospital.setEmail("ruby@eligibility.test");
+        hospital.setPhoneNumber("020-26163391");
+        hospital.setAddress("Sassoon Road");
+        hospital.setCity("Pune");
+        hospital.setState("Maharashtra");
+        hospital.setLicenseNumber("LIC-ELIG-1");
+        return hospital;
+    }
+}
@@ -0,0 +1,111 @@
+package com.bloodsync.service;
+
+import com.bloodsync.dto.DonorMatchDto;
+import com.bloodsync.entity.Donor;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.entity.Hospital;
+import com.bloodsync.geo.CityGeocoder;
+import com.bloodsync.repository.DonorRepository;
+import com.bloodsync.repository.HospitalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DonorMatchingServiceTest {
+
+    private DonorRepository donorRepository;
+    private DonorMatchingService donorMatchingService;
+
+    @BeforeEach
+    void setUp() {
+        donorRepository = mock(DonorRepository.class);
+        HospitalRepository hospitalRepository = mock(HospitalRepository.class);
+        donorMatchingService = new DonorMatchingService(donorRepository, hospitalRepository, new CityGeocoder());
+
+        Hospital hospital = new Hospital();
+        hospital.setId(1L);
+        hospital.setCity("Pune");
+        hospital.setState("Maharashtra");
+        when(hospitalRepository.findAll()).thenReturn(Collections.singletonList(hospital));
+    }
+
+    @Test
+    void ranksNearestCompatibleDonorsFirst() {
+        when(donorRepository.findByIsActiveTrueAndIsEligibleTrue()).thenReturn(Arrays.asList(
+                donor(1L, "A+", "Delhi", "Delhi", null),
+                donor(2L, "O-", "Mumbai", "Maharashtra", null),
+                donor(3L, "O-", "pune ", "MAHARASHTRA", LocalDate.of(2024, 1, 1)),
+                donor(4L, "A+", "Pune", "Maharashtra", LocalDate.of(2024, 6, 1)),
+                donor(5L, "B+", "Pune", "Maharashtra", null)
+        ));
+        donorMatchingService.rebuildIndex();
+
+        List<DonorMatchDto> matches = donorMatchingService.findMatches(1L, "A+", 10);
+
+        assertEquals(Arrays.asList(4L, 3L, 2L, 1L), ids(matches));
+        assertTrue(matches.get(0).isExactMatch());
+        assertTrue(matches.get(1).isSameCity());
+        assertFalse(matches.get(2).isSameCity());
+        assertTrue(matches.get(2).isSameState());
+        assertFalse(matches.get(3).isSameState());
+    }
+
+    @Test
+    void appliesWritesIncrementally() {
+        when(donorRepository.findByIsActiveTrueAndIsEligibleTrue()).thenReturn(Collections.emptyList());
+        donorMatchingService.rebuildIndex();
+
+        Donor donor = donor(7L, "O+", "Pune", "Maharashtra", null);
+        donorMatchingService.onDonorSaved(donor);
+        assertEquals(Collections.singletonList(7L), ids(donorMatchingService.findMatches(1L, "B+", 5)));
+
+        donor.setEligible(false);
+        donorMatchingService.onDonorSaved(donor);
+        assertTrue(donorMatchingService.findMatches(1L, "B+", 5).isEmpty());
+        assertEquals(0, donorMatchingService.getIndexedDonorCount());
+    }
+
+    @Test
+    void findsNearestCompatibleDonorsWithinRadius() {
+        when(donorRepository.findByIsActiveTrueAndIsEligibleTrue()).thenReturn(Arrays.asList(
+                donor(1L, "O-", "Mumbai", "Maharashtra", null),
+                donor(2L, "A+", "Pune", "Maharashtra", null),
+                donor(3L, "B+", "Pune", "Maharashtra", null),
+                donor(4L, "O+", "Nagpur", "Maharashtra", null),
+                donor(5L, "A-", "Atlantis", "Maharashtra", null)
+        ));
+        donorMatchingService.rebuildIndex();
+
+        List<DonorMatchDto> matches = donorMatchingService.findNearby(1L, "A+", 200, 10);
+
+        assertEquals(Arrays.asList(2L, 1L), ids(matches));
+        assertEquals(0.0, matches.get(0).getDistanceKm(), 0.001);
+        assertTrue(matches.get(1).getDistanceKm() > 100);
+        assertFalse(matches.get(1).isSameCity());
+    }
+
+    private static List<Long> ids(List<DonorMatchDto> matches) {
+        return matches.stream().map(DonorMatchDto::getDonorId).collect(Collectors.toList());
+    }
+
+    private static Donor donor(Long id, String bloodGroup, String city, String state, LocalDate lastDonationDate) {
+        Donor donor = new Donor();
+        donor.setId(id);
+        donor.setFirstName("Donor");
+        donor.setLastName(String.valueOf(id));
+        donor.setBloodGroup(BloodGroup.fromLabel(bloodGroup));
+        donor.setCity(city);
+        donor.setState(state);
+        donor.setLastDonationDate(lastDonationDate);
+        return donor;
+    }
+}
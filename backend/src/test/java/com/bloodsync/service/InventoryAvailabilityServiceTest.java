@@ -0,0 +1,143 @@
+package com.bloodsync.service;
+
+import com.bloodsync.dto.BloodInventoryDto;
+import com.bloodsync.dto.InventoryAvailabilityDto;
+import com.bloodsync.entity.Hospital;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.repository.BloodInventoryRepository;
+import com.bloodsync.repository.HospitalRepository;
+import com.bloodsync.repository.InventoryAvailabilityRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class InventoryAvailabilityServiceTest {
+
+    @Autowired
+    private BloodInventoryService bloodInventoryService;
+
+    @Autowired
+    private HospitalService hospitalService;
+
+    @Autowired
+    private InventoryAvailabilityService inventoryAvailabilityService;
+
+    @Autowired
+    private InventoryAvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private BloodInventoryRepository bloodInventoryRepository;
+
+    @Autowired
+    private HospitalRepository hospitalRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        availabilityRepository.deleteAll();
+        bloodInventoryRepository.deleteAll();
+        hospitalRepository.deleteAll();
+    }
+
+    @Test
+    void keepsTableAndMirrorInStepWithInventoryWrites() {
+        Hospital hospital = hospitalService.createHospital(hospital("Pune"));
+        bloodInventoryService.createBloodInventory(inventory(hospital.getId(), 400, 3));
+        bloodInventoryService.createBloodInventory(inventory(hospital.getId(), 1500, 30));
+
+        List<InventoryAvailabilityDto> rows = inventoryAvailabilityService.search(" PUNE", "A+", null, null, null);
+        assertEquals(1, rows.size());
+        assertEquals(1900, rows.get(0).getAvailableQuantity());
+        // Intake merges into the one live row, which keeps the earliest expiry
+        assertEquals(1900, rows.get(0).getExpiringQuantity());
+        assertEquals(1, bloodInventoryRepository.count());
+        assertEquals(1, availabilityRepository.count());
+
+        // Re-keyed when the hospital moves city
+        Hospital moved = hospital("Mumbai");
+        moved.setEmail(hospital.getEmail());
+        moved.setLicenseNumber(hospital.getLicenseNumber());
+        hospitalService.updateHospital(hospital.getId(), moved);
+        assertTrue(inventoryAvailabilityService.search("Pune", "A+", null, null, null).isEmpty());
+        assertEquals(1, inventoryAvailabilityService.search("Mumbai", null, null, 1000L, null).size());
+        // Upserted in place on (hospital, blood group)
+        assertEquals(1, availabilityRepository.count());
+        assertEquals("mumbai", availabilityRepository.findAll().get(0).getCityKey());
+
+        // Rebuild from the source tables reproduces the incrementally maintained row
+        inventoryAvailabilityService.rebuild();
+        InventoryAvailabilityDto rebuilt = inventoryAvailabilityService.search(null, null, hospital.getId(), null, null).get(0);
+        assertEquals("Mumbai", rebuilt.getCity());
+        assertEquals(1900, rebuilt.getNetAvailableQuantity());
+        assertEquals(1, availabilityRepository.count());
+    }
+
+    @Test
+    void intakeDuringARebuildIsNotOverwrittenByIt() throws Exception {
+        Hospital hospital = hospitalService.createHospital(hospital("Pune"));
+        bloodInventoryService.createBloodInventory(inventory(hospital.getId(), 400, 30));
+
+        CompletableFuture<?> intake = transactionTemplate.execute(status -> {
+            inventoryAvailabilityService.rebuild();
+            // Intake commits while the rebuild's snapshot (400 ml) is still uncommitted
+            CompletableFuture<?> pending = CompletableFuture.runAsync(() ->
+                    bloodInventoryService.createBloodInventory(inventory(hospital.getId(), 600, 30)));
+            assertThrows(TimeoutException.class, () -> pending.get(300, TimeUnit.MILLISECONDS));
+            return pending;
+        });
+        intake.get(5, TimeUnit.SECONDS);
+
+        assertEquals(1000, inventoryAvailabilityService.getAvailability(hospital.getId(), BloodGroup.A_POS)
+                .orElseThrow().getAvailableQuantity());
+        assertEquals(1000, availabilityRepository.findAll().get(0).getAvailableQuantity());
+
+        // And the other way round: a rebuild waits for a refresh still in flight
+        CompletableFuture<?> rebuild = transactionTemplate.execute(status -> {
+            bloodInventoryService.createBloodInventory(inventory(hospital.getId(), 500, 30));
+            CompletableFuture<?> pending = CompletableFuture.runAsync(inventoryAvailabilityService::rebuild);
+            assertThrows(TimeoutException.class, () -> pending.get(300, TimeUnit.MILLISECONDS));
+            return pending;
+        });
+        rebuild.get(5, TimeUnit.SECONDS);
+        assertEquals(1500, inventoryAvailabilityService.getAvailability(hospital.getId(), BloodGroup.A_POS)
+                .orElseThrow().getAvailableQuantity());
+        assertEquals(1, availabilityRepository.count());
+    }
+
+    private static Hospital hospital(String city) {
+        Hospital hospital = new Hospital();
+        hospital.setHospitalName("City Hospital");
+        hospital.setEmail("availability@hospital.test");
+        hospital.setPhoneNumber("9000000000");
+        hospital.setAddress("1 Main Road");
+        hospital.setCity(city);
+        hospital.setState("Maharashtra");
+        hospital.setLicenseNumber("LIC-AVAIL-1");
+        return hospital;
+    }
+
+    private static BloodInventoryDto inventory(Long hospitalId, int quantity, int expiresInDays) {
+        BloodInventoryDto dto = new BloodInventoryDto();
+        dto.setHospitalId(hospitalId);
+        dto.setBloodGroup("A+");
+        dto.setAvailableQuantity(quantity);
+        dto.setTotalQuantity(quantity);
+        dto.setExpiryDate(LocalDateTime.now().plusDays(expiresInDays));
+        return dto;
+    }
+}
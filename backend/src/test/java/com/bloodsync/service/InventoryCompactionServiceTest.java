@@ -0,0 +1,121 @@
+package com.bloodsync.service;
+
+import com.bloodsync.dto.BloodInventoryDto;
+import com.bloodsync.entity.BloodInventory;
+import com.bloodsync.entity.Hospital;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.repository.BloodInventoryRepository;
+import com.bloodsync.repository.HospitalRepository;
+import com.bloodsync.repository.InventoryAvailabilityRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class InventoryCompactionServiceTest {
+
+    private static final LocalDateTime TODAY = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
+
+    @Autowired
+    private InventoryCompactionService inventoryCompactionService;
+
+    @Autowired
+    private BloodInventoryService bloodInventoryService;
+
+    @Autowired
+    private HospitalService hospitalService;
+
+    @Autowired
+    private InventoryAvailabilityService inventoryAvailabilityService;
+
+    @Autowired
+    private BloodInventoryRepository bloodInventoryRepository;
+
+    @Autowired
+    private InventoryAvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private HospitalRepository hospitalRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        availabilityRepository.deleteAll();
+        bloodInventoryRepository.deleteAll();
+        hospitalRepository.deleteAll();
+    }
+
+    @Test
+    void mergesDuplicateStockIntoOneLiveRowPerGroup() {
+        Hospital hospital = hospitalService.createHospital(hospital());
+        Long live = bloodInventoryService.createBloodInventory(inventory(hospital.getId(), "A+", 500, 10)).getId();
+
+        // Rows written before intake was an upsert: in stock, but not keyed as live
+        bloodInventoryRepository.save(legacy(hospital, BloodGroup.A_POS, 300, 3));
+        bloodInventoryRepository.save(legacy(hospital, BloodGroup.A_POS, 200, 20));
+        bloodInventoryRepository.save(legacy(hospital, BloodGroup.B_POS, 100, 5));
+        jdbcTemplate.update("update blood_inventory set inventory_status = 'LOW_STOCK' where live_stock is null");
+
+        InventoryCompactionService.CompactionRun run = inventoryCompactionService.compact();
+        assertEquals(2, run.getGroups());
+        assertEquals(2, run.getMerged());
+        assertEquals(2, bloodInventoryRepository.count());
+
+        BloodInventory merged = bloodInventoryRepository.findLiveStock(hospital.getId(), BloodGroup.A_POS).orElseThrow();
+        assertEquals(live, merged.getId());
+        assertEquals(1000, merged.getAvailableQuantity());
+        assertEquals(TODAY.plusDays(3), merged.getExpiryDate());
+        assertEquals(1000, inventoryAvailabilityService.getAvailability(hospital.getId(), BloodGroup.A_POS)
+                .orElseThrow().getAvailableQuantity());
+        assertEquals(0, inventoryCompactionService.compact().getGroups());
+
+        // Intake now lands on the keyed row, and the status follows the new quantity
+        BloodInventoryDto topUp = bloodInventoryService.createBloodInventory(inventory(hospital.getId(), "B+", 2000, 1));
+        assertEquals(2100, topUp.getAvailableQuantity());
+        assertEquals(BloodInventory.InventoryStatus.AVAILABLE, topUp.getStatus());
+        assertEquals(TODAY.plusDays(1), topUp.getExpiryDate());
+        assertEquals(2, bloodInventoryRepository.count());
+    }
+
+    private static Hospital hospital() {
+        Hospital hospital = new Hospital();
+        hospital.setHospitalName("City Hospital");
+        hospital.setEmail("compaction@hospital.test");
+        hospital.setPhoneNumber("9000000000");
+        hospital.setAddress("1 Main Road");
+        hospital.setCity("Nashik");
+        hospital.setState("Maharashtra");
+        hospital.setLicenseNumber("LIC-COMPACT-1");
+        return hospital;
+    }
+
+    private static BloodInventory legacy(Hospital hospital, BloodGroup bloodGroup, int quantity, int expiresInDays) {
+        BloodInventory row = new BloodInventory();
+        row.setHospital(hospital);
+        row.setBloodGroup(bloodGroup);
+        row.setAvailableQuantity(quantity);
+        row.setTotalQuantity(quantity);
+        row.setExpiryDate(TODAY.plusDays(expiresInDays));
+        row.setStatus(BloodInventory.InventoryStatus.QUARANTINED);
+        return row;
+    }
+
+    private static BloodInventoryDto inventory(Long hospitalId, String bloodGroup, int quantity, int expiresInDays) {
+        BloodInventoryDto dto = new BloodInventoryDto();
+        dto.setHospitalId(hospitalId);
+        dto.setBloodGroup(bloodGroup);
+        dto.setAvailableQuantity(quantity);
+        dto.setTotalQuantity(quantity);
+        dto.setExpiryDate(TODAY.plusDays(expiresInDays));
+        return dto;
+    }
+}
@@ -0,0 +1,304 @@
+package com.bloodsync.service;
+
+import com.bloodsync.dto.ActivityBucketDto;
+import com.bloodsync.dto.BloodDonationDto;
+import com.bloodsync.dto.BloodRequestDto;
+import com.bloodsync.dto.BulkStatusRequest;
+import com.bloodsync.dto.BulkStatusResultDto;
+import com.bloodsync.entity.ActivityRollup;
+import com.bloodsync.entity.BloodDonation;
+import com.bloodsync.entity.BloodInventory;
+import com.bloodsync.entity.DailyDemand;
+import com.bloodsync.entity.Donor;
+import com.bloodsync.entity.Hospital;
+import com.bloodsync.entity.Patient;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.repository.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class StatusTransitionServiceTest {
+
+    private static final LocalDateTime LAST_WEEK = LocalDateTime.now().minusDays(7);
+
+    @Autowired
+    private StatusTransitionService statusTransitionService;
+
+    @Autowired
+    private BloodRequestService bloodRequestService;
+
+    @Autowired
+    private HospitalService hospitalService;
+
+    @Autowired
+    private ActivityRollupService activityRollupService;
+
+    @Autowired
+    private InventoryAvailabilityService inventoryAvailabilityService;
+
+    @Autowired
+    private BloodDonationService bloodDonationService;
+
+    @Autowired
+    private DonorEligibilityService donorEligibilityService;
+
+    @Autowired
+    private BloodRequestRepository bloodRequestRepository;
+
+    @Autowired
+    private BloodDonationRepository bloodDonationRepository;
+
+    @Autowired
+    private BloodInventoryRepository bloodInventoryRepository;
+
+    @Autowired
+    private DonorRepository donorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private HospitalRepository hospitalRepository;
+
+    @Autowired
+    private DailyDemandRepository dailyDemandRepository;
+
+    @Autowired
+    private ActivityRollupRepository activityRollupRepository;
+
+    @Autowired
+    private InventoryAvailabilityRepository availabilityRepository;
+
+    @BeforeEach
+    void setUp() {
+        // Several chunks per call
+        ReflectionTestUtils.setField(statusTransitionService, "chunkSize", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(statusTransitionService, "chunkSize", 500);
+        bloodRequestRepository.deleteAll();
+        bloodDonationRepository.deleteAll();
+        bloodInventoryRepository.deleteAll();
+        availabilityRepository.deleteAll();
+        patientRepository.deleteAll();
+        donorRepository.deleteAll();
+        hospitalRepository.deleteAll();
+        dailyDemandRepository.deleteAll();
+        activityRollupRepository.deleteAll();
+        donorEligibilityService.loadDeferredDonors();
+    }
+
+    @Test
+    void movesRequestsInChunksAndKeepsRollupsInStep() {
+        Hospital hospital = hospitalService.createHospital(hospital());
+        Patient patient = patientRepository.save(patient(hospital));
+        List<Long> pending = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            pending.add(bloodRequestService.createBloodRequest(request(patient, "PENDING", LAST_WEEK.plusHours(i))).getId());
+        }
+        Long fulfilled = bloodRequestService.createBloodRequest(request(patient, "FULFILLED", LAST_WEEK)).getId();
+
+        // Approve everything pending at the hospital, selected by filter
+        BulkStatusResultDto approved = statusTransitionService.transitionBloodRequests(new BulkStatusRequest("approved", null,
+                Map.of("hospitalId", hospital.getId().toString(), "status", "PENDING")));
+        assertEquals(5, approved.getUpdated());
+        assertTrue(approved.isComplete());
+        assertEquals(5 * 450, inventoryAvailabilityService.getAvailability(hospital.getId(), BloodGroup.O_POS)
+                .orElseThrow().getReservedQuantity());
+
+        // Cancel two of them by ID, along with a closed request and one that does not exist
+        List<Long> ids = List.of(pending.get(3), fulfilled, pending.get(0), pending.get(0), -1L);
+        BulkStatusResultDto cancelled = statusTransitionService.transitionBloodRequests(new BulkStatusRequest("CANCELLED", ids, null));
+        assertEquals(2, cancelled.getUpdated());
+        assertEquals(1, cancelled.getRejected());
+        assertEquals(1, cancelled.getNotFound());
+        assertEquals(List.of(-1L, pending.get(0), pending.get(3), fulfilled),
+                cancelled.getOutcomes().stream().map(BulkStatusResultDto.Outcome::getId).toList());
+        BulkStatusResultDto.Outcome rejected = cancelled.getOutcomes().get(3);
+        assertEquals(BulkStatusResultDto.Result.INVALID_TRANSITION, rejected.getResult());
+        assertEquals("FULFILLED", rejected.getStatus());
+
+        assertEquals("CANCELLED", bloodRequestService.getBloodRequestById(pending.get(0), false).orElseThrow().getStatus());
+        assertEquals("APPROVED", bloodRequestService.getBloodRequestById(pending.get(1), false).orElseThrow().getStatus());
+        assertEquals(3 * 450, inventoryAvailabilityService.getAvailability(hospital.getId(), BloodGroup.O_POS)
+                .orElseThrow().getReservedQuantity());
+
+        // Cancelled requests leave demand; the rollups match a recount from scratch
+        assertEquals(4 * 450, dailyDemandRepository.findAll().stream().mapToLong(DailyDemand::getRequestedQuantity).sum());
+        List<ActivityBucketDto> hours = hours(hospital);
+        activityRollupService.rebuild();
+        assertEquals(hours, hours(hospital));
+
+        // A second run finds nothing left to move
+        BulkStatusResultDto again = statusTransitionService.transitionBloodRequests(new BulkStatusRequest("CANCELLED", ids, null));
+        assertEquals(0, again.getUpdated());
+        assertEquals(2, again.getUnchanged());
+    }
+
+    @Test
+    void releasesOneQuarantinedLotPerHospitalAndBloodGroup() {
+        Hospital hospital = hospitalService.createHospital(hospital());
+        Long first = bloodInventoryRepository.save(quarantined(hospital, 450)).getId();
+        Long second = bloodInventoryRepository.save(quarantined(hospital, 900)).getId();
+
+        BulkStatusResultDto released = statusTransitionService.transitionBloodInventory(
+                new BulkStatusRequest("AVAILABLE", List.of(first, second), null));
+
+        // The first lot becomes the live row; the second finds the key claimed and stays quarantined
+        assertEquals(1, released.getUpdated());
+        assertEquals(1, released.getRejected());
+        BloodInventory live = bloodInventoryRepository.findById(first).orElseThrow();
+        assertTrue(live.getStatus().isLive());
+        assertEquals(Boolean.TRUE, live.getLiveStock());
+        assertEquals(live.getStatus().name(), released.getOutcomes().get(0).getStatus());
+        assertEquals(BloodInventory.InventoryStatus.QUARANTINED, bloodInventoryRepository.findById(second).orElseThrow().getStatus());
+        assertEquals(450, inventoryAvailabilityService.getAvailability(hospital.getId(), BloodGroup.O_POS)
+                .orElseThrow().getAvailableQuantity());
+    }
+
+    @Test
+    void completingDonationsDefersTheirDonors() {
+        Hospital hospital = hospitalService.createHospital(hospital());
+        Donor regular = donorRepository.save(donor("regular", "9000033333"));
+        Donor lapsed = donorRepository.save(donor("lapsed", "9000044444"));
+        LocalDate today = LocalDate.now();
+        List<Long> ids = List.of(
+                scheduled(regular, hospital, today.minusDays(3)),
+                scheduled(regular, hospital, today.minusDays(1)),
+                scheduled(lapsed, hospital, today.minusDays(90)));
+
+        BulkStatusResultDto completed = statusTransitionService.transitionBloodDonations(
+                new BulkStatusRequest("COMPLETED", ids, null));
+        assertEquals(3, completed.getUpdated());
+
+        // Deferred from the latest of the donor's completed donations, and bucketed for release
+        Donor deferred = donorRepository.findById(regular.getId()).orElseThrow();
+        assertFalse(deferred.isEligible());
+        assertEquals(today.minusDays(1), deferred.getLastDonationDate());
+        assertEquals(today.plusDays(55), deferred.getDeferralEndDate());
+        assertTrue(eligibilityBuckets().getOrDefault(today.plusDays(55), Set.of()).contains(regular.getId()));
+
+        // A back-dated completion past its deferral only records the date
+        Donor backDated = donorRepository.findById(lapsed.getId()).orElseThrow();
+        assertTrue(backDated.isEligible());
+        assertEquals(today.minusDays(90), backDated.getLastDonationDate());
+        assertNull(backDated.getDeferralEndDate());
+    }
+
+    @Test
+    void rejectsAmbiguousOrUnknownRequests() {
+        assertThrows(IllegalArgumentException.class, () -> statusTransitionService.transitionBloodRequests(
+                new BulkStatusRequest("CANCELLED", null, null)));
+        assertThrows(IllegalArgumentException.class, () -> statusTransitionService.transitionBloodRequests(
+                new BulkStatusRequest("CANCELLED", List.of(1L), Map.of("status", "PENDING"))));
+        assertThrows(IllegalArgumentException.class, () -> statusTransitionService.transitionBloodRequests(
+                new BulkStatusRequest("LOST", List.of(1L), null)));
+        assertThrows(IllegalArgumentException.class, () -> statusTransitionService.transitionBloodRequests(
+                new BulkStatusRequest("CANCELLED", null, Map.of("status", "PENDING", "cursor", "x"))));
+        assertThrows(IllegalArgumentException.class, () -> statusTransitionService.transitionBloodInventory(
+                new BulkStatusRequest("LOW_STOCK", List.of(1L), null)));
+    }
+
+    private Long scheduled(Donor donor, Hospital hospital, LocalDate day) {
+        BloodDonationDto dto = new BloodDonationDto();
+        dto.setDonorId(donor.getId());
+        dto.setHospitalId(hospital.getId());
+        dto.setBloodGroup("O+");
+        dto.setQuantity(450);
+        dto.setStatus(BloodDonation.DonationStatus.SCHEDULED);
+        dto.setDonationDate(day.atTime(10, 0));
+        return bloodDonationService.createBloodDonation(dto).getId();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<LocalDate, Set<Long>> eligibilityBuckets() {
+        return (Map<LocalDate, Set<Long>>) ReflectionTestUtils.getField(donorEligibilityService, "buckets");
+    }
+
+    private static BloodInventory quarantined(Hospital hospital, int quantity) {
+        BloodInventory inventory = new BloodInventory();
+        inventory.setHospital(hospital);
+        inventory.setBloodGroup(BloodGroup.O_POS);
+        inventory.setAvailableQuantity(quantity);
+        inventory.setTotalQuantity(quantity);
+        inventory.setExpiryDate(LocalDateTime.now().plusDays(30));
+        inventory.setStatus(BloodInventory.InventoryStatus.QUARANTINED);
+        return inventory;
+    }
+
+    private static Donor donor(String name, String phoneNumber) {
+        Donor donor = new Donor();
+        donor.setFirstName(name);
+        donor.setLastName("Deshmukh");
+        donor.setEmail(name + "@bulk.test");
+        donor.setPhoneNumber(phoneNumber);
+        donor.setDateOfBirth(LocalDate.of(1990, 5, 5));
+        donor.setBloodGroup(BloodGroup.O_POS);
+        donor.setAddress("1 Main Road");
+        donor.setCity("Pune");
+        donor.setState("Maharashtra");
+        return donor;
+    }
+
+    private List<ActivityBucketDto> hours(Hospital hospital) {
+        return activityRollupService.getBuckets(ActivityRollup.Source.REQUEST, ActivityRollup.Granularity.HOUR,
+                LAST_WEEK.minusDays(1), LocalDateTime.now(), hospital.getId(), null);
+    }
+
+    private static Hospital hospital() {
+        Hospital hospital = new Hospital();
+        hospital.setHospitalName("City Hospital");
+        hospital.setEmail("bulk@hospital.test");
+        hospital.setPhoneNumber("9000000000");
+        hospital.setAddress("1 Main Road");
+        hospital.setCity("Pune");
+        hospital.setState("Maharashtra");
+        hospital.setLicenseNumber("LIC-BULK-1");
+        return hospital;
+    }
+
+    private static Patient patient(Hospital hospital) {
+        Patient patient = new Patient();
+        patient.setFirstName("Asha");
+        patient.setLastName("Rao");
+        patient.setEmail("asha@bulk.test");
+        patient.setPhoneNumber("9000000001");
+        patient.setDateOfBirth(LocalDate.of(1985, 1, 1));
+        patient.setBloodGroup(BloodGroup.O_POS);
+        patient.setAddress("2 Main Road");
+        patient.setCity("Pune");
+        patient.setState("Maharashtra");
+        patient.setHospital(hospital);
+        return patient;
+    }
+
+    private static BloodRequestDto request(Patient patient, String status, LocalDateTime requestDate) {
+        BloodRequestDto dto = new BloodRequestDto();
+        dto.setPatientId(patient.getId());
+        dto.setHospitalId(patient.getHospital().getId());
+        dto.setBloodGroup("O+");
+        dto.setRequiredQuantity(450);
+        dto.setRequestDate(requestDate);
+        dto.setRequiredDate(LocalDateTime.now().plusDays(2));
+        dto.setStatus(status);
+        dto.setPriority("NORMAL");
+        dto.setReason("Surgery");
+        return dto;
+    }
+}
@@ -0,0 +1,83 @@
+package com.bloodsync.service;
+
+import com.bloodsync.dto.TransferSuggestionDto;
+import com.bloodsync.enums.BloodGroup;
+import com.bloodsync.geo.CityGeocoder;
+import com.bloodsync.geo.GeoPoint;
+import com.bloodsync.repository.BloodInventoryRepository;
+import com.bloodsync.repository.BloodRequestRepository;
+import com.bloodsync.repository.HospitalRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class TransferPlanningServiceTest {
+
+    private static final GeoPoint PUNE = GeoPoint.of(18.52, 73.86);
+    private static final GeoPoint LONAVALA = GeoPoint.of(18.75, 73.41);
+    private static final GeoPoint MUMBAI = GeoPoint.of(19.08, 72.88);
+    private static final GeoPoint DELHI = GeoPoint.of(28.61, 77.21);
+
+    @Test
+    void movesExpiringSurplusBeforeCloserFreshSurplus() {
+        List<TransferPlanningService.Site> sites = List.of(
+                // 1000 ml short
+                new TransferPlanningService.Site(1L, "Pune General", PUNE, 500, 0, 500, 1000),
+                // 1500 ml surplus, nothing expiring, close by
+                new TransferPlanningService.Site(2L, "Lonavala Clinic", LONAVALA, 2500, 0, 0, 1000),
+                // 800 ml surplus, all of it expiring, further away
+                new TransferPlanningService.Site(3L, "Mumbai Central", MUMBAI, 1800, 1800, 0, 1000));
+
+        List<TransferSuggestionDto> transfers = TransferPlanningService.planGroup(BloodGroup.O_NEG, sites, 300, 10);
+
+        assertEquals(2, transfers.size());
+        TransferSuggestionDto fromMumbai = find(transfers, 3L);
+        assertEquals(800, fromMumbai.getQuantity());
+        assertEquals(800, fromMumbai.getSavedFromExpiry());
+        TransferSuggestionDto fromLonavala = find(transfers, 2L);
+        assertEquals(200, fromLonavala.getQuantity());
+        assertEquals(0, fromLonavala.getSavedFromExpiry());
+        assertTrue(transfers.stream().allMatch(transfer -> transfer.getToHospitalId() == 1L));
+    }
+
+    @Test
+    void keepsLocalDemandAndIgnoresSuppliersOutOfRange() {
+        List<TransferPlanningService.Site> sites = List.of(
+                new TransferPlanningService.Site(1L, "Pune General", PUNE, 0, 0, 0, 1000),
+                // Expiring units cover its own 1500 ml of open requests first, leaving 500 ml to move
+                new TransferPlanningService.Site(2L, "Mumbai Central", MUMBAI, 4000, 2000, 1500, 1000),
+                new TransferPlanningService.Site(3L, "Delhi City", DELHI, 9000, 9000, 0, 1000));
+
+        List<TransferSuggestionDto> transfers = TransferPlanningService.planGroup(BloodGroup.A_POS, sites, 300, 10);
+
+        assertEquals(1, transfers.size());
+        assertEquals(2L, transfers.get(0).getFromHospitalId());
+        assertEquals(1000, transfers.get(0).getQuantity());
+        assertEquals(500, transfers.get(0).getSavedFromExpiry());
+    }
+
+    @Test
+    void capsTheSearchRadiusAndRejectsNonFiniteDistances() {
+        TransferPlanningService service = new TransferPlanningService(mock(BloodInventoryRepository.class),
+                mock(BloodRequestRepository.class), mock(HospitalRepository.class), mock(CityGeocoder.class),
+                mock(DemandForecastService.class));
+
+        assertEquals(500.0, service.plan(3, 1e9).getMaxDistanceKm());
+        assertEquals(120.0, service.plan(3, 120.0).getMaxDistanceKm());
+        assertThrows(RuntimeException.class, () -> service.plan(3, Double.NaN));
+        assertThrows(RuntimeException.class, () -> service.plan(3, Double.POSITIVE_INFINITY));
+        assertThrows(RuntimeException.class, () -> service.plan(3, 0.0));
+    }
+
+    private static TransferSuggestionDto find(List<TransferSuggestionDto> transfers, Long fromHospitalId) {
+        return transfers.stream()
+                .filter(transfer -> transfer.getFromHospitalId().equals(fromHospitalId))
+                .findFirst()
+                .orElseThrow();
+    }
+}